@@ -1,5 +1,8 @@
 package com.barbearia;
 
+import com.barbearia.model.dao.ConexaoBD;
+import com.barbearia.model.service.BackupService;
+import com.barbearia.model.service.FilaStatusAgendamento;
 import com.barbearia.util.DatabaseInitializer;
 import com.barbearia.util.LogUtils; // Importante
 import javafx.application.Application;
@@ -25,6 +28,10 @@ public class Main extends Application {
             System.out.println("🔄 Inicializando banco de dados...");
             try {
                 DatabaseInitializer.init();
+                // Reaplica mudanças de status que ficaram no diário da última execução
+                FilaStatusAgendamento.getInstancia();
+                // Snapshots e incrementos em segundo plano
+                BackupService.iniciarAgendamento();
                 System.out.println("✅ Banco de dados inicializado com sucesso!");
             } catch (Exception e) {
                 LogUtils.gravarErro("Falha na inicialização do Banco (Main)", e);
@@ -65,6 +72,14 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        // Grava mudanças de status pendentes, envia o último incremento de backup e fecha as conexões do pool
+        FilaStatusAgendamento.getInstancia().encerrar();
+        BackupService.encerrarAgendamento();
+        ConexaoBD.fecharConexao();
+    }
+
     public static void main(String[] args) {
         try {
             launch(args);
@@ -1,11 +1,19 @@
 package com.barbearia.controller;
 
+import com.barbearia.model.dao.FiltroAgendamento;
+import com.barbearia.model.dao.ResumoDAO;
 import com.barbearia.model.entity.*;
 import com.barbearia.model.service.AgendamentoService;
 import com.barbearia.model.service.ClienteService;
+import com.barbearia.model.service.ClienteServiceAssincrono;
+import com.barbearia.model.service.FilaStatusAgendamento;
 import com.barbearia.model.service.ProfissionalService;
+import com.barbearia.model.service.ProfissionalServiceAssincrono;
 import com.barbearia.model.service.ServicoService;
+import com.barbearia.model.service.ServicoServiceAssincrono;
 import com.barbearia.util.DateUtils;
+import com.barbearia.util.Pagina;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -20,7 +28,9 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List; // Importação que estava faltando
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.IntConsumer;
 
 public class AgendamentoController implements Initializable {
 
@@ -45,13 +55,25 @@ public class AgendamentoController implements Initializable {
     @FXML private Label lblStatus;
     @FXML private Label lblValorTotal;
     @FXML private Label lblDuracaoTotal;
+    @FXML private Label lblPendentes;
+    @FXML private CheckBox chkGravacaoAdiada;
+    @FXML private Button btnGravarPendentes;
 
     private AgendamentoService agendamentoService;
     private ClienteService clienteService;
     private ProfissionalService profissionalService;
     private ServicoService servicoService;
+    private ClienteServiceAssincrono clienteAssincrono;
+    private ProfissionalServiceAssincrono profissionalAssincrono;
+    private ServicoServiceAssincrono servicoAssincrono;
+    private FilaStatusAgendamento filaStatus;
 
     private ObservableList<Agendamento> agendamentosObservable;
+    private CarregadorPaginado<Agendamento> paginador;
+    // Busca em andamento na tabela (null = listagem completa); lido pelas páginas em segundo plano
+    private volatile FiltroAgendamento filtroBusca;
+    private String termoBusca;
+    private TarefasTela tarefas;
     private ObservableList<Cliente> clientesObservable;
     private ObservableList<Profissional> profissionaisObservable;
     private ObservableList<Servico> servicosObservable;
@@ -65,6 +87,9 @@ public class AgendamentoController implements Initializable {
         clienteService = new ClienteService();
         profissionalService = new ProfissionalService();
         servicoService = new ServicoService();
+        clienteAssincrono = new ClienteServiceAssincrono(clienteService);
+        profissionalAssincrono = new ProfissionalServiceAssincrono(profissionalService);
+        servicoAssincrono = new ServicoServiceAssincrono(servicoService);
 
         agendamentosObservable = FXCollections.observableArrayList();
         clientesObservable = FXCollections.observableArrayList();
@@ -73,15 +98,34 @@ public class AgendamentoController implements Initializable {
         horariosObservable = FXCollections.observableArrayList();
 
         agendamentoSelecionado = null;
+        tarefas = new TarefasTela(tabelaAgendamentos);
+        tarefas.mostrarProgressoEm(lblStatus);
 
         configurarTabela();
         configurarCombos();
         configurarDatePicker();
         configurarListaServicos();
         configurarHorarios();
+        configurarFilaStatus();
 
         carregarDados();
-        atualizarStatus();
+    }
+
+    // Indicador de mudanças de status ainda não gravadas no banco
+    private void configurarFilaStatus() {
+        filaStatus = FilaStatusAgendamento.getInstancia();
+        chkGravacaoAdiada.setSelected(filaStatus.isAtiva());
+
+        IntConsumer ouvinte = total -> Platform.runLater(() -> mostrarPendentes(total));
+        filaStatus.adicionarOuvinte(ouvinte);
+        tarefas.aoEncerrar(() -> filaStatus.removerOuvinte(ouvinte));
+        mostrarPendentes(filaStatus.getPendentes());
+    }
+
+    private void mostrarPendentes(int total) {
+        lblPendentes.setText(total > 0 ? "⏳ " + total + " alteração(ões) não gravada(s)" : "");
+        lblPendentes.setVisible(total > 0);
+        btnGravarPendentes.setDisable(total == 0);
     }
 
     private void configurarTabela() {
@@ -165,6 +209,8 @@ public class AgendamentoController implements Initializable {
         });
 
         tabelaAgendamentos.setItems(agendamentosObservable);
+        paginador = new CarregadorPaginado<>(tabelaAgendamentos, agendamentosObservable, tarefas,
+                this::buscarPagina, this::atualizarStatus);
 
         tabelaAgendamentos.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> {
@@ -259,15 +305,6 @@ public class AgendamentoController implements Initializable {
     }
 
     private void configurarHorarios() {
-        LocalTime inicio = LocalTime.of(8, 0);
-        LocalTime fim = LocalTime.of(20, 0);
-
-        LocalTime horario = inicio;
-        while (!horario.isAfter(fim)) {
-            horariosObservable.add(horario);
-            horario = horario.plusMinutes(30);
-        }
-
         cbHora.setItems(horariosObservable);
         cbHora.setCellFactory(param -> new ListCell<LocalTime>() {
             @Override
@@ -281,43 +318,79 @@ public class AgendamentoController implements Initializable {
             }
         });
 
+        // A lista mostra só os inícios livres para o profissional, a data e a duração escolhidos
+        cbProfissional.valueProperty().addListener((obs, antigo, novo) -> atualizarHorariosLivres());
+        dtData.valueProperty().addListener((obs, antigo, novo) -> atualizarHorariosLivres());
+        listServicos.getSelectionModel().getSelectedItems().addListener(
+                (javafx.collections.ListChangeListener<Servico>) mudanca -> atualizarHorariosLivres());
+
+        atualizarHorariosLivres();
+    }
+
+    private void atualizarHorariosLivres() {
+        Profissional profissional = cbProfissional.getValue();
+        LocalDate data = dtData.getValue();
+        LocalTime selecionado = cbHora.getValue();
+
+        if (profissional == null || data == null) {
+            // Sem profissional ainda: todos os horários do expediente (sem acesso ao banco)
+            tarefas.cancelar("horarios");
+            mostrarHorarios(agendamentoService.listarHorariosExpediente(), data, selecionado);
+        } else {
+            int duracao = listServicos.getSelectionModel().getSelectedItems().stream()
+                    .mapToInt(Servico::getDuracaoMinutos)
+                    .sum();
+            Integer ignorar = agendamentoSelecionado != null ? agendamentoSelecionado.getId() : null;
+            // O dia pode precisar ser lido do banco; uma seleção mais nova descarta esta
+            tarefas.executar("horarios",
+                    () -> agendamentoService.listarHorariosLivres(profissional.getId(), data, duracao, ignorar),
+                    horarios -> mostrarHorarios(horarios, data, cbHora.getValue() != null ? cbHora.getValue() : selecionado),
+                    erro -> mostrarErro("Erro ao carregar horários", erro.getMessage()));
+        }
+    }
+
+    private void mostrarHorarios(List<LocalTime> horarios, LocalDate data, LocalTime selecionado) {
+        horariosObservable.setAll(horarios);
+
+        if (selecionado != null && horariosObservable.contains(selecionado)) {
+            cbHora.setValue(selecionado);
+            return;
+        }
+
         LocalTime agora = LocalTime.now();
-        // Correção de 'agro' para 'agora'
-        LocalTime proximoHorario = horariosObservable.stream()
-                .filter(h -> h.isAfter(agora) || h.equals(agora))
+        boolean hoje = data == null || data.equals(LocalDate.now());
+        cbHora.setValue(horariosObservable.stream()
+                .filter(h -> !hoje || !h.isBefore(agora))
                 .findFirst()
-                .orElse(horariosObservable.get(0));
-        cbHora.setValue(proximoHorario);
+                .orElse(horariosObservable.isEmpty() ? null : horariosObservable.get(0)));
     }
 
     @FXML
     private void handleSalvar() {
-        try {
-            if (!validarFormulario()) {
-                return;
-            }
+        if (!validarFormulario()) {
+            return;
+        }
 
-            if (agendamentoSelecionado != null) {
-                atualizarAgendamentoExistente();
-                mostrarSucesso("Agendamento atualizado com sucesso!");
-            } else {
-                criarNovoAgendamento();
-                mostrarSucesso("Agendamento realizado com sucesso!");
-            }
+        boolean novo = agendamentoSelecionado == null;
+        Agendamento agendamento = novo ? montarNovoAgendamento() : prepararAgendamentoExistente();
 
-            limparFormulario();
-            carregarAgendamentos();
-            atualizarStatus();
-
-        } catch (IllegalArgumentException e) {
-            mostrarErro("Erro de validação", e.getMessage());
-        } catch (Exception e) {
-            e.printStackTrace();
-            mostrarErro("Erro ao salvar agendamento", e.getMessage());
-        }
+        tarefas.executarAcao(null, () -> {
+                    if (novo) {
+                        agendamentoService.agendar(agendamento);
+                    } else {
+                        agendamentoService.atualizarAgendamento(agendamento);
+                    }
+                },
+                () -> {
+                    mostrarSucesso(novo ? "Agendamento realizado com sucesso!" : "Agendamento atualizado com sucesso!");
+                    limparFormulario();
+                    carregarAgendamentos();
+                },
+                erro -> tratarErro("Erro ao salvar agendamento", erro));
     }
 
-    private void atualizarAgendamentoExistente() {
+    // Copia o formulário para o agendamento selecionado (gravado depois, em segundo plano)
+    private Agendamento prepararAgendamentoExistente() {
         agendamentoSelecionado.setCliente(cbCliente.getValue());
         agendamentoSelecionado.setProfissional(cbProfissional.getValue());
         agendamentoSelecionado.setData(dtData.getValue());
@@ -329,10 +402,10 @@ public class AgendamentoController implements Initializable {
                 listServicos.getSelectionModel().getSelectedItems()
         );
 
-        agendamentoService.atualizarAgendamento(agendamentoSelecionado);
+        return agendamentoSelecionado;
     }
 
-    private void criarNovoAgendamento() {
+    private Agendamento montarNovoAgendamento() {
         Agendamento agendamento = new Agendamento(
                 dtData.getValue(),
                 cbHora.getValue(),
@@ -345,7 +418,7 @@ public class AgendamentoController implements Initializable {
                 listServicos.getSelectionModel().getSelectedItems()
         );
 
-        agendamentoService.agendar(agendamento);
+        return agendamento;
     }
 
     @FXML
@@ -368,12 +441,13 @@ public class AgendamentoController implements Initializable {
         dialog.setHeaderText("Cancelamento do agendamento #" + agendamentoSelecionado.getId());
         dialog.setContentText("Motivo do cancelamento:");
 
+        Agendamento agendamento = agendamentoSelecionado;
         dialog.showAndWait().ifPresent(motivo -> {
             if (!motivo.trim().isEmpty()) {
-                agendamentoService.cancelarAgendamento(agendamentoSelecionado.getId(), motivo);
-                mostrarSucesso("Agendamento cancelado com sucesso!");
-                carregarAgendamentos();
-                atualizarStatus();
+                int id = agendamento.getId();
+                executarAlteracao(agendamento, Agendamento.StatusAgendamento.CANCELADO,
+                        () -> agendamentoService.cancelarAgendamento(id, motivo),
+                        "Agendamento cancelado com sucesso!", "Erro ao cancelar agendamento");
             }
         });
     }
@@ -385,10 +459,10 @@ public class AgendamentoController implements Initializable {
             return;
         }
 
-        agendamentoService.confirmarAgendamento(agendamentoSelecionado.getId());
-        mostrarSucesso("Agendamento confirmado com sucesso!");
-        carregarAgendamentos();
-        atualizarStatus();
+        int id = agendamentoSelecionado.getId();
+        executarAlteracao(agendamentoSelecionado, Agendamento.StatusAgendamento.CONFIRMADO,
+                () -> agendamentoService.confirmarAgendamento(id),
+                "Agendamento confirmado com sucesso!", "Erro ao confirmar agendamento");
     }
 
     @FXML
@@ -403,12 +477,64 @@ public class AgendamentoController implements Initializable {
         dialog.setHeaderText("Finalização do agendamento #" + agendamentoSelecionado.getId());
         dialog.setContentText("Observações finais:");
 
-        dialog.showAndWait().ifPresent(observacoes -> {
-            agendamentoService.finalizarAgendamento(agendamentoSelecionado.getId(), observacoes);
-            mostrarSucesso("Agendamento finalizado com sucesso!");
-            carregarAgendamentos();
-            atualizarStatus();
-        });
+        Agendamento agendamento = agendamentoSelecionado;
+        int id = agendamento.getId();
+        dialog.showAndWait().ifPresent(observacoes ->
+                executarAlteracao(agendamento, Agendamento.StatusAgendamento.REALIZADO,
+                        () -> agendamentoService.finalizarAgendamento(id, observacoes),
+                        "Agendamento finalizado com sucesso!", "Erro ao finalizar agendamento"));
+    }
+
+    // Mudança de status em segundo plano. Gravada na hora: recarrega a listagem.
+    // Com gravação adiada: só a linha da tabela muda, sem diálogo nem recarga, para cliques em sequência.
+    private void executarAlteracao(Agendamento agendamento, Agendamento.StatusAgendamento novoStatus,
+                                   Runnable alteracao, String mensagemSucesso, String tituloErro) {
+        boolean adiada = filaStatus.isAtiva();
+        tarefas.executarAcao(null, alteracao,
+                () -> {
+                    if (adiada) {
+                        mostrarStatusPendente(agendamento, novoStatus);
+                        lblStatus.setText(mensagemSucesso);
+                    } else {
+                        mostrarSucesso(mensagemSucesso);
+                        carregarAgendamentos();
+                    }
+                },
+                erro -> tratarErro(tituloErro, erro));
+    }
+
+    private void mostrarStatusPendente(Agendamento agendamento, Agendamento.StatusAgendamento novoStatus) {
+        Agendamento.StatusAgendamento atual = agendamento.getStatus();
+        boolean inativo = atual == Agendamento.StatusAgendamento.CANCELADO
+                || atual == Agendamento.StatusAgendamento.AUSENTE;
+        // Confirmar e finalizar não valem para cancelados/ausentes (o mesmo que o banco fará)
+        if (novoStatus == Agendamento.StatusAgendamento.CANCELADO || !inativo) {
+            agendamento.setStatus(novoStatus);
+            tabelaAgendamentos.refresh();
+        }
+    }
+
+    @FXML
+    private void handleGravacaoAdiada() {
+        boolean ativa = chkGravacaoAdiada.isSelected();
+        tarefas.executarAcao(null, () -> filaStatus.setAtiva(ativa),
+                () -> {
+                    lblStatus.setText(ativa ? "Gravação adiada ligada" : "Gravação adiada desligada");
+                    if (!ativa) {
+                        carregarAgendamentos();
+                    }
+                },
+                erro -> tratarErro("Erro ao gravar alterações pendentes", erro));
+    }
+
+    @FXML
+    private void handleGravarPendentes() {
+        tarefas.executar(null, filaStatus::descarregar,
+                gravados -> {
+                    lblStatus.setText(gravados + " alteração(ões) gravada(s)");
+                    carregarAgendamentos();
+                },
+                erro -> tratarErro("Erro ao gravar alterações pendentes", erro));
     }
 
     @FXML
@@ -417,20 +543,39 @@ public class AgendamentoController implements Initializable {
 
         if (termo.isEmpty()) {
             carregarAgendamentos();
+        } else if (termo.matches("[\\d\\s()+.-]+") && termo.matches(".*\\d.*")) {
+            // Telefone: clientes pelo fim do número (índice de telefone_final), depois a busca paginada
+            paginador.pausar();
+            tarefas.acompanhar(CarregadorPaginado.CHAVE_LISTAGEM, clienteAssincrono.identificarChamada(termo),
+                    clientes -> {
+                        FiltroAgendamento filtro = new FiltroAgendamento();
+                        filtro.setClienteIds(clientes.stream().map(Cliente::getId).toList());
+                        buscarPaginado(filtro, termo);
+                    },
+                    erro -> tratarErro("Erro na busca", erro));
         } else {
-            List<Agendamento> resultados = agendamentoService.listarTodos().stream()
-                    .filter(a -> a.getCliente().getNome().toLowerCase().contains(termo.toLowerCase()))
-                    .toList();
-            agendamentosObservable.setAll(resultados);
-            atualizarStatusBusca(resultados.size(), termo);
+            // Trecho do nome; a busca é paginada como a listagem
+            FiltroAgendamento filtro = new FiltroAgendamento();
+            filtro.setNomeCliente(termo);
+            buscarPaginado(filtro, termo);
         }
     }
 
+    private void buscarPaginado(FiltroAgendamento filtro, String termo) {
+        filtroBusca = filtro;
+        termoBusca = termo;
+        paginador.recarregar();
+    }
+
     @FXML
     private void handleBuscarHoje() {
-        List<Agendamento> agendamentosHoje = agendamentoService.buscarAgendamentosHoje();
-        agendamentosObservable.setAll(agendamentosHoje);
-        lblStatus.setText("Agendamentos para hoje: " + agendamentosHoje.size());
+        paginador.pausar();
+        tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM, agendamentoService::buscarAgendamentosHoje,
+                agendamentosHoje -> {
+                    agendamentosObservable.setAll(agendamentosHoje);
+                    lblStatus.setText("Agendamentos para hoje: " + agendamentosHoje.size());
+                },
+                erro -> tratarErro("Erro na busca", erro));
     }
 
     @FXML
@@ -442,7 +587,6 @@ public class AgendamentoController implements Initializable {
     private void handleLimparBusca() {
         txtBusca.clear();
         carregarAgendamentos();
-        atualizarStatus();
     }
 
     @FXML
@@ -458,23 +602,40 @@ public class AgendamentoController implements Initializable {
 
     @FXML
     private void handleRelatorioFaturamento() {
+        // As consultas do relatório rodam fora da thread da interface
+        tarefas.executar("relatorio", this::montarRelatorioFaturamento,
+                this::mostrarRelatorioFaturamento,
+                erro -> mostrarErro("Erro no relatório", erro.getMessage()));
+    }
+
+    private String montarRelatorioFaturamento() {
+        LocalDate inicio = LocalDate.now().minusDays(30);
+        LocalDate fim = LocalDate.now();
+
+        // Período lido do resumo diário; pendentes e taxa de cancelamento são contagens gerais
+        Map<Agendamento.StatusAgendamento, ResumoDAO.Totais> periodo = agendamentoService.resumirPeriodo(inicio, fim);
+        ResumoDAO.Totais realizados = periodo.get(Agendamento.StatusAgendamento.REALIZADO);
+        double faturamento = realizados.getValor();
+        int pendentes = agendamentoService.contarAgendamentosPendentes();
+        double taxaCancelamento = agendamentoService.calcularTaxaCancelamento();
+
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append("📊 RELATÓRIO DE AGENDAMENTOS\n\n");
+        relatorio.append("Período: ").append(DateUtils.formatarData(inicio))
+                .append(" a ").append(DateUtils.formatarData(fim)).append("\n");
+        relatorio.append("Faturamento: R$ ").append(String.format("%.2f", faturamento)).append("\n");
+        relatorio.append("Serviços realizados: ").append(realizados.getQuantidade())
+                .append(" (").append(realizados.getMinutos()).append(" min)").append("\n");
+        relatorio.append("Serviços cancelados no período: ")
+                .append(periodo.get(Agendamento.StatusAgendamento.CANCELADO).getQuantidade()).append("\n");
+        relatorio.append("Agendamentos pendentes: ").append(pendentes).append("\n");
+        relatorio.append("Taxa de cancelamento: ").append(String.format("%.1f%%", taxaCancelamento)).append("\n");
+        return relatorio.toString();
+    }
+
+    private void mostrarRelatorioFaturamento(String relatorio) {
         try {
-            LocalDate inicio = LocalDate.now().minusDays(30);
-            LocalDate fim = LocalDate.now();
-
-            double faturamento = agendamentoService.calcularFaturamentoPeriodo(inicio, fim);
-            int pendentes = agendamentoService.contarAgendamentosPendentes();
-            double taxaCancelamento = agendamentoService.calcularTaxaCancelamento();
-
-            StringBuilder relatorio = new StringBuilder();
-            relatorio.append("📊 RELATÓRIO DE AGENDAMENTOS\n\n");
-            relatorio.append("Período: ").append(DateUtils.formatarData(inicio))
-                    .append(" a ").append(DateUtils.formatarData(fim)).append("\n");
-            relatorio.append("Faturamento: R$ ").append(String.format("%.2f", faturamento)).append("\n");
-            relatorio.append("Agendamentos pendentes: ").append(pendentes).append("\n");
-            relatorio.append("Taxa de cancelamento: ").append(String.format("%.1f%%", taxaCancelamento)).append("\n");
-
-            TextArea textArea = new TextArea(relatorio.toString());
+            TextArea textArea = new TextArea(relatorio);
             textArea.setEditable(false);
             textArea.setWrapText(true);
 
@@ -527,16 +688,28 @@ public class AgendamentoController implements Initializable {
         return true;
     }
 
+    // As quatro listas são independentes: cada uma é buscada em paralelo e preenchida ao chegar
     private void carregarDados() {
-        clientesObservable.setAll(clienteService.listarTodos());
-        profissionaisObservable.setAll(profissionalService.buscarAtivos());
-        servicosObservable.setAll(servicoService.listarTodos());
+        tarefas.acompanhar("clientes", clienteAssincrono.listarTodos(), clientesObservable::setAll,
+                erro -> tratarErro("Erro ao carregar clientes", erro));
+        tarefas.acompanhar("profissionais", profissionalAssincrono.buscarAtivos(), profissionaisObservable::setAll,
+                erro -> tratarErro("Erro ao carregar profissionais", erro));
+        tarefas.acompanhar("servicos", servicoAssincrono.listarTodos(), servicosObservable::setAll,
+                erro -> tratarErro("Erro ao carregar serviços", erro));
         carregarAgendamentos();
     }
 
     private void carregarAgendamentos() {
-        List<Agendamento> agendamentos = agendamentoService.listarTodos();
-        agendamentosObservable.setAll(agendamentos);
+        filtroBusca = null;
+        paginador.recarregar();
+    }
+
+    // Fonte das páginas da tabela: listagem completa ou resultado da busca
+    private Pagina<Agendamento> buscarPagina(Agendamento cursor, int tamanho) {
+        FiltroAgendamento filtro = filtroBusca;
+        return filtro == null
+                ? agendamentoService.listarPagina(cursor, tamanho)
+                : agendamentoService.buscar(filtro, cursor, tamanho);
     }
 
     private void preencherFormulario(Agendamento agendamento) {
@@ -561,7 +734,6 @@ public class AgendamentoController implements Initializable {
         cbCliente.setValue(null);
         cbProfissional.setValue(null);
         dtData.setValue(LocalDate.now());
-        configurarHorarios();
         listServicos.getSelectionModel().clearSelection();
         txtObservacoes.clear();
         agendamentoSelecionado = null;
@@ -584,18 +756,32 @@ public class AgendamentoController implements Initializable {
     }
 
     private void atualizarStatus() {
-        int total = agendamentosObservable.size();
-        int pendentes = agendamentoService.contarAgendamentosPendentes();
+        String total = paginador.formatarTotal(agendamentosObservable.size());
         if (lblTotalAgendamentos != null) {
-            lblTotalAgendamentos.setText(String.valueOf(total));
+            lblTotalAgendamentos.setText(total);
+        }
+        if (filtroBusca != null) {
+            atualizarStatusBusca(total, termoBusca);
+            return;
         }
-        lblStatus.setText("Total: " + total + " | Pendentes: " + pendentes);
+        tarefas.executar("status", agendamentoService::contarAgendamentosPendentes,
+                pendentes -> lblStatus.setText("Total: " + total + " | Pendentes: " + pendentes),
+                erro -> lblStatus.setText("Total: " + total));
     }
 
-    private void atualizarStatusBusca(int resultados, String termo) {
+    private void atualizarStatusBusca(String resultados, String termo) {
         lblStatus.setText("Encontrados " + resultados + " agendamento(s) para: \"" + termo + "\"");
     }
 
+    // Erros vindos das tarefas em segundo plano
+    private void tratarErro(String titulo, Throwable erro) {
+        if (erro instanceof IllegalArgumentException) {
+            mostrarErro("Erro de validação", erro.getMessage());
+        } else {
+            mostrarErro(titulo, erro.getMessage());
+        }
+    }
+
     private void mostrarSucesso(String mensagem) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Sucesso");
@@ -0,0 +1,133 @@
+package com.barbearia.controller;
+
+import com.barbearia.util.Pagina;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.function.BiFunction;
+
+/**
+ * Preenche uma TableView página por página: a próxima página só é buscada
+ * quando o usuário rola até perto do fim da tabela.
+ * As páginas são buscadas em segundo plano pela TarefasTela da tela, com a chave CHAVE_LISTAGEM.
+ */
+class CarregadorPaginado<T> {
+
+    static final int TAMANHO_PAGINA = 100;
+
+    // Buscas da tela usam a mesma chave: uma nova listagem ou busca descarta a anterior
+    static final String CHAVE_LISTAGEM = "listagem";
+
+    // Fração da barra de rolagem a partir da qual a próxima página é carregada
+    private static final double LIMIAR_ROLAGEM = 0.9;
+
+    private final TableView<T> tabela;
+    private final ObservableList<T> itens;
+    private final BiFunction<T, Integer, Pagina<T>> buscarPagina;
+    private final Runnable aoCarregar;
+    private final TarefasTela tarefas;
+    private final Node placeholderOriginal;
+
+    private T cursor;
+    private boolean temMais;
+    private boolean ativo;
+    private boolean carregando;
+    private ScrollBar barraVertical;
+
+    // 'aoCarregar' roda na thread da interface depois de cada página recebida
+    CarregadorPaginado(TableView<T> tabela, ObservableList<T> itens, TarefasTela tarefas,
+                       BiFunction<T, Integer, Pagina<T>> buscarPagina, Runnable aoCarregar) {
+        this.tabela = tabela;
+        this.itens = itens;
+        this.tarefas = tarefas;
+        this.buscarPagina = buscarPagina;
+        this.aoCarregar = aoCarregar;
+        this.placeholderOriginal = tabela.getPlaceholder();
+
+        // A barra de rolagem só existe depois que a skin da tabela é criada
+        tabela.skinProperty().addListener((obs, antiga, nova) -> conectarBarraRolagem());
+        conectarBarraRolagem();
+    }
+
+    // Volta para a primeira página (após salvar, excluir ou limpar a busca)
+    void recarregar() {
+        cursor = null;
+        temMais = true;
+        ativo = true;
+        carregando = false;
+        itens.clear();
+        carregarProxima();
+    }
+
+    // Resultados de busca ocupam a tabela: a rolagem não deve anexar páginas da listagem
+    void pausar() {
+        ativo = false;
+        carregando = false;
+        tabela.setPlaceholder(placeholderOriginal);
+    }
+
+    boolean isTemMais() {
+        return ativo && temMais;
+    }
+
+    // Total para a barra de status: "100+" quando ainda há páginas por carregar
+    String formatarTotal(int carregados) {
+        return carregados + (isTemMais() ? "+" : "");
+    }
+
+    void carregarProxima() {
+        if (!ativo || !temMais || carregando) {
+            return;
+        }
+
+        carregando = true;
+        if (itens.isEmpty()) {
+            tabela.setPlaceholder(new ProgressIndicator());
+        }
+
+        T cursorAtual = cursor;
+        tarefas.executar(CHAVE_LISTAGEM, () -> buscarPagina.apply(cursorAtual, TAMANHO_PAGINA),
+                pagina -> {
+                    carregando = false;
+                    tabela.setPlaceholder(placeholderOriginal);
+                    itens.addAll(pagina.getItens());
+                    if (!pagina.isVazia()) {
+                        cursor = pagina.getUltimo();
+                    }
+                    temMais = pagina.isTemMais();
+                    if (aoCarregar != null) {
+                        aoCarregar.run();
+                    }
+                },
+                erro -> {
+                    carregando = false;
+                    tabela.setPlaceholder(new Label("Não foi possível carregar os dados: " + erro.getMessage()));
+                    temMais = false;
+                    if (aoCarregar != null) {
+                        aoCarregar.run();
+                    }
+                });
+    }
+
+    private void conectarBarraRolagem() {
+        if (barraVertical != null) {
+            return;
+        }
+        for (Node node : tabela.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar barra && barra.getOrientation() == Orientation.VERTICAL) {
+                barraVertical = barra;
+                barra.valueProperty().addListener((obs, antigo, novo) -> {
+                    if (isTemMais() && novo.doubleValue() >= barra.getMax() * LIMIAR_ROLAGEM) {
+                        carregarProxima();
+                    }
+                });
+                return;
+            }
+        }
+    }
+}
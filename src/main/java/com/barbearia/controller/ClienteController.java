@@ -2,20 +2,26 @@ package com.barbearia.controller;
 
 import com.barbearia.model.entity.Cliente;
 import com.barbearia.model.service.ClienteService;
+import com.barbearia.model.service.ExportacaoService;
+import com.barbearia.model.service.ImportacaoClientesService;
 import com.barbearia.util.DateUtils;
 import com.barbearia.util.Validacao;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.GridPane;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage; // IMPORT ADICIONADO
 
+import java.io.File;
 import java.net.URL;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 public class ClienteController implements Initializable {
 
@@ -35,20 +41,30 @@ public class ClienteController implements Initializable {
     @FXML private Label lblTotalClientes;
     @FXML private Label lblStatus;
 
+    private static final String CHAVE_EXPORTACAO = "exportacao";
+    private static final String CHAVE_IMPORTACAO = "importacao";
+
     private ClienteService clienteService;
+    private ExportacaoService exportacaoService;
+    private ImportacaoClientesService importacaoService;
     private ObservableList<Cliente> clientesObservable;
+    private CarregadorPaginado<Cliente> paginador;
+    private TarefasTela tarefas;
     private Cliente clienteSelecionado;
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         clienteService = new ClienteService();
+        exportacaoService = new ExportacaoService();
+        importacaoService = new ImportacaoClientesService();
         clientesObservable = FXCollections.observableArrayList();
         clienteSelecionado = null;
+        tarefas = new TarefasTela(tabelaClientes);
+        tarefas.mostrarProgressoEm(lblStatus);
 
         configurarTabela();
         configurarDatePicker();
         carregarClientes();
-        atualizarStatus();
     }
 
     private void configurarTabela() {
@@ -64,6 +80,8 @@ public class ClienteController implements Initializable {
         });
 
         tabelaClientes.setItems(clientesObservable);
+        paginador = new CarregadorPaginado<>(tabelaClientes, clientesObservable, tarefas,
+                clienteService::listarPagina, this::atualizarStatus);
 
         tabelaClientes.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> {
@@ -82,44 +100,42 @@ public class ClienteController implements Initializable {
 
     @FXML
     private void handleSalvar() {
-        try {
-            if (!validarFormulario()) {
-                return;
-            }
-
-            Cliente cliente;
-            if (clienteSelecionado != null) {
-                // Atualizar
-                cliente = clienteSelecionado;
-                cliente.setNome(txtNome.getText().trim());
-                cliente.setTelefone(txtTelefone.getText().trim());
-                cliente.setEmail(txtEmail.getText().trim().isEmpty() ? null : txtEmail.getText().trim());
-
-                clienteService.atualizarCliente(cliente);
-                mostrarSucesso("Cliente atualizado com sucesso!");
-            } else {
-                // Novo
-                cliente = new Cliente(
-                        txtNome.getText().trim(),
-                        txtTelefone.getText().trim(),
-                        txtEmail.getText().trim().isEmpty() ? null : txtEmail.getText().trim()
-                );
-
-                cliente.setDataCadastro(dtDataCadastro.getValue());
-
-                clienteService.cadastrarCliente(cliente);
-                mostrarSucesso("Cliente cadastrado com sucesso!");
-            }
-
-            limparFormulario();
-            carregarClientes();
-            atualizarStatus();
+        if (!validarFormulario()) {
+            return;
+        }
 
-        } catch (IllegalArgumentException e) {
-            mostrarErro("Erro de validação", e.getMessage());
-        } catch (Exception e) {
-            mostrarErro("Erro ao salvar cliente", e.getMessage());
+        Cliente cliente;
+        boolean novo = clienteSelecionado == null;
+        if (!novo) {
+            // Atualizar
+            cliente = clienteSelecionado;
+            cliente.setNome(txtNome.getText().trim());
+            cliente.setTelefone(txtTelefone.getText().trim());
+            cliente.setEmail(txtEmail.getText().trim().isEmpty() ? null : txtEmail.getText().trim());
+        } else {
+            // Novo
+            cliente = new Cliente(
+                    txtNome.getText().trim(),
+                    txtTelefone.getText().trim(),
+                    txtEmail.getText().trim().isEmpty() ? null : txtEmail.getText().trim()
+            );
+
+            cliente.setDataCadastro(dtDataCadastro.getValue());
         }
+
+        tarefas.executarAcao(null, () -> {
+                    if (novo) {
+                        clienteService.cadastrarCliente(cliente);
+                    } else {
+                        clienteService.atualizarCliente(cliente);
+                    }
+                },
+                () -> {
+                    mostrarSucesso(novo ? "Cliente cadastrado com sucesso!" : "Cliente atualizado com sucesso!");
+                    limparFormulario();
+                    carregarClientes();
+                },
+                erro -> tratarErro("Erro ao salvar cliente", erro));
     }
 
     @FXML
@@ -144,15 +160,14 @@ public class ClienteController implements Initializable {
                 clienteSelecionado.getNome() + "?");
 
         if (confirmacao.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
-                clienteService.excluirCliente(clienteSelecionado.getId());
-                mostrarSucesso("Cliente excluído com sucesso!");
-                limparFormulario();
-                carregarClientes();
-                atualizarStatus();
-            } catch (Exception e) {
-                mostrarErro("Erro ao excluir cliente", e.getMessage());
-            }
+            int id = clienteSelecionado.getId();
+            tarefas.executarAcao(null, () -> clienteService.excluirCliente(id),
+                    () -> {
+                        mostrarSucesso("Cliente excluído com sucesso!");
+                        limparFormulario();
+                        carregarClientes();
+                    },
+                    erro -> tratarErro("Erro ao excluir cliente", erro));
         }
     }
 
@@ -163,9 +178,13 @@ public class ClienteController implements Initializable {
         if (termo.isEmpty()) {
             carregarClientes();
         } else {
-            List<Cliente> resultados = clienteService.buscarPorNome(termo);
-            clientesObservable.setAll(resultados);
-            atualizarStatusBusca(resultados.size(), termo);
+            paginador.pausar();
+            tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM, () -> clienteService.buscarPorNome(termo),
+                    resultados -> {
+                        clientesObservable.setAll(resultados);
+                        atualizarStatusBusca(resultados.size(), termo);
+                    },
+                    erro -> tratarErro("Erro ao buscar clientes", erro));
         }
     }
 
@@ -173,12 +192,116 @@ public class ClienteController implements Initializable {
     private void handleLimparBusca() {
         txtBusca.clear();
         carregarClientes();
-        atualizarStatus();
     }
 
     @FXML
     private void handleExportar() {
-        mostrarInformacao("Exportar", "Funcionalidade de exportação em desenvolvimento.");
+        if (tarefas.isEmAndamento(CHAVE_EXPORTACAO)) {
+            mostrarAviso("Exportar", "Já existe uma exportação em andamento.");
+            return;
+        }
+
+        ComboBox<ExportacaoService.Entidade> cbEntidade =
+                new ComboBox<>(FXCollections.observableArrayList(ExportacaoService.Entidade.values()));
+        cbEntidade.setValue(ExportacaoService.Entidade.CLIENTES);
+        ComboBox<ExportacaoService.Formato> cbFormato =
+                new ComboBox<>(FXCollections.observableArrayList(ExportacaoService.Formato.values()));
+        cbFormato.setValue(ExportacaoService.Formato.CSV);
+        CheckBox chkCompactar = new CheckBox("Compactar (gzip)");
+
+        GridPane campos = new GridPane();
+        campos.setHgap(10);
+        campos.setVgap(10);
+        campos.addRow(0, new Label("Dados:"), cbEntidade);
+        campos.addRow(1, new Label("Formato:"), cbFormato);
+        campos.add(chkCompactar, 1, 2);
+
+        Dialog<ButtonType> dialogo = new Dialog<>();
+        dialogo.setTitle("Exportar");
+        dialogo.setHeaderText("O que deseja exportar?");
+        dialogo.getDialogPane().setContent(campos);
+        dialogo.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        if (dialogo.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return;
+        }
+
+        ExportacaoService.Entidade entidade = cbEntidade.getValue();
+        ExportacaoService.Formato formato = cbFormato.getValue();
+        boolean compactar = chkCompactar.isSelected();
+
+        FileChooser seletor = new FileChooser();
+        seletor.setTitle("Salvar exportação");
+        seletor.setInitialFileName(ExportacaoService.nomeSugerido(entidade, formato, compactar));
+        File arquivo = seletor.showSaveDialog(tabelaClientes.getScene().getWindow());
+        if (arquivo == null) {
+            return;
+        }
+
+        try {
+            // O progresso chega da thread de trabalho
+            CompletableFuture<Long> futuro = exportacaoService.exportar(entidade, formato, arquivo.toPath(), compactar,
+                    registros -> Platform.runLater(() -> lblStatus.setText(
+                            "Exportando " + entidade.getDescricao().toLowerCase() + ": " + registros + " registro(s)...")));
+
+            lblStatus.setText("Exportando " + entidade.getDescricao().toLowerCase() + "...");
+            tarefas.acompanhar(CHAVE_EXPORTACAO, futuro,
+                    total -> {
+                        atualizarStatus();
+                        mostrarInformacao("Exportar", total + " registro(s) exportado(s) para:\n" + arquivo.getAbsolutePath());
+                    },
+                    erro -> {
+                        atualizarStatus();
+                        tratarErro("Erro ao exportar", erro);
+                    });
+        } catch (IllegalArgumentException e) {
+            mostrarAviso("Exportar", e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleImportar() {
+        if (tarefas.isEmAndamento(CHAVE_IMPORTACAO)) {
+            mostrarAviso("Importar", "Já existe uma importação em andamento.");
+            return;
+        }
+
+        FileChooser seletor = new FileChooser();
+        seletor.setTitle("Importar clientes");
+        seletor.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV ou JSON", "*.csv", "*.json", "*.gz"),
+                new FileChooser.ExtensionFilter("Todos os arquivos", "*.*"));
+        File arquivo = seletor.showOpenDialog(tabelaClientes.getScene().getWindow());
+        if (arquivo == null) {
+            return;
+        }
+
+        try {
+            // O progresso chega da thread de trabalho
+            CompletableFuture<ImportacaoClientesService.Resultado> futuro = importacaoService.importar(arquivo.toPath(),
+                    lidos -> Platform.runLater(() -> lblStatus.setText(
+                            "Importando clientes: " + lidos + " registro(s) lido(s)...")));
+
+            lblStatus.setText("Importando clientes...");
+            tarefas.acompanhar(CHAVE_IMPORTACAO, futuro,
+                    resultado -> {
+                        carregarClientes();
+                        String mensagem = resultado.importados() + " cliente(s) importado(s) de " + resultado.lidos()
+                                + " registro(s) em " + resultado.duracaoMs() + " ms.";
+                        if (resultado.relatorio() != null) {
+                            mensagem += "\n" + resultado.duplicados() + " telefone(s) repetido(s) e "
+                                    + resultado.invalidos() + " registro(s) inválido(s) ficaram de fora. Detalhes em:\n"
+                                    + resultado.relatorio();
+                        }
+                        mostrarInformacao("Importar", mensagem);
+                    },
+                    erro -> {
+                        // Os blocos confirmados antes do erro já estão no banco
+                        carregarClientes();
+                        tratarErro("Erro ao importar", erro);
+                    });
+        } catch (IllegalArgumentException e) {
+            mostrarAviso("Importar", e.getMessage());
+        }
     }
 
     @FXML
@@ -217,8 +340,7 @@ public class ClienteController implements Initializable {
     }
 
     private void carregarClientes() {
-        List<Cliente> clientes = clienteService.listarTodos();
-        clientesObservable.setAll(clientes);
+        paginador.recarregar();
     }
 
     private void preencherFormulario(Cliente cliente) {
@@ -237,8 +359,8 @@ public class ClienteController implements Initializable {
     }
 
     private void atualizarStatus() {
-        int total = clientesObservable.size();
-        lblTotalClientes.setText(String.valueOf(total));
+        String total = paginador.formatarTotal(clientesObservable.size());
+        lblTotalClientes.setText(total);
         lblStatus.setText("Total de clientes: " + total);
     }
 
@@ -246,6 +368,15 @@ public class ClienteController implements Initializable {
         lblStatus.setText("Encontrados " + resultados + " cliente(s) para: \"" + termo + "\"");
     }
 
+    // Erros vindos das tarefas em segundo plano
+    private void tratarErro(String titulo, Throwable erro) {
+        if (erro instanceof IllegalArgumentException) {
+            mostrarErro("Erro de validação", erro.getMessage());
+        } else {
+            mostrarErro(titulo, erro.getMessage());
+        }
+    }
+
     private void mostrarSucesso(String mensagem) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Sucesso");
@@ -55,8 +55,12 @@ public class MainController {
 
     @FXML
     private void handleRelatorios() {
-        mostrarInformacao("Funcionalidade em desenvolvimento",
-                "A tela de relatórios estará disponível em breve!");
+        try {
+            carregarTela("/com/barbearia/view/fxml/RelatorioView.fxml", "Relatórios");
+        } catch (Exception e) {
+            LogUtils.gravarErro("Erro ao abrir tela de Relatórios", e);
+            mostrarErro("Erro ao carregar tela de relatórios. Veja o log para detalhes.");
+        }
     }
 
     @FXML
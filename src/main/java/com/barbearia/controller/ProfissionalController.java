@@ -13,7 +13,6 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.util.List;
 import java.util.ResourceBundle;
 
 public class ProfissionalController implements Initializable {
@@ -36,6 +35,8 @@ public class ProfissionalController implements Initializable {
 
     private ProfissionalService profissionalService;
     private ObservableList<Profissional> profissionaisObservable;
+    private CarregadorPaginado<Profissional> paginador;
+    private TarefasTela tarefas;
     private Profissional profissionalSelecionado;
 
     @Override
@@ -43,10 +44,11 @@ public class ProfissionalController implements Initializable {
         profissionalService = new ProfissionalService();
         profissionaisObservable = FXCollections.observableArrayList();
         profissionalSelecionado = null;
+        tarefas = new TarefasTela(tabelaProfissionais);
+        tarefas.mostrarProgressoEm(lblStatus);
 
         configurarTabela();
         carregarProfissionais();
-        atualizarStatus();
     }
 
     private void configurarTabela() {
@@ -81,6 +83,8 @@ public class ProfissionalController implements Initializable {
         });
 
         tabelaProfissionais.setItems(profissionaisObservable);
+        paginador = new CarregadorPaginado<>(tabelaProfissionais, profissionaisObservable, tarefas,
+                profissionalService::listarPagina, this::atualizarStatus);
 
         tabelaProfissionais.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> {
@@ -94,45 +98,43 @@ public class ProfissionalController implements Initializable {
 
     @FXML
     private void handleSalvar() {
-        try {
-            if (!validarFormulario()) {
-                return;
-            }
-
-            Profissional profissional;
-            if (profissionalSelecionado != null) {
-                // Atualizar
-                profissional = profissionalSelecionado;
-                profissional.setNome(txtNome.getText().trim());
-                profissional.setEspecialidade(txtEspecialidade.getText().trim());
-                profissional.setTelefone(txtTelefone.getText().trim());
-                profissional.setAtivo(chkAtivo.isSelected());
-
-                profissionalService.atualizarProfissional(profissional);
-                mostrarSucesso("Profissional atualizado com sucesso!");
-            } else {
-                // Novo (Construtor com 4 argumentos: nome, especialidade, telefone, email)
-                profissional = new Profissional(
-                        txtNome.getText().trim(),
-                        txtEspecialidade.getText().trim(),
-                        txtTelefone.getText().trim(),
-                        null // Email
-                );
-                profissional.setAtivo(chkAtivo.isSelected());
-
-                profissionalService.cadastrarProfissional(profissional);
-                mostrarSucesso("Profissional cadastrado com sucesso!");
-            }
-
-            limparFormulario();
-            carregarProfissionais();
-            atualizarStatus();
+        if (!validarFormulario()) {
+            return;
+        }
 
-        } catch (IllegalArgumentException e) {
-            mostrarErro("Erro de validação", e.getMessage());
-        } catch (Exception e) {
-            mostrarErro("Erro ao salvar profissional", e.getMessage());
+        Profissional profissional;
+        boolean novo = profissionalSelecionado == null;
+        if (!novo) {
+            // Atualizar
+            profissional = profissionalSelecionado;
+            profissional.setNome(txtNome.getText().trim());
+            profissional.setEspecialidade(txtEspecialidade.getText().trim());
+            profissional.setTelefone(txtTelefone.getText().trim());
+            profissional.setAtivo(chkAtivo.isSelected());
+        } else {
+            // Novo (Construtor com 4 argumentos: nome, especialidade, telefone, email)
+            profissional = new Profissional(
+                    txtNome.getText().trim(),
+                    txtEspecialidade.getText().trim(),
+                    txtTelefone.getText().trim(),
+                    null // Email
+            );
+            profissional.setAtivo(chkAtivo.isSelected());
         }
+
+        tarefas.executarAcao(null, () -> {
+                    if (novo) {
+                        profissionalService.cadastrarProfissional(profissional);
+                    } else {
+                        profissionalService.atualizarProfissional(profissional);
+                    }
+                },
+                () -> {
+                    mostrarSucesso(novo ? "Profissional cadastrado com sucesso!" : "Profissional atualizado com sucesso!");
+                    limparFormulario();
+                    carregarProfissionais();
+                },
+                erro -> tratarErro("Erro ao salvar profissional", erro));
     }
 
     @FXML
@@ -158,15 +160,14 @@ public class ProfissionalController implements Initializable {
                 profissionalSelecionado.getNome() + "?");
 
         if (confirmacao.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
-                profissionalService.excluirProfissional(profissionalSelecionado.getId());
-                mostrarSucesso("Profissional excluído com sucesso!");
-                limparFormulario();
-                carregarProfissionais();
-                atualizarStatus();
-            } catch (Exception e) {
-                mostrarErro("Erro ao excluir profissional", e.getMessage());
-            }
+            int id = profissionalSelecionado.getId();
+            tarefas.executarAcao(null, () -> profissionalService.excluirProfissional(id),
+                    () -> {
+                        mostrarSucesso("Profissional excluído com sucesso!");
+                        limparFormulario();
+                        carregarProfissionais();
+                    },
+                    erro -> tratarErro("Erro ao excluir profissional", erro));
         }
     }
 
@@ -177,11 +178,7 @@ public class ProfissionalController implements Initializable {
             return;
         }
 
-        profissionalSelecionado.setAtivo(true);
-        profissionalService.atualizarProfissional(profissionalSelecionado);
-        mostrarSucesso("Profissional ativado com sucesso!");
-        carregarProfissionais();
-        atualizarStatus();
+        alterarAtivo(profissionalSelecionado, true, "Profissional ativado com sucesso!");
     }
 
     @FXML
@@ -191,11 +188,23 @@ public class ProfissionalController implements Initializable {
             return;
         }
 
-        profissionalSelecionado.setAtivo(false);
-        profissionalService.atualizarProfissional(profissionalSelecionado);
-        mostrarSucesso("Profissional desativado com sucesso!");
-        carregarProfissionais();
-        atualizarStatus();
+        alterarAtivo(profissionalSelecionado, false, "Profissional desativado com sucesso!");
+    }
+
+    private void alterarAtivo(Profissional profissional, boolean ativo, String mensagem) {
+        int id = profissional.getId();
+        tarefas.executarAcao(null, () -> {
+                    if (ativo) {
+                        profissionalService.ativarProfissional(id);
+                    } else {
+                        profissionalService.desativarProfissional(id);
+                    }
+                },
+                () -> {
+                    mostrarSucesso(mensagem);
+                    carregarProfissionais();
+                },
+                erro -> tratarErro("Erro ao atualizar profissional", erro));
     }
 
     @FXML
@@ -205,24 +214,31 @@ public class ProfissionalController implements Initializable {
         if (termo.isEmpty()) {
             carregarProfissionais();
         } else {
-            List<Profissional> resultados = profissionalService.buscarPorNome(termo);
-            profissionaisObservable.setAll(resultados);
-            atualizarStatusBusca(resultados.size(), termo);
+            paginador.pausar();
+            tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM, () -> profissionalService.buscarPorNome(termo),
+                    resultados -> {
+                        profissionaisObservable.setAll(resultados);
+                        atualizarStatusBusca(resultados.size(), termo);
+                    },
+                    erro -> tratarErro("Erro ao buscar profissionais", erro));
         }
     }
 
     @FXML
     private void handleBuscarAtivos() {
-        List<Profissional> ativos = profissionalService.buscarAtivos();
-        profissionaisObservable.setAll(ativos);
-        lblStatus.setText("Mostrando " + ativos.size() + " profissional(is) ativo(s)");
+        paginador.pausar();
+        tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM, profissionalService::buscarAtivos,
+                ativos -> {
+                    profissionaisObservable.setAll(ativos);
+                    lblStatus.setText("Mostrando " + ativos.size() + " profissional(is) ativo(s)");
+                },
+                erro -> tratarErro("Erro ao buscar profissionais", erro));
     }
 
     @FXML
     private void handleLimparBusca() {
         txtBusca.clear();
         carregarProfissionais();
-        atualizarStatus();
     }
 
     @FXML
@@ -254,8 +270,7 @@ public class ProfissionalController implements Initializable {
     }
 
     private void carregarProfissionais() {
-        List<Profissional> profissionais = profissionalService.listarTodos();
-        profissionaisObservable.setAll(profissionais);
+        paginador.recarregar();
     }
 
     private void preencherFormulario(Profissional profissional) {
@@ -274,16 +289,26 @@ public class ProfissionalController implements Initializable {
     }
 
     private void atualizarStatus() {
-        int total = profissionaisObservable.size();
-        int ativos = profissionalService.contarProfissionaisAtivos();
-        lblTotalProfissionais.setText(String.valueOf(total));
-        lblStatus.setText("Total: " + total + " | Ativos: " + ativos);
+        String total = paginador.formatarTotal(profissionaisObservable.size());
+        lblTotalProfissionais.setText(total);
+        tarefas.executar("status", profissionalService::contarProfissionaisAtivos,
+                ativos -> lblStatus.setText("Total: " + total + " | Ativos: " + ativos),
+                erro -> lblStatus.setText("Total: " + total));
     }
 
     private void atualizarStatusBusca(int resultados, String termo) {
         lblStatus.setText("Encontrados " + resultados + " profissional(is) para: \"" + termo + "\"");
     }
 
+    // Erros vindos das tarefas em segundo plano
+    private void tratarErro(String titulo, Throwable erro) {
+        if (erro instanceof IllegalArgumentException) {
+            mostrarErro("Erro de validação", erro.getMessage());
+        } else {
+            mostrarErro(titulo, erro.getMessage());
+        }
+    }
+
     private void mostrarSucesso(String mensagem) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Sucesso");
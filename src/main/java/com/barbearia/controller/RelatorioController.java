@@ -0,0 +1,179 @@
+package com.barbearia.controller;
+
+import com.barbearia.model.service.AgendamentoServiceAssincrono;
+import com.barbearia.model.service.DefinicaoRelatorio;
+import com.barbearia.model.service.RelatorioService;
+import com.barbearia.model.service.TabelaRelatorio;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+
+public class RelatorioController implements Initializable {
+
+    @FXML private DatePicker dpInicio;
+    @FXML private DatePicker dpFim;
+    @FXML private VBox boxSecoes;
+    @FXML private VBox boxResultados;
+    @FXML private Button btnGerar;
+    @FXML private Button btnCancelar;
+    @FXML private ProgressBar barraProgresso;
+    @FXML private Label lblStatus;
+
+    private RelatorioService relatorioService;
+    private AgendamentoServiceAssincrono agendamentoAssincrono;
+    private TarefasTela tarefas;
+    private final Map<CheckBox, DefinicaoRelatorio> secoes = new LinkedHashMap<>();
+
+    @Override
+    public void initialize(URL url, ResourceBundle rb) {
+        relatorioService = new RelatorioService();
+        agendamentoAssincrono = new AgendamentoServiceAssincrono();
+        tarefas = new TarefasTela(boxResultados);
+        tarefas.mostrarProgressoEm(lblStatus);
+
+        dpFim.setValue(LocalDate.now());
+        dpInicio.setValue(LocalDate.now().minusDays(30));
+
+        // Uma caixa por definição registrada, todas marcadas
+        for (DefinicaoRelatorio definicao : relatorioService.listarDefinicoes()) {
+            CheckBox caixa = new CheckBox(definicao.getTitulo());
+            caixa.setSelected(true);
+            secoes.put(caixa, definicao);
+            boxSecoes.getChildren().add(caixa);
+        }
+    }
+
+    @FXML
+    private void handleGerar() {
+        List<DefinicaoRelatorio> selecionadas = secoes.entrySet().stream()
+                .filter(e -> e.getKey().isSelected())
+                .map(Map.Entry::getValue)
+                .toList();
+
+        try {
+            long inicioMs = System.currentTimeMillis();
+            // O progresso chega das threads de trabalho
+            CompletableFuture<List<TabelaRelatorio>> futuro = relatorioService.gerar(selecionadas,
+                    dpInicio.getValue(), dpFim.getValue(),
+                    fracao -> Platform.runLater(() -> barraProgresso.setProgress(fracao)));
+
+            boxResultados.getChildren().clear();
+            barraProgresso.setProgress(0);
+            emAndamento(true);
+            lblStatus.setText("Status: Gerando " + selecionadas.size() + " seção(ões)...");
+
+            tarefas.acompanhar("relatorio", futuro,
+                    tabelas -> {
+                        mostrarResultados(tabelas);
+                        emAndamento(false);
+                        lblStatus.setText("Status: Relatório gerado em "
+                                + (System.currentTimeMillis() - inicioMs) + " ms");
+                    },
+                    erro -> {
+                        emAndamento(false);
+                        lblStatus.setText("Status: Falha ao gerar relatório");
+                        mostrarErro("Erro no relatório", erro.getMessage());
+                    });
+        } catch (IllegalArgumentException e) {
+            mostrarAviso("Relatório", e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleCancelar() {
+        tarefas.cancelar("relatorio");
+        emAndamento(false);
+        barraProgresso.setProgress(0);
+        lblStatus.setText("Status: Relatório cancelado");
+    }
+
+    @FXML
+    private void handleReconstruirResumos() {
+        lblStatus.setText("Status: Reconstruindo resumos...");
+        tarefas.acompanhar("resumos", agendamentoAssincrono.reconstruirResumos(),
+                v -> lblStatus.setText("Status: Resumos reconstruídos"),
+                erro -> mostrarErro("Erro ao reconstruir resumos", erro.getMessage()));
+    }
+
+    @FXML
+    private void handleVoltar() {
+        Stage stage = (Stage) boxResultados.getScene().getWindow();
+        stage.close();
+    }
+
+    private void emAndamento(boolean gerando) {
+        btnGerar.setDisable(gerando);
+        btnCancelar.setDisable(!gerando);
+    }
+
+    private void mostrarResultados(List<TabelaRelatorio> tabelas) {
+        boxResultados.getChildren().clear();
+        for (TabelaRelatorio tabela : tabelas) {
+            Node conteudo = tabela.isVazia()
+                    ? new Label("Sem movimento no período.")
+                    : criarTabela(tabela);
+            TitledPane secao = new TitledPane(tabela.getTitulo(), conteudo);
+            boxResultados.getChildren().add(secao);
+        }
+    }
+
+    // Colunas montadas a partir da definição; a linha de total vai por último, em negrito
+    private TableView<List<String>> criarTabela(TabelaRelatorio tabela) {
+        TableView<List<String>> tableView = new TableView<>();
+        for (int i = 0; i < tabela.getColunas().size(); i++) {
+            int indice = i;
+            TableColumn<List<String>, String> coluna = new TableColumn<>(tabela.getColunas().get(i));
+            coluna.setCellValueFactory(dados -> new ReadOnlyStringWrapper(dados.getValue().get(indice)));
+            coluna.setSortable(false);
+            coluna.setPrefWidth(indice == 0 ? 200 : 120);
+            tableView.getColumns().add(coluna);
+        }
+
+        ObservableList<List<String>> linhas = FXCollections.observableArrayList(tabela.getLinhas());
+        if (tabela.getTotal() != null) {
+            linhas.add(tabela.getTotal());
+        }
+        tableView.setItems(linhas);
+        tableView.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(List<String> item, boolean empty) {
+                super.updateItem(item, empty);
+                setStyle(!empty && item == tabela.getTotal() ? "-fx-font-weight: bold;" : "");
+            }
+        });
+        tableView.setFixedCellSize(24);
+        tableView.setPrefHeight(Math.min(linhas.size(), 15) * 24 + 30);
+        return tableView;
+    }
+
+    private void mostrarErro(String titulo, String mensagem) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(titulo);
+        alert.setHeaderText(null);
+        alert.setContentText(mensagem);
+        alert.showAndWait();
+    }
+
+    private void mostrarAviso(String titulo, String mensagem) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(titulo);
+        alert.setHeaderText(null);
+        alert.setContentText(mensagem);
+        alert.showAndWait();
+    }
+}
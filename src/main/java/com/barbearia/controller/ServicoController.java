@@ -1,5 +1,6 @@
 package com.barbearia.controller;
 
+import com.barbearia.model.dao.CatalogoServicos;
 import com.barbearia.model.entity.Servico;
 import com.barbearia.model.service.ServicoService;
 import com.barbearia.util.Validacao;
@@ -13,7 +14,6 @@ import javafx.stage.Stage; // IMPORT ADICIONADO
 
 import java.net.URL;
 import java.text.DecimalFormat;
-import java.util.List;
 import java.util.ResourceBundle;
 
 public class ServicoController implements Initializable {
@@ -37,6 +37,8 @@ public class ServicoController implements Initializable {
 
     private ServicoService servicoService;
     private ObservableList<Servico> servicosObservable;
+    private CarregadorPaginado<Servico> paginador;
+    private TarefasTela tarefas;
     private Servico servicoSelecionado;
     private DecimalFormat decimalFormat;
 
@@ -46,11 +48,13 @@ public class ServicoController implements Initializable {
         servicosObservable = FXCollections.observableArrayList();
         servicoSelecionado = null;
         decimalFormat = new DecimalFormat("#,##0.00");
+        tarefas = new TarefasTela(tabelaServicos);
+        tarefas.mostrarProgressoEm(lblStatus);
 
         configurarTabela();
         configurarFormatos();
+        // Listagem e estatísticas são independentes: carregam em paralelo
         carregarServicos();
-        atualizarStatus();
         atualizarEstatisticas();
     }
 
@@ -86,6 +90,8 @@ public class ServicoController implements Initializable {
         });
 
         tabelaServicos.setItems(servicosObservable);
+        paginador = new CarregadorPaginado<>(tabelaServicos, servicosObservable, tarefas,
+                servicoService::listarPagina, this::atualizarStatus);
 
         tabelaServicos.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> {
@@ -113,43 +119,41 @@ public class ServicoController implements Initializable {
 
     @FXML
     private void handleSalvar() {
-        try {
-            if (!validarFormulario()) {
-                return;
-            }
-
-            Servico servico;
-            if (servicoSelecionado != null) {
-                servico = servicoSelecionado;
-                servico.setNome(txtNome.getText().trim());
-                servico.setDescricao(txtDescricao.getText().trim());
-                servico.setPreco(Double.parseDouble(txtPreco.getText()));
-                servico.setDuracaoMinutos(Integer.parseInt(txtDuracao.getText()));
-
-                servicoService.atualizarServico(servico);
-                mostrarSucesso("Serviço atualizado com sucesso!");
-            } else {
-                servico = new Servico(
-                        txtNome.getText().trim(),
-                        txtDescricao.getText().trim(),
-                        Double.parseDouble(txtPreco.getText()),
-                        Integer.parseInt(txtDuracao.getText())
-                );
-
-                servicoService.cadastrarServico(servico);
-                mostrarSucesso("Serviço cadastrado com sucesso!");
-            }
-
-            limparFormulario();
-            carregarServicos();
-            atualizarStatus();
-            atualizarEstatisticas();
+        if (!validarFormulario()) {
+            return;
+        }
 
-        } catch (IllegalArgumentException e) {
-            mostrarErro("Erro de validação", e.getMessage());
-        } catch (Exception e) {
-            mostrarErro("Erro ao salvar serviço", e.getMessage());
+        Servico servico;
+        boolean novo = servicoSelecionado == null;
+        if (!novo) {
+            servico = servicoSelecionado;
+            servico.setNome(txtNome.getText().trim());
+            servico.setDescricao(txtDescricao.getText().trim());
+            servico.setPreco(Double.parseDouble(txtPreco.getText()));
+            servico.setDuracaoMinutos(Integer.parseInt(txtDuracao.getText()));
+        } else {
+            servico = new Servico(
+                    txtNome.getText().trim(),
+                    txtDescricao.getText().trim(),
+                    Double.parseDouble(txtPreco.getText()),
+                    Integer.parseInt(txtDuracao.getText())
+            );
         }
+
+        tarefas.executarAcao(null, () -> {
+                    if (novo) {
+                        servicoService.cadastrarServico(servico);
+                    } else {
+                        servicoService.atualizarServico(servico);
+                    }
+                },
+                () -> {
+                    mostrarSucesso(novo ? "Serviço cadastrado com sucesso!" : "Serviço atualizado com sucesso!");
+                    limparFormulario();
+                    carregarServicos();
+                    atualizarEstatisticas();
+                },
+                erro -> tratarErro("Erro ao salvar serviço", erro));
     }
 
     @FXML
@@ -174,16 +178,15 @@ public class ServicoController implements Initializable {
                 servicoSelecionado.getNome() + "\"?");
 
         if (confirmacao.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
-                servicoService.excluirServico(servicoSelecionado.getId());
-                mostrarSucesso("Serviço excluído com sucesso!");
-                limparFormulario();
-                carregarServicos();
-                atualizarStatus();
-                atualizarEstatisticas();
-            } catch (Exception e) {
-                mostrarErro("Erro ao excluir serviço", e.getMessage());
-            }
+            int id = servicoSelecionado.getId();
+            tarefas.executarAcao(null, () -> servicoService.excluirServico(id),
+                    () -> {
+                        mostrarSucesso("Serviço excluído com sucesso!");
+                        limparFormulario();
+                        carregarServicos();
+                        atualizarEstatisticas();
+                    },
+                    erro -> tratarErro("Erro ao excluir serviço", erro));
         }
     }
 
@@ -194,9 +197,13 @@ public class ServicoController implements Initializable {
         if (termo.isEmpty()) {
             carregarServicos();
         } else {
-            List<Servico> resultados = servicoService.buscarPorNome(termo);
-            servicosObservable.setAll(resultados);
-            atualizarStatusBusca(resultados.size(), termo);
+            paginador.pausar();
+            tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM, () -> servicoService.buscarPorNome(termo),
+                    resultados -> {
+                        servicosObservable.setAll(resultados);
+                        atualizarStatusBusca(resultados.size(), termo);
+                    },
+                    erro -> tratarErro("Erro na busca", erro));
         }
     }
 
@@ -211,10 +218,15 @@ public class ServicoController implements Initializable {
             dialog.showAndWait().ifPresent(precoStr -> {
                 try {
                     double precoMaximo = Double.parseDouble(precoStr);
-                    List<Servico> resultados = servicoService.buscarPorPrecoMaximo(precoMaximo);
-                    servicosObservable.setAll(resultados);
-                    lblStatus.setText("Mostrando " + resultados.size() +
-                            " serviço(s) até R$ " + decimalFormat.format(precoMaximo));
+                    paginador.pausar();
+                    tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM,
+                            () -> servicoService.buscarPorPrecoMaximo(precoMaximo),
+                            resultados -> {
+                                servicosObservable.setAll(resultados);
+                                lblStatus.setText("Mostrando " + resultados.size() +
+                                        " serviço(s) até R$ " + decimalFormat.format(precoMaximo));
+                            },
+                            erro -> tratarErro("Erro na busca", erro));
                 } catch (NumberFormatException e) {
                     mostrarErro("Valor inválido", "Digite um valor numérico válido.");
                 }
@@ -235,9 +247,14 @@ public class ServicoController implements Initializable {
             dialog.showAndWait().ifPresent(quantidadeStr -> {
                 try {
                     int quantidade = Integer.parseInt(quantidadeStr);
-                    List<Servico> resultados = servicoService.buscarMaisPopulares(quantidade);
-                    servicosObservable.setAll(resultados);
-                    lblStatus.setText("Top " + resultados.size() + " serviços mais populares");
+                    paginador.pausar();
+                    tarefas.executar(CarregadorPaginado.CHAVE_LISTAGEM,
+                            () -> servicoService.buscarMaisPopulares(quantidade),
+                            resultados -> {
+                                servicosObservable.setAll(resultados);
+                                lblStatus.setText("Top " + resultados.size() + " serviços mais populares");
+                            },
+                            erro -> tratarErro("Erro na busca", erro));
                 } catch (NumberFormatException e) {
                     mostrarErro("Valor inválido", "Digite um número válido.");
                 }
@@ -251,7 +268,6 @@ public class ServicoController implements Initializable {
     private void handleLimparBusca() {
         txtBusca.clear();
         carregarServicos();
-        atualizarStatus();
     }
 
     @FXML
@@ -262,16 +278,24 @@ public class ServicoController implements Initializable {
 
     @FXML
     private void handleRelatorioFaturamento() {
+        // Todas as estatísticas vêm do mesmo resumo em cache
+        tarefas.executar("relatorio", servicoService::obterEstatisticas,
+                this::mostrarRelatorioFaturamento,
+                erro -> mostrarErro("Erro no relatório", erro.getMessage()));
+    }
+
+    private void mostrarRelatorioFaturamento(CatalogoServicos.Estatisticas estatisticas) {
         try {
-            double faturamentoEstimado = servicoService.calcularFaturamentoEstimado();
-            Servico maisCaro = servicoService.buscarServicoMaisCaro();
-            Servico maisBarato = servicoService.buscarServicoMaisBarato();
+            // Tudo das estatísticas trazidas pela tarefa: nada de banco na thread da tela
+            double faturamentoEstimado = ServicoService.calcularFaturamentoEstimado(estatisticas);
+            Servico maisCaro = estatisticas.getMaisCaro();
+            Servico maisBarato = estatisticas.getMaisBarato();
 
             StringBuilder relatorio = new StringBuilder();
             relatorio.append("📊 RELATÓRIO DE SERVIÇOS\n\n");
-            relatorio.append("Total de serviços: ").append(servicosObservable.size()).append("\n");
+            relatorio.append("Total de serviços: ").append(estatisticas.getQuantidade()).append("\n");
             relatorio.append("Faturamento estimado mensal: R$ ").append(decimalFormat.format(faturamentoEstimado)).append("\n");
-            relatorio.append("Valor médio por serviço: R$ ").append(decimalFormat.format(servicoService.calcularValorMedioServicos())).append("\n");
+            relatorio.append("Valor médio por serviço: R$ ").append(decimalFormat.format(estatisticas.getValorMedio())).append("\n");
 
             if (maisCaro != null) {
                 relatorio.append("\n💰 Serviço mais caro: ").append(maisCaro.getNome())
@@ -356,8 +380,7 @@ public class ServicoController implements Initializable {
     }
 
     private void carregarServicos() {
-        List<Servico> servicos = servicoService.listarTodos();
-        servicosObservable.setAll(servicos);
+        paginador.recarregar();
     }
 
     private void preencherFormulario(Servico servico) {
@@ -376,20 +399,30 @@ public class ServicoController implements Initializable {
     }
 
     private void atualizarStatus() {
-        int total = servicosObservable.size();
-        lblTotalServicos.setText(String.valueOf(total));
+        String total = paginador.formatarTotal(servicosObservable.size());
+        lblTotalServicos.setText(total);
         lblStatus.setText("Total de serviços: " + total);
     }
 
     private void atualizarEstatisticas() {
-        double valorMedio = servicoService.calcularValorMedioServicos();
-        lblValorMedio.setText("Valor médio: R$ " + decimalFormat.format(valorMedio));
+        tarefas.executar("estatisticas", servicoService::calcularValorMedioServicos,
+                valorMedio -> lblValorMedio.setText("Valor médio: R$ " + decimalFormat.format(valorMedio)),
+                erro -> lblValorMedio.setText("Valor médio: -"));
     }
 
     private void atualizarStatusBusca(int resultados, String termo) {
         lblStatus.setText("Encontrados " + resultados + " serviço(s) para: \"" + termo + "\"");
     }
 
+    // Erros vindos das tarefas em segundo plano
+    private void tratarErro(String titulo, Throwable erro) {
+        if (erro instanceof IllegalArgumentException) {
+            mostrarErro("Erro de validação", erro.getMessage());
+        } else {
+            mostrarErro(titulo, erro.getMessage());
+        }
+    }
+
     private void mostrarSucesso(String mensagem) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Sucesso");
@@ -0,0 +1,188 @@
+package com.barbearia.controller;
+
+import com.barbearia.util.LogUtils;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.ProgressIndicator;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executa o trabalho de banco de uma tela fora da JavaFX Application Thread.
+ * O resultado volta para a thread da interface com Platform.runLater.
+ * Tarefas com a mesma chave se substituem (a anterior é cancelada e seu resultado descartado),
+ * e tudo que estiver pendente é cancelado quando a janela da tela é fechada.
+ * Todos os métodos devem ser chamados na thread da interface.
+ */
+class TarefasTela {
+
+    private static final int THREADS = 4;
+    private static final AtomicInteger contadorThreads = new AtomicInteger();
+
+    // Compartilhado por todas as telas; tarefas independentes rodam em paralelo
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "tela-tarefa-" + contadorThreads.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, CompletableFuture<?>> porChave = new HashMap<>();
+    private final Map<CompletableFuture<?>, Boolean> pendentes = new HashMap<>();
+    private final List<Runnable> aoEncerrar = new ArrayList<>();
+    private Labeled rotuloProgresso;
+    private boolean encerrada;
+
+    // 'raiz' é qualquer nó da tela: ao fechar a janela dele as tarefas pendentes são canceladas
+    TarefasTela(Node raiz) {
+        raiz.sceneProperty().addListener((obs, antiga, cena) -> {
+            if (cena != null) {
+                cena.windowProperty().addListener((o, a, janela) -> observarJanela(janela));
+                observarJanela(cena.getWindow());
+            }
+        });
+    }
+
+    // Mostra um indicador de progresso ao lado do texto do rótulo enquanto houver tarefas
+    void mostrarProgressoEm(Labeled rotulo) {
+        this.rotuloProgresso = rotulo;
+        atualizarProgresso();
+    }
+
+    <T> CompletableFuture<T> executar(String chave, Callable<T> trabalho,
+                                      Consumer<T> aoConcluir, Consumer<Throwable> aoFalhar) {
+        CompletableFuture<T> futuro = CompletableFuture.supplyAsync(() -> {
+            try {
+                return trabalho.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+        return acompanhar(chave, futuro, aoConcluir, aoFalhar);
+    }
+
+    // Para trabalho sem resultado (salvar, excluir...)
+    CompletableFuture<Void> executarAcao(String chave, Runnable trabalho,
+                                         Runnable aoConcluir, Consumer<Throwable> aoFalhar) {
+        return executar(chave, () -> {
+            trabalho.run();
+            return null;
+        }, resultado -> aoConcluir.run(), aoFalhar);
+    }
+
+    // Acompanha um futuro já iniciado em outro lugar, publicando o resultado na thread da interface
+    <T> CompletableFuture<T> acompanhar(String chave, CompletableFuture<T> futuro,
+                                        Consumer<T> aoConcluir, Consumer<Throwable> aoFalhar) {
+        if (encerrada) {
+            futuro.cancel(true);
+            return futuro;
+        }
+
+        if (chave != null) {
+            CompletableFuture<?> anterior = porChave.put(chave, futuro);
+            if (anterior != null) {
+                anterior.cancel(true);
+            }
+        }
+        pendentes.put(futuro, Boolean.TRUE);
+        atualizarProgresso();
+
+        futuro.whenComplete((resultado, erro) -> Platform.runLater(() -> {
+            if (chave != null && porChave.get(chave) == futuro) {
+                porChave.remove(chave);
+            }
+            pendentes.remove(futuro);
+            atualizarProgresso();
+
+            // Substituída por uma tarefa mais nova ou tela fechada: resultado obsoleto
+            if (encerrada || futuro.isCancelled()) {
+                return;
+            }
+
+            if (erro == null) {
+                aoConcluir.accept(resultado);
+            } else {
+                Throwable causa = causaReal(erro);
+                LogUtils.gravarErro("Erro em tarefa de segundo plano" + (chave != null ? " (" + chave + ")" : ""), causa);
+                aoFalhar.accept(causa);
+            }
+        }));
+        return futuro;
+    }
+
+    // Limpeza da tela (remover ouvintes etc.) quando a janela for fechada
+    void aoEncerrar(Runnable acao) {
+        aoEncerrar.add(acao);
+    }
+
+    boolean isOcupada() {
+        return !pendentes.isEmpty();
+    }
+
+    boolean isEmAndamento(String chave) {
+        return porChave.containsKey(chave);
+    }
+
+    // Descarta a tarefa pendente da chave, se houver
+    void cancelar(String chave) {
+        CompletableFuture<?> futuro = porChave.remove(chave);
+        if (futuro != null) {
+            futuro.cancel(true);
+        }
+    }
+
+    void cancelarTodas() {
+        encerrada = true;
+        for (CompletableFuture<?> futuro : pendentes.keySet()) {
+            futuro.cancel(true);
+        }
+        pendentes.clear();
+        porChave.clear();
+        atualizarProgresso();
+        aoEncerrar.forEach(Runnable::run);
+        aoEncerrar.clear();
+    }
+
+    private void observarJanela(Window janela) {
+        if (janela != null) {
+            janela.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> cancelarTodas());
+        }
+    }
+
+    private void atualizarProgresso() {
+        if (rotuloProgresso == null) {
+            return;
+        }
+        if (pendentes.isEmpty()) {
+            rotuloProgresso.setGraphic(null);
+        } else if (rotuloProgresso.getGraphic() == null) {
+            ProgressIndicator indicador = new ProgressIndicator();
+            indicador.setPrefSize(14, 14);
+            rotuloProgresso.setGraphic(indicador);
+        }
+    }
+
+    private static Throwable causaReal(Throwable erro) {
+        while ((erro instanceof CompletionException || erro instanceof ExecutionException
+                || erro instanceof CancellationException) && erro.getCause() != null) {
+            erro = erro.getCause();
+        }
+        return erro;
+    }
+}
@@ -4,26 +4,109 @@ import com.barbearia.model.entity.Agendamento;
 import com.barbearia.model.entity.Cliente;
 import com.barbearia.model.entity.Profissional;
 import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Metricas;
+import com.barbearia.util.Pagina;
 import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class AgendamentoDAO {
 
+    private static final String SQL_INSERT = "INSERT INTO agendamento (cliente_id, profissional_id, data, hora, status, observacoes, data_hora_fim) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_SERVICO = "INSERT INTO agendamento_servico (agendamento_id, servico_id) VALUES (?, ?)";
+
+    // Consulta dos Streams: uma linha por serviço, agrupadas por agendamento na leitura
+    private static final String SQL_STREAM_BASE = """
+        SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone,
+               p.nome as profissional_nome, p.especialidade, ag.servico_id as s_id
+        FROM agendamento a
+        JOIN cliente c ON a.cliente_id = c.id
+        JOIN profissional p ON a.profissional_id = p.id
+        LEFT JOIN agendamento_servico ag ON ag.agendamento_id = a.id
+        """;
+
+    // Colunas e junções comuns às consultas que montam o Agendamento completo
+    private static final String SQL_SELECT = """
+        SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone,
+               p.nome as profissional_nome, p.especialidade
+        FROM agendamento a
+        JOIN cliente c ON a.cliente_id = c.id
+        JOIN profissional p ON a.profissional_id = p.id
+        """;
+
+    // Consultas conferidas com EXPLAIN na inicialização (DatabaseInitializer.verificarPlanos)
+    public static final String SQL_POR_DATA = SQL_SELECT + """
+        WHERE a.data = ?
+        ORDER BY a.hora
+        """;
+
+    public static final String SQL_POR_CLIENTE = SQL_SELECT + """
+        WHERE a.cliente_id = ?
+        ORDER BY a.data DESC, a.hora
+        """;
+
+    public static final String SQL_POR_PROFISSIONAL = SQL_SELECT + """
+        WHERE a.profissional_id = ?
+        ORDER BY a.data, a.hora
+        """;
+
+    public static final String SQL_CONFLITO = SQL_SELECT + """
+        WHERE a.profissional_id = ? AND a.data = ? AND a.hora < ? AND a.data_hora_fim > ?
+          AND a.status NOT IN ('CANCELADO', 'AUSENTE')
+          AND a.id <> ?
+        ORDER BY a.hora
+        LIMIT 1
+        """;
+
+    public static final String SQL_INTERVALOS_OCUPADOS = """
+        SELECT id, hora, data_hora_fim
+        FROM agendamento
+        WHERE profissional_id = ? AND data = ? AND status NOT IN ('CANCELADO', 'AUSENTE')
+        """;
+
+    public static final String SQL_POR_PERIODO = SQL_SELECT + """
+        WHERE a.data BETWEEN ? AND ?
+        ORDER BY a.data, a.hora
+        """;
+
+    public static final String SQL_POR_STATUS = SQL_SELECT + """
+        WHERE a.status = ?
+        ORDER BY a.data DESC
+        """;
+
+    public static final String SQL_CONTAR_POR_STATUS = "SELECT COUNT(*) FROM agendamento WHERE status = ?";
+
+    public static final String SQL_CONTAGEM_POR_STATUS = "SELECT status, COUNT(*) AS quantidade FROM agendamento GROUP BY status";
+
+    // Quantidade máxima de agendamentos por consulta de serviços em lote
+    private static final int TAMANHO_LOTE_SERVICOS = 500;
+
+    // Carrega os serviços de uma lista inteira em poucas consultas (evita N+1)
+    private boolean carregamentoEmLote = true;
+
+    public boolean isCarregamentoEmLote() { return carregamentoEmLote; }
+    public void setCarregamentoEmLote(boolean carregamentoEmLote) { this.carregamentoEmLote = carregamentoEmLote; }
+
+    // Linha do agendamento e vínculos de serviço na mesma transação
     public void salvar(Agendamento agendamento) {
-        String sql = "INSERT INTO agendamento (cliente_id, profissional_id, data, hora, status, observacoes) VALUES (?, ?, ?, ?, ?, ?)";
+        UnidadeDeTrabalho.executarAcao(() -> inserir(agendamento));
+    }
 
+    private void inserir(Agendamento agendamento) {
         try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setInt(1, agendamento.getCliente().getId());
-            stmt.setInt(2, agendamento.getProfissional().getId());
-            stmt.setDate(3, Date.valueOf(agendamento.getData()));
-            stmt.setTime(4, Time.valueOf(agendamento.getHora()));
-            stmt.setString(5, agendamento.getStatus().name());
-            stmt.setString(6, agendamento.getObservacoes());
+            preencherInsert(stmt, agendamento);
 
             stmt.executeUpdate();
 
@@ -34,6 +117,9 @@ public class AgendamentoDAO {
 
                 // Salvar serviços do agendamento
                 salvarServicosAgendamento(agendamentoId, agendamento.getServicos(), conn);
+                ResumoDAO.aplicarAgendamentos(conn, List.of(agendamentoId), 1);
+                // Só é "limpo" depois do commit: num rollback a próxima gravação manda tudo de novo
+                UnidadeDeTrabalho.aoConcluir(agendamento::marcarSincronizado);
             }
 
         } catch (SQLException e) {
@@ -41,10 +127,63 @@ public class AgendamentoDAO {
         }
     }
 
+    // Insere os agendamentos e todos os vínculos de serviço em lotes, numa única transação.
+    // Não verifica conflitos nem mexe no índice de disponibilidade: use AgendamentoService.agendarTodos
+    public void salvarTodos(List<Agendamento> agendamentos) {
+        if (agendamentos.isEmpty()) {
+            return;
+        }
+
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao()) {
+                InsercaoEmLote.inserir(conn, SQL_INSERT, agendamentos, this::preencherInsert, Agendamento::setId);
+                salvarServicosAgendamentos(agendamentos, conn);
+                ResumoDAO.aplicarAgendamentos(conn, agendamentos.stream().map(Agendamento::getId).toList(), 1);
+                UnidadeDeTrabalho.aoConcluir(() -> agendamentos.forEach(Agendamento::marcarSincronizado));
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao salvar agendamentos em lote: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void preencherInsert(PreparedStatement stmt, Agendamento agendamento) throws SQLException {
+        stmt.setInt(1, agendamento.getCliente().getId());
+        stmt.setInt(2, agendamento.getProfissional().getId());
+        stmt.setDate(3, Date.valueOf(agendamento.getData()));
+        stmt.setTime(4, Time.valueOf(agendamento.getHora()));
+        stmt.setString(5, agendamento.getStatus().name());
+        stmt.setString(6, agendamento.getObservacoes());
+        stmt.setTimestamp(7, Timestamp.valueOf(agendamento.calcularDataHoraFim()));
+    }
+
+    // Os vínculos de serviço de todos os agendamentos, em lotes de TAMANHO_LOTE linhas
+    private void salvarServicosAgendamentos(List<Agendamento> agendamentos, Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_SERVICO)) {
+            int pendentes = 0;
+            for (Agendamento agendamento : agendamentos) {
+                for (Servico servico : agendamento.getServicos()) {
+                    stmt.setInt(1, agendamento.getId());
+                    stmt.setInt(2, servico.getId());
+                    stmt.addBatch();
+
+                    if (++pendentes == InsercaoEmLote.TAMANHO_LOTE) {
+                        stmt.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+            }
+            if (pendentes > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
     private void salvarServicosAgendamento(int agendamentoId, List<Servico> servicos, Connection conn) throws SQLException {
-        String sql = "INSERT INTO agendamento_servico (agendamento_id, servico_id) VALUES (?, ?)";
+        if (servicos.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT_SERVICO)) {
             for (Servico servico : servicos) {
                 stmt.setInt(1, agendamentoId);
                 stmt.setInt(2, servico.getId());
@@ -54,24 +193,211 @@ public class AgendamentoDAO {
         }
     }
 
+    // Agendamento lido pelo DAO: grava só as colunas alteradas e a diferença nos serviços.
+    // Objeto montado fora do DAO (sem estado conhecido): regrava a linha e os vínculos inteiros.
     public void atualizar(Agendamento agendamento) {
-        String sql = "UPDATE agendamento SET cliente_id = ?, profissional_id = ?, data = ?, hora = ?, status = ?, observacoes = ? WHERE id = ?";
+        UnidadeDeTrabalho.executarAcao(() -> {
+            if (agendamento.isRastreado()) {
+                gravarAlteracoes(agendamento);
+            } else {
+                gravarTudo(agendamento);
+            }
+            // Se a transação (ou uma externa) voltar atrás, as alterações continuam pendentes
+            UnidadeDeTrabalho.aoConcluir(agendamento::marcarSincronizado);
+        });
+    }
+
+    private void gravarAlteracoes(Agendamento agendamento) {
+        Set<Agendamento.Campo> campos = agendamento.getCamposAlterados();
+        Set<Integer> servicosAntes = agendamento.getServicosSincronizados();
+        Set<Integer> servicosDepois = agendamento.idsServicos();
+        boolean servicosMudaram = !servicosAntes.equals(servicosDepois);
+
+        if (campos.isEmpty() && !servicosMudaram) {
+            Metricas.incrementar("agendamento.atualizacoes_sem_alteracao");
+            return;
+        }
+
+        List<String> colunas = new ArrayList<>();
+        List<Object> valores = new ArrayList<>();
+        for (Agendamento.Campo campo : campos) {
+            switch (campo) {
+                case CLIENTE -> adicionarColuna(colunas, valores, "cliente_id", agendamento.getCliente().getId());
+                case PROFISSIONAL -> adicionarColuna(colunas, valores, "profissional_id", agendamento.getProfissional().getId());
+                case DATA -> adicionarColuna(colunas, valores, "data", Date.valueOf(agendamento.getData()));
+                case HORA -> adicionarColuna(colunas, valores, "hora", Time.valueOf(agendamento.getHora()));
+                case STATUS -> adicionarColuna(colunas, valores, "status", agendamento.getStatus().name());
+                case OBSERVACOES -> adicionarColuna(colunas, valores, "observacoes", agendamento.getObservacoes());
+            }
+        }
+        // O fim depende da data, da hora e da duração dos serviços
+        if (servicosMudaram || campos.contains(Agendamento.Campo.DATA) || campos.contains(Agendamento.Campo.HORA)) {
+            adicionarColuna(colunas, valores, "data_hora_fim", Timestamp.valueOf(agendamento.calcularDataHoraFim()));
+        }
+
+        try (Connection conn = ConexaoBD.getConexao()) {
+            List<Integer> ids = List.of(agendamento.getId());
+            ResumoDAO.aplicarAgendamentos(conn, ids, -1);
+
+            if (!colunas.isEmpty()) {
+                String sql = "UPDATE agendamento SET " + String.join(" = ?, ", colunas) + " = ? WHERE id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int indice = 1;
+                    for (Object valor : valores) {
+                        stmt.setObject(indice++, valor);
+                    }
+                    stmt.setInt(indice, agendamento.getId());
+                    stmt.executeUpdate();
+                }
+            }
+
+            if (servicosMudaram) {
+                sincronizarServicos(agendamento, servicosAntes, servicosDepois, conn);
+            }
+            ResumoDAO.aplicarAgendamentos(conn, ids, 1);
+            Metricas.incrementar("agendamento.atualizacoes_parciais");
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao atualizar agendamento: " + e.getMessage(), e);
+        }
+    }
+
+    private static void adicionarColuna(List<String> colunas, List<Object> valores, String coluna, Object valor) {
+        colunas.add(coluna);
+        valores.add(valor);
+    }
+
+    // Remove só os vínculos que saíram e insere só os que entraram
+    private void sincronizarServicos(Agendamento agendamento, Set<Integer> antes, Set<Integer> depois,
+                                     Connection conn) throws SQLException {
+        List<Integer> removidos = new ArrayList<>(antes);
+        removidos.removeAll(depois);
+        if (!removidos.isEmpty()) {
+            String sql = "DELETE FROM agendamento_servico WHERE agendamento_id = ? AND servico_id = ANY(?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, agendamento.getId());
+                stmt.setArray(2, conn.createArrayOf("INTEGER", removidos.toArray()));
+                stmt.executeUpdate();
+            }
+        }
+
+        List<Servico> adicionados = new ArrayList<>();
+        Set<Integer> vistos = new HashSet<>(antes);
+        for (Servico servico : agendamento.getServicos()) {
+            if (vistos.add(servico.getId())) {
+                adicionados.add(servico);
+            }
+        }
+        salvarServicosAgendamento(agendamento.getId(), adicionados, conn);
+    }
+
+    // Troca só o status, sem ler o agendamento antes; false se o id não existe
+    public boolean atualizarStatus(Integer id, Agendamento.StatusAgendamento status) {
+        return executarAtualizacaoStatus("UPDATE agendamento SET status = ? WHERE id = ?", id, status);
+    }
+
+    // Troca o status e substitui as observações
+    public boolean atualizarStatus(Integer id, Agendamento.StatusAgendamento status, String observacoes) {
+        return executarAtualizacaoStatus("UPDATE agendamento SET status = ?, observacoes = ? WHERE id = ?",
+                id, status, observacoes);
+    }
+
+    // Troca o status e acrescenta uma linha às observações; só vale para agendamentos ativos
+    public boolean atualizarStatusAcrescentandoObservacao(Integer id, Agendamento.StatusAgendamento status, String linha) {
+        String sql = """
+            UPDATE agendamento SET status = ?,
+                   observacoes = CASE WHEN observacoes IS NULL THEN ? ELSE observacoes || CHAR(10) || ? END
+            WHERE id = ? AND status NOT IN ('CANCELADO', 'AUSENTE')
+            """;
+        return executarAtualizacaoStatus(sql, id, status, linha, linha);
+    }
+
+    // Troca o status de um agendamento ativo (não cancelado nem ausente)
+    public boolean atualizarStatusAtivo(Integer id, Agendamento.StatusAgendamento status) {
+        return executarAtualizacaoStatus(
+                "UPDATE agendamento SET status = ? WHERE id = ? AND status NOT IN ('CANCELADO', 'AUSENTE')", id, status);
+    }
+
+    // Até onde o diário de status (FilaStatusAgendamento) já foi gravado no banco; 0 se nunca foi
+    public long lerPosicaoDiarioStatus() {
+        String sql = "SELECT posicao FROM diario_aplicado WHERE nome = 'status'";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao ler posição do diário de status: " + e.getMessage(), e);
+        }
+    }
+
+    // Chamado na mesma transação que grava as mudanças do diário, para não reaplicá-las depois de uma queda
+    public void gravarPosicaoDiarioStatus(long posicao) {
+        String sql = "MERGE INTO diario_aplicado (nome, posicao) KEY (nome) VALUES ('status', ?)";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, posicao);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao gravar posição do diário de status: " + e.getMessage(), e);
+        }
+    }
+
+    // Parâmetros na ordem: status, textos extras, id. O resumo muda na mesma transação.
+    private boolean executarAtualizacaoStatus(String sql, Integer id, Agendamento.StatusAgendamento status,
+                                              String... textos) {
+        return UnidadeDeTrabalho.executar(() -> {
+            try (Connection conn = ConexaoBD.getConexao();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                List<Integer> ids = List.of(id);
+                ResumoDAO.aplicarAgendamentos(conn, ids, -1);
+
+                int indice = 1;
+                stmt.setString(indice++, status.name());
+                for (String texto : textos) {
+                    stmt.setString(indice++, texto);
+                }
+                stmt.setInt(indice, id);
+                boolean alterado = stmt.executeUpdate() > 0;
+
+                ResumoDAO.aplicarAgendamentos(conn, ids, 1);
+                return alterado;
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao atualizar status do agendamento: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void gravarTudo(Agendamento agendamento) {
+        String sql = "UPDATE agendamento SET cliente_id = ?, profissional_id = ?, data = ?, hora = ?, status = ?, observacoes = ?, data_hora_fim = ? WHERE id = ?";
 
         try (Connection conn = ConexaoBD.getConexao();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
+            List<Integer> ids = List.of(agendamento.getId());
+            ResumoDAO.aplicarAgendamentos(conn, ids, -1);
+
             stmt.setInt(1, agendamento.getCliente().getId());
             stmt.setInt(2, agendamento.getProfissional().getId());
             stmt.setDate(3, Date.valueOf(agendamento.getData()));
             stmt.setTime(4, Time.valueOf(agendamento.getHora()));
             stmt.setString(5, agendamento.getStatus().name());
             stmt.setString(6, agendamento.getObservacoes());
-            stmt.setInt(7, agendamento.getId());
+            stmt.setTimestamp(7, Timestamp.valueOf(agendamento.calcularDataHoraFim()));
+            stmt.setInt(8, agendamento.getId());
 
             stmt.executeUpdate();
 
             // Atualizar serviços
             atualizarServicosAgendamento(agendamento.getId(), agendamento.getServicos(), conn);
+            ResumoDAO.aplicarAgendamentos(conn, ids, 1);
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao atualizar agendamento: " + e.getMessage(), e);
@@ -93,15 +419,18 @@ public class AgendamentoDAO {
     public void excluir(Integer id) {
         String sql = "DELETE FROM agendamento WHERE id = ?";
 
-        try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+                ResumoDAO.aplicarAgendamentos(conn, List.of(id), -1);
+                stmt.setInt(1, id);
+                stmt.executeUpdate();
 
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao excluir agendamento: " + e.getMessage(), e);
-        }
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao excluir agendamento: " + e.getMessage(), e);
+            }
+        });
     }
 
     public Agendamento buscarPorId(Integer id) {
@@ -121,11 +450,12 @@ public class AgendamentoDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                Agendamento agendamento = mapearAgendamento(rs);
+                Agendamento agendamento = mapearAgendamento(rs, new MapaIdentidade());
 
                 // Buscar serviços do agendamento
                 List<Servico> servicos = buscarServicosPorAgendamento(id, conn);
                 agendamento.setServicos(servicos);
+                agendamento.marcarSincronizado();
 
                 return agendamento;
             }
@@ -139,77 +469,113 @@ public class AgendamentoDAO {
 
     // FILTROS (mínimo 3)
     public List<Agendamento> buscarPorData(LocalDate data) {
-        String sql = """
-            SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone, 
-                   p.nome as profissional_nome, p.especialidade
-            FROM agendamento a
-            JOIN cliente c ON a.cliente_id = c.id
-            JOIN profissional p ON a.profissional_id = p.id
-            WHERE a.data = ?
-            ORDER BY a.hora
-            """;
-
-        return executarConsultaComFiltro(sql, data, null, null);
+        return executarConsultaComFiltro(SQL_POR_DATA, data, null, null);
     }
 
     public List<Agendamento> buscarPorCliente(Integer clienteId) {
-        String sql = """
-            SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone, 
-                   p.nome as profissional_nome, p.especialidade
-            FROM agendamento a
-            JOIN cliente c ON a.cliente_id = c.id
-            JOIN profissional p ON a.profissional_id = p.id
-            WHERE a.cliente_id = ?
-            ORDER BY a.data DESC, a.hora
-            """;
-
-        return executarConsultaComFiltro(sql, null, clienteId, null);
+        return executarConsultaComFiltro(SQL_POR_CLIENTE, null, clienteId, null);
     }
 
     public List<Agendamento> buscarPorProfissional(Integer profissionalId) {
-        String sql = """
-            SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone, 
-                   p.nome as profissional_nome, p.especialidade
-            FROM agendamento a
-            JOIN cliente c ON a.cliente_id = c.id
-            JOIN profissional p ON a.profissional_id = p.id
-            WHERE a.profissional_id = ?
-            ORDER BY a.data, a.hora
-            """;
+        return executarConsultaComFiltro(SQL_POR_PROFISSIONAL, null, null, profissionalId);
+    }
 
-        return executarConsultaComFiltro(sql, null, null, profissionalId);
+    // Trava a linha do profissional até o fim da transação atual (só faz sentido dentro de uma
+    // UnidadeDeTrabalho). Quem verifica conflito e grava na agenda do mesmo profissional passa por
+    // aqui antes, então as verificações concorrentes são feitas uma depois da outra e a segunda já
+    // enxerga o agendamento confirmado pela primeira. false se o profissional não existe.
+    public boolean bloquearAgendaProfissional(Integer profissionalId) {
+        String sql = "SELECT id FROM profissional WHERE id = ? FOR UPDATE";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, profissionalId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao bloquear agenda do profissional: " + e.getMessage(), e);
+        }
     }
 
-    public List<Agendamento> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
-        String sql = """
-            SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone, 
-                   p.nome as profissional_nome, p.especialidade
-            FROM agendamento a
-            JOIN cliente c ON a.cliente_id = c.id
-            JOIN profissional p ON a.profissional_id = p.id
-            WHERE a.data BETWEEN ? AND ?
-            ORDER BY a.data, a.hora
-            """;
+    // Primeiro agendamento ativo do profissional que se sobrepõe a [inicio, fim) no mesmo dia.
+    // O planejador escolhe o índice (profissional_id, data, hora); o fim vem de data_hora_fim.
+    public Agendamento buscarConflito(Integer profissionalId, LocalDateTime inicio, LocalDateTime fim, Integer ignorarId) {
+        // Um atendimento que termina depois da meia-noite só é limitado pelo fim do dia
+        LocalTime limiteHora = fim.toLocalDate().isAfter(inicio.toLocalDate()) ? LocalTime.MAX : fim.toLocalTime();
 
-        List<Agendamento> agendamentos = new ArrayList<>();
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CONFLITO)) {
+
+            stmt.setInt(1, profissionalId);
+            stmt.setDate(2, Date.valueOf(inicio.toLocalDate()));
+            stmt.setTime(3, Time.valueOf(limiteHora));
+            stmt.setTimestamp(4, Timestamp.valueOf(inicio));
+            stmt.setInt(5, ignorarId != null ? ignorarId : -1);
+
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+
+            Agendamento conflito = mapearAgendamento(rs, new MapaIdentidade());
+            carregarServicos(List.of(conflito), conn);
+            return conflito;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao verificar conflito de horário: " + e.getMessage(), e);
+        }
+    }
+
+    // Intervalos ocupados por agendamentos ativos do profissional no dia,
+    // como {id, início, fim} em minutos desde a meia-noite (usado pelo índice de disponibilidade)
+    public List<int[]> buscarIntervalosOcupados(Integer profissionalId, LocalDate data) {
+        List<int[]> intervalos = new ArrayList<>();
+        LocalDateTime inicioDoDia = data.atStartOfDay();
 
         try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INTERVALOS_OCUPADOS)) {
 
-            stmt.setDate(1, Date.valueOf(dataInicio));
-            stmt.setDate(2, Date.valueOf(dataFim));
+            stmt.setInt(1, profissionalId);
+            stmt.setDate(2, Date.valueOf(data));
 
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                Agendamento agendamento = mapearAgendamento(rs);
+                LocalTime hora = rs.getTime("hora").toLocalTime();
+                int inicio = hora.getHour() * 60 + hora.getMinute();
+                Timestamp fimGravado = rs.getTimestamp("data_hora_fim");
+                int fim = fimGravado == null ? inicio
+                        : (int) Math.min(24 * 60, Duration.between(inicioDoDia, fimGravado.toLocalDateTime()).toMinutes());
+                intervalos.add(new int[]{rs.getInt("id"), inicio, fim});
+            }
 
-                // Buscar serviços
-                List<Servico> servicos = buscarServicosPorAgendamento(agendamento.getId(), conn);
-                agendamento.setServicos(servicos);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+
+        return intervalos;
+    }
+
+    public List<Agendamento> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        List<Agendamento> agendamentos = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_PERIODO)) {
 
-                agendamentos.add(agendamento);
+            stmt.setDate(1, Date.valueOf(dataInicio));
+            stmt.setDate(2, Date.valueOf(dataFim));
+
+            ResultSet rs = stmt.executeQuery();
+            MapaIdentidade identidades = new MapaIdentidade();
+            while (rs.next()) {
+                agendamentos.add(mapearAgendamento(rs, identidades));
             }
 
+            // Buscar serviços
+            carregarServicos(agendamentos, conn);
+
         } catch (SQLException e) {
             throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
         }
@@ -217,31 +583,190 @@ public class AgendamentoDAO {
         return agendamentos;
     }
 
+    // Versões em Stream: leem o cursor sob demanda, para agregações sem carregar tudo na memória.
+    // O Stream segura uma conexão do pool de leitura até ser fechado (use try-with-resources).
+    public Stream<Agendamento> streamPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        String sql = SQL_STREAM_BASE + """
+            WHERE a.data BETWEEN ? AND ?
+            ORDER BY a.data, a.hora, a.id
+            """;
+
+        return CursorConsulta.abrir(sql, stmt -> {
+            stmt.setDate(1, Date.valueOf(dataInicio));
+            stmt.setDate(2, Date.valueOf(dataFim));
+        }, new LeitorAgendamentos());
+    }
+
+    public Stream<Agendamento> streamTodos() {
+        String sql = SQL_STREAM_BASE + "ORDER BY a.id";
+        return CursorConsulta.abrir(sql, stmt -> { }, new LeitorAgendamentos());
+    }
+
     public List<Agendamento> buscarPorStatus(String status) {
+        return executarConsultaComFiltro(SQL_POR_STATUS, null, null, null, status);
+    }
+
+    // Agregações feitas no banco: nenhum agendamento é carregado para contar ou somar
+
+    public int contarPorStatus(Agendamento.StatusAgendamento status) {
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CONTAR_POR_STATUS)) {
+
+            stmt.setString(1, status.name());
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao contar agendamentos: " + e.getMessage(), e);
+        }
+    }
+
+    // Quantidade de agendamentos de cada status (status sem agendamentos ficam com 0)
+    public Map<Agendamento.StatusAgendamento, Integer> contarPorStatus() {
+        Map<Agendamento.StatusAgendamento, Integer> contagem = new EnumMap<>(Agendamento.StatusAgendamento.class);
+        for (Agendamento.StatusAgendamento status : Agendamento.StatusAgendamento.values()) {
+            contagem.put(status, 0);
+        }
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CONTAGEM_POR_STATUS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                contagem.put(Agendamento.StatusAgendamento.valueOf(rs.getString("status")), rs.getInt("quantidade"));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao contar agendamentos: " + e.getMessage(), e);
+        }
+
+        return contagem;
+    }
+
+    public List<Agendamento> listarTodos() {
         String sql = """
             SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone, 
                    p.nome as profissional_nome, p.especialidade
             FROM agendamento a
             JOIN cliente c ON a.cliente_id = c.id
             JOIN profissional p ON a.profissional_id = p.id
-            WHERE a.status = ?
-            ORDER BY a.data DESC
+            ORDER BY a.data DESC, a.hora
             """;
 
-        return executarConsultaComFiltro(sql, null, null, null, status);
+        return executarConsultaComFiltro(sql, null, null, null);
     }
 
-    public List<Agendamento> listarTodos() {
-        String sql = """
-            SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone, 
+    // Paginação por chave na mesma ordem de listarTodos (data DESC, hora, id)
+    public Pagina<Agendamento> listarPagina(Agendamento cursor, int tamanho) {
+        List<Object> valores = new ArrayList<>();
+        String sql = montarBusca(new FiltroAgendamento(), cursor, valores);
+
+        try (Connection conn = ConexaoBD.getConexao()) {
+            return lerPagina(conn, sql, valores, tamanho);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca paginada pelos critérios do filtro, na ordem de listarPagina (data DESC, hora, id).
+     * Com clienteIds a consulta parte do índice de cliente_id; só com período, do índice de data.
+     */
+    public Pagina<Agendamento> buscar(FiltroAgendamento filtro, Agendamento cursor, int tamanho) {
+        if (filtro.getClienteIds() != null && filtro.getClienteIds().isEmpty()) {
+            return Pagina.deConsulta(new ArrayList<>(), tamanho);
+        }
+        List<Object> valores = new ArrayList<>();
+        String sql = montarBusca(filtro, cursor, valores);
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura()) {
+            Pagina<Agendamento> pagina = lerPagina(conn, sql, valores, tamanho);
+            Metricas.incrementar("agendamento.buscas_filtradas");
+            return pagina;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na busca de agendamentos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SQL de uma página de buscar/listarPagina. Os parâmetros vão para valores, menos o LIMIT, que é o último.
+     * A página é escolhida numa subconsulta só sobre agendamento e as junções vêm depois, só para as
+     * linhas da página: com a junção direta o H2 começa pela tabela menor (profissional) e ordena
+     * todos os agendamentos a cada página. O "a.data <= ?" repete o limite do cursor numa forma que
+     * o índice (data DESC, hora, id) usa como ponto de partida; o OR sozinho obrigaria a ler do início.
+     */
+    public static String montarBusca(FiltroAgendamento filtro, Agendamento cursor, List<Object> valores) {
+        List<String> condicoes = new ArrayList<>();
+
+        if (filtro.getClienteIds() != null) {
+            condicoes.add("a.cliente_id = ANY(?)");
+            valores.add(filtro.getClienteIds().toArray(new Integer[0]));
+        }
+        if (filtro.getNomeCliente() != null) {
+            condicoes.add("a.cliente_id IN (SELECT id FROM cliente WHERE LOWER(nome) LIKE ?)");
+            valores.add("%" + filtro.getNomeCliente().toLowerCase() + "%");
+        }
+        if (filtro.getDataInicio() != null) {
+            condicoes.add("a.data >= ?");
+            valores.add(Date.valueOf(filtro.getDataInicio()));
+        }
+        if (filtro.getDataFim() != null) {
+            condicoes.add("a.data <= ?");
+            valores.add(Date.valueOf(filtro.getDataFim()));
+        }
+        if (filtro.getStatus() != null) {
+            condicoes.add("a.status = ?");
+            valores.add(filtro.getStatus().name());
+        }
+        if (cursor != null) {
+            Date dataCursor = Date.valueOf(cursor.getData());
+            Time horaCursor = Time.valueOf(cursor.getHora());
+            condicoes.add("a.data <= ?");
+            condicoes.add("(a.data < ? OR (a.data = ? AND (a.hora > ? OR (a.hora = ? AND a.id > ?))))");
+            valores.addAll(List.of(dataCursor, dataCursor, dataCursor, horaCursor, horaCursor, cursor.getId()));
+        }
+
+        return """
+            SELECT a.*, c.nome as cliente_nome, c.telefone as cliente_telefone,
                    p.nome as profissional_nome, p.especialidade
-            FROM agendamento a
+            FROM (SELECT * FROM agendamento a
+            """ + (condicoes.isEmpty() ? "" : "      WHERE " + String.join(" AND ", condicoes) + "\n") + """
+                  ORDER BY a.data DESC, a.hora, a.id
+                  LIMIT ?) a
             JOIN cliente c ON a.cliente_id = c.id
             JOIN profissional p ON a.profissional_id = p.id
-            ORDER BY a.data DESC, a.hora
+            ORDER BY a.data DESC, a.hora, a.id
             """;
+    }
 
-        return executarConsultaComFiltro(sql, null, null, null);
+    private Pagina<Agendamento> lerPagina(Connection conn, String sql, List<Object> valores, int tamanho) throws SQLException {
+        List<Agendamento> agendamentos = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int paramIndex = 1;
+            for (Object valor : valores) {
+                if (valor instanceof Integer[] ids) {
+                    stmt.setArray(paramIndex++, conn.createArrayOf("INTEGER", ids));
+                } else {
+                    stmt.setObject(paramIndex++, valor);
+                }
+            }
+            stmt.setInt(paramIndex, tamanho + 1);
+
+            ResultSet rs = stmt.executeQuery();
+            MapaIdentidade identidades = new MapaIdentidade();
+            while (rs.next()) {
+                agendamentos.add(mapearAgendamento(rs, identidades));
+            }
+        }
+
+        Pagina<Agendamento> pagina = Pagina.deConsulta(agendamentos, tamanho);
+
+        // Serviços apenas dos agendamentos que ficaram na página
+        carregarServicos(pagina.getItens(), conn);
+        return pagina;
     }
 
     private List<Agendamento> executarConsultaComFiltro(String sql, LocalDate data, Integer clienteId, Integer profissionalId) {
@@ -269,16 +794,14 @@ public class AgendamentoDAO {
             }
 
             ResultSet rs = stmt.executeQuery();
+            MapaIdentidade identidades = new MapaIdentidade();
             while (rs.next()) {
-                Agendamento agendamento = mapearAgendamento(rs);
-
-                // Buscar serviços
-                List<Servico> servicos = buscarServicosPorAgendamento(agendamento.getId(), conn);
-                agendamento.setServicos(servicos);
-
-                agendamentos.add(agendamento);
+                agendamentos.add(mapearAgendamento(rs, identidades));
             }
 
+            // Buscar serviços
+            carregarServicos(agendamentos, conn);
+
         } catch (SQLException e) {
             throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
         }
@@ -286,34 +809,131 @@ public class AgendamentoDAO {
         return agendamentos;
     }
 
+    private void carregarServicos(List<Agendamento> agendamentos, Connection conn) throws SQLException {
+        if (carregamentoEmLote) {
+            carregarServicosEmLote(agendamentos, conn);
+        } else {
+            for (Agendamento agendamento : agendamentos) {
+                agendamento.setServicos(buscarServicosPorAgendamento(agendamento.getId(), conn));
+            }
+        }
+        agendamentos.forEach(Agendamento::marcarSincronizado);
+    }
+
+    private void carregarServicosEmLote(List<Agendamento> agendamentos, Connection conn) throws SQLException {
+        if (agendamentos.isEmpty()) {
+            return;
+        }
+
+        // Só os vínculos: os dados do serviço vêm do catálogo em memória
+        String sql = "SELECT agendamento_id, servico_id FROM agendamento_servico WHERE agendamento_id = ANY(?)";
+
+        Map<Integer, Agendamento> porId = new HashMap<>();
+        for (Agendamento agendamento : agendamentos) {
+            porId.put(agendamento.getId(), agendamento);
+        }
+        List<Integer> ids = new ArrayList<>(porId.keySet());
+        // Pares (agendamento, serviço); os serviços são resolvidos de uma vez no fim
+        List<int[]> vinculos = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE_SERVICOS) {
+                List<Integer> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE_SERVICOS, ids.size()));
+                stmt.setArray(1, conn.createArrayOf("INTEGER", lote.toArray()));
+                Metricas.incrementar("agendamento.servicos.consultas_lote");
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        vinculos.add(new int[]{rs.getInt("agendamento_id"), rs.getInt("servico_id")});
+                    }
+                }
+            }
+        }
+
+        Set<Integer> servicoIds = new HashSet<>();
+        for (int[] vinculo : vinculos) {
+            servicoIds.add(vinculo[1]);
+        }
+        Map<Integer, Servico> servicos = CatalogoServicos.getInstancia().buscarPorIds(conn, servicoIds);
+        for (int[] vinculo : vinculos) {
+            Servico servico = servicos.get(vinculo[1]);
+            if (servico != null) {
+                porId.get(vinculo[0]).addServico(servico);
+            }
+        }
+
+        Metricas.adicionar("agendamento.servicos.agendamentos_carregados", agendamentos.size());
+    }
+
     private List<Servico> buscarServicosPorAgendamento(int agendamentoId, Connection conn) throws SQLException {
-        List<Servico> servicos = new ArrayList<>();
-        String sql = """
-            SELECT s.* 
-            FROM servico s
-            JOIN agendamento_servico ag ON s.id = ag.servico_id
-            WHERE ag.agendamento_id = ?
-            """;
+        Metricas.incrementar("agendamento.servicos.consultas_individuais");
+        List<Integer> servicoIds = new ArrayList<>();
+        String sql = "SELECT servico_id FROM agendamento_servico WHERE agendamento_id = ?";
 
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, agendamentoId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Servico servico = new Servico();
-                servico.setId(rs.getInt("id"));
-                servico.setNome(rs.getString("nome"));
-                servico.setDescricao(rs.getString("descricao"));
-                servico.setPreco(rs.getDouble("preco"));
-                servico.setDuracaoMinutos(rs.getInt("duracao_min"));
-                servicos.add(servico);
+                servicoIds.add(rs.getInt("servico_id"));
             }
         }
 
+        return resolverServicos(servicoIds, conn);
+    }
+
+    // Serviços na ordem dos ids, numa única ida ao catálogo
+    private List<Servico> resolverServicos(List<Integer> servicoIds, Connection conn) throws SQLException {
+        Map<Integer, Servico> porId = CatalogoServicos.getInstancia().buscarPorIds(conn, servicoIds);
+        List<Servico> servicos = new ArrayList<>();
+        for (Integer id : servicoIds) {
+            Servico servico = porId.get(id);
+            if (servico != null) {
+                servicos.add(servico);
+            }
+        }
         return servicos;
     }
 
-    private Agendamento mapearAgendamento(ResultSet rs) throws SQLException {
+    // Junta as linhas consecutivas de um mesmo agendamento (uma por serviço) em um único objeto
+    private class LeitorAgendamentos implements CursorConsulta.Leitor<Agendamento> {
+        private final MapaIdentidade identidades = new MapaIdentidade();
+        private boolean linhaPendente;
+        private boolean fim;
+
+        @Override
+        public Agendamento proximo(ResultSet rs) throws SQLException {
+            if (fim) {
+                return null;
+            }
+            if (!linhaPendente && !rs.next()) {
+                fim = true;
+                return null;
+            }
+
+            Agendamento agendamento = mapearAgendamento(rs, identidades);
+            List<Integer> servicoIds = new ArrayList<>();
+            do {
+                int servicoId = rs.getInt("s_id");
+                if (!rs.wasNull()) {
+                    servicoIds.add(servicoId);
+                }
+
+                if (!rs.next()) {
+                    fim = true;
+                    break;
+                }
+            } while (rs.getInt("id") == agendamento.getId());
+
+            linhaPendente = !fim;
+            agendamento.getServicos().addAll(resolverServicos(servicoIds, rs.getStatement().getConnection()));
+            agendamento.marcarSincronizado();
+            return agendamento;
+        }
+    }
+
+    // Clientes e profissionais repetidos nas linhas viram a mesma instância (ver MapaIdentidade)
+    private Agendamento mapearAgendamento(ResultSet rs, MapaIdentidade identidades) throws SQLException {
         Agendamento agendamento = new Agendamento();
         agendamento.setId(rs.getInt("id"));
 
@@ -341,18 +961,24 @@ public class AgendamentoDAO {
         agendamento.setObservacoes(rs.getString("observacoes"));
 
         // Cliente
-        Cliente cliente = new Cliente();
-        cliente.setId(rs.getInt("cliente_id"));
-        cliente.setNome(rs.getString("cliente_nome"));
-        cliente.setTelefone(rs.getString("cliente_telefone"));
-        agendamento.setCliente(cliente);
+        int clienteId = rs.getInt("cliente_id");
+        agendamento.setCliente(identidades.cliente(clienteId, () -> {
+            Cliente cliente = new Cliente();
+            cliente.setId(clienteId);
+            cliente.setNome(rs.getString("cliente_nome"));
+            cliente.setTelefone(rs.getString("cliente_telefone"));
+            return cliente;
+        }));
 
         // Profissional
-        Profissional profissional = new Profissional();
-        profissional.setId(rs.getInt("profissional_id"));
-        profissional.setNome(rs.getString("profissional_nome"));
-        profissional.setEspecialidade(rs.getString("especialidade"));
-        agendamento.setProfissional(profissional);
+        int profissionalId = rs.getInt("profissional_id");
+        agendamento.setProfissional(identidades.profissional(profissionalId, () -> {
+            Profissional profissional = new Profissional();
+            profissional.setId(profissionalId);
+            profissional.setNome(rs.getString("profissional_nome"));
+            profissional.setEspecialidade(rs.getString("especialidade"));
+            return profissional;
+        }));
 
         return agendamento;
     }
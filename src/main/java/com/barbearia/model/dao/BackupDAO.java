@@ -0,0 +1,274 @@
+package com.barbearia.model.dao;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Acesso ao banco usado pelo BackupService: snapshot online (BACKUP TO do H2),
+ * leitura e poda do log_alteracao preenchido pelo GatilhoAlteracoes e reaplicação
+ * das alterações em um banco restaurado. Os métodos da restauração recebem a conexão
+ * do banco que está sendo montado à parte (ConexaoBD.conectarPasta), não a do pool.
+ */
+public class BackupDAO {
+
+    // Tabelas com histórico. Os resumos ficam de fora: são derivados e reconstruídos após restaurar.
+    public static final List<String> TABELAS_COM_HISTORICO = List.of(
+            "cliente", "profissional", "servico", "agendamento", "agendamento_servico", "pagamento");
+
+    public record Alteracao(long seq, long transacao, LocalDateTime momento, String tabela, String operacao,
+                            String dados) {
+    }
+
+    public static String nomeGatilho(String tabela) {
+        return "trg_historico_" + tabela;
+    }
+
+    // Marca as alterações ainda não enviadas com o número do lote; devolve quantas foram marcadas
+    public int marcarLote(int lote) {
+        String sql = "UPDATE log_alteracao SET lote = ? WHERE lote IS NULL";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, lote);
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao marcar alterações: " + e.getMessage(), e);
+        }
+    }
+
+    // Percorre as alterações do lote em ordem de seq, sem montar uma lista
+    public void paraCadaAlteracao(int lote, Consumer<Alteracao> acao) {
+        String sql = "SELECT seq, transacao, momento, tabela, operacao, dados FROM log_alteracao WHERE lote = ? ORDER BY seq";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setFetchSize(CursorConsulta.TAMANHO_FETCH);
+            stmt.setInt(1, lote);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    acao.accept(new Alteracao(rs.getLong("seq"), rs.getLong("transacao"), rs.getTimestamp("momento").toLocalDateTime(),
+                            rs.getString("tabela"), rs.getString("operacao"), rs.getString("dados")));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao ler alterações: " + e.getMessage(), e);
+        }
+    }
+
+    // Cópia compactada e transacionalmente consistente do banco, sem bloquear as outras conexões
+    public void criarSnapshot(Path arquivo) {
+        String caminho = arquivo.toAbsolutePath().toString().replace("'", "''");
+
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("BACKUP TO '" + caminho + "'");
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao criar snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    // Remove do log o que já está contido em um snapshot
+    public int podar(int loteBase) {
+        String sql = "DELETE FROM log_alteracao WHERE lote <= ?";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, loteBase);
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao podar log de alterações: " + e.getMessage(), e);
+        }
+    }
+
+    // Alterações que o banco (recém-restaurado) já contém
+    public Set<Long> listarSequenciasPresentes(Connection conn) {
+        Set<Long> sequencias = new HashSet<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT seq FROM log_alteracao")) {
+
+            while (rs.next()) {
+                sequencias.add(rs.getLong(1));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao ler log de alterações: " + e.getMessage(), e);
+        }
+
+        return sequencias;
+    }
+
+    // Durante a reaplicação as escritas não podem voltar para o log
+    public void removerGatilhos(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+
+            for (String tabela : TABELAS_COM_HISTORICO) {
+                stmt.execute("DROP TRIGGER IF EXISTS " + nomeGatilho(tabela));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao remover gatilhos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fecha a restauração: ajusta os AUTO_INCREMENT (que não avançam com ids informados
+     * explicitamente), esvazia o log, que pertence à cadeia de backup antiga, e refaz os resumos.
+     */
+    public void concluirRestauracao(Connection conn, boolean reconstruirResumos) {
+        try (Statement stmt = conn.createStatement()) {
+
+            ajustarAutoIncremento(conn);
+            stmt.executeUpdate("DELETE FROM log_alteracao");
+            if (reconstruirResumos) {
+                ResumoDAO.reconstruir(conn);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao concluir restauração: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reaplica as alterações na ordem recebida (MERGE pela chave primária ou DELETE) com um
+     * único commit no fim. Cada incremento só contém transações inteiras (o lote é marcado
+     * de uma vez sobre o que já estava confirmado), então o commit cai entre transações.
+     */
+    public int reaplicar(Connection conn, Iterator<Alteracao> alteracoes) {
+        Map<String, List<String>> chaves = new HashMap<>();
+        Map<String, PreparedStatement> statements = new HashMap<>();
+        int total = 0;
+
+        try {
+            conn.setAutoCommit(false);
+            try {
+                while (alteracoes.hasNext()) {
+                    Alteracao alteracao = alteracoes.next();
+                    String tabela = alteracao.tabela();
+                    if (!TABELAS_COM_HISTORICO.contains(tabela)) {
+                        throw new IllegalStateException("Tabela desconhecida no backup: " + tabela);
+                    }
+
+                    List<String> chave = chaves.get(tabela);
+                    if (chave == null) {
+                        chave = lerChavePrimaria(conn, tabela);
+                        chaves.put(tabela, chave);
+                    }
+
+                    JsonObject dados = JsonParser.parseString(alteracao.dados()).getAsJsonObject();
+                    List<String> colunas = "D".equals(alteracao.operacao()) ? chave : new ArrayList<>(dados.keySet());
+                    String sql = "D".equals(alteracao.operacao())
+                            ? montarDelete(tabela, chave)
+                            : montarMerge(tabela, colunas, chave);
+
+                    PreparedStatement stmt = statements.get(sql);
+                    if (stmt == null) {
+                        stmt = conn.prepareStatement(sql);
+                        statements.put(sql, stmt);
+                    }
+                    for (int i = 0; i < colunas.size(); i++) {
+                        definirValor(stmt, i + 1, dados.get(colunas.get(i)));
+                    }
+                    stmt.executeUpdate();
+                    total++;
+                }
+
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                for (PreparedStatement stmt : statements.values()) {
+                    stmt.close();
+                }
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao reaplicar alterações: " + e.getMessage(), e);
+        }
+
+        return total;
+    }
+
+    private List<String> lerChavePrimaria(Connection conn, String tabela) throws SQLException {
+        List<String> chave = new ArrayList<>();
+        try (ResultSet rs = conn.getMetaData().getPrimaryKeys(null, null, tabela.toUpperCase())) {
+            while (rs.next()) {
+                chave.add(rs.getString("COLUMN_NAME").toLowerCase());
+            }
+        }
+        if (chave.isEmpty()) {
+            throw new IllegalStateException("Tabela sem chave primária: " + tabela);
+        }
+        return chave;
+    }
+
+    private static String montarMerge(String tabela, List<String> colunas, List<String> chave) {
+        for (String coluna : colunas) {
+            // Os nomes vêm do arquivo de backup e vão direto para o SQL
+            if (!coluna.matches("[a-z_][a-z0-9_]*")) {
+                throw new IllegalStateException("Coluna inválida no backup: " + coluna);
+            }
+        }
+        return "MERGE INTO " + tabela + " (" + String.join(", ", colunas) + ") KEY (" + String.join(", ", chave)
+                + ") VALUES (" + String.join(", ", Collections.nCopies(colunas.size(), "?")) + ")";
+    }
+
+    private static String montarDelete(String tabela, List<String> chave) {
+        return "DELETE FROM " + tabela + " WHERE " + String.join(" = ? AND ", chave) + " = ?";
+    }
+
+    private static void definirValor(PreparedStatement stmt, int indice, JsonElement valor) throws SQLException {
+        if (valor == null || valor.isJsonNull()) {
+            stmt.setObject(indice, null);
+        } else if (valor.getAsJsonPrimitive().isBoolean()) {
+            stmt.setBoolean(indice, valor.getAsBoolean());
+        } else if (valor.getAsJsonPrimitive().isNumber()) {
+            stmt.setBigDecimal(indice, valor.getAsBigDecimal());
+        } else {
+            // O H2 converte o texto ISO para DATE, TIME e TIMESTAMP
+            stmt.setString(indice, valor.getAsString());
+        }
+    }
+
+    private static void ajustarAutoIncremento(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String tabela : TABELAS_COM_HISTORICO) {
+                if ("agendamento_servico".equals(tabela)) {
+                    // Chave composta, sem AUTO_INCREMENT
+                    continue;
+                }
+                long proximo;
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabela)) {
+                    rs.next();
+                    proximo = rs.getLong(1);
+                }
+                stmt.execute("ALTER TABLE " + tabela + " ALTER COLUMN id RESTART WITH " + proximo);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.model.entity.Profissional;
+import com.barbearia.util.Metricas;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache de segundo nível (entre consultas) de entidades completas, limitado e com descarte LRU.
+ * Preenchido pelo buscarPorId dos DAOs e invalidado pelas escritas de cada DAO.
+ * O tamanho vem da propriedade "barbearia.cache.entidades" (0 desliga o cache).
+ * Guarda e devolve cópias: as telas alteram as instâncias recebidas antes de salvar.
+ */
+class CacheEntidades<T> {
+
+    private static final int TAMANHO_PADRAO = 1000;
+    private static final int TAMANHO = Integer.getInteger("barbearia.cache.entidades", TAMANHO_PADRAO);
+
+    static final CacheEntidades<Cliente> CLIENTES = new CacheEntidades<>("cliente", TAMANHO, Cliente::new);
+    static final CacheEntidades<Profissional> PROFISSIONAIS = new CacheEntidades<>("profissional", TAMANHO, Profissional::new);
+
+    private final String nome;
+    private final int capacidade;
+    private final UnaryOperator<T> copiar;
+    private final Map<Integer, T> entradas;
+    // Incrementada a cada remoção: quem leu do banco antes dela não guarda o que leu
+    private long geracao;
+
+    CacheEntidades(String nome, int capacidade, UnaryOperator<T> copiar) {
+        this.nome = nome;
+        this.capacidade = capacidade;
+        this.copiar = copiar;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, T> maisAntiga) {
+                return size() > CacheEntidades.this.capacidade;
+            }
+        };
+    }
+
+    boolean isHabilitado() {
+        return capacidade > 0;
+    }
+
+    synchronized T obter(int id) {
+        if (!isHabilitado()) {
+            return null;
+        }
+        T entidade = entradas.get(id);
+        Metricas.incrementar("cache." + nome + (entidade != null ? ".acertos" : ".falhas"));
+        return entidade != null ? copiar.apply(entidade) : null;
+    }
+
+    synchronized long geracao() {
+        return geracao;
+    }
+
+    // 'geracao' é o valor de geracao() lido antes do SELECT que trouxe a entidade
+    synchronized void guardar(int id, T entidade, long geracao) {
+        // Lida dentro de uma transação pode ainda não estar confirmada
+        if (isHabilitado() && !UnidadeDeTrabalho.isAtiva() && geracao == this.geracao) {
+            entradas.put(id, copiar.apply(entidade));
+        }
+    }
+
+    // A instância em cache pode ter sido alterada antes da escrita: descarta sempre
+    void invalidar(int id) {
+        remover(id);
+        // Dentro de uma transação outra thread pode recarregar a versão antiga antes do commit
+        if (UnidadeDeTrabalho.isAtiva()) {
+            UnidadeDeTrabalho.aoConcluir(() -> remover(id));
+        }
+    }
+
+    private synchronized void remover(int id) {
+        geracao++;
+        entradas.remove(id);
+    }
+
+    synchronized void limpar() {
+        geracao++;
+        entradas.clear();
+    }
+}
@@ -0,0 +1,202 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.util.Metricas;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU de PreparedStatements de uma conexão física do pool, chaveado pelo texto SQL.
+ * O statement entregue é um proxy: close() apenas limpa os parâmetros e o devolve ao cache.
+ * Acessado somente pela thread que está com a conexão emprestada.
+ */
+class CacheStatements {
+
+    private final int capacidade;
+    private final Map<String, Entrada> entradas;
+
+    CacheStatements(int capacidade) {
+        this.capacidade = capacidade;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                if (size() <= CacheStatements.this.capacidade) {
+                    return false;
+                }
+                maisAntiga.getValue().remover();
+                Metricas.incrementar("statements.cache.removidos");
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement preparar(Connection real, Connection logica, String sql, int chavesGeradas) throws SQLException {
+        if (capacidade <= 0) {
+            return real.prepareStatement(sql, chavesGeradas);
+        }
+
+        String chave = chavesGeradas == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entrada entrada = entradas.get(chave);
+
+        // Statement descartado na devolução (configuração alterada): prepara outro
+        if (entrada != null && entrada.removida && !entrada.emUso) {
+            entradas.remove(chave);
+            entrada = null;
+        }
+
+        if (entrada != null && !entrada.emUso) {
+            Metricas.incrementar("statements.cache.acertos");
+            return entrada.emprestar(logica);
+        }
+
+        Metricas.incrementar("statements.cache.falhas");
+        PreparedStatement novo = real.prepareStatement(sql, chavesGeradas);
+
+        // Mesmo SQL já aberto nesta conexão (consulta aninhada): usa um statement avulso
+        if (entrada != null) {
+            return novo;
+        }
+
+        entrada = new Entrada(novo);
+        entradas.put(chave, entrada);
+        return entrada.emprestar(logica);
+    }
+
+    // Chamado quando a conexão volta ao pool: nada pode continuar emprestado
+    void liberarTodos() {
+        for (Entrada entrada : entradas.values()) {
+            if (entrada.emUso) {
+                entrada.devolver();
+            }
+        }
+    }
+
+    void fecharTodos() {
+        for (Entrada entrada : entradas.values()) {
+            entrada.remover();
+        }
+        entradas.clear();
+    }
+
+    private static class Entrada implements InvocationHandler {
+        private final PreparedStatement real;
+        private final List<ResultSet> abertos = new ArrayList<>();
+        private Connection logica;
+        private PreparedStatement proxy;
+        private boolean emUso;
+        private boolean removida;
+
+        Entrada(PreparedStatement real) {
+            this.real = real;
+        }
+
+        PreparedStatement emprestar(Connection logica) {
+            this.logica = logica;
+            this.emUso = true;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+            return proxy;
+        }
+
+        void devolver() {
+            for (ResultSet rs : abertos) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    // ResultSet já fechado
+                }
+            }
+            abertos.clear();
+            emUso = false;
+            proxy = null;
+            logica = null;
+
+            try {
+                if (removida || real.isClosed()) {
+                    real.close();
+                    return;
+                }
+                real.clearParameters();
+                real.clearBatch();
+                real.clearWarnings();
+            } catch (SQLException e) {
+                removida = true;
+                fecharReal();
+            }
+        }
+
+        void remover() {
+            removida = true;
+            if (!emUso) {
+                fecharReal();
+            }
+        }
+
+        private void fecharReal() {
+            try {
+                real.close();
+            } catch (SQLException e) {
+                // Ignora: o statement será descartado de qualquer forma
+            }
+        }
+
+        @Override
+        public Object invoke(Object chamado, Method method, Object[] args) throws Throwable {
+            boolean atual = emUso && chamado == proxy;
+            switch (method.getName()) {
+                case "close":
+                    if (atual) {
+                        devolver();
+                    }
+                    return null;
+                case "isClosed":
+                    return !atual || real.isClosed();
+                case "getConnection":
+                    return logica;
+                case "equals":
+                    return chamado == args[0];
+                case "hashCode":
+                    return System.identityHashCode(chamado);
+                case "toString":
+                    return "StatementCacheado[" + real + "]";
+                default:
+                    break;
+            }
+
+            if (!atual) {
+                throw new SQLException("Statement já foi fechado");
+            }
+
+            // Alterações de configuração não devem vazar para o próximo uso do statement
+            if (method.getName().equals("setFetchSize") || method.getName().equals("setMaxRows")
+                    || method.getName().equals("setQueryTimeout") || method.getName().equals("setFetchDirection")) {
+                removida = true;
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (resultado instanceof ResultSet) {
+                abertos.add((ResultSet) resultado);
+            }
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Metricas;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória do catálogo de serviços (tabela pequena e lida o tempo todo).
+ * Carregado na primeira leitura e descartado a cada escrita do ServicoDAO.
+ * Junto com a lista ficam as estatísticas de preço, calculadas numa única passada.
+ * Só guarda o que foi lido fora de transação (já confirmado) e entrega sempre cópias.
+ */
+public class CatalogoServicos {
+
+    private static final CatalogoServicos INSTANCIA = new CatalogoServicos(new ServicoDAO());
+
+    private final ServicoDAO servicoDAO;
+    // Incrementada a cada invalidação: uma carga iniciada antes dela é descartada
+    private final AtomicLong versao = new AtomicLong();
+    private volatile Conteudo conteudo;
+
+    CatalogoServicos(ServicoDAO servicoDAO) {
+        this.servicoDAO = servicoDAO;
+    }
+
+    public static CatalogoServicos getInstancia() {
+        return INSTANCIA;
+    }
+
+    // Todos os serviços, ordenados por nome (cópias numa lista não modificável)
+    public List<Servico> listarTodos() {
+        return obter().servicos.stream().map(Servico::new).toList();
+    }
+
+    public Estatisticas getEstatisticas() {
+        return obter().estatisticas;
+    }
+
+    /**
+     * Cópias dos serviços pedidos, lidas na conexão que o DAO já tem em mãos (nada é emprestado do pool).
+     * Os ids que faltam no catálogo (criados por outro caminho depois da carga) vêm numa única consulta.
+     */
+    Map<Integer, Servico> buscarPorIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Servico> servicos = new HashMap<>();
+        if (ids.isEmpty()) {
+            return servicos;
+        }
+
+        boolean publicavel = podePublicar(conn);
+        Conteudo atual = conteudo;
+        if (atual != null) {
+            Metricas.incrementar("servicos.catalogo.acertos");
+        } else if (publicavel) {
+            atual = carregar(conn);
+        }
+
+        List<Integer> faltando = new ArrayList<>();
+        for (Integer id : new HashSet<>(ids)) {
+            Servico servico = atual != null ? atual.porId.get(id) : null;
+            if (servico != null) {
+                servicos.put(id, new Servico(servico));
+            } else {
+                faltando.add(id);
+            }
+        }
+        if (faltando.isEmpty()) {
+            return servicos;
+        }
+
+        Metricas.incrementar("servicos.catalogo.faltas");
+        long versaoLeitura = versao.get();
+        List<Servico> lidos = servicoDAO.buscarPorIds(conn, faltando);
+        for (Servico servico : lidos) {
+            servicos.put(servico.getId(), new Servico(servico));
+        }
+        if (publicavel && atual != null && !lidos.isEmpty()) {
+            acrescentar(atual, versaoLeitura, lidos);
+        }
+        return servicos;
+    }
+
+    public void invalidar() {
+        descartar();
+        // Dentro de uma transação outra thread pode recarregar o catálogo antigo antes do commit
+        if (UnidadeDeTrabalho.isAtiva()) {
+            UnidadeDeTrabalho.aoConcluir(this::descartar);
+        }
+    }
+
+    private synchronized void descartar() {
+        versao.incrementAndGet();
+        conteudo = null;
+    }
+
+    private Conteudo obter() {
+        Conteudo atual = conteudo;
+        if (atual != null) {
+            Metricas.incrementar("servicos.catalogo.acertos");
+            return atual;
+        }
+
+        try (Connection conn = ConexaoBD.getConexao()) {
+            return carregar(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao carregar catálogo de serviços: " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized Conteudo carregar(Connection conn) throws SQLException {
+        Conteudo atual = conteudo;
+        if (atual != null) {
+            return atual;
+        }
+
+        long versaoCarga = versao.get();
+        Metricas.incrementar("servicos.catalogo.cargas");
+        atual = new Conteudo(servicoDAO.listarTodos(conn));
+        if (podePublicar(conn) && versao.get() == versaoCarga) {
+            conteudo = atual;
+        }
+        return atual;
+    }
+
+    // Junta ao catálogo publicado os serviços que faltavam, sem reler a tabela inteira
+    private synchronized void acrescentar(Conteudo base, long versaoLeitura, List<Servico> novos) {
+        if (conteudo != base || versao.get() != versaoLeitura) {
+            return;
+        }
+        List<Servico> servicos = new ArrayList<>(base.servicos);
+        servicos.addAll(novos);
+        servicos.sort(Comparator.comparing(Servico::getNome));
+        conteudo = new Conteudo(servicos);
+    }
+
+    // Dentro de uma transação a leitura pode trazer dados ainda não confirmados: servem só a quem leu
+    private static boolean podePublicar(Connection conn) throws SQLException {
+        return !UnidadeDeTrabalho.isAtiva() && conn.getAutoCommit();
+    }
+
+    private static class Conteudo {
+        final List<Servico> servicos;
+        final Map<Integer, Servico> porId;
+        final Estatisticas estatisticas;
+
+        Conteudo(List<Servico> servicos) {
+            this.servicos = Collections.unmodifiableList(servicos);
+            this.porId = new HashMap<>();
+            for (Servico servico : servicos) {
+                porId.put(servico.getId(), servico);
+            }
+            this.estatisticas = Estatisticas.calcular(servicos);
+        }
+    }
+
+    // Resumo de preços do catálogo
+    public static class Estatisticas {
+        private final int quantidade;
+        private final double somaPrecos;
+        private final Servico maisCaro;
+        private final Servico maisBarato;
+
+        private Estatisticas(int quantidade, double somaPrecos, Servico maisCaro, Servico maisBarato) {
+            this.quantidade = quantidade;
+            this.somaPrecos = somaPrecos;
+            this.maisCaro = maisCaro;
+            this.maisBarato = maisBarato;
+        }
+
+        static Estatisticas calcular(List<Servico> servicos) {
+            double soma = 0.0;
+            Servico maisCaro = null;
+            Servico maisBarato = null;
+
+            for (Servico servico : servicos) {
+                soma += servico.getPreco();
+                if (maisCaro == null || servico.getPreco() > maisCaro.getPreco()) {
+                    maisCaro = servico;
+                }
+                if (maisBarato == null || servico.getPreco() < maisBarato.getPreco()) {
+                    maisBarato = servico;
+                }
+            }
+
+            return new Estatisticas(servicos.size(), soma, maisCaro, maisBarato);
+        }
+
+        public int getQuantidade() { return quantidade; }
+
+        public double getSomaPrecos() { return somaPrecos; }
+
+        public double getValorMedio() { return quantidade == 0 ? 0.0 : somaPrecos / quantidade; }
+
+        public Servico getMaisCaro() { return maisCaro == null ? null : new Servico(maisCaro); }
+
+        public Servico getMaisBarato() { return maisBarato == null ? null : new Servico(maisBarato); }
+    }
+}
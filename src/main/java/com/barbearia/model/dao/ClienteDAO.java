@@ -1,23 +1,34 @@
 package com.barbearia.model.dao;
 
 import com.barbearia.model.entity.Cliente;
+import com.barbearia.util.Pagina;
+import com.barbearia.util.Validacao;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class ClienteDAO {
 
-    public void salvar(Cliente cliente) {
-        String sql = "INSERT INTO cliente (nome, telefone, email, data_cadastro) VALUES (?, ?, ?, ?)";
+    private static final String SQL_INSERT = "INSERT INTO cliente (nome, telefone, email, data_cadastro, telefone_digitos, telefone_final) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Consultas conferidas com EXPLAIN na inicialização (DatabaseInitializer.verificarPlanos)
+    public static final String SQL_LISTAR = "SELECT * FROM cliente ORDER BY nome";
+    public static final String SQL_TELEFONES_EXISTENTES = "SELECT DISTINCT telefone_digitos FROM cliente WHERE telefone_digitos = ANY(?)";
+    public static final String SQL_POR_FINAL_TELEFONE = "SELECT * FROM cliente WHERE telefone_final = ? AND telefone_digitos LIKE ? ORDER BY nome";
+
+    // Dígitos guardados em telefone_final (indexado) para identificar quem liga pelo fim do número
+    public static final int DIGITOS_FINAL_TELEFONE = 8;
 
+    public void salvar(Cliente cliente) {
         try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, cliente.getNome());
-            stmt.setString(2, cliente.getTelefone());
-            stmt.setString(3, cliente.getEmail());
-            stmt.setDate(4, Date.valueOf(cliente.getDataCadastro()));
+            preencherInsert(stmt, cliente);
 
             stmt.executeUpdate();
 
@@ -31,8 +42,51 @@ public class ClienteDAO {
         }
     }
 
+    // Insere todos os clientes em lotes JDBC dentro de uma única transação
+    public void salvarTodos(List<Cliente> clientes) {
+        if (clientes.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = ConexaoBD.getConexao()) {
+            conn.setAutoCommit(false);
+
+            try {
+                InsercaoEmLote.inserir(conn, SQL_INSERT, clientes, this::preencherInsert, Cliente::setId);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao salvar clientes em lote: " + e.getMessage(), e);
+        }
+    }
+
+    private void preencherInsert(PreparedStatement stmt, Cliente cliente) throws SQLException {
+        stmt.setString(1, cliente.getNome());
+        stmt.setString(2, cliente.getTelefone());
+        stmt.setString(3, cliente.getEmail());
+        stmt.setDate(4, Date.valueOf(cliente.getDataCadastro()));
+        preencherTelefone(stmt, 5, cliente.getTelefone());
+    }
+
+    // telefone_digitos e telefone_final a partir do telefone formatado
+    private void preencherTelefone(PreparedStatement stmt, int indice, String telefone) throws SQLException {
+        String digitos = Validacao.apenasDigitos(telefone);
+        stmt.setString(indice, digitos);
+        stmt.setString(indice + 1, finalTelefone(digitos));
+    }
+
+    private static String finalTelefone(String digitos) {
+        return digitos.length() <= DIGITOS_FINAL_TELEFONE
+                ? digitos
+                : digitos.substring(digitos.length() - DIGITOS_FINAL_TELEFONE);
+    }
+
     public void atualizar(Cliente cliente) {
-        String sql = "UPDATE cliente SET nome = ?, telefone = ?, email = ? WHERE id = ?";
+        String sql = "UPDATE cliente SET nome = ?, telefone = ?, email = ?, telefone_digitos = ?, telefone_final = ? WHERE id = ?";
 
         try (Connection conn = ConexaoBD.getConexao();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -40,12 +94,15 @@ public class ClienteDAO {
             stmt.setString(1, cliente.getNome());
             stmt.setString(2, cliente.getTelefone());
             stmt.setString(3, cliente.getEmail());
-            stmt.setInt(4, cliente.getId());
+            preencherTelefone(stmt, 4, cliente.getTelefone());
+            stmt.setInt(6, cliente.getId());
 
             stmt.executeUpdate();
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao atualizar cliente: " + e.getMessage(), e);
+        } finally {
+            CacheEntidades.CLIENTES.invalidar(cliente.getId());
         }
     }
 
@@ -60,10 +117,18 @@ public class ClienteDAO {
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao excluir cliente: " + e.getMessage(), e);
+        } finally {
+            CacheEntidades.CLIENTES.invalidar(id);
         }
     }
 
     public Cliente buscarPorId(Integer id) {
+        Cliente emCache = CacheEntidades.CLIENTES.obter(id);
+        if (emCache != null) {
+            return emCache;
+        }
+        long geracao = CacheEntidades.CLIENTES.geracao();
+
         String sql = "SELECT * FROM cliente WHERE id = ?";
 
         try (Connection conn = ConexaoBD.getConexao();
@@ -73,7 +138,9 @@ public class ClienteDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return mapearCliente(rs);
+                Cliente cliente = mapearCliente(rs);
+                CacheEntidades.CLIENTES.guardar(id, cliente, geracao);
+                return cliente;
             }
 
         } catch (SQLException e) {
@@ -89,9 +156,56 @@ public class ClienteDAO {
         return executarConsultaComFiltro(sql, "%" + nome + "%");
     }
 
-    public List<Cliente> buscarPorTelefone(String telefone) {
-        String sql = "SELECT * FROM cliente WHERE telefone LIKE ? ORDER BY nome";
-        return executarConsultaComFiltro(sql, "%" + telefone + "%");
+    // Quais destes telefones (só dígitos) já estão cadastrados, numa consulta só pelo índice de telefone_digitos
+    public Set<String> buscarTelefonesExistentes(Collection<String> digitos) {
+        Set<String> existentes = new HashSet<>();
+        if (digitos.isEmpty()) {
+            return existentes;
+        }
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(SQL_TELEFONES_EXISTENTES)) {
+
+            stmt.setArray(1, conn.createArrayOf("VARCHAR", digitos.toArray()));
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                existentes.add(rs.getString(1));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar telefones cadastrados: " + e.getMessage(), e);
+        }
+
+        return existentes;
+    }
+
+    /**
+     * Clientes cujo telefone termina com os dígitos informados (mínimo DIGITOS_FINAL_TELEFONE),
+     * por exemplo o número de quem está ligando, com ou sem DDD e código do país.
+     * O índice de telefone_final localiza os candidatos; o LIKE só confere os dígitos a mais.
+     */
+    public List<Cliente> buscarPorFinalTelefone(String digitos) {
+        if (digitos.length() < DIGITOS_FINAL_TELEFONE) {
+            return new ArrayList<>();
+        }
+        List<Cliente> clientes = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_FINAL_TELEFONE)) {
+
+            stmt.setString(1, finalTelefone(digitos));
+            stmt.setString(2, "%" + digitos);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                clientes.add(mapearCliente(rs));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+
+        return clientes;
     }
 
     public List<Cliente> buscarPorPeriodoCadastro(LocalDate inicio, LocalDate fim) {
@@ -116,9 +230,68 @@ public class ClienteDAO {
         return clientes;
     }
 
+    public int contarTodos() {
+        return contar("SELECT COUNT(*) FROM cliente", null);
+    }
+
+    public int contarCadastradosApos(LocalDate data) {
+        return contar("SELECT COUNT(*) FROM cliente WHERE data_cadastro > ?", data);
+    }
+
+    private int contar(String sql, LocalDate parametro) {
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (parametro != null) {
+                stmt.setDate(1, Date.valueOf(parametro));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao contar clientes: " + e.getMessage(), e);
+        }
+    }
+
     public List<Cliente> listarTodos() {
-        String sql = "SELECT * FROM cliente ORDER BY nome";
-        return executarConsultaComFiltro(sql, null);
+        return executarConsultaComFiltro(SQL_LISTAR, null);
+    }
+
+    // Todos em ordem de id, lidos do cursor sob demanda (feche o Stream após o uso)
+    public Stream<Cliente> streamTodos() {
+        String sql = "SELECT * FROM cliente ORDER BY id";
+        return CursorConsulta.abrir(sql, stmt -> { }, rs -> rs.next() ? mapearCliente(rs) : null);
+    }
+
+    // Paginação por chave: ordem (nome, id), continuando depois do cursor (null = primeira página)
+    public Pagina<Cliente> listarPagina(Cliente cursor, int tamanho) {
+        String sql = cursor == null
+                ? "SELECT * FROM cliente ORDER BY nome, id LIMIT ?"
+                : "SELECT * FROM cliente WHERE (nome, id) > (?, ?) ORDER BY nome, id LIMIT ?";
+        List<Cliente> clientes = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            if (cursor != null) {
+                stmt.setString(paramIndex++, cursor.getNome());
+                stmt.setInt(paramIndex++, cursor.getId());
+            }
+            stmt.setInt(paramIndex, tamanho + 1);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                clientes.add(mapearCliente(rs));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+
+        return Pagina.deConsulta(clientes, tamanho);
     }
 
     private List<Cliente> executarConsultaComFiltro(String sql, String parametro) {
@@ -1,38 +1,73 @@
 package com.barbearia.model.dao;
 
+import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class ConexaoBD {
 
-    private static Connection connection;
+    // Pasta e nome do banco: o H2 grava o arquivo <pasta>/<nome>.mv.db
+    public static final String DIRETORIO_BANCO = "database";
+    public static final String NOME_BANCO = "barbearia";
+
+    // DB_CLOSE_DELAY=-1 é obrigatório para o H2 não apagar os dados sozinho
+    private static final String URL = "jdbc:h2:./" + DIRETORIO_BANCO + "/" + NOME_BANCO + ";DB_CLOSE_DELAY=-1";
+    private static final String USUARIO = "sa";
+    private static final String SENHA = "";
+
+    private static final int TAMANHO_POOL = 10;
+    private static final int TAMANHO_POOL_LEITURA = 4;
+
+    // Pool principal (leitura e escrita) e pool separado para relatórios
+    private static final PoolConexoes pool =
+            new PoolConexoes("principal", URL, USUARIO, SENHA, TAMANHO_POOL, false);
+    private static final PoolConexoes poolLeitura =
+            new PoolConexoes("leitura", URL, USUARIO, SENHA, TAMANHO_POOL_LEITURA, true);
 
     // Método getConexao (em português para manter compatibilidade)
+    // A conexão é emprestada do pool; fechá-la a devolve para reutilização.
+    // Dentro de uma UnidadeDeTrabalho devolve a conexão da transação da thread.
     public static Connection getConexao() {
-        try {
-            // Verifica se é nulo OU se a conexão caiu/fechou
-            if (connection == null || connection.isClosed()) {
-                // DB_CLOSE_DELAY=-1 é obrigatório para o H2 não apagar os dados sozinho
-                String url = "jdbc:h2:./database/barbearia;DB_CLOSE_DELAY=-1";
-                String user = "sa";
-                String password = "";
-
-                connection = DriverManager.getConnection(url, user, password);
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao conectar ao banco de dados: " + e.getMessage());
+        Connection transacao = UnidadeDeTrabalho.conexaoAtual();
+        if (transacao != null) {
+            return transacao;
         }
-        return connection;
+        return emprestar(pool);
+    }
+
+    // Conexão somente leitura, usada por consultas de relatório
+    public static Connection getConexaoLeitura() {
+        return emprestar(poolLeitura);
+    }
+
+    public static DataSource getDataSource() {
+        return pool;
+    }
+
+    public static DataSource getDataSourceLeitura() {
+        return poolLeitura;
+    }
+
+    // Conexão avulsa (fora do pool) ao banco guardado em outra pasta; fechá-la fecha o banco.
+    // Usada pela restauração, que monta o banco novo à parte antes de trocá-lo pelo atual.
+    // O DB_CLOSE_DELAY=-1 da URL acima fica gravado no banco (e nos snapshots), por isso é desfeito aqui.
+    public static Connection conectarPasta(Path pasta) throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:" + pasta.toAbsolutePath().resolve(NOME_BANCO)
+                + ";DB_CLOSE_DELAY=0", USUARIO, SENHA);
     }
 
     public static void fecharConexao() {
+        pool.fechar();
+        poolLeitura.fechar();
+    }
+
+    private static Connection emprestar(PoolConexoes origem) {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
+            return origem.getConnection();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new RuntimeException("Erro ao conectar ao banco de dados: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.barbearia.model.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expõe uma consulta como Stream preguiçoso lido direto de um ResultSet forward-only.
+ * A conexão fica emprestada do pool de leitura até o Stream ser fechado,
+ * então quem chama deve usar try-with-resources.
+ */
+class CursorConsulta {
+
+    // Linhas trazidas do banco por vez
+    static final int TAMANHO_FETCH = 500;
+
+    // Lê o próximo elemento do ResultSet; retorna null quando acabar
+    @FunctionalInterface
+    interface Leitor<T> {
+        T proximo(ResultSet rs) throws SQLException;
+    }
+
+    // Preenche os parâmetros do statement antes da execução
+    @FunctionalInterface
+    interface Parametros {
+        void aplicar(PreparedStatement stmt) throws SQLException;
+    }
+
+    static <T> Stream<T> abrir(String sql, Parametros parametros, Leitor<T> leitor) {
+        Connection conn = ConexaoBD.getConexaoLeitura();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            // Sem isso o H2 embarcado materializa o resultado inteiro antes do primeiro next()
+            try (Statement config = conn.createStatement()) {
+                config.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(TAMANHO_FETCH);
+            parametros.aplicar(stmt);
+            rs = stmt.executeQuery();
+
+            ResultSet cursor = rs;
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> acao) {
+                    try {
+                        T item = leitor.proximo(cursor);
+                        if (item == null) {
+                            return false;
+                        }
+                        acao.accept(item);
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Erro ao ler resultado da consulta: " + e.getMessage(), e);
+                    }
+                }
+            };
+
+            PreparedStatement statement = stmt;
+            return StreamSupport.stream(spliterator, false)
+                    .onClose(() -> fechar(cursor, statement, conn));
+
+        } catch (SQLException | RuntimeException e) {
+            fechar(rs, stmt, conn);
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+    }
+
+    private static void fechar(ResultSet rs, Statement stmt, Connection conn) {
+        try {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            try (Statement config = conn.createStatement()) {
+                config.execute("SET LAZY_QUERY_EXECUTION FALSE");
+            }
+        } catch (SQLException e) {
+            // A conexão é devolvida ao pool de qualquer forma
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // Ignora
+            }
+        }
+    }
+}
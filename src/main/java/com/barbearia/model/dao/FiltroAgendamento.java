@@ -0,0 +1,34 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.model.entity.Agendamento;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Critérios de AgendamentoDAO.buscar. Campos nulos não filtram.
+ * Cliente: por ids (usa o índice de cliente_id) ou por trecho do nome (LIKE em cliente.nome).
+ */
+public class FiltroAgendamento {
+
+    private List<Integer> clienteIds;
+    private String nomeCliente;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private Agendamento.StatusAgendamento status;
+
+    public List<Integer> getClienteIds() { return clienteIds; }
+    public void setClienteIds(List<Integer> clienteIds) { this.clienteIds = clienteIds; }
+
+    public String getNomeCliente() { return nomeCliente; }
+    public void setNomeCliente(String nomeCliente) { this.nomeCliente = nomeCliente; }
+
+    public LocalDate getDataInicio() { return dataInicio; }
+    public void setDataInicio(LocalDate dataInicio) { this.dataInicio = dataInicio; }
+
+    public LocalDate getDataFim() { return dataFim; }
+    public void setDataFim(LocalDate dataFim) { this.dataFim = dataFim; }
+
+    public Agendamento.StatusAgendamento getStatus() { return status; }
+    public void setStatus(Agendamento.StatusAgendamento status) { this.status = status; }
+}
@@ -0,0 +1,122 @@
+package com.barbearia.model.dao;
+
+import com.google.gson.JsonObject;
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gatilho do H2 que registra cada linha inserida, alterada ou removida em log_alteracao,
+ * na mesma transação da escrita (rollback da escrita desfaz o registro).
+ * É o que permite ao BackupService reaplicar as alterações feitas depois de um snapshot.
+ * O H2 cria uma instância por tabela e a usa em todas as sessões.
+ *
+ * Cada registro leva o número da transação que o gerou, para a restauração aplicar ou descartar
+ * transações inteiras. O TRANSACTION_ID() do H2 recomeça quando o banco é reaberto, então o número
+ * gravado vem de uma sequência e fica guardado em variáveis da sessão enquanto a transação dura.
+ */
+public class GatilhoAlteracoes implements Trigger {
+
+    private static final String SQL_INSERT =
+            "INSERT INTO log_alteracao (momento, tabela, operacao, dados, transacao) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_TRANSACAO_ATUAL =
+            "SELECT TRANSACTION_ID(), @backup_transacao_h2, @backup_transacao";
+    private static final String SQL_NOVA_TRANSACAO =
+            "SELECT SET(@backup_transacao, NEXT VALUE FOR seq_transacao_backup), SET(@backup_transacao_h2, ?)";
+
+    private String esquema;
+    private String tabelaBanco;
+    private String tabela;
+    private volatile String[] colunas;
+
+    @Override
+    public void init(Connection conn, String esquema, String gatilho, String tabela,
+                     boolean antes, int tipo) throws SQLException {
+        this.esquema = esquema;
+        this.tabelaBanco = tabela;
+        this.tabela = tabela.toLowerCase();
+        this.colunas = lerColunas(conn);
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] antiga, Object[] nova) throws SQLException {
+        // UPDATE que não mudou nada não precisa ir para o backup
+        if (antiga != null && nova != null && Arrays.equals(antiga, nova)) {
+            return;
+        }
+        String operacao = antiga == null ? "I" : nova == null ? "D" : "U";
+        // Na remoção guarda a linha antiga (a chave é o que importa)
+        Object[] linha = nova != null ? nova : antiga;
+
+        String[] nomes = colunas;
+        if (nomes.length != linha.length) {
+            // Coluna adicionada depois da criação do gatilho
+            nomes = lerColunas(conn);
+            colunas = nomes;
+        }
+
+        JsonObject dados = new JsonObject();
+        for (int i = 0; i < nomes.length; i++) {
+            Object valor = linha[i];
+            if (valor == null) {
+                dados.add(nomes[i], null);
+            } else if (valor instanceof Number numero) {
+                dados.addProperty(nomes[i], numero);
+            } else if (valor instanceof Boolean logico) {
+                dados.addProperty(nomes[i], logico);
+            } else {
+                // Datas e horas chegam como java.time; o formato ISO volta para o H2 sem conversão manual
+                dados.addProperty(nomes[i], valor.toString());
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setString(2, tabela);
+            stmt.setString(3, operacao);
+            stmt.setString(4, dados.toString());
+            stmt.setLong(5, numeroTransacao(conn));
+            stmt.executeUpdate();
+        }
+    }
+
+    // Mesmo número para todas as linhas da transação atual da sessão; um novo na primeira linha de cada transação
+    private static long numeroTransacao(Connection conn) throws SQLException {
+        String transacaoH2;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_TRANSACAO_ATUAL)) {
+            rs.next();
+            transacaoH2 = rs.getString(1);
+            if (transacaoH2 != null && transacaoH2.equals(rs.getString(2))) {
+                return rs.getLong(3);
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_NOVA_TRANSACAO)) {
+            stmt.setString(1, transacaoH2);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private String[] lerColunas(Connection conn) throws SQLException {
+        List<String> nomes = new ArrayList<>();
+        try (ResultSet rs = conn.getMetaData().getColumns(null, esquema, tabelaBanco, null)) {
+            while (rs.next()) {
+                nomes.add(rs.getString("COLUMN_NAME").toLowerCase());
+            }
+        }
+        return nomes.toArray(String[]::new);
+    }
+}
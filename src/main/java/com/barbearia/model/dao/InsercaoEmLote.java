@@ -0,0 +1,55 @@
+package com.barbearia.model.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * INSERT de uma lista inteira em lotes JDBC (executeBatch), devolvendo a cada item o id gerado.
+ * Roda na conexão recebida: commit e rollback ficam com quem chama.
+ */
+class InsercaoEmLote {
+
+    // Quantidade de linhas enviadas por executeBatch
+    static final int TAMANHO_LOTE = 1000;
+
+    // Preenche os parâmetros do INSERT para um item
+    @FunctionalInterface
+    interface Preenchedor<T> {
+        void preencher(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    // Recebe o id gerado para o item
+    @FunctionalInterface
+    interface DefinirId<T> {
+        void definir(T item, int id);
+    }
+
+    private InsercaoEmLote() {
+    }
+
+    static <T> void inserir(Connection conn, String sql, List<T> itens,
+                            Preenchedor<T> preenchedor, DefinirId<T> definirId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int inicio = 0; inicio < itens.size(); inicio += TAMANHO_LOTE) {
+                List<T> lote = itens.subList(inicio, Math.min(inicio + TAMANHO_LOTE, itens.size()));
+                for (T item : lote) {
+                    preenchedor.preencher(stmt, item);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (T item : lote) {
+                        if (rs.next()) {
+                            definirId.definir(item, rs.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
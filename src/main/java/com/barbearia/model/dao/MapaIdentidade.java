@@ -0,0 +1,46 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.model.entity.Profissional;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapa de identidade de uma consulta: linhas com o mesmo cliente ou profissional
+ * resolvem para a mesma instância. Procura primeiro no próprio mapa, depois no
+ * cache de segundo nível e só então monta a entidade a partir da linha.
+ */
+class MapaIdentidade {
+
+    // Monta a entidade a partir da linha atual do ResultSet
+    @FunctionalInterface
+    interface Fabrica<T> {
+        T criar() throws SQLException;
+    }
+
+    private final Map<Integer, Cliente> clientes = new HashMap<>();
+    private final Map<Integer, Profissional> profissionais = new HashMap<>();
+
+    Cliente cliente(int id, Fabrica<Cliente> fabrica) throws SQLException {
+        return resolver(clientes, CacheEntidades.CLIENTES, id, fabrica);
+    }
+
+    Profissional profissional(int id, Fabrica<Profissional> fabrica) throws SQLException {
+        return resolver(profissionais, CacheEntidades.PROFISSIONAIS, id, fabrica);
+    }
+
+    private static <T> T resolver(Map<Integer, T> mapa, CacheEntidades<T> cache, int id,
+                                  Fabrica<T> fabrica) throws SQLException {
+        T entidade = mapa.get(id);
+        if (entidade == null) {
+            entidade = cache.obter(id);
+            if (entidade == null) {
+                entidade = fabrica.criar();
+            }
+            mapa.put(id, entidade);
+        }
+        return entidade;
+    }
+}
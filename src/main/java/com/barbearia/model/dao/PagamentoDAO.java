@@ -1,65 +1,104 @@
 package com.barbearia.model.dao;
 
+import com.barbearia.model.entity.Agendamento;
 import com.barbearia.model.entity.Pagamento;
+import com.barbearia.util.Pagina;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class PagamentoDAO {
 
+    private static final String SQL_INSERT = "INSERT INTO pagamento (agendamento_id, valor, forma_pagamento, status, data_pagamento) VALUES (?, ?, ?, ?, ?)";
+
+    // Consultas conferidas com EXPLAIN na inicialização (DatabaseInitializer.verificarPlanos)
+    public static final String SQL_POR_FORMA = "SELECT * FROM pagamento WHERE forma_pagamento = ? ORDER BY data_pagamento DESC";
+    public static final String SQL_POR_STATUS = "SELECT * FROM pagamento WHERE status = ? ORDER BY data_pagamento DESC";
+    public static final String SQL_POR_PERIODO = "SELECT * FROM pagamento WHERE data_pagamento BETWEEN ? AND ? ORDER BY data_pagamento DESC";
+    public static final String SQL_PENDENTES = "SELECT * FROM pagamento WHERE status = 'PENDENTE' ORDER BY data_pagamento";
+
+    // Pagamento e resumo_pagamento na mesma transação
     public void salvar(Pagamento pagamento) {
-        String sql = "INSERT INTO pagamento (agendamento_id, valor, forma_pagamento, status, data_pagamento) VALUES (?, ?, ?, ?, ?)";
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao();
+                 PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-        try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                preencherInsert(stmt, pagamento);
+
+                stmt.executeUpdate();
 
-            stmt.setInt(1, pagamento.getAgendamento().getId());
-            stmt.setDouble(2, pagamento.getValor());
-            stmt.setString(3, pagamento.getFormaPagamento().name());
-            stmt.setString(4, pagamento.getStatus().name());
+                ResultSet rs = stmt.getGeneratedKeys();
+                if (rs.next()) {
+                    pagamento.setId(rs.getInt(1));
+                    ResumoDAO.aplicarPagamentos(conn, List.of(pagamento.getId()), 1);
+                }
 
-            if (pagamento.getDataPagamento() != null) {
-                stmt.setTimestamp(5, Timestamp.valueOf(pagamento.getDataPagamento()));
-            } else {
-                stmt.setTimestamp(5, null);
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao salvar pagamento: " + e.getMessage(), e);
             }
+        });
+    }
 
-            stmt.executeUpdate();
+    // Insere todos os pagamentos em lotes JDBC, com o resumo_pagamento, numa única transação
+    public void salvarTodos(List<Pagamento> pagamentos) {
+        if (pagamentos.isEmpty()) {
+            return;
+        }
 
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                pagamento.setId(rs.getInt(1));
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao()) {
+                InsercaoEmLote.inserir(conn, SQL_INSERT, pagamentos, this::preencherInsert, Pagamento::setId);
+                ResumoDAO.aplicarPagamentos(conn, pagamentos.stream().map(Pagamento::getId).toList(), 1);
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao salvar pagamentos em lote: " + e.getMessage(), e);
             }
+        });
+    }
 
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao salvar pagamento: " + e.getMessage(), e);
+    private void preencherInsert(PreparedStatement stmt, Pagamento pagamento) throws SQLException {
+        stmt.setInt(1, pagamento.getAgendamento().getId());
+        stmt.setDouble(2, pagamento.getValor());
+        stmt.setString(3, pagamento.getFormaPagamento().name());
+        stmt.setString(4, pagamento.getStatus().name());
+
+        if (pagamento.getDataPagamento() != null) {
+            stmt.setTimestamp(5, Timestamp.valueOf(pagamento.getDataPagamento()));
+        } else {
+            stmt.setTimestamp(5, null);
         }
     }
 
     public void atualizar(Pagamento pagamento) {
         String sql = "UPDATE pagamento SET valor = ?, forma_pagamento = ?, status = ?, data_pagamento = ? WHERE id = ?";
 
-        try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setDouble(1, pagamento.getValor());
-            stmt.setString(2, pagamento.getFormaPagamento().name());
-            stmt.setString(3, pagamento.getStatus().name());
+                List<Integer> ids = List.of(pagamento.getId());
+                ResumoDAO.aplicarPagamentos(conn, ids, -1);
 
-            if (pagamento.getDataPagamento() != null) {
-                stmt.setTimestamp(4, Timestamp.valueOf(pagamento.getDataPagamento()));
-            } else {
-                stmt.setTimestamp(4, null);
-            }
+                stmt.setDouble(1, pagamento.getValor());
+                stmt.setString(2, pagamento.getFormaPagamento().name());
+                stmt.setString(3, pagamento.getStatus().name());
 
-            stmt.setInt(5, pagamento.getId());
+                if (pagamento.getDataPagamento() != null) {
+                    stmt.setTimestamp(4, Timestamp.valueOf(pagamento.getDataPagamento()));
+                } else {
+                    stmt.setTimestamp(4, null);
+                }
 
-            stmt.executeUpdate();
+                stmt.setInt(5, pagamento.getId());
 
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao atualizar pagamento: " + e.getMessage(), e);
-        }
+                stmt.executeUpdate();
+                ResumoDAO.aplicarPagamentos(conn, ids, 1);
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao atualizar pagamento: " + e.getMessage(), e);
+            }
+        });
     }
 
     public Pagamento buscarPorAgendamentoId(Integer agendamentoId) {
@@ -84,21 +123,18 @@ public class PagamentoDAO {
 
     // FILTROS
     public List<Pagamento> buscarPorFormaPagamento(String formaPagamento) {
-        String sql = "SELECT * FROM pagamento WHERE forma_pagamento = ? ORDER BY data_pagamento DESC";
-        return executarConsultaComFiltro(sql, formaPagamento);
+        return executarConsultaComFiltro(SQL_POR_FORMA, formaPagamento);
     }
 
     public List<Pagamento> buscarPorStatus(String status) {
-        String sql = "SELECT * FROM pagamento WHERE status = ? ORDER BY data_pagamento DESC";
-        return executarConsultaComFiltro(sql, status);
+        return executarConsultaComFiltro(SQL_POR_STATUS, status);
     }
 
     public List<Pagamento> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        String sql = "SELECT * FROM pagamento WHERE data_pagamento BETWEEN ? AND ? ORDER BY data_pagamento DESC";
         List<Pagamento> pagamentos = new ArrayList<>();
 
-        try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_PERIODO)) {
 
             stmt.setTimestamp(1, Timestamp.valueOf(inicio));
             stmt.setTimestamp(2, Timestamp.valueOf(fim));
@@ -115,9 +151,16 @@ public class PagamentoDAO {
         return pagamentos;
     }
 
+    // Versão em Stream de buscarPorPeriodo, lida sob demanda (feche o Stream após o uso)
+    public Stream<Pagamento> streamPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        return CursorConsulta.abrir(SQL_POR_PERIODO, stmt -> {
+            stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+            stmt.setTimestamp(2, Timestamp.valueOf(fim));
+        }, rs -> rs.next() ? mapearPagamento(rs) : null);
+    }
+
     public List<Pagamento> buscarPagamentosPendentes() {
-        String sql = "SELECT * FROM pagamento WHERE status = 'PENDENTE' ORDER BY data_pagamento";
-        return executarConsultaComFiltro(sql, null);
+        return executarConsultaComFiltro(SQL_PENDENTES, null);
     }
 
     public List<Pagamento> listarTodos() {
@@ -125,6 +168,68 @@ public class PagamentoDAO {
         return executarConsultaComFiltro(sql, null);
     }
 
+    // Todos em ordem de id, lidos sob demanda (feche o Stream após o uso).
+    // O agendamento vem só com o id, sem consulta extra por linha.
+    public Stream<Pagamento> streamTodos() {
+        String sql = "SELECT * FROM pagamento ORDER BY id";
+        return CursorConsulta.abrir(sql, stmt -> { }, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Pagamento pagamento = mapearPagamento(rs);
+            int agendamentoId = rs.getInt("agendamento_id");
+            if (!rs.wasNull()) {
+                Agendamento agendamento = new Agendamento();
+                agendamento.setId(agendamentoId);
+                pagamento.setAgendamento(agendamento);
+            }
+            return pagamento;
+        });
+    }
+
+    // Paginação por chave: ordem (data_pagamento DESC, id DESC), pagamentos sem data no fim
+    public Pagina<Pagamento> listarPagina(Pagamento cursor, int tamanho) {
+        String sql;
+        if (cursor == null) {
+            sql = "SELECT * FROM pagamento ORDER BY data_pagamento DESC NULLS LAST, id DESC LIMIT ?";
+        } else if (cursor.getDataPagamento() != null) {
+            sql = """
+                SELECT * FROM pagamento
+                WHERE data_pagamento < ? OR (data_pagamento = ? AND id < ?) OR data_pagamento IS NULL
+                ORDER BY data_pagamento DESC NULLS LAST, id DESC LIMIT ?
+                """;
+        } else {
+            sql = "SELECT * FROM pagamento WHERE data_pagamento IS NULL AND id < ? ORDER BY id DESC LIMIT ?";
+        }
+
+        List<Pagamento> pagamentos = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            if (cursor != null && cursor.getDataPagamento() != null) {
+                Timestamp dataCursor = Timestamp.valueOf(cursor.getDataPagamento());
+                stmt.setTimestamp(paramIndex++, dataCursor);
+                stmt.setTimestamp(paramIndex++, dataCursor);
+            }
+            if (cursor != null) {
+                stmt.setInt(paramIndex++, cursor.getId());
+            }
+            stmt.setInt(paramIndex, tamanho + 1);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                pagamentos.add(mapearPagamento(rs));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+
+        return Pagina.deConsulta(pagamentos, tamanho);
+    }
+
     private List<Pagamento> executarConsultaComFiltro(String sql, String parametro) {
         List<Pagamento> pagamentos = new ArrayList<>();
 
@@ -172,11 +277,9 @@ public class PagamentoDAO {
             }
         }
 
-        // Data do pagamento
+        // Data do pagamento (null no banco continua null: o construtor preenche com now())
         Timestamp dataPagamento = rs.getTimestamp("data_pagamento");
-        if (dataPagamento != null) {
-            pagamento.setDataPagamento(dataPagamento.toLocalDateTime());
-        }
+        pagamento.setDataPagamento(dataPagamento != null ? dataPagamento.toLocalDateTime() : null);
 
         // Nota: agendamento não é mapeado aqui para evitar recursividade
         // Será carregado separadamente se necessário
@@ -0,0 +1,330 @@
+package com.barbearia.model.dao;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexões JDBC com tamanho limitado.
+ * A conexão entregue é um proxy: chamar close() devolve a conexão física ao pool
+ * em vez de fechá-la, então os DAOs continuam usando try-with-resources normalmente.
+ * Cada conexão física mantém seu próprio cache de PreparedStatements (ver CacheStatements).
+ */
+public class PoolConexoes implements DataSource {
+
+    // Conexões devolvidas há menos tempo que isso não são revalidadas no empréstimo
+    private static final long JANELA_SEM_VALIDACAO_MS = 500;
+    private static final int TIMEOUT_VALIDACAO_SEG = 2;
+    private static final long INTERVALO_LIMPEZA_SEG = 30;
+    private static final int TAMANHO_CACHE_STATEMENTS = 64;
+
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final String nome;
+    private final int tamanhoMaximo;
+    private final int minimoOciosas;
+    private final boolean somenteLeitura;
+    private final long tempoMaximoOciosoMs;
+    private final long tempoEsperaMs;
+    private final int tamanhoCacheStatements;
+
+    private final Semaphore permissoes;
+    private final Deque<ConexaoFisica> ociosas = new ArrayDeque<>();
+    private final AtomicInteger abertas = new AtomicInteger();
+    private final ScheduledExecutorService limpeza;
+    private volatile boolean fechado;
+
+    public PoolConexoes(String nome, String url, String usuario, String senha,
+                        int tamanhoMaximo, boolean somenteLeitura) {
+        this(nome, url, usuario, senha, tamanhoMaximo, 1, somenteLeitura, 5 * 60 * 1000L, 10_000L,
+                TAMANHO_CACHE_STATEMENTS);
+    }
+
+    public PoolConexoes(String nome, String url, String usuario, String senha, int tamanhoMaximo,
+                        int minimoOciosas, boolean somenteLeitura, long tempoMaximoOciosoMs, long tempoEsperaMs,
+                        int tamanhoCacheStatements) {
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("Tamanho máximo do pool deve ser maior que zero");
+        }
+        this.nome = nome;
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.minimoOciosas = Math.max(0, Math.min(minimoOciosas, tamanhoMaximo));
+        this.somenteLeitura = somenteLeitura;
+        this.tempoMaximoOciosoMs = tempoMaximoOciosoMs;
+        this.tempoEsperaMs = tempoEsperaMs;
+        this.tamanhoCacheStatements = tamanhoCacheStatements;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-" + nome + "-limpeza");
+            t.setDaemon(true);
+            return t;
+        });
+        limpeza.scheduleWithFixedDelay(this::removerOciosasExpiradas,
+                INTERVALO_LIMPEZA_SEG, INTERVALO_LIMPEZA_SEG, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (fechado) {
+            throw new SQLException("Pool de conexões '" + nome + "' está fechado");
+        }
+
+        try {
+            if (!permissoes.tryAcquire(tempoEsperaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tempo esgotado aguardando conexão do pool '" + nome + "' ("
+                        + tamanhoMaximo + " em uso)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool", e);
+        }
+
+        try {
+            ConexaoFisica fisica;
+            while ((fisica = retirarOciosa()) != null) {
+                if (validar(fisica)) {
+                    return criarProxy(fisica);
+                }
+                descartar(fisica);
+            }
+            return criarProxy(abrirConexao());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("O pool usa credenciais fixas");
+    }
+
+    public void fechar() {
+        fechado = true;
+        limpeza.shutdownNow();
+        synchronized (ociosas) {
+            for (ConexaoFisica fisica : ociosas) {
+                descartar(fisica);
+            }
+            ociosas.clear();
+        }
+    }
+
+    // Estatísticas
+    public int getTotalAbertas() { return abertas.get(); }
+
+    public int getOciosas() {
+        synchronized (ociosas) {
+            return ociosas.size();
+        }
+    }
+
+    public int getEmUso() { return tamanhoMaximo - permissoes.availablePermits(); }
+
+    public int getTamanhoMaximo() { return tamanhoMaximo; }
+
+    public boolean isSomenteLeitura() { return somenteLeitura; }
+
+    private ConexaoFisica retirarOciosa() {
+        synchronized (ociosas) {
+            // LIFO: a conexão usada mais recentemente tem mais chance de ainda estar válida
+            return ociosas.pollFirst();
+        }
+    }
+
+    private boolean validar(ConexaoFisica fisica) {
+        if (System.currentTimeMillis() - fisica.ultimoUso < JANELA_SEM_VALIDACAO_MS) {
+            return true;
+        }
+        try {
+            return fisica.real.isValid(TIMEOUT_VALIDACAO_SEG);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexaoFisica abrirConexao() throws SQLException {
+        Connection real = DriverManager.getConnection(url, usuario, senha);
+        if (somenteLeitura) {
+            real.setReadOnly(true);
+        }
+        abertas.incrementAndGet();
+        return new ConexaoFisica(real, new CacheStatements(tamanhoCacheStatements));
+    }
+
+    private Connection criarProxy(ConexaoFisica fisica) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexaoEmprestada(fisica));
+    }
+
+    private void devolver(ConexaoFisica fisica) {
+        try {
+            if (fechado || fisica.real.isClosed()) {
+                descartar(fisica);
+                return;
+            }
+
+            // Deixa a conexão no estado padrão para o próximo usuário
+            fisica.statements.liberarTodos();
+            if (!fisica.real.getAutoCommit()) {
+                fisica.real.rollback();
+                fisica.real.setAutoCommit(true);
+            }
+            if (fisica.real.isReadOnly() != somenteLeitura) {
+                fisica.real.setReadOnly(somenteLeitura);
+            }
+            fisica.real.clearWarnings();
+
+            fisica.ultimoUso = System.currentTimeMillis();
+            synchronized (ociosas) {
+                ociosas.addFirst(fisica);
+            }
+        } catch (SQLException e) {
+            descartar(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private void descartar(ConexaoFisica fisica) {
+        fisica.statements.fecharTodos();
+        try {
+            fisica.real.close();
+        } catch (SQLException e) {
+            // Conexão já estava quebrada
+        }
+        abertas.decrementAndGet();
+    }
+
+    private void removerOciosasExpiradas() {
+        long limite = System.currentTimeMillis() - tempoMaximoOciosoMs;
+        synchronized (ociosas) {
+            // As mais antigas ficam no fim da fila
+            Iterator<ConexaoFisica> it = ociosas.descendingIterator();
+            while (it.hasNext() && ociosas.size() > minimoOciosas) {
+                ConexaoFisica fisica = it.next();
+                if (fisica.ultimoUso >= limite) {
+                    break;
+                }
+                it.remove();
+                descartar(fisica);
+            }
+        }
+    }
+
+    // DataSource - métodos obrigatórios sem uso no sistema
+    @Override
+    public PrintWriter getLogWriter() { return null; }
+
+    @Override
+    public void setLogWriter(PrintWriter out) { }
+
+    @Override
+    public void setLoginTimeout(int seconds) { }
+
+    @Override
+    public int getLoginTimeout() { return (int) (tempoEsperaMs / 1000); }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Não é possível converter o pool para " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    private static class ConexaoFisica {
+        final Connection real;
+        final CacheStatements statements;
+        volatile long ultimoUso;
+
+        ConexaoFisica(Connection real, CacheStatements statements) {
+            this.real = real;
+            this.statements = statements;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+    }
+
+    // Proxy entregue aos DAOs; close() devolve a conexão física ao pool
+    private class ConexaoEmprestada implements InvocationHandler {
+        private final ConexaoFisica fisica;
+        private boolean devolvida;
+
+        ConexaoEmprestada(ConexaoFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devolvida) {
+                        devolvida = true;
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devolvida || fisica.real.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexaoPool[" + nome + "]" + (devolvida ? " (devolvida)" : "");
+                default:
+                    break;
+            }
+
+            if (devolvida) {
+                throw new SQLException("Conexão já foi devolvida ao pool");
+            }
+
+            // prepareStatement(sql) e prepareStatement(sql, chavesGeradas) passam pelo cache
+            if (method.getName().equals("prepareStatement") && args.length <= 2
+                    && (args.length == 1 || args[1] instanceof Integer)) {
+                int chavesGeradas = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return fisica.statements.preparar(fisica.real, (Connection) proxy, (String) args[0], chavesGeradas);
+            }
+
+            try {
+                return method.invoke(fisica.real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
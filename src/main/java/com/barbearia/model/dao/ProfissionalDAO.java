@@ -1,22 +1,21 @@
 package com.barbearia.model.dao;
 
 import com.barbearia.model.entity.Profissional;
+import com.barbearia.util.Pagina;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ProfissionalDAO {
 
-    public void salvar(Profissional profissional) {
-        String sql = "INSERT INTO profissional (nome, especialidade, telefone, ativo) VALUES (?, ?, ?, ?)";
+    private static final String SQL_INSERT = "INSERT INTO profissional (nome, especialidade, telefone, ativo) VALUES (?, ?, ?, ?)";
 
+    public void salvar(Profissional profissional) {
         try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, profissional.getNome());
-            stmt.setString(2, profissional.getEspecialidade());
-            stmt.setString(3, profissional.getTelefone());
-            stmt.setBoolean(4, profissional.isAtivo());
+            preencherInsert(stmt, profissional);
 
             stmt.executeUpdate();
 
@@ -30,6 +29,28 @@ public class ProfissionalDAO {
         }
     }
 
+    // Insere todos os profissionais em lotes JDBC dentro de uma única transação
+    public void salvarTodos(List<Profissional> profissionais) {
+        if (profissionais.isEmpty()) {
+            return;
+        }
+
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao()) {
+                InsercaoEmLote.inserir(conn, SQL_INSERT, profissionais, this::preencherInsert, Profissional::setId);
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao salvar profissionais em lote: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void preencherInsert(PreparedStatement stmt, Profissional profissional) throws SQLException {
+        stmt.setString(1, profissional.getNome());
+        stmt.setString(2, profissional.getEspecialidade());
+        stmt.setString(3, profissional.getTelefone());
+        stmt.setBoolean(4, profissional.isAtivo());
+    }
+
     public void atualizar(Profissional profissional) {
         String sql = "UPDATE profissional SET nome = ?, especialidade = ?, telefone = ?, ativo = ? WHERE id = ?";
 
@@ -46,6 +67,27 @@ public class ProfissionalDAO {
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao atualizar profissional: " + e.getMessage(), e);
+        } finally {
+            CacheEntidades.PROFISSIONAIS.invalidar(profissional.getId());
+        }
+    }
+
+    // Só a coluna ativo, sem ler nem regravar o resto da linha; false se o id não existe
+    public boolean atualizarAtivo(Integer id, boolean ativo) {
+        String sql = "UPDATE profissional SET ativo = ? WHERE id = ?";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBoolean(1, ativo);
+            stmt.setInt(2, id);
+
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao atualizar profissional: " + e.getMessage(), e);
+        } finally {
+            CacheEntidades.PROFISSIONAIS.invalidar(id);
         }
     }
 
@@ -60,10 +102,18 @@ public class ProfissionalDAO {
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao excluir profissional: " + e.getMessage(), e);
+        } finally {
+            CacheEntidades.PROFISSIONAIS.invalidar(id);
         }
     }
 
     public Profissional buscarPorId(Integer id) {
+        Profissional emCache = CacheEntidades.PROFISSIONAIS.obter(id);
+        if (emCache != null) {
+            return emCache;
+        }
+        long geracao = CacheEntidades.PROFISSIONAIS.geracao();
+
         String sql = "SELECT * FROM profissional WHERE id = ?";
 
         try (Connection conn = ConexaoBD.getConexao();
@@ -73,7 +123,9 @@ public class ProfissionalDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return mapearProfissional(rs);
+                Profissional profissional = mapearProfissional(rs);
+                CacheEntidades.PROFISSIONAIS.guardar(id, profissional, geracao);
+                return profissional;
             }
 
         } catch (SQLException e) {
@@ -99,11 +151,61 @@ public class ProfissionalDAO {
         return executarConsultaComFiltro(sql, null);
     }
 
+    public int contarAtivos() {
+        String sql = "SELECT COUNT(*) FROM profissional WHERE ativo = true";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            rs.next();
+            return rs.getInt(1);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao contar profissionais: " + e.getMessage(), e);
+        }
+    }
+
     public List<Profissional> listarTodos() {
         String sql = "SELECT * FROM profissional ORDER BY nome";
         return executarConsultaComFiltro(sql, null);
     }
 
+    // Todos em ordem de id, lidos do cursor sob demanda (feche o Stream após o uso)
+    public Stream<Profissional> streamTodos() {
+        String sql = "SELECT * FROM profissional ORDER BY id";
+        return CursorConsulta.abrir(sql, stmt -> { }, rs -> rs.next() ? mapearProfissional(rs) : null);
+    }
+
+    // Paginação por chave: ordem (nome, id), continuando depois do cursor (null = primeira página)
+    public Pagina<Profissional> listarPagina(Profissional cursor, int tamanho) {
+        String sql = cursor == null
+                ? "SELECT * FROM profissional ORDER BY nome, id LIMIT ?"
+                : "SELECT * FROM profissional WHERE (nome, id) > (?, ?) ORDER BY nome, id LIMIT ?";
+        List<Profissional> profissionais = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            if (cursor != null) {
+                stmt.setString(paramIndex++, cursor.getNome());
+                stmt.setInt(paramIndex++, cursor.getId());
+            }
+            stmt.setInt(paramIndex, tamanho + 1);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                profissionais.add(mapearProfissional(rs));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+
+        return Pagina.deConsulta(profissionais, tamanho);
+    }
+
     private List<Profissional> executarConsultaComFiltro(String sql, String parametro) {
         List<Profissional> profissionais = new ArrayList<>();
 
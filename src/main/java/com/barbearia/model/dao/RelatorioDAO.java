@@ -0,0 +1,46 @@
+package com.barbearia.model.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executa as consultas das definições de relatório (somente leitura, pool de leitura).
+ * Cada linha volta como Object[] na ordem das colunas do SELECT.
+ */
+public class RelatorioDAO {
+
+    public List<Object[]> consultar(String sql, Object... parametros) {
+        List<Object[]> linhas = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                Object parametro = parametros[i];
+                if (parametro instanceof LocalDate data) {
+                    stmt.setDate(i + 1, Date.valueOf(data));
+                } else {
+                    stmt.setObject(i + 1, parametro);
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                int colunas = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    Object[] linha = new Object[colunas];
+                    for (int c = 0; c < colunas; c++) {
+                        linha[c] = rs.getObject(c + 1);
+                    }
+                    linhas.add(linha);
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao gerar relatório: " + e.getMessage(), e);
+        }
+
+        return linhas;
+    }
+}
@@ -0,0 +1,265 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.entity.Pagamento;
+import com.barbearia.util.Metricas;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tabelas de resumo mantidas junto com as escritas dos DAOs:
+ * resumo_diario (dia, profissional, serviço, status do agendamento) com quantidade de serviços
+ * agendados, valor e minutos; resumo_pagamento (dia, forma, status) com quantidade e valor.
+ * Cada escrita tira a contribuição antiga dos agendamentos afetados e soma a nova na mesma
+ * transação, então os relatórios por período leem poucas linhas em vez dos agendamentos.
+ * reconstruir() refaz tudo a partir das tabelas de origem.
+ */
+public class ResumoDAO {
+
+    // Contribuição dos serviços dos agendamentos que passarem no filtro, multiplicada pelo sinal
+    private static final String SQL_APLICAR_SERVICOS = """
+        MERGE INTO resumo_diario r
+        USING (SELECT a.data, a.profissional_id, ags.servico_id, a.status,
+                      COUNT(*) AS quantidade, SUM(s.preco) AS valor, SUM(s.duracao_min) AS minutos
+               FROM agendamento a
+               JOIN agendamento_servico ags ON ags.agendamento_id = a.id
+               JOIN servico s ON s.id = ags.servico_id
+               WHERE %s
+               GROUP BY a.data, a.profissional_id, ags.servico_id, a.status) d
+        ON (r.data = d.data AND r.profissional_id = d.profissional_id
+            AND r.servico_id = d.servico_id AND r.status = d.status)
+        WHEN MATCHED THEN UPDATE SET quantidade = r.quantidade + ? * d.quantidade,
+                                     valor = r.valor + ? * d.valor,
+                                     minutos = r.minutos + ? * d.minutos
+        WHEN NOT MATCHED THEN INSERT (data, profissional_id, servico_id, status, quantidade, valor, minutos)
+                              VALUES (d.data, d.profissional_id, d.servico_id, d.status,
+                                      ? * d.quantidade, ? * d.valor, ? * d.minutos)
+        """;
+
+    // Pagamento sem data (pendente) conta no dia do agendamento
+    private static final String SQL_APLICAR_PAGAMENTOS = """
+        MERGE INTO resumo_pagamento r
+        USING (SELECT dia AS data, forma_pagamento, status, COUNT(*) AS quantidade, SUM(valor) AS valor
+               FROM (SELECT COALESCE(CAST(p.data_pagamento AS DATE), a.data) AS dia,
+                            p.forma_pagamento, p.status, p.valor
+                     FROM pagamento p
+                     JOIN agendamento a ON a.id = p.agendamento_id
+                     WHERE %s) t
+               GROUP BY dia, forma_pagamento, status) d
+        ON (r.data = d.data AND r.forma_pagamento = d.forma_pagamento AND r.status = d.status)
+        WHEN MATCHED THEN UPDATE SET quantidade = r.quantidade + ? * d.quantidade,
+                                     valor = r.valor + ? * d.valor
+        WHEN NOT MATCHED THEN INSERT (data, forma_pagamento, status, quantidade, valor)
+                              VALUES (d.data, d.forma_pagamento, d.status, ? * d.quantidade, ? * d.valor)
+        """;
+
+    private static final String SQL_RECONSTRUIR_SERVICOS = """
+        INSERT INTO resumo_diario (data, profissional_id, servico_id, status, quantidade, valor, minutos)
+        SELECT a.data, a.profissional_id, ags.servico_id, a.status, COUNT(*), SUM(s.preco), SUM(s.duracao_min)
+        FROM agendamento a
+        JOIN agendamento_servico ags ON ags.agendamento_id = a.id
+        JOIN servico s ON s.id = ags.servico_id
+        GROUP BY a.data, a.profissional_id, ags.servico_id, a.status
+        """;
+
+    private static final String SQL_RECONSTRUIR_PAGAMENTOS = """
+        INSERT INTO resumo_pagamento (data, forma_pagamento, status, quantidade, valor)
+        SELECT dia, forma_pagamento, status, COUNT(*), SUM(valor)
+        FROM (SELECT COALESCE(CAST(p.data_pagamento AS DATE), a.data) AS dia, p.forma_pagamento, p.status, p.valor
+              FROM pagamento p
+              JOIN agendamento a ON a.id = p.agendamento_id) t
+        GROUP BY dia, forma_pagamento, status
+        """;
+
+    // Muda a cada escrita que mexe nos resumos; o cache de relatórios compara a versão
+    private static final AtomicLong versaoDados = new AtomicLong();
+
+    /** Totais de um período: quantidade de serviços (ou pagamentos), valor e minutos. */
+    public static class Totais {
+        private final int quantidade;
+        private final double valor;
+        private final int minutos;
+
+        Totais(int quantidade, double valor, int minutos) {
+            this.quantidade = quantidade;
+            this.valor = valor;
+            this.minutos = minutos;
+        }
+
+        public int getQuantidade() { return quantidade; }
+
+        public double getValor() { return valor; }
+
+        public int getMinutos() { return minutos; }
+    }
+
+    public static long getVersaoDados() {
+        return versaoDados.get();
+    }
+
+    // Incrementa já (antes do commit) e de novo depois do commit, para que um relatório
+    // calculado no meio da transação não fique guardado com a versão final
+    static void registrarAlteracao() {
+        versaoDados.incrementAndGet();
+        if (UnidadeDeTrabalho.isAtiva()) {
+            UnidadeDeTrabalho.aoConcluir(versaoDados::incrementAndGet);
+        }
+    }
+
+    // Usados pelos DAOs com a conexão da escrita (mesma transação): sinal -1 antes, +1 depois
+
+    static void aplicarAgendamentos(Connection conn, Collection<Integer> agendamentoIds, int sinal) throws SQLException {
+        if (agendamentoIds.isEmpty()) {
+            return;
+        }
+        Array ids = conn.createArrayOf("INTEGER", agendamentoIds.toArray());
+        aplicar(conn, SQL_APLICAR_SERVICOS.formatted("a.id = ANY(?)"), ids, sinal, 3);
+        aplicar(conn, SQL_APLICAR_PAGAMENTOS.formatted("p.agendamento_id = ANY(?)"), ids, sinal, 2);
+        registrarAlteracao();
+        Metricas.incrementar("resumo.atualizacoes");
+    }
+
+    static void aplicarPagamentos(Connection conn, Collection<Integer> pagamentoIds, int sinal) throws SQLException {
+        if (pagamentoIds.isEmpty()) {
+            return;
+        }
+        Array ids = conn.createArrayOf("INTEGER", pagamentoIds.toArray());
+        aplicar(conn, SQL_APLICAR_PAGAMENTOS.formatted("p.id = ANY(?)"), ids, sinal, 2);
+        registrarAlteracao();
+        Metricas.incrementar("resumo.atualizacoes");
+    }
+
+    // Mudança de preço ou duração de um serviço: todas as linhas com ele
+    static void aplicarServico(Connection conn, int servicoId, int sinal) throws SQLException {
+        aplicar(conn, SQL_APLICAR_SERVICOS.formatted("ags.servico_id = ?"), servicoId, sinal, 3);
+        registrarAlteracao();
+    }
+
+    private static void aplicar(Connection conn, String sql, Object filtro, int sinal, int colunas) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, filtro);
+            // O sinal aparece uma vez por coluna no UPDATE e outra no INSERT
+            for (int i = 0; i < 2 * colunas; i++) {
+                stmt.setInt(2 + i, sinal);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    // Refaz as duas tabelas de resumo a partir dos agendamentos e pagamentos
+    public void reconstruir() {
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao()) {
+
+                reconstruir(conn);
+                registrarAlteracao();
+                Metricas.incrementar("resumo.reconstrucoes");
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao reconstruir resumos: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    // Também usado pelo BackupDAO no banco em restauração, que ainda não é o do pool
+    static void reconstruir(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM resumo_diario");
+            stmt.executeUpdate("DELETE FROM resumo_pagamento");
+            stmt.executeUpdate(SQL_RECONSTRUIR_SERVICOS);
+            stmt.executeUpdate(SQL_RECONSTRUIR_PAGAMENTOS);
+        }
+    }
+
+    // Totais dos serviços de agendamentos com o status informado no período
+    public Totais totalizar(LocalDate inicio, LocalDate fim, Agendamento.StatusAgendamento status) {
+        String sql = """
+            SELECT COALESCE(SUM(quantidade), 0), COALESCE(SUM(valor), 0), COALESCE(SUM(minutos), 0)
+            FROM resumo_diario
+            WHERE status = ? AND data BETWEEN ? AND ?
+            """;
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.name());
+            stmt.setDate(2, Date.valueOf(inicio));
+            stmt.setDate(3, Date.valueOf(fim));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new Totais(rs.getInt(1), rs.getDouble(2), rs.getInt(3));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao consultar resumo: " + e.getMessage(), e);
+        }
+    }
+
+    // Totais de cada status no período (status sem movimento ficam zerados)
+    public Map<Agendamento.StatusAgendamento, Totais> totalizarPorStatus(LocalDate inicio, LocalDate fim) {
+        String sql = """
+            SELECT status, SUM(quantidade), SUM(valor), SUM(minutos)
+            FROM resumo_diario
+            WHERE data BETWEEN ? AND ?
+            GROUP BY status
+            """;
+        Map<Agendamento.StatusAgendamento, Totais> totais = new EnumMap<>(Agendamento.StatusAgendamento.class);
+        for (Agendamento.StatusAgendamento status : Agendamento.StatusAgendamento.values()) {
+            totais.put(status, new Totais(0, 0.0, 0));
+        }
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(inicio));
+            stmt.setDate(2, Date.valueOf(fim));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totais.put(Agendamento.StatusAgendamento.valueOf(rs.getString(1)),
+                            new Totais(rs.getInt(2), rs.getDouble(3), rs.getInt(4)));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao consultar resumo: " + e.getMessage(), e);
+        }
+
+        return totais;
+    }
+
+    // Pagamentos com o status informado no período, por forma de pagamento
+    public Map<Pagamento.FormaPagamento, Totais> totalizarPagamentos(LocalDate inicio, LocalDate fim,
+                                                                     Pagamento.StatusPagamento status) {
+        String sql = """
+            SELECT forma_pagamento, SUM(quantidade), SUM(valor)
+            FROM resumo_pagamento
+            WHERE status = ? AND data BETWEEN ? AND ?
+            GROUP BY forma_pagamento
+            """;
+        Map<Pagamento.FormaPagamento, Totais> totais = new EnumMap<>(Pagamento.FormaPagamento.class);
+
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.name());
+            stmt.setDate(2, Date.valueOf(inicio));
+            stmt.setDate(3, Date.valueOf(fim));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totais.put(Pagamento.FormaPagamento.valueOf(rs.getString(1)),
+                            new Totais(rs.getInt(2), rs.getDouble(3), 0));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao consultar resumo de pagamentos: " + e.getMessage(), e);
+        }
+
+        return totais;
+    }
+}
@@ -1,22 +1,22 @@
 package com.barbearia.model.dao;
 
 import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Pagina;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ServicoDAO {
 
-    public void salvar(Servico servico) {
-        String sql = "INSERT INTO servico (nome, descricao, preco, duracao_min) VALUES (?, ?, ?, ?)";
+    private static final String SQL_INSERT = "INSERT INTO servico (nome, descricao, preco, duracao_min) VALUES (?, ?, ?, ?)";
 
+    public void salvar(Servico servico) {
         try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, servico.getNome());
-            stmt.setString(2, servico.getDescricao());
-            stmt.setDouble(3, servico.getPreco());
-            stmt.setInt(4, servico.getDuracaoMinutos());
+            preencherInsert(stmt, servico);
 
             stmt.executeUpdate();
 
@@ -24,29 +24,60 @@ public class ServicoDAO {
             if (rs.next()) {
                 servico.setId(rs.getInt(1));
             }
+            CatalogoServicos.getInstancia().invalidar();
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao salvar serviço: " + e.getMessage(), e);
         }
     }
 
+    // Insere todos os serviços em lotes JDBC dentro de uma única transação
+    public void salvarTodos(List<Servico> servicos) {
+        if (servicos.isEmpty()) {
+            return;
+        }
+
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao()) {
+                InsercaoEmLote.inserir(conn, SQL_INSERT, servicos, this::preencherInsert, Servico::setId);
+                CatalogoServicos.getInstancia().invalidar();
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao salvar serviços em lote: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void preencherInsert(PreparedStatement stmt, Servico servico) throws SQLException {
+        stmt.setString(1, servico.getNome());
+        stmt.setString(2, servico.getDescricao());
+        stmt.setDouble(3, servico.getPreco());
+        stmt.setInt(4, servico.getDuracaoMinutos());
+    }
+
     public void atualizar(Servico servico) {
         String sql = "UPDATE servico SET nome = ?, descricao = ?, preco = ?, duracao_min = ? WHERE id = ?";
 
-        try (Connection conn = ConexaoBD.getConexao();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // Preço e duração entram no resumo_diario: tira os valores antigos e soma os novos
+        UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, servico.getNome());
-            stmt.setString(2, servico.getDescricao());
-            stmt.setDouble(3, servico.getPreco());
-            stmt.setInt(4, servico.getDuracaoMinutos());
-            stmt.setInt(5, servico.getId());
+                ResumoDAO.aplicarServico(conn, servico.getId(), -1);
 
-            stmt.executeUpdate();
+                stmt.setString(1, servico.getNome());
+                stmt.setString(2, servico.getDescricao());
+                stmt.setDouble(3, servico.getPreco());
+                stmt.setInt(4, servico.getDuracaoMinutos());
+                stmt.setInt(5, servico.getId());
 
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro ao atualizar serviço: " + e.getMessage(), e);
-        }
+                stmt.executeUpdate();
+                ResumoDAO.aplicarServico(conn, servico.getId(), 1);
+                CatalogoServicos.getInstancia().invalidar();
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao atualizar serviço: " + e.getMessage(), e);
+            }
+        });
     }
 
     public void excluir(Integer id) {
@@ -57,6 +88,7 @@ public class ServicoDAO {
 
             stmt.setInt(1, id);
             stmt.executeUpdate();
+            CatalogoServicos.getInstancia().invalidar();
 
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao excluir serviço: " + e.getMessage(), e);
@@ -122,7 +154,7 @@ public class ServicoDAO {
 
         List<Servico> servicos = new ArrayList<>();
 
-        try (Connection conn = ConexaoBD.getConexao();
+        try (Connection conn = ConexaoBD.getConexaoLeitura();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, limite);
@@ -144,6 +176,66 @@ public class ServicoDAO {
         return executarConsultaComFiltro(sql, null);
     }
 
+    // Versões na conexão de quem chama, usadas pelo CatalogoServicos
+    List<Servico> listarTodos(Connection conn) throws SQLException {
+        List<Servico> servicos = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM servico ORDER BY nome");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                servicos.add(mapearServico(rs));
+            }
+        }
+        return servicos;
+    }
+
+    List<Servico> buscarPorIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        List<Servico> servicos = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM servico WHERE id = ANY(?)")) {
+            stmt.setArray(1, conn.createArrayOf("INTEGER", ids.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    servicos.add(mapearServico(rs));
+                }
+            }
+        }
+        return servicos;
+    }
+
+    // Todos em ordem de id, lidos do cursor sob demanda (feche o Stream após o uso)
+    public Stream<Servico> streamTodos() {
+        String sql = "SELECT * FROM servico ORDER BY id";
+        return CursorConsulta.abrir(sql, stmt -> { }, rs -> rs.next() ? mapearServico(rs) : null);
+    }
+
+    // Paginação por chave: ordem (nome, id), continuando depois do cursor (null = primeira página)
+    public Pagina<Servico> listarPagina(Servico cursor, int tamanho) {
+        String sql = cursor == null
+                ? "SELECT * FROM servico ORDER BY nome, id LIMIT ?"
+                : "SELECT * FROM servico WHERE (nome, id) > (?, ?) ORDER BY nome, id LIMIT ?";
+        List<Servico> servicos = new ArrayList<>();
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int paramIndex = 1;
+            if (cursor != null) {
+                stmt.setString(paramIndex++, cursor.getNome());
+                stmt.setInt(paramIndex++, cursor.getId());
+            }
+            stmt.setInt(paramIndex, tamanho + 1);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                servicos.add(mapearServico(rs));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro na consulta: " + e.getMessage(), e);
+        }
+
+        return Pagina.deConsulta(servicos, tamanho);
+    }
+
     private List<Servico> executarConsultaComFiltro(String sql, String parametro) {
         List<Servico> servicos = new ArrayList<>();
 
@@ -0,0 +1,318 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.util.LogUtils;
+import com.barbearia.util.Metricas;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Executa uma operação de serviço inteira numa única transação.
+ * Enquanto a operação roda, ConexaoBD.getConexao() devolve a conexão da transação
+ * para a thread atual, então os DAOs participam sem mudar nada: o close() deles não devolve
+ * a conexão e o commit só acontece no fim. Chamadas aninhadas entram na transação externa.
+ *
+ * No modo de commit em grupo (opcional) as unidades de várias threads são executadas em fila
+ * por uma thread dedicada e confirmadas juntas com um único commit; cada uma tem seu próprio
+ * savepoint, então a falha de uma não desfaz as outras do lote.
+ *
+ * As ações registradas com aoConcluir só rodam depois de um commit bem-sucedido; num rollback
+ * (inclusive o de um savepoint no commit em grupo) são descartadas junto com a escrita.
+ */
+public final class UnidadeDeTrabalho {
+
+    @FunctionalInterface
+    public interface Operacao<T> {
+        T executar();
+    }
+
+    // Máximo de unidades confirmadas no mesmo commit
+    private static final int TAMANHO_MAXIMO_GRUPO = 64;
+
+    private static final ThreadLocal<Transacao> atual = new ThreadLocal<>();
+    private static volatile CommitEmGrupo grupo;
+
+    static {
+        if (Boolean.getBoolean("barbearia.commit.grupo")) {
+            setCommitEmGrupo(true);
+        }
+    }
+
+    private UnidadeDeTrabalho() {
+    }
+
+    public static <T> T executar(Operacao<T> operacao) {
+        Transacao transacao = atual.get();
+        if (transacao != null) {
+            return operacao.executar();
+        }
+
+        CommitEmGrupo emGrupo = grupo;
+        if (emGrupo != null) {
+            return emGrupo.submeter(operacao);
+        }
+        return executarIsolada(operacao);
+    }
+
+    public static void executarAcao(Runnable acao) {
+        executar(() -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    public static boolean isAtiva() {
+        return atual.get() != null;
+    }
+
+    // Roda depois do commit da transação atual (ou já, se não houver transação); descartada no rollback.
+    // Usado para invalidar caches só depois que a escrita ficou visível para as outras conexões.
+    public static void aoConcluir(Runnable acao) {
+        Transacao transacao = atual.get();
+        if (transacao == null) {
+            acao.run();
+        } else {
+            transacao.aoConcluir.add(acao);
+        }
+    }
+
+    public static synchronized void setCommitEmGrupo(boolean ativo) {
+        if (ativo && grupo == null) {
+            grupo = new CommitEmGrupo();
+        } else if (!ativo && grupo != null) {
+            grupo.encerrar();
+            grupo = null;
+        }
+    }
+
+    public static boolean isCommitEmGrupo() {
+        return grupo != null;
+    }
+
+    // Conexão da transação da thread atual (null fora de uma unidade de trabalho)
+    static Connection conexaoAtual() {
+        Transacao transacao = atual.get();
+        return transacao != null ? transacao.participante : null;
+    }
+
+    private static <T> T executarIsolada(Operacao<T> operacao) {
+        try (Connection conn = ConexaoBD.getConexao()) {
+            conn.setAutoCommit(false);
+            Transacao transacao = new Transacao(conn);
+            atual.set(transacao);
+
+            T resultado;
+            try {
+                resultado = operacao.executar();
+                if (transacao.somenteRollback) {
+                    throw new IllegalStateException("Transação desfeita por uma das operações");
+                }
+                conn.commit();
+                Metricas.incrementar("transacoes.commits");
+            } catch (SQLException | RuntimeException | Error e) {
+                conn.rollback();
+                Metricas.incrementar("transacoes.rollbacks");
+                throw e;
+            } finally {
+                atual.remove();
+            }
+
+            executarAoConcluir(transacao.aoConcluir);
+            return resultado;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao executar transação: " + e.getMessage(), e);
+        }
+    }
+
+    // Ações pós-commit; a falha de uma não impede as outras nem desfaz o que já foi confirmado
+    private static void executarAoConcluir(List<Runnable> acoes) {
+        for (Runnable acao : acoes) {
+            try {
+                acao.run();
+            } catch (RuntimeException e) {
+                LogUtils.gravarErro("Ação após o commit", e);
+            }
+        }
+        acoes.clear();
+    }
+
+    private static class Transacao {
+        final Connection participante;
+        // No commit em grupo aponta para a lista do pedido em execução
+        List<Runnable> aoConcluir = new ArrayList<>();
+        boolean somenteRollback;
+
+        Transacao(Connection conexao) {
+            this.participante = criarParticipante(conexao);
+        }
+
+        // Conexão entregue aos DAOs: o controle da transação fica com a unidade de trabalho
+        private Connection criarParticipante(Connection conexao) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, metodo, args) -> {
+                        switch (metodo.getName()) {
+                            case "close":
+                            case "setAutoCommit":
+                            case "commit":
+                                return null;
+                            case "rollback":
+                                if (args == null) {
+                                    // Um DAO desistiu: a unidade inteira não pode ser confirmada
+                                    somenteRollback = true;
+                                    return null;
+                                }
+                                break;
+                            case "getAutoCommit":
+                                return false;
+                            default:
+                                break;
+                        }
+                        try {
+                            return metodo.invoke(conexao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    private static class Pedido<T> {
+        final Operacao<T> operacao;
+        final CompletableFuture<T> resultado = new CompletableFuture<>();
+        // Ações pós-commit deste pedido; somem se ele voltar ao savepoint
+        final List<Runnable> aoConcluir = new ArrayList<>();
+        T valor;
+
+        Pedido(Operacao<T> operacao) {
+            this.operacao = operacao;
+        }
+
+        void executar() {
+            valor = operacao.executar();
+        }
+
+        void confirmar() {
+            resultado.complete(valor);
+        }
+    }
+
+    // Fila de unidades de várias threads confirmadas em lotes por uma única thread.
+    // Não há espera artificial: o lote é o que se acumulou enquanto o commit anterior gravava.
+    private static class CommitEmGrupo {
+        private final BlockingQueue<Pedido<?>> fila = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private volatile boolean ativo = true;
+
+        CommitEmGrupo() {
+            thread = new Thread(this::processarFila, "commit-em-grupo");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        <T> T submeter(Operacao<T> operacao) {
+            if (!ativo) {
+                return executarIsolada(operacao);
+            }
+            Pedido<T> pedido = new Pedido<>(operacao);
+            fila.add(pedido);
+            try {
+                return pedido.resultado.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrompido aguardando o commit", e);
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (causa instanceof Error erro) {
+                    throw erro;
+                }
+                throw new RuntimeException(causa);
+            }
+        }
+
+        void encerrar() {
+            ativo = false;
+            thread.interrupt();
+        }
+
+        private void processarFila() {
+            List<Pedido<?>> lote = new ArrayList<>();
+            while (ativo || !fila.isEmpty()) {
+                try {
+                    lote.add(fila.take());
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                fila.drainTo(lote, TAMANHO_MAXIMO_GRUPO - 1);
+                processarLote(lote);
+                lote.clear();
+            }
+        }
+
+        private void processarLote(List<Pedido<?>> lote) {
+            List<Pedido<?>> executados = new ArrayList<>();
+
+            try (Connection conn = ConexaoBD.getConexao()) {
+                conn.setAutoCommit(false);
+                Transacao transacao = new Transacao(conn);
+                atual.set(transacao);
+
+                try {
+                    for (Pedido<?> pedido : lote) {
+                        Savepoint savepoint = conn.setSavepoint();
+                        transacao.somenteRollback = false;
+                        transacao.aoConcluir = pedido.aoConcluir;
+                        try {
+                            pedido.executar();
+                            if (transacao.somenteRollback) {
+                                throw new IllegalStateException("Transação desfeita por uma das operações");
+                            }
+                            executados.add(pedido);
+                        } catch (RuntimeException | Error e) {
+                            conn.rollback(savepoint);
+                            pedido.aoConcluir.clear();
+                            pedido.resultado.completeExceptionally(e);
+                        }
+                    }
+
+                    conn.commit();
+                    Metricas.incrementar("transacoes.commits");
+                    Metricas.incrementar("transacoes.grupo.lotes");
+                    Metricas.adicionar("transacoes.grupo.operacoes", lote.size());
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    atual.remove();
+                }
+
+                // Só depois do commit: ações dos pedidos confirmados, na ordem em que rodaram
+                for (Pedido<?> pedido : executados) {
+                    executarAoConcluir(pedido.aoConcluir);
+                    pedido.confirmar();
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                Metricas.incrementar("transacoes.rollbacks");
+                RuntimeException erro = new RuntimeException("Erro ao confirmar lote de transações: " + e.getMessage(), e);
+                for (Pedido<?> pedido : lote) {
+                    pedido.resultado.completeExceptionally(erro);
+                }
+            }
+        }
+    }
+}
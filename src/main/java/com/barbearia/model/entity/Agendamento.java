@@ -1,10 +1,15 @@
 package com.barbearia.model.entity;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class Agendamento {
     private Integer id;
@@ -16,10 +21,19 @@ public class Agendamento {
     private Profissional profissional;
     private List<Servico> servicos;
 
+    // Rastreamento de alterações: o DAO grava só as colunas mudadas desde a última leitura/gravação
+    private final Set<Campo> camposAlterados = EnumSet.noneOf(Campo.class);
+    private Set<Integer> servicosSincronizados;
+
     public enum StatusAgendamento {
         AGENDADO, CONFIRMADO, CANCELADO, REALIZADO, AUSENTE
     }
 
+    // Colunas da tabela agendamento que podem ser atualizadas
+    public enum Campo {
+        CLIENTE, PROFISSIONAL, DATA, HORA, STATUS, OBSERVACOES
+    }
+
     public Agendamento() {
         this.servicos = new ArrayList<>();
         this.status = StatusAgendamento.AGENDADO;
@@ -38,22 +52,40 @@ public class Agendamento {
     public void setId(Integer id) { this.id = id; }
 
     public LocalDate getData() { return data; }
-    public void setData(LocalDate data) { this.data = data; }
+    public void setData(LocalDate data) {
+        marcarSeMudou(Campo.DATA, this.data, data);
+        this.data = data;
+    }
 
     public LocalTime getHora() { return hora; }
-    public void setHora(LocalTime hora) { this.hora = hora; }
+    public void setHora(LocalTime hora) {
+        marcarSeMudou(Campo.HORA, this.hora, hora);
+        this.hora = hora;
+    }
 
     public StatusAgendamento getStatus() { return status; }
-    public void setStatus(StatusAgendamento status) { this.status = status; }
+    public void setStatus(StatusAgendamento status) {
+        marcarSeMudou(Campo.STATUS, this.status, status);
+        this.status = status;
+    }
 
     public String getObservacoes() { return observacoes; }
-    public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
+    public void setObservacoes(String observacoes) {
+        marcarSeMudou(Campo.OBSERVACOES, this.observacoes, observacoes);
+        this.observacoes = observacoes;
+    }
 
     public Cliente getCliente() { return cliente; }
-    public void setCliente(Cliente cliente) { this.cliente = cliente; }
+    public void setCliente(Cliente cliente) {
+        marcarSeMudou(Campo.CLIENTE, idDe(this.cliente), idDe(cliente));
+        this.cliente = cliente;
+    }
 
     public Profissional getProfissional() { return profissional; }
-    public void setProfissional(Profissional profissional) { this.profissional = profissional; }
+    public void setProfissional(Profissional profissional) {
+        marcarSeMudou(Campo.PROFISSIONAL, idDe(this.profissional), idDe(profissional));
+        this.profissional = profissional;
+    }
 
     public List<Servico> getServicos() { return servicos; }
     public void setServicos(List<Servico> servicos) { this.servicos = servicos; }
@@ -62,6 +94,44 @@ public class Agendamento {
         this.servicos.add(servico);
     }
 
+    // Estado atual passa a ser o que está no banco (chamado pelo DAO)
+    public void marcarSincronizado() {
+        camposAlterados.clear();
+        servicosSincronizados = idsServicos();
+    }
+
+    // Sem estado sincronizado (objeto novo ou montado fora do DAO) tudo deve ser gravado
+    public boolean isRastreado() {
+        return servicosSincronizados != null;
+    }
+
+    public Set<Campo> getCamposAlterados() {
+        return Collections.unmodifiableSet(camposAlterados);
+    }
+
+    // Ids dos serviços vinculados no banco na última sincronização
+    public Set<Integer> getServicosSincronizados() {
+        return servicosSincronizados == null ? Set.of() : Collections.unmodifiableSet(servicosSincronizados);
+    }
+
+    public Set<Integer> idsServicos() {
+        Set<Integer> ids = new HashSet<>();
+        for (Servico servico : servicos) {
+            ids.add(servico.getId());
+        }
+        return ids;
+    }
+
+    private void marcarSeMudou(Campo campo, Object antes, Object depois) {
+        if (!Objects.equals(antes, depois)) {
+            camposAlterados.add(campo);
+        }
+    }
+
+    private static Integer idDe(Pessoa pessoa) {
+        return pessoa != null ? pessoa.getId() : null;
+    }
+
     public Double calcularValorTotal() {
         return servicos.stream()
                 .mapToDouble(Servico::getPreco)
@@ -74,6 +144,11 @@ public class Agendamento {
                 .sum();
     }
 
+    // Fim previsto do atendimento (gravado em data_hora_fim)
+    public LocalDateTime calcularDataHoraFim() {
+        return LocalDateTime.of(data, hora).plusMinutes(calcularDuracaoTotal());
+    }
+
     @Override
     public String toString() {
         return data + " " + hora + " - " + cliente.getNome() + " com " + profissional.getNome();
@@ -7,28 +7,39 @@ import java.util.Objects;
 
 public class Cliente extends Pessoa {
     private LocalDate dataCadastro;
+    // Criada só quando usada: a maioria dos clientes carregados nunca acessa a lista
     private List<Agendamento> agendamentos;
 
     public Cliente() {
         super();
-        this.agendamentos = new ArrayList<>();
         this.dataCadastro = LocalDate.now();
     }
 
     public Cliente(String nome, String telefone, String email) {
         super(nome, telefone, email);
-        this.agendamentos = new ArrayList<>();
         this.dataCadastro = LocalDate.now();
     }
 
+    // Cópia dos dados cadastrais; a lista de agendamentos não é copiada
+    public Cliente(Cliente outro) {
+        super(outro);
+        this.dataCadastro = outro.dataCadastro;
+    }
+
     public LocalDate getDataCadastro() { return dataCadastro; }
     public void setDataCadastro(LocalDate dataCadastro) { this.dataCadastro = dataCadastro; }
 
-    public List<Agendamento> getAgendamentos() { return agendamentos; }
+    public List<Agendamento> getAgendamentos() {
+        if (agendamentos == null) {
+            agendamentos = new ArrayList<>();
+        }
+        return agendamentos;
+    }
+
     public void setAgendamentos(List<Agendamento> agendamentos) { this.agendamentos = agendamentos; }
 
     public void addAgendamento(Agendamento agendamento) {
-        this.agendamentos.add(agendamento);
+        getAgendamentos().add(agendamento);
     }
 
     @Override
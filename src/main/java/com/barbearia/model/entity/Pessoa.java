@@ -14,6 +14,14 @@ public abstract class Pessoa {
         this.email = email;
     }
 
+    // Usado pelas cópias das subclasses
+    protected Pessoa(Pessoa outra) {
+        this.id = outra.id;
+        this.nome = outra.nome;
+        this.telefone = outra.telefone;
+        this.email = outra.email;
+    }
+
     public Integer getId() { return id; }
     public void setId(Integer id) { this.id = id; }
 
@@ -15,6 +15,13 @@ public class Profissional extends Pessoa {
         this.ativo = true;
     }
 
+    // Cópia independente (usada pelo cache de entidades)
+    public Profissional(Profissional outro) {
+        super(outro);
+        this.especialidade = outro.especialidade;
+        this.ativo = outro.ativo;
+    }
+
     public String getEspecialidade() { return especialidade; }
     public void setEspecialidade(String especialidade) { this.especialidade = especialidade; }
 
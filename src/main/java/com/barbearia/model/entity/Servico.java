@@ -18,6 +18,15 @@ public class Servico {
         this.duracaoMinutos = duracaoMinutos;
     }
 
+    // Cópia independente (usada por quem guarda serviços em memória compartilhada)
+    public Servico(Servico outro) {
+        this.id = outro.id;
+        this.nome = outro.nome;
+        this.descricao = outro.descricao;
+        this.preco = outro.preco;
+        this.duracaoMinutos = outro.duracaoMinutos;
+    }
+
     // Getters e Setters
     public Integer getId() { return id; }
     public void setId(Integer id) { this.id = id; }
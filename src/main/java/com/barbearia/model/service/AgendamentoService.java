@@ -2,31 +2,93 @@ package com.barbearia.model.service;
 
 import com.barbearia.model.dao.AgendamentoDAO;
 import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.dao.FiltroAgendamento;
 import com.barbearia.model.dao.ProfissionalDAO;
+import com.barbearia.model.dao.ResumoDAO;
 import com.barbearia.model.dao.ServicoDAO;
+import com.barbearia.model.dao.UnidadeDeTrabalho;
 import com.barbearia.model.entity.*;
+import com.barbearia.util.Pagina;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class AgendamentoService {
     private AgendamentoDAO agendamentoDAO;
     private ClienteDAO clienteDAO;
     private ProfissionalDAO profissionalDAO;
     private ServicoDAO servicoDAO;
+    private ResumoDAO resumoDAO;
+    private IndiceDisponibilidade indiceDisponibilidade;
+    private FilaStatusAgendamento filaStatus;
+
+    // Horários de início oferecidos na agenda
+    private static final LocalTime PRIMEIRO_HORARIO = LocalTime.of(8, 0);
+    private static final LocalTime ULTIMO_HORARIO = LocalTime.of(20, 0);
+    private static final int INTERVALO_HORARIOS_MIN = 30;
+
+    // Acima disso o trecho do nome é comum demais: a consulta filtra pelo nome (LIKE) em vez de
+    // mandar a lista inteira de ids no ANY(?)
+    private static final int MAXIMO_IDS_BUSCA = 500;
+
+    // Minutos de expediente de um profissional por dia (base do relatório de ocupação)
+    static long minutosExpedientePorDia() {
+        return Duration.between(PRIMEIRO_HORARIO, ULTIMO_HORARIO).toMinutes();
+    }
 
     public AgendamentoService() {
         this.agendamentoDAO = new AgendamentoDAO();
         this.clienteDAO = new ClienteDAO();
         this.profissionalDAO = new ProfissionalDAO();
         this.servicoDAO = new ServicoDAO();
+        this.resumoDAO = new ResumoDAO();
+        this.indiceDisponibilidade = IndiceDisponibilidade.getInstancia();
+        this.filaStatus = FilaStatusAgendamento.getInstancia();
     }
 
+    // Trava da agenda do profissional, verificação de conflito e gravação na mesma transação
+    // (UnidadeDeTrabalho); o índice em memória só muda depois do commit
     public void agendar(Agendamento agendamento) throws IllegalArgumentException {
         validarAgendamento(agendamento);
-        verificarDisponibilidade(agendamento);
-        agendamentoDAO.salvar(agendamento);
+        try {
+            UnidadeDeTrabalho.executarAcao(() -> {
+                verificarDisponibilidade(agendamento);
+                agendamentoDAO.salvar(agendamento);
+                UnidadeDeTrabalho.aoConcluir(() -> indiceDisponibilidade.registrar(agendamento));
+            });
+        } catch (RuntimeException e) {
+            // O id gerado pertence a uma inserção desfeita
+            agendamento.setId(null);
+            throw e;
+        }
+    }
+
+    // Carga em lote (encaixes do dia, histórico migrado): tudo ou nada, numa única transação.
+    // As agendas dos profissionais envolvidos ficam travadas (em ordem de id, para duas cargas
+    // não se esperarem mutuamente); as linhas entram em lote e cada uma passa pela mesma
+    // consulta de conflito do agendar, que já enxerga as demais do lote.
+    public void agendarTodos(List<Agendamento> agendamentos) throws IllegalArgumentException {
+        agendamentos.forEach(this::validarAgendamento);
+        try {
+            UnidadeDeTrabalho.executarAcao(() -> {
+                agendamentos.stream().map(a -> a.getProfissional().getId()).distinct().sorted()
+                        .forEach(this::bloquearAgenda);
+                agendamentoDAO.salvarTodos(agendamentos);
+                for (Agendamento agendamento : agendamentos) {
+                    if (ocupaAgenda(agendamento)) {
+                        verificarConflito(agendamento);
+                    }
+                }
+                UnidadeDeTrabalho.aoConcluir(() -> agendamentos.forEach(indiceDisponibilidade::registrar));
+            });
+        } catch (RuntimeException e) {
+            agendamentos.forEach(agendamento -> agendamento.setId(null));
+            throw e;
+        }
     }
 
     public void atualizarAgendamento(Agendamento agendamento) throws IllegalArgumentException {
@@ -34,36 +96,46 @@ public class AgendamentoService {
             throw new IllegalArgumentException("Agendamento não possui ID para atualização");
         }
         validarAgendamento(agendamento);
-        verificarDisponibilidade(agendamento);
-        agendamentoDAO.atualizar(agendamento);
+        // Mudanças de status ainda na fila são gravadas antes, para não serem sobrescritas depois
+        filaStatus.descarregar();
+        UnidadeDeTrabalho.executarAcao(() -> {
+            verificarDisponibilidade(agendamento);
+            agendamentoDAO.atualizar(agendamento);
+            UnidadeDeTrabalho.aoConcluir(() -> indiceDisponibilidade.registrar(agendamento));
+        });
     }
 
+    // Mudanças de status gravam só as colunas afetadas, sem ler o agendamento antes.
+    // Com a gravação adiada ligada vão para a FilaStatusAgendamento e são gravadas em lote.
     public void cancelarAgendamento(Integer id, String motivo) {
-        Agendamento agendamento = buscarPorId(id);
-        if (agendamento != null) {
-            agendamento.setStatus(Agendamento.StatusAgendamento.CANCELADO);
-            agendamento.setObservacoes("Cancelado: " + (motivo != null ? motivo : "Sem motivo informado"));
-            agendamentoDAO.atualizar(agendamento);
+        String observacao = "Cancelado: " + (motivo != null ? motivo : "Sem motivo informado");
+        if (filaStatus.isAtiva()) {
+            filaStatus.enfileirar(id, FilaStatusAgendamento.Transicao.cancelamento(observacao));
+        } else if (agendamentoDAO.atualizarStatus(id, Agendamento.StatusAgendamento.CANCELADO, observacao)) {
+            indiceDisponibilidade.remover(id);
         }
     }
 
+    // Cancelados e ausentes ficam como estão (já saíram do índice de disponibilidade)
     public void confirmarAgendamento(Integer id) {
-        Agendamento agendamento = buscarPorId(id);
-        if (agendamento != null) {
-            agendamento.setStatus(Agendamento.StatusAgendamento.CONFIRMADO);
-            agendamentoDAO.atualizar(agendamento);
+        if (filaStatus.isAtiva()) {
+            filaStatus.enfileirar(id, FilaStatusAgendamento.Transicao.confirmacao());
+            return;
         }
+        agendamentoDAO.atualizarStatusAtivo(id, Agendamento.StatusAgendamento.CONFIRMADO);
     }
 
+    // REALIZADO ocupa os mesmos horários, então o índice de disponibilidade não muda
     public void finalizarAgendamento(Integer id, String observacoes) {
-        Agendamento agendamento = buscarPorId(id);
-        if (agendamento != null) {
-            agendamento.setStatus(Agendamento.StatusAgendamento.REALIZADO);
-            if (observacoes != null && !observacoes.trim().isEmpty()) {
-                String obsAtual = agendamento.getObservacoes();
-                agendamento.setObservacoes((obsAtual != null ? obsAtual + "\n" : "") + "Finalizado: " + observacoes);
-            }
-            agendamentoDAO.atualizar(agendamento);
+        boolean comObservacao = observacoes != null && !observacoes.trim().isEmpty();
+        if (filaStatus.isAtiva()) {
+            filaStatus.enfileirar(id, FilaStatusAgendamento.Transicao.finalizacao(
+                    comObservacao ? "Finalizado: " + observacoes : null));
+        } else if (comObservacao) {
+            agendamentoDAO.atualizarStatusAcrescentandoObservacao(id, Agendamento.StatusAgendamento.REALIZADO,
+                    "Finalizado: " + observacoes);
+        } else {
+            agendamentoDAO.atualizarStatusAtivo(id, Agendamento.StatusAgendamento.REALIZADO);
         }
     }
 
@@ -96,8 +168,8 @@ public class AgendamentoService {
         }
 
         // Verificar horário comercial (8h às 20h)
-        if (agendamento.getHora().isBefore(LocalTime.of(8, 0)) ||
-                agendamento.getHora().isAfter(LocalTime.of(20, 0))) {
+        if (agendamento.getHora().isBefore(PRIMEIRO_HORARIO) ||
+                agendamento.getHora().isAfter(ULTIMO_HORARIO)) {
             throw new IllegalArgumentException("Horário fora do expediente comercial (8h às 20h)");
         }
 
@@ -109,37 +181,38 @@ public class AgendamentoService {
     }
 
     private void verificarDisponibilidade(Agendamento agendamento) {
-        LocalDateTime inicio = LocalDateTime.of(agendamento.getData(), agendamento.getHora());
-        int duracaoTotal = agendamento.calcularDuracaoTotal();
-        LocalDateTime fim = inicio.plusMinutes(duracaoTotal);
-
-        // Verificar conflitos com outros agendamentos do mesmo profissional
-        List<Agendamento> agendamentosProfissional = agendamentoDAO.buscarPorProfissional(
-                agendamento.getProfissional().getId());
-
-        for (Agendamento existente : agendamentosProfissional) {
-            // Ignorar o próprio agendamento se estiver sendo atualizado
-            if (agendamento.getId() != null && agendamento.getId().equals(existente.getId())) {
-                continue;
-            }
+        bloquearAgenda(agendamento.getProfissional().getId());
+        verificarConflito(agendamento);
+    }
 
-            // Ignorar agendamentos cancelados
-            if (existente.getStatus() == Agendamento.StatusAgendamento.CANCELADO ||
-                    existente.getStatus() == Agendamento.StatusAgendamento.AUSENTE) {
-                continue;
-            }
+    // Serializa as gravações na agenda do profissional: sem a trava, duas transações
+    // concorrentes passariam pela consulta de conflito antes de qualquer uma gravar
+    private void bloquearAgenda(Integer profissionalId) {
+        if (!agendamentoDAO.bloquearAgendaProfissional(profissionalId)) {
+            throw new IllegalArgumentException("Profissional não encontrado");
+        }
+    }
 
-            LocalDateTime inicioExistente = LocalDateTime.of(existente.getData(), existente.getHora());
-            LocalDateTime fimExistente = inicioExistente.plusMinutes(existente.calcularDuracaoTotal());
+    // Cancelados e ausentes (histórico) não ocupam horário
+    private static boolean ocupaAgenda(Agendamento agendamento) {
+        return agendamento.getStatus() != Agendamento.StatusAgendamento.CANCELADO
+                && agendamento.getStatus() != Agendamento.StatusAgendamento.AUSENTE;
+    }
 
-            // Verificar sobreposição
-            if ((inicio.isBefore(fimExistente) && fim.isAfter(inicioExistente))) {
-                throw new IllegalArgumentException(
-                        "Conflito de horário com agendamento existente do profissional " +
-                                existente.getProfissional().getNome() + " das " +
-                                existente.getHora() + " às " +
-                                fimExistente.toLocalTime());
-            }
+    private void verificarConflito(Agendamento agendamento) {
+        LocalDateTime inicio = LocalDateTime.of(agendamento.getData(), agendamento.getHora());
+        LocalDateTime fim = agendamento.calcularDataHoraFim();
+
+        // Consulta só os agendamentos ativos do profissional naquele dia (ignorando o próprio)
+        Agendamento existente = agendamentoDAO.buscarConflito(
+                agendamento.getProfissional().getId(), inicio, fim, agendamento.getId());
+
+        if (existente != null) {
+            throw new IllegalArgumentException(
+                    "Conflito de horário com agendamento existente do profissional " +
+                            existente.getProfissional().getNome() + " das " +
+                            existente.getHora() + " às " +
+                            existente.calcularDataHoraFim().toLocalTime());
         }
     }
 
@@ -148,28 +221,30 @@ public class AgendamentoService {
         if (id == null) {
             throw new IllegalArgumentException("ID não pode ser nulo");
         }
-        return agendamentoDAO.buscarPorId(id);
+        Agendamento agendamento = agendamentoDAO.buscarPorId(id);
+        filaStatus.aplicarPendente(agendamento);
+        return agendamento;
     }
 
     public List<Agendamento> buscarPorData(LocalDate data) {
         if (data == null) {
             throw new IllegalArgumentException("Data não pode ser nula");
         }
-        return agendamentoDAO.buscarPorData(data);
+        return comPendentes(agendamentoDAO.buscarPorData(data));
     }
 
     public List<Agendamento> buscarPorCliente(Integer clienteId) {
         if (clienteId == null) {
             throw new IllegalArgumentException("ID do cliente não pode ser nulo");
         }
-        return agendamentoDAO.buscarPorCliente(clienteId);
+        return comPendentes(agendamentoDAO.buscarPorCliente(clienteId));
     }
 
     public List<Agendamento> buscarPorProfissional(Integer profissionalId) {
         if (profissionalId == null) {
             throw new IllegalArgumentException("ID do profissional não pode ser nulo");
         }
-        return agendamentoDAO.buscarPorProfissional(profissionalId);
+        return comPendentes(agendamentoDAO.buscarPorProfissional(profissionalId));
     }
 
     public List<Agendamento> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
@@ -179,15 +254,84 @@ public class AgendamentoService {
         if (dataInicio.isAfter(dataFim)) {
             throw new IllegalArgumentException("Data de início não pode ser após data de fim");
         }
-        return agendamentoDAO.buscarPorPeriodo(dataInicio, dataFim);
+        return comPendentes(agendamentoDAO.buscarPorPeriodo(dataInicio, dataFim));
     }
 
     public List<Agendamento> buscarPorStatus(String status) {
-        return agendamentoDAO.buscarPorStatus(status);
+        return comPendentes(agendamentoDAO.buscarPorStatus(status));
     }
 
     public List<Agendamento> listarTodos() {
-        return agendamentoDAO.listarTodos();
+        return comPendentes(agendamentoDAO.listarTodos());
+    }
+
+    // Próxima página depois do cursor (null = primeira página)
+    public Pagina<Agendamento> listarPagina(Agendamento cursor, int tamanho) {
+        Pagina<Agendamento> pagina = agendamentoDAO.listarPagina(cursor, tamanho);
+        filaStatus.aplicarPendentes(pagina.getItens());
+        return pagina;
+    }
+
+    /**
+     * Busca paginada por cliente, período e status (ver FiltroAgendamento).
+     * O nome do cliente é resolvido em ids pelo índice de busca de clientes,
+     * para a consulta partir do índice de cliente_id em vez de comparar nomes;
+     * com mais de MAXIMO_IDS_BUSCA clientes o filtro por nome vai direto para o banco.
+     */
+    public Pagina<Agendamento> buscar(FiltroAgendamento filtro, Agendamento cursor, int tamanho) {
+        if (filtro == null) {
+            throw new IllegalArgumentException("Filtro da busca não pode ser nulo");
+        }
+        if (filtro.getDataInicio() != null && filtro.getDataFim() != null
+                && filtro.getDataInicio().isAfter(filtro.getDataFim())) {
+            throw new IllegalArgumentException("Data de início não pode ser após data de fim");
+        }
+
+        FiltroAgendamento consulta = filtro;
+        if (filtro.getNomeCliente() != null && filtro.getClienteIds() == null) {
+            List<Integer> ids = IndiceBuscaClientes.getInstancia().idsPorNome(filtro.getNomeCliente());
+            if (ids.size() <= MAXIMO_IDS_BUSCA) {
+                consulta = new FiltroAgendamento();
+                consulta.setClienteIds(ids);
+                consulta.setDataInicio(filtro.getDataInicio());
+                consulta.setDataFim(filtro.getDataFim());
+                consulta.setStatus(filtro.getStatus());
+            }
+        }
+
+        Pagina<Agendamento> pagina = agendamentoDAO.buscar(consulta, cursor, tamanho);
+        filaStatus.aplicarPendentes(pagina.getItens());
+        return pagina;
+    }
+
+    // Status que ainda estão na fila de gravação adiada
+    private List<Agendamento> comPendentes(List<Agendamento> agendamentos) {
+        filaStatus.aplicarPendentes(agendamentos);
+        return agendamentos;
+    }
+
+    // Disponibilidade pelo índice em memória (sem consultar o banco depois do primeiro acesso ao dia)
+    public List<LocalTime> listarHorariosLivres(Integer profissionalId, LocalDate data, int duracaoMinutos,
+                                                Integer ignorarAgendamentoId) {
+        return indiceDisponibilidade.horariosLivres(profissionalId, data, PRIMEIRO_HORARIO, ULTIMO_HORARIO,
+                INTERVALO_HORARIOS_MIN, duracaoMinutos, ignorarAgendamentoId);
+    }
+
+    public List<LocalTime> listarHorariosExpediente() {
+        List<LocalTime> horarios = new ArrayList<>();
+        for (LocalTime h = PRIMEIRO_HORARIO; !h.isAfter(ULTIMO_HORARIO); h = h.plusMinutes(INTERVALO_HORARIOS_MIN)) {
+            horarios.add(h);
+        }
+        return horarios;
+    }
+
+    public boolean isHorarioLivre(Integer profissionalId, LocalDate data, LocalTime hora, int duracaoMinutos) {
+        return indiceDisponibilidade.isLivre(profissionalId, data, hora, duracaoMinutos, null);
+    }
+
+    public LocalTime buscarProximoHorarioLivre(Integer profissionalId, LocalDate data, LocalTime aPartirDe,
+                                               int duracaoMinutos) {
+        return indiceDisponibilidade.proximoHorarioLivre(profissionalId, data, aPartirDe, duracaoMinutos);
     }
 
     public List<Agendamento> buscarAgendamentosHoje() {
@@ -195,32 +339,31 @@ public class AgendamentoService {
     }
 
     // Métodos de negócio específicos
+    // Relatórios por período leem a tabela de resumo (poucas linhas por dia)
     public double calcularFaturamentoPeriodo(LocalDate inicio, LocalDate fim) {
-        List<Agendamento> agendamentos = buscarPorPeriodo(inicio, fim);
+        return resumoDAO.totalizar(inicio, fim, Agendamento.StatusAgendamento.REALIZADO).getValor();
+    }
 
-        return agendamentos.stream()
-                .filter(a -> a.getStatus() == Agendamento.StatusAgendamento.REALIZADO)
-                .mapToDouble(Agendamento::calcularValorTotal)
-                .sum();
+    public Map<Agendamento.StatusAgendamento, ResumoDAO.Totais> resumirPeriodo(LocalDate inicio, LocalDate fim) {
+        return resumoDAO.totalizarPorStatus(inicio, fim);
     }
 
-    public int contarAgendamentosPendentes() {
-        List<Agendamento> agendamentos = listarTodos();
+    public void reconstruirResumos() {
+        resumoDAO.reconstruir();
+    }
 
-        return (int) agendamentos.stream()
-                .filter(a -> a.getStatus() == Agendamento.StatusAgendamento.AGENDADO)
-                .count();
+    public int contarAgendamentosPendentes() {
+        return agendamentoDAO.contarPorStatus(Agendamento.StatusAgendamento.AGENDADO);
     }
 
     public double calcularTaxaCancelamento() {
-        List<Agendamento> agendamentos = listarTodos();
-        if (agendamentos.isEmpty()) return 0.0;
+        // Uma consulta com GROUP BY status
+        Map<Agendamento.StatusAgendamento, Integer> porStatus = agendamentoDAO.contarPorStatus();
 
-        long cancelados = agendamentos.stream()
-                .filter(a -> a.getStatus() == Agendamento.StatusAgendamento.CANCELADO)
-                .count();
+        long total = porStatus.values().stream().mapToLong(Integer::longValue).sum();
+        if (total == 0) return 0.0;
 
-        return (double) cancelados / agendamentos.size() * 100;
+        return (double) porStatus.get(Agendamento.StatusAgendamento.CANCELADO) / total * 100;
     }
 
     public Profissional buscarProfissionalMaisOcupado() {
@@ -0,0 +1,134 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.FiltroAgendamento;
+import com.barbearia.model.dao.ResumoDAO;
+import com.barbearia.model.entity.*;
+import com.barbearia.util.Pagina;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona do AgendamentoService: cada operação roda em uma virtual thread própria
+ * e devolve um CompletableFuture. O acesso ao banco é limitado pela ExecucaoAssincrona.
+ */
+public class AgendamentoServiceAssincrono {
+
+    private final AgendamentoService sincrono;
+
+    public AgendamentoServiceAssincrono() {
+        this(new AgendamentoService());
+    }
+
+    public AgendamentoServiceAssincrono(AgendamentoService sincrono) {
+        this.sincrono = sincrono;
+    }
+
+    // Serviço bloqueante por trás desta fachada
+    public AgendamentoService getSincrono() {
+        return sincrono;
+    }
+
+    public CompletableFuture<Void> agendar(Agendamento agendamento) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.agendar(agendamento));
+    }
+
+    public CompletableFuture<Void> atualizarAgendamento(Agendamento agendamento) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.atualizarAgendamento(agendamento));
+    }
+
+    public CompletableFuture<Void> cancelarAgendamento(Integer id, String motivo) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.cancelarAgendamento(id, motivo));
+    }
+
+    public CompletableFuture<Void> confirmarAgendamento(Integer id) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.confirmarAgendamento(id));
+    }
+
+    public CompletableFuture<Void> finalizarAgendamento(Integer id, String observacoes) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.finalizarAgendamento(id, observacoes));
+    }
+
+    public CompletableFuture<Agendamento> buscarPorId(Integer id) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorId(id));
+    }
+
+    public CompletableFuture<List<Agendamento>> buscarPorData(LocalDate data) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorData(data));
+    }
+
+    public CompletableFuture<List<Agendamento>> buscarPorCliente(Integer clienteId) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorCliente(clienteId));
+    }
+
+    public CompletableFuture<List<Agendamento>> buscarPorProfissional(Integer profissionalId) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorProfissional(profissionalId));
+    }
+
+    public CompletableFuture<List<Agendamento>> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorPeriodo(dataInicio, dataFim));
+    }
+
+    public CompletableFuture<List<Agendamento>> buscarPorStatus(String status) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorStatus(status));
+    }
+
+    public CompletableFuture<List<Agendamento>> listarTodos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarTodos());
+    }
+
+    public CompletableFuture<Pagina<Agendamento>> listarPagina(Agendamento cursor, int tamanho) {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarPagina(cursor, tamanho));
+    }
+
+    public CompletableFuture<Pagina<Agendamento>> buscar(FiltroAgendamento filtro, Agendamento cursor, int tamanho) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscar(filtro, cursor, tamanho));
+    }
+
+    public CompletableFuture<List<LocalTime>> listarHorariosLivres(Integer profissionalId, LocalDate data, int duracaoMinutos, Integer ignorarAgendamentoId) {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarHorariosLivres(profissionalId, data, duracaoMinutos, ignorarAgendamentoId));
+    }
+
+    public CompletableFuture<Boolean> isHorarioLivre(Integer profissionalId, LocalDate data, LocalTime hora, int duracaoMinutos) {
+        return ExecucaoAssincrona.executar(() -> sincrono.isHorarioLivre(profissionalId, data, hora, duracaoMinutos));
+    }
+
+    public CompletableFuture<LocalTime> buscarProximoHorarioLivre(Integer profissionalId, LocalDate data, LocalTime aPartirDe, int duracaoMinutos) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarProximoHorarioLivre(profissionalId, data, aPartirDe, duracaoMinutos));
+    }
+
+    public CompletableFuture<List<Agendamento>> buscarAgendamentosHoje() {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarAgendamentosHoje());
+    }
+
+    public CompletableFuture<Double> calcularFaturamentoPeriodo(LocalDate inicio, LocalDate fim) {
+        return ExecucaoAssincrona.executar(() -> sincrono.calcularFaturamentoPeriodo(inicio, fim));
+    }
+
+    public CompletableFuture<Map<Agendamento.StatusAgendamento, ResumoDAO.Totais>> resumirPeriodo(LocalDate inicio, LocalDate fim) {
+        return ExecucaoAssincrona.executar(() -> sincrono.resumirPeriodo(inicio, fim));
+    }
+
+    public CompletableFuture<Void> reconstruirResumos() {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.reconstruirResumos());
+    }
+
+    public CompletableFuture<Integer> contarAgendamentosPendentes() {
+        return ExecucaoAssincrona.executar(() -> sincrono.contarAgendamentosPendentes());
+    }
+
+    public CompletableFuture<Double> calcularTaxaCancelamento() {
+        return ExecucaoAssincrona.executar(() -> sincrono.calcularTaxaCancelamento());
+    }
+
+    public CompletableFuture<Profissional> buscarProfissionalMaisOcupado() {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarProfissionalMaisOcupado());
+    }
+
+    public CompletableFuture<Cliente> buscarClienteMaisFrequente() {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarClienteMaisFrequente());
+    }
+}
@@ -0,0 +1,715 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.BackupDAO;
+import com.barbearia.model.dao.BackupDAO.Alteracao;
+import com.barbearia.model.dao.ConexaoBD;
+import com.barbearia.model.dao.UnidadeDeTrabalho;
+import com.barbearia.util.DatabaseInitializer;
+import com.barbearia.util.LogUtils;
+import com.barbearia.util.Metricas;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Backup online do banco em duas camadas:
+ * - snapshot completo e compactado (BACKUP TO do H2), feito com o sistema em uso;
+ * - incrementos com as alterações capturadas pelos gatilhos (log_alteracao) desde o último envio.
+ *
+ * Cada snapshot guarda em seu manifesto o último lote de incremento que ele já contém, então
+ * restaurar = descompactar o snapshot e reaplicar os lotes seguintes até o momento escolhido.
+ * Mantém os SNAPSHOTS_MANTIDOS mais recentes e os incrementos que eles ainda usam.
+ * Tempo e tamanho de cada backup vão para o console, para as Metricas e para historico.csv.
+ */
+public class BackupService {
+
+    private static final Path DIRETORIO = Path.of(System.getProperty("barbearia.backup.dir", "backups"));
+    private static final long INTERVALO_SNAPSHOT_MIN = Long.getLong("barbearia.backup.snapshot_min", 24 * 60);
+    private static final long INTERVALO_INCREMENTO_MIN = Long.getLong("barbearia.backup.incremento_min", 5);
+    private static final int SNAPSHOTS_MANTIDOS = Integer.getInteger("barbearia.backup.retencao", 7);
+
+    private static final DateTimeFormatter FORMATO_NOME = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+    private static final String PREFIXO_SNAPSHOT = "snapshot_";
+    private static final String PREFIXO_INCREMENTO = "incremento_";
+    private static final String EXTENSAO_INCREMENTO = ".json.gz";
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Envio de incrementos, snapshots, retenção e restauração nunca rodam ao mesmo tempo
+    private static final Object TRAVA = new Object();
+    private static ScheduledExecutorService agendador;
+
+    private final BackupDAO backupDAO = new BackupDAO();
+
+    public record Snapshot(String nome, LocalDateTime inicio, LocalDateTime fim, int loteBase,
+                           long bytes, long bytesBanco, long duracaoMs) {
+
+        public Path getArquivo() {
+            return DIRETORIO.resolve(nome + ".zip");
+        }
+    }
+
+    public record Restauracao(Snapshot snapshot, LocalDateTime alvo, int alteracoesReaplicadas, long duracaoMs) {
+    }
+
+    // Agenda incrementos e snapshots em uma thread de fundo (chamado depois de DatabaseInitializer.init)
+    public static synchronized void iniciarAgendamento() {
+        if (agendador != null) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "backup");
+            t.setDaemon(true);
+            return t;
+        });
+
+        BackupService servico = new BackupService();
+        agendador.scheduleWithFixedDelay(servico::enviarAlteracoesSemFalhar,
+                INTERVALO_INCREMENTO_MIN, INTERVALO_INCREMENTO_MIN, TimeUnit.MINUTES);
+        agendador.scheduleAtFixedRate(servico::criarSnapshotSemFalhar,
+                servico.minutosAteProximoSnapshot(), INTERVALO_SNAPSHOT_MIN, TimeUnit.MINUTES);
+    }
+
+    // Espera o backup em andamento (sem interromper o H2 no meio da cópia) e envia o que faltou
+    public static synchronized void encerrarAgendamento() {
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdown();
+        try {
+            agendador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        agendador = null;
+        new BackupService().enviarAlteracoesSemFalhar();
+    }
+
+    /**
+     * Grava num novo arquivo de incremento as alterações ainda não enviadas.
+     * Devolve o número do último lote enviado (o anterior, se não havia nada novo).
+     */
+    public int enviarAlteracoes() {
+        synchronized (TRAVA) {
+            try {
+                Files.createDirectories(DIRETORIO);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            int lote = ultimoLote() + 1;
+            Path arquivo = DIRETORIO.resolve(nomeIncremento(lote));
+            long inicio = System.nanoTime();
+
+            // Marcação e arquivo na mesma transação: se a gravação falhar, as linhas continuam pendentes
+            int enviadas = UnidadeDeTrabalho.executar(() -> {
+                int marcadas = backupDAO.marcarLote(lote);
+                if (marcadas > 0) {
+                    escreverIncremento(lote, arquivo);
+                }
+                return marcadas;
+            });
+            if (enviadas == 0) {
+                return lote - 1;
+            }
+
+            long duracaoMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+            long bytes = tamanho(arquivo);
+            Metricas.incrementar("backup.incrementos");
+            Metricas.adicionar("backup.incrementos.alteracoes", enviadas);
+            Metricas.adicionar("backup.incrementos.bytes", bytes);
+            registrarHistorico("incremento", arquivo.getFileName().toString(), enviadas, bytes, tamanhoBanco(), duracaoMs);
+            return lote;
+        }
+    }
+
+    // Snapshot completo; em seguida poda o log e aplica a retenção
+    public Snapshot criarSnapshot() {
+        synchronized (TRAVA) {
+            LocalDateTime inicio = LocalDateTime.now();
+            long inicioNs = System.nanoTime();
+
+            // Tudo que foi enviado até aqui já estava confirmado, então entra no snapshot
+            int loteBase = enviarAlteracoes();
+
+            String nome = PREFIXO_SNAPSHOT + inicio.format(FORMATO_NOME);
+            Path arquivo = DIRETORIO.resolve(nome + ".zip");
+            Path temporario = DIRETORIO.resolve(nome + ".zip.parcial");
+            try {
+                backupDAO.criarSnapshot(temporario);
+                sincronizar(temporario);
+                mover(temporario, arquivo);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao gravar snapshot: " + e.getMessage(), e);
+            } finally {
+                apagar(temporario);
+            }
+
+            long duracaoMs = Duration.ofNanos(System.nanoTime() - inicioNs).toMillis();
+            Snapshot snapshot = new Snapshot(nome, inicio, LocalDateTime.now(), loteBase,
+                    tamanho(arquivo), tamanhoBanco(), duracaoMs);
+            gravarManifesto(snapshot);
+
+            backupDAO.podar(loteBase);
+            aplicarRetencao();
+
+            Metricas.incrementar("backup.snapshots");
+            Metricas.adicionar("backup.snapshots.bytes", snapshot.bytes());
+            Metricas.adicionar("backup.snapshots.ms", duracaoMs);
+            registrarHistorico("snapshot", arquivo.getFileName().toString(), 0, snapshot.bytes(),
+                    snapshot.bytesBanco(), duracaoMs);
+            System.out.println("💾 Backup " + arquivo.getFileName() + ": " + formatarTamanho(snapshot.bytes())
+                    + " (banco " + formatarTamanho(snapshot.bytesBanco()) + ") em " + duracaoMs + " ms");
+            return snapshot;
+        }
+    }
+
+    // Snapshots disponíveis, do mais antigo para o mais recente
+    public List<Snapshot> listarSnapshots() {
+        if (!Files.isDirectory(DIRETORIO)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(DIRETORIO)) {
+            return arquivos
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO_SNAPSHOT)
+                            && p.getFileName().toString().endsWith(".properties"))
+                    .map(this::lerManifesto)
+                    .filter(s -> Files.exists(s.getArquivo()))
+                    .sorted(Comparator.comparing(Snapshot::nome))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao listar backups: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Volta o banco para o estado de 'alvo' (null = o mais recente possível): descompacta o último
+     * snapshot terminado até 'alvo' e reaplica as transações dos incrementos terminadas até esse
+     * momento. Uma transação com qualquer alteração depois de 'alvo' fica de fora inteira.
+     * O banco novo é montado numa pasta temporária e só substitui o atual se tudo der certo; o atual
+     * é preservado ao lado, com o sufixo .antes_restauracao_<data>, e a cadeia de backup usada vai
+     * para a pasta anteriores_<data>, já que o banco restaurado começa uma nova.
+     * Deve rodar com o sistema fechado, antes de DatabaseInitializer.init().
+     */
+    public Restauracao restaurar(LocalDateTime alvo) {
+        synchronized (TRAVA) {
+            long inicioNs = System.nanoTime();
+            LocalDateTime limite = alvo != null ? alvo : LocalDateTime.MAX;
+
+            Snapshot snapshot = listarSnapshots().stream()
+                    .filter(s -> !s.fim().isAfter(limite))
+                    .reduce((anterior, seguinte) -> seguinte)
+                    .orElseThrow(() -> new IllegalArgumentException(alvo != null
+                            ? "Nenhum backup terminado até " + alvo
+                            : "Nenhum backup encontrado em " + DIRETORIO.toAbsolutePath()));
+
+            Path pasta = Path.of(ConexaoBD.DIRETORIO_BANCO);
+            Path banco = pasta.resolve(ConexaoBD.NOME_BANCO + ".mv.db");
+            String marca = LocalDateTime.now().format(FORMATO_NOME);
+            Path temporaria = pasta.resolve("restauracao_" + marca);
+
+            int reaplicadas;
+            try {
+                if (Files.exists(banco)) {
+                    verificarBancoFechado(banco);
+                }
+                descompactar(snapshot, temporaria);
+                reaplicadas = montarBanco(temporaria, snapshot, limite);
+                trocarBanco(temporaria.resolve(banco.getFileName()), banco, marca);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao restaurar o backup: " + e.getMessage(), e);
+            } finally {
+                apagarPasta(temporaria);
+            }
+            arquivarCadeia(marca);
+
+            long duracaoMs = Duration.ofNanos(System.nanoTime() - inicioNs).toMillis();
+            Metricas.incrementar("backup.restauracoes");
+            System.out.println("♻️ Banco restaurado de " + snapshot.nome() + " + " + reaplicadas
+                    + " alteração(ões) em " + duracaoMs + " ms");
+            return new Restauracao(snapshot, alvo, reaplicadas, duracaoMs);
+        }
+    }
+
+    // Reaplica os incrementos no banco descompactado em 'pasta'; devolve quantas alterações entraram
+    private int montarBanco(Path pasta, Snapshot snapshot, LocalDateTime limite) throws IOException {
+        try (Connection conn = ConexaoBD.conectarPasta(pasta)) {
+            // Gatilhos fora enquanto reaplica; DatabaseInitializer.init() os recria
+            backupDAO.removerGatilhos(conn);
+            Set<Long> presentes = backupDAO.listarSequenciasPresentes(conn);
+
+            int reaplicadas = 0;
+            for (Path arquivo : listarIncrementos()) {
+                if (loteDe(arquivo) <= snapshot.loteBase()) {
+                    continue;
+                }
+                try {
+                    // Um incremento só tem transações inteiras, então basta olhar o próprio arquivo
+                    Set<Long> descartadas = transacoesDepoisDe(arquivo, limite);
+                    try (JsonReader json = abrirIncremento(arquivo)) {
+                        json.beginArray();
+                        reaplicadas += backupDAO.reaplicar(conn,
+                                new LeitorIncremento(json, presentes, descartadas));
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    throw new IllegalStateException("Erro ao ler " + arquivo.getFileName() + ": " + e.getMessage(), e);
+                }
+            }
+
+            backupDAO.concluirRestauracao(conn, reaplicadas > 0);
+            return reaplicadas;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao abrir o banco restaurado: " + e.getMessage(), e);
+        }
+    }
+
+    // Transações do incremento com alguma alteração depois do limite (ainda não tinham terminado)
+    private static Set<Long> transacoesDepoisDe(Path arquivo, LocalDateTime limite) throws IOException {
+        Set<Long> transacoes = new HashSet<>();
+        if (limite.equals(LocalDateTime.MAX)) {
+            return transacoes;
+        }
+        try (JsonReader json = abrirIncremento(arquivo)) {
+            json.beginArray();
+            while (json.hasNext()) {
+                Alteracao alteracao = lerAlteracao(json);
+                if (alteracao.momento().isAfter(limite)) {
+                    transacoes.add(alteracao.transacao());
+                }
+            }
+        }
+        return transacoes;
+    }
+
+    private static JsonReader abrirIncremento(Path arquivo) throws IOException {
+        InputStream entrada = new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER), TAMANHO_BUFFER);
+        return new JsonReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    }
+
+    // Lê as alterações de um incremento sob demanda, pulando as transações posteriores ao alvo e o que o
+    // snapshot já tem
+    private static class LeitorIncremento implements Iterator<Alteracao> {
+        private final JsonReader json;
+        private final Set<Long> presentes;
+        private final Set<Long> descartadas;
+        private Alteracao proxima;
+
+        LeitorIncremento(JsonReader json, Set<Long> presentes, Set<Long> descartadas) {
+            this.json = json;
+            this.presentes = presentes;
+            this.descartadas = descartadas;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (proxima == null && json.hasNext()) {
+                    Alteracao alteracao = lerAlteracao(json);
+                    if (!descartadas.contains(alteracao.transacao()) && !presentes.contains(alteracao.seq())) {
+                        proxima = alteracao;
+                    }
+                }
+                return proxima != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Alteracao next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Alteracao atual = proxima;
+            proxima = null;
+            return atual;
+        }
+    }
+
+    private static Alteracao lerAlteracao(JsonReader json) throws IOException {
+        long seq = 0;
+        long transacao = 0;
+        LocalDateTime momento = null;
+        String tabela = null;
+        String operacao = null;
+        String dados = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "seq" -> seq = json.nextLong();
+                case "transacao" -> transacao = json.nextLong();
+                case "momento" -> momento = LocalDateTime.parse(json.nextString());
+                case "tabela" -> tabela = json.nextString();
+                case "operacao" -> operacao = json.nextString();
+                case "dados" -> dados = JsonParser.parseReader(json).toString();
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+        return new Alteracao(seq, transacao, momento, tabela, operacao, dados);
+    }
+
+    private void escreverIncremento(int lote, Path arquivo) {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".parcial");
+        try {
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+                OutputStream saida = new GZIPOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER), TAMANHO_BUFFER);
+                try (Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+                     JsonWriter json = new JsonWriter(escritor)) {
+
+                    json.beginArray();
+                    backupDAO.paraCadaAlteracao(lote, alteracao -> {
+                        try {
+                            json.beginObject();
+                            json.name("seq").value(alteracao.seq());
+                            json.name("transacao").value(alteracao.transacao());
+                            json.name("momento").value(alteracao.momento().toString());
+                            json.name("tabela").value(alteracao.tabela());
+                            json.name("operacao").value(alteracao.operacao());
+                            json.name("dados").jsonValue(alteracao.dados());
+                            json.endObject();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    json.endArray();
+                }
+            }
+            sincronizar(temporario);
+            mover(temporario, arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar incremento: " + e.getMessage(), e);
+        } finally {
+            apagar(temporario);
+        }
+    }
+
+    // Descompacta o snapshot numa pasta própria, onde o banco restaurado é montado
+    private void descompactar(Snapshot snapshot, Path pasta) throws IOException {
+        Files.createDirectories(pasta);
+
+        try (ZipInputStream zip = new ZipInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot.getArquivo()), TAMANHO_BUFFER))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                Path destino = pasta.resolve(entrada.getName()).normalize();
+                if (!destino.startsWith(pasta) || entrada.isDirectory()) {
+                    continue;
+                }
+                Files.copy(zip, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    // Põe o banco montado no lugar do atual, que é guardado ao lado; se a troca falhar, o atual volta
+    private static void trocarBanco(Path restaurado, Path banco, String marca) throws IOException {
+        Path anterior = banco.resolveSibling(banco.getFileName() + ".antes_restauracao_" + marca);
+        boolean existia = Files.exists(banco);
+        if (existia) {
+            verificarBancoFechado(banco);
+            Files.move(banco, anterior);
+        }
+        try {
+            mover(restaurado, banco);
+        } catch (IOException e) {
+            if (existia) {
+                Files.move(anterior, banco);
+            }
+            throw e;
+        }
+    }
+
+    // O H2 mantém o arquivo travado enquanto o banco está aberto (aqui ou em outro processo)
+    private static void verificarBancoFechado(Path banco) throws IOException {
+        try (FileChannel canal = FileChannel.open(banco, StandardOpenOption.WRITE);
+             FileLock trava = canal.tryLock()) {
+            if (trava == null) {
+                throw new IllegalStateException("O banco está em uso. Feche o sistema antes de restaurar.");
+            }
+        } catch (OverlappingFileLockException e) {
+            throw new IllegalStateException("O banco está em uso. Feche o sistema antes de restaurar.");
+        }
+    }
+
+    // Depois de restaurar, os arquivos antigos não se aplicam ao banco novo; ficam guardados à parte
+    private void arquivarCadeia(String marca) {
+        Path destino = DIRETORIO.resolve("anteriores_" + marca);
+        try (Stream<Path> arquivos = Files.list(DIRETORIO)) {
+            Files.createDirectories(destino);
+            for (Path arquivo : arquivos.filter(Files::isRegularFile).toList()) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.startsWith(PREFIXO_SNAPSHOT) || nome.startsWith(PREFIXO_INCREMENTO)) {
+                    Files.move(arquivo, destino.resolve(nome));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao arquivar backups anteriores: " + e.getMessage(), e);
+        }
+    }
+
+    // Mantém os snapshots mais recentes e apaga incrementos que nenhum deles usa mais
+    private void aplicarRetencao() {
+        List<Snapshot> snapshots = listarSnapshots();
+        int excedentes = Math.max(0, snapshots.size() - SNAPSHOTS_MANTIDOS);
+        for (Snapshot antigo : snapshots.subList(0, excedentes)) {
+            apagar(antigo.getArquivo());
+            apagar(DIRETORIO.resolve(antigo.nome() + ".properties"));
+        }
+
+        List<Snapshot> mantidos = snapshots.subList(excedentes, snapshots.size());
+        int menorBase = mantidos.stream().mapToInt(Snapshot::loteBase).min().orElse(0);
+        for (Path incremento : listarIncrementos()) {
+            if (loteDe(incremento) <= menorBase) {
+                apagar(incremento);
+            }
+        }
+    }
+
+    private long minutosAteProximoSnapshot() {
+        List<Snapshot> snapshots = listarSnapshots();
+        if (snapshots.isEmpty()) {
+            // Primeiro backup logo depois da abertura, sem atrasar a inicialização
+            return 1;
+        }
+        long desdeUltimo = Duration.between(snapshots.get(snapshots.size() - 1).fim(), LocalDateTime.now()).toMinutes();
+        return Math.max(1, INTERVALO_SNAPSHOT_MIN - desdeUltimo);
+    }
+
+    private void enviarAlteracoesSemFalhar() {
+        try {
+            enviarAlteracoes();
+        } catch (RuntimeException e) {
+            LogUtils.gravarErro("Erro ao enviar backup incremental", e);
+        }
+    }
+
+    private void criarSnapshotSemFalhar() {
+        try {
+            criarSnapshot();
+        } catch (RuntimeException e) {
+            LogUtils.gravarErro("Erro ao criar snapshot do banco", e);
+        }
+    }
+
+    private List<Path> listarIncrementos() {
+        if (!Files.isDirectory(DIRETORIO)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(DIRETORIO)) {
+            return arquivos
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO_INCREMENTO)
+                            && p.getFileName().toString().endsWith(EXTENSAO_INCREMENTO))
+                    .sorted(Comparator.comparingInt(BackupService::loteDe))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao listar backups: " + e.getMessage(), e);
+        }
+    }
+
+    private int ultimoLote() {
+        List<Path> incrementos = listarIncrementos();
+        int ultimo = incrementos.isEmpty() ? 0 : loteDe(incrementos.get(incrementos.size() - 1));
+        // Com os incrementos podados pela retenção, o número continua a partir do último snapshot
+        for (Snapshot snapshot : listarSnapshots()) {
+            ultimo = Math.max(ultimo, snapshot.loteBase());
+        }
+        return ultimo;
+    }
+
+    private static String nomeIncremento(int lote) {
+        return PREFIXO_INCREMENTO + String.format("%08d", lote) + EXTENSAO_INCREMENTO;
+    }
+
+    private static int loteDe(Path incremento) {
+        String nome = incremento.getFileName().toString();
+        return Integer.parseInt(nome.substring(PREFIXO_INCREMENTO.length(), nome.length() - EXTENSAO_INCREMENTO.length()));
+    }
+
+    private void gravarManifesto(Snapshot snapshot) {
+        Properties manifesto = new Properties();
+        manifesto.setProperty("inicio", snapshot.inicio().toString());
+        manifesto.setProperty("fim", snapshot.fim().toString());
+        manifesto.setProperty("loteBase", String.valueOf(snapshot.loteBase()));
+        manifesto.setProperty("bytes", String.valueOf(snapshot.bytes()));
+        manifesto.setProperty("bytesBanco", String.valueOf(snapshot.bytesBanco()));
+        manifesto.setProperty("duracaoMs", String.valueOf(snapshot.duracaoMs()));
+
+        try (Writer escritor = Files.newBufferedWriter(DIRETORIO.resolve(snapshot.nome() + ".properties"))) {
+            manifesto.store(escritor, "Snapshot do banco (BackupService)");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar manifesto do backup: " + e.getMessage(), e);
+        }
+    }
+
+    private Snapshot lerManifesto(Path arquivo) {
+        Properties manifesto = new Properties();
+        try (Reader leitor = Files.newBufferedReader(arquivo)) {
+            manifesto.load(leitor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler manifesto do backup: " + e.getMessage(), e);
+        }
+        String nome = arquivo.getFileName().toString().replace(".properties", "");
+        return new Snapshot(nome,
+                LocalDateTime.parse(manifesto.getProperty("inicio")),
+                LocalDateTime.parse(manifesto.getProperty("fim")),
+                Integer.parseInt(manifesto.getProperty("loteBase")),
+                Long.parseLong(manifesto.getProperty("bytes", "0")),
+                Long.parseLong(manifesto.getProperty("bytesBanco", "0")),
+                Long.parseLong(manifesto.getProperty("duracaoMs", "0")));
+    }
+
+    // Uma linha por backup, para acompanhar tempo e tamanho conforme os dados crescem
+    private void registrarHistorico(String tipo, String arquivo, int alteracoes, long bytes,
+                                    long bytesBanco, long duracaoMs) {
+        Path historico = DIRETORIO.resolve("historico.csv");
+        String linha = LocalDateTime.now().withNano(0) + ";" + tipo + ";" + arquivo + ";" + alteracoes + ";"
+                + bytes + ";" + bytesBanco + ";" + duracaoMs + System.lineSeparator();
+        try {
+            if (!Files.exists(historico)) {
+                Files.writeString(historico, "data;tipo;arquivo;alteracoes;bytes;bytes_banco;duracao_ms"
+                        + System.lineSeparator());
+            }
+            Files.writeString(historico, linha, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // O histórico é só informativo
+            LogUtils.gravarErro("Erro ao registrar histórico de backup", e);
+        }
+    }
+
+    private static void sincronizar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+    }
+
+    private static void mover(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void apagarPasta(Path pasta) {
+        if (!Files.exists(pasta)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(pasta)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                apagar(arquivo);
+            }
+        } catch (IOException e) {
+            LogUtils.gravarErro("Erro ao apagar " + pasta, e);
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            LogUtils.gravarErro("Erro ao apagar " + arquivo, e);
+        }
+    }
+
+    private static long tamanho(Path arquivo) {
+        try {
+            return Files.size(arquivo);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long tamanhoBanco() {
+        return tamanho(Path.of(ConexaoBD.DIRETORIO_BANCO, ConexaoBD.NOME_BANCO + ".mv.db"));
+    }
+
+    private static String formatarTamanho(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * Uso pela linha de comando, com o sistema fechado:
+     *   snapshot                      cria um snapshot agora
+     *   listar                        mostra os snapshots disponíveis
+     *   restaurar [AAAA-MM-DDTHH:MM]  restaura até o momento informado (sem data: o mais recente)
+     */
+    public static void main(String[] args) {
+        String comando = args.length > 0 ? args[0] : "listar";
+        BackupService servico = new BackupService();
+        try {
+            switch (comando) {
+                case "snapshot" -> {
+                    DatabaseInitializer.init();
+                    servico.criarSnapshot();
+                }
+                case "listar" -> {
+                    for (Snapshot s : servico.listarSnapshots()) {
+                        System.out.println(s.nome() + "  fim " + s.fim().withNano(0) + "  " + formatarTamanho(s.bytes())
+                                + "  " + s.duracaoMs() + " ms  lote base " + s.loteBase());
+                    }
+                }
+                case "restaurar" -> {
+                    LocalDateTime alvo = args.length > 1 ? LocalDateTime.parse(args[1]) : null;
+                    servico.restaurar(alvo);
+                    // Recria os gatilhos e começa a nova cadeia de backup
+                    DatabaseInitializer.init();
+                    servico.criarSnapshot();
+                }
+                default -> System.err.println("Comando desconhecido: " + comando
+                        + " (use snapshot, listar ou restaurar [AAAA-MM-DDTHH:MM])");
+            }
+        } finally {
+            ConexaoBD.fecharConexao();
+        }
+    }
+}
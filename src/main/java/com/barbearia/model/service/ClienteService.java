@@ -1,20 +1,27 @@
 package com.barbearia.model.service;
 
 import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.dao.UnidadeDeTrabalho;
 import com.barbearia.model.entity.Cliente;
+import com.barbearia.util.Pagina;
+import com.barbearia.util.Validacao;
 import java.time.LocalDate;
 import java.util.List;
 
 public class ClienteService {
     private ClienteDAO clienteDAO;
+    private IndiceBuscaClientes indiceBusca;
 
     public ClienteService() {
         this.clienteDAO = new ClienteDAO();
+        this.indiceBusca = IndiceBuscaClientes.getInstancia();
     }
 
+    // O índice de busca só muda depois do commit (na hora, se não houver transação aberta)
     public void cadastrarCliente(Cliente cliente) throws IllegalArgumentException {
         validarCliente(cliente);
         clienteDAO.salvar(cliente);
+        UnidadeDeTrabalho.aoConcluir(() -> indiceBusca.registrar(cliente));
     }
 
     public void atualizarCliente(Cliente cliente) throws IllegalArgumentException {
@@ -23,6 +30,7 @@ public class ClienteService {
         }
         validarCliente(cliente);
         clienteDAO.atualizar(cliente);
+        UnidadeDeTrabalho.aoConcluir(() -> indiceBusca.registrar(cliente));
     }
 
     public void excluirCliente(Integer id) {
@@ -30,9 +38,11 @@ public class ClienteService {
             throw new IllegalArgumentException("ID do cliente não pode ser nulo");
         }
         clienteDAO.excluir(id);
+        UnidadeDeTrabalho.aoConcluir(() -> indiceBusca.remover(id));
     }
 
-    private void validarCliente(Cliente cliente) {
+    // Também usada pela importação em lote
+    void validarCliente(Cliente cliente) {
         if (cliente.getNome() == null || cliente.getNome().trim().isEmpty()) {
             throw new IllegalArgumentException("Nome do cliente é obrigatório");
         }
@@ -42,7 +52,7 @@ public class ClienteService {
         }
 
         // Validação básica de telefone (pelo menos 10 dígitos)
-        String telefoneLimpo = cliente.getTelefone().replaceAll("[^0-9]", "");
+        String telefoneLimpo = Validacao.apenasDigitos(cliente.getTelefone());
         if (telefoneLimpo.length() < 10) {
             throw new IllegalArgumentException("Telefone inválido (mínimo 10 dígitos)");
         }
@@ -63,12 +73,28 @@ public class ClienteService {
         return clienteDAO.buscarPorId(id);
     }
 
+    // Busca pelo índice em memória: nome, email ou telefone, ordenados por relevância
     public List<Cliente> buscarPorNome(String nome) {
-        return clienteDAO.buscarPorNome(nome);
+        return indiceBusca.buscar(nome);
     }
 
     public List<Cliente> buscarPorTelefone(String telefone) {
-        return clienteDAO.buscarPorTelefone(telefone);
+        // Só os dígitos: letras não devem cair na busca por nome
+        return telefone == null ? List.of() : indiceBusca.buscar(Validacao.apenasDigitos(telefone));
+    }
+
+    // Quem está ligando: pelos últimos dígitos do número recebido (com ou sem DDD e código do país)
+    public List<Cliente> identificarChamada(String numero) {
+        String digitos = Validacao.apenasDigitos(numero);
+        if (digitos.length() < ClienteDAO.DIGITOS_FINAL_TELEFONE) {
+            throw new IllegalArgumentException("Informe ao menos " + ClienteDAO.DIGITOS_FINAL_TELEFONE
+                    + " dígitos do telefone");
+        }
+        // Os 9 últimos cobrem celular sem DDD; o código do país e o DDD ficam de fora
+        if (digitos.length() > 9) {
+            digitos = digitos.substring(digitos.length() - 9);
+        }
+        return clienteDAO.buscarPorFinalTelefone(digitos);
     }
 
     public List<Cliente> buscarPorPeriodoCadastro(LocalDate inicio, LocalDate fim) {
@@ -85,9 +111,14 @@ public class ClienteService {
         return clienteDAO.listarTodos();
     }
 
+    // Próxima página depois do cursor (null = primeira página)
+    public Pagina<Cliente> listarPagina(Cliente cursor, int tamanho) {
+        return clienteDAO.listarPagina(cursor, tamanho);
+    }
+
     // Métodos de negócio específicos
     public int contarTotalClientes() {
-        return clienteDAO.listarTodos().size();
+        return clienteDAO.contarTodos();
     }
 
     public List<Cliente> buscarClientesFieis(int limite) {
@@ -100,13 +131,11 @@ public class ClienteService {
     public double calcularTaxaRetencao() {
         // Lógica para calcular taxa de retenção de clientes
         // Implementação simplificada
-        List<Cliente> clientes = clienteDAO.listarTodos();
-        if (clientes.isEmpty()) return 0.0;
+        int total = clienteDAO.contarTodos();
+        if (total == 0) return 0.0;
 
-        long clientesRecentes = clientes.stream()
-                .filter(c -> c.getDataCadastro().isAfter(LocalDate.now().minusMonths(3)))
-                .count();
+        int clientesRecentes = clienteDAO.contarCadastradosApos(LocalDate.now().minusMonths(3));
 
-        return (double) clientesRecentes / clientes.size() * 100;
+        return (double) clientesRecentes / total * 100;
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.util.Pagina;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona do ClienteService: cada operação roda em uma virtual thread própria
+ * e devolve um CompletableFuture. O acesso ao banco é limitado pela ExecucaoAssincrona.
+ */
+public class ClienteServiceAssincrono {
+
+    private final ClienteService sincrono;
+
+    public ClienteServiceAssincrono() {
+        this(new ClienteService());
+    }
+
+    public ClienteServiceAssincrono(ClienteService sincrono) {
+        this.sincrono = sincrono;
+    }
+
+    // Serviço bloqueante por trás desta fachada
+    public ClienteService getSincrono() {
+        return sincrono;
+    }
+
+    public CompletableFuture<Void> cadastrarCliente(Cliente cliente) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.cadastrarCliente(cliente));
+    }
+
+    public CompletableFuture<Void> atualizarCliente(Cliente cliente) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.atualizarCliente(cliente));
+    }
+
+    public CompletableFuture<Void> excluirCliente(Integer id) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.excluirCliente(id));
+    }
+
+    public CompletableFuture<Cliente> buscarPorId(Integer id) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorId(id));
+    }
+
+    public CompletableFuture<List<Cliente>> buscarPorNome(String nome) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorNome(nome));
+    }
+
+    public CompletableFuture<List<Cliente>> buscarPorTelefone(String telefone) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorTelefone(telefone));
+    }
+
+    public CompletableFuture<List<Cliente>> identificarChamada(String numero) {
+        return ExecucaoAssincrona.executar(() -> sincrono.identificarChamada(numero));
+    }
+
+    public CompletableFuture<List<Cliente>> buscarPorPeriodoCadastro(LocalDate inicio, LocalDate fim) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorPeriodoCadastro(inicio, fim));
+    }
+
+    public CompletableFuture<List<Cliente>> listarTodos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarTodos());
+    }
+
+    public CompletableFuture<Pagina<Cliente>> listarPagina(Cliente cursor, int tamanho) {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarPagina(cursor, tamanho));
+    }
+
+    public CompletableFuture<Integer> contarTotalClientes() {
+        return ExecucaoAssincrona.executar(() -> sincrono.contarTotalClientes());
+    }
+
+    public CompletableFuture<List<Cliente>> buscarClientesFieis(int limite) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarClientesFieis(limite));
+    }
+
+    public CompletableFuture<Double> calcularTaxaRetencao() {
+        return ExecucaoAssincrona.executar(() -> sincrono.calcularTaxaRetencao());
+    }
+}
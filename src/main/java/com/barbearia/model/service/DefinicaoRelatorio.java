@@ -0,0 +1,17 @@
+package com.barbearia.model.service;
+
+import java.time.LocalDate;
+
+/**
+ * Uma seção da tela de relatórios. Novas seções são registradas no RelatorioService;
+ * gerar() roda fora da thread da interface e em paralelo com as outras seções.
+ */
+public interface DefinicaoRelatorio {
+
+    // Identificador estável, usado como chave do cache de resultados
+    String getId();
+
+    String getTitulo();
+
+    TabelaRelatorio gerar(LocalDate inicio, LocalDate fim);
+}
@@ -0,0 +1,64 @@
+package com.barbearia.model.service;
+
+import com.barbearia.util.Metricas;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor das versões assíncronas dos services: uma virtual thread por tarefa,
+ * então milhares de operações pendentes custam pouca memória.
+ * O que limita a concorrência é o banco: no máximo LIMITE_BANCO tarefas usam
+ * conexões ao mesmo tempo (o tamanho do pool principal); as demais esperam no semáforo,
+ * o que para uma virtual thread não ocupa thread do sistema.
+ */
+final class ExecucaoAssincrona {
+
+    static final int LIMITE_BANCO = Integer.getInteger("barbearia.async.limite", 10);
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("servico-async-", 0).factory());
+
+    // Justo: as tarefas entram no banco na ordem em que chegaram
+    private static final Semaphore permissoes = new Semaphore(LIMITE_BANCO, true);
+
+    private ExecucaoAssincrona() {
+    }
+
+    static <T> CompletableFuture<T> executar(Callable<T> operacao) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permissoes.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                Metricas.incrementar("servicos.async.executadas");
+                return operacao.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                permissoes.release();
+            }
+        }, EXECUTOR);
+    }
+
+    static CompletableFuture<Void> executarAcao(Runnable operacao) {
+        return executar(() -> {
+            operacao.run();
+            return null;
+        });
+    }
+
+    // Tarefas esperando uma vaga no banco (aproximado)
+    static int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+}
@@ -0,0 +1,340 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.AgendamentoDAO;
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.dao.PagamentoDAO;
+import com.barbearia.model.dao.ProfissionalDAO;
+import com.barbearia.model.dao.ServicoDAO;
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.model.entity.Pagamento;
+import com.barbearia.model.entity.Profissional;
+import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Metricas;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta uma tabela inteira para CSV ou JSON (opcionalmente gzip) em segundo plano.
+ * Os registros vêm de um cursor forward-only e vão direto para o arquivo, então a memória
+ * usada não depende do tamanho do histórico. O arquivo final só aparece quando a exportação
+ * termina: até lá tudo é escrito num temporário na mesma pasta.
+ */
+public class ExportacaoService {
+
+    public enum Entidade {
+        CLIENTES("Clientes"),
+        PROFISSIONAIS("Profissionais"),
+        SERVICOS("Serviços"),
+        AGENDAMENTOS("Agendamentos"),
+        PAGAMENTOS("Pagamentos");
+
+        private final String descricao;
+
+        Entidade(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() { return descricao; }
+
+        @Override
+        public String toString() { return descricao; }
+    }
+
+    public enum Formato {
+        CSV("csv"),
+        JSON("json");
+
+        private final String extensao;
+
+        Formato(String extensao) {
+            this.extensao = extensao;
+        }
+
+        public String getExtensao() { return extensao; }
+    }
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // De quantos em quantos registros o progresso é avisado (e o cancelamento verificado)
+    private static final int INTERVALO_PROGRESSO = 1000;
+
+    // Separador aceito pelo Excel em português
+    static final char SEPARADOR_CSV = ';';
+
+    private record Coluna<T>(String nome, Function<T, Object> valor) {
+    }
+
+    private record Definicao<T>(Supplier<Stream<T>> origem, List<Coluna<T>> colunas) {
+    }
+
+    /**
+     * Exporta a entidade para 'destino'. 'progresso' recebe a quantidade de registros já
+     * escritos, a partir da thread de trabalho. Cancelar o futuro interrompe a escrita
+     * e descarta o arquivo parcial. O futuro devolve o total de registros exportados.
+     */
+    public CompletableFuture<Long> exportar(Entidade entidade, Formato formato, Path destino,
+                                            boolean compactar, LongConsumer progresso) {
+        if (entidade == null || formato == null) {
+            throw new IllegalArgumentException("Informe o que exportar e o formato");
+        }
+        if (destino == null || destino.getFileName() == null) {
+            throw new IllegalArgumentException("Informe o arquivo de destino");
+        }
+
+        AtomicBoolean cancelado = new AtomicBoolean();
+        CompletableFuture<Long> futuro = ExecucaoAssincrona.executar(
+                () -> escrever(definicao(entidade), formato, destino.toAbsolutePath(), compactar, progresso, cancelado));
+        futuro.whenComplete((total, erro) -> {
+            if (futuro.isCancelled()) {
+                cancelado.set(true);
+            }
+        });
+        return futuro;
+    }
+
+    private static Definicao<?> definicao(Entidade entidade) {
+        return switch (entidade) {
+            case CLIENTES -> new Definicao<Cliente>(() -> new ClienteDAO().streamTodos(), List.of(
+                    new Coluna<>("id", Cliente::getId),
+                    new Coluna<>("nome", Cliente::getNome),
+                    new Coluna<>("telefone", Cliente::getTelefone),
+                    new Coluna<>("email", Cliente::getEmail),
+                    new Coluna<>("data_cadastro", Cliente::getDataCadastro)));
+            case PROFISSIONAIS -> new Definicao<Profissional>(() -> new ProfissionalDAO().streamTodos(), List.of(
+                    new Coluna<>("id", Profissional::getId),
+                    new Coluna<>("nome", Profissional::getNome),
+                    new Coluna<>("especialidade", Profissional::getEspecialidade),
+                    new Coluna<>("telefone", Profissional::getTelefone),
+                    new Coluna<>("ativo", Profissional::isAtivo)));
+            case SERVICOS -> new Definicao<Servico>(() -> new ServicoDAO().streamTodos(), List.of(
+                    new Coluna<>("id", Servico::getId),
+                    new Coluna<>("nome", Servico::getNome),
+                    new Coluna<>("descricao", Servico::getDescricao),
+                    new Coluna<>("preco", Servico::getPreco),
+                    new Coluna<>("duracao_min", Servico::getDuracaoMinutos)));
+            case AGENDAMENTOS -> new Definicao<Agendamento>(() -> new AgendamentoDAO().streamTodos(), List.of(
+                    new Coluna<>("id", Agendamento::getId),
+                    new Coluna<>("data", Agendamento::getData),
+                    new Coluna<>("hora", Agendamento::getHora),
+                    new Coluna<>("status", Agendamento::getStatus),
+                    new Coluna<>("cliente_id", a -> a.getCliente() != null ? a.getCliente().getId() : null),
+                    new Coluna<>("cliente_nome", a -> a.getCliente() != null ? a.getCliente().getNome() : null),
+                    new Coluna<>("profissional_id", a -> a.getProfissional() != null ? a.getProfissional().getId() : null),
+                    new Coluna<>("profissional_nome", a -> a.getProfissional() != null ? a.getProfissional().getNome() : null),
+                    new Coluna<>("servicos", Agendamento::getServicos),
+                    new Coluna<>("valor_total", Agendamento::calcularValorTotal),
+                    new Coluna<>("duracao_total", Agendamento::calcularDuracaoTotal),
+                    new Coluna<>("observacoes", Agendamento::getObservacoes)));
+            case PAGAMENTOS -> new Definicao<Pagamento>(() -> new PagamentoDAO().streamTodos(), List.of(
+                    new Coluna<>("id", Pagamento::getId),
+                    new Coluna<>("agendamento_id", p -> p.getAgendamento() != null ? p.getAgendamento().getId() : null),
+                    new Coluna<>("valor", Pagamento::getValor),
+                    new Coluna<>("forma_pagamento", Pagamento::getFormaPagamento),
+                    new Coluna<>("status", Pagamento::getStatus),
+                    new Coluna<>("data_pagamento", Pagamento::getDataPagamento)));
+        };
+    }
+
+    private <T> long escrever(Definicao<T> definicao, Formato formato, Path destino, boolean compactar,
+                              LongConsumer progresso, AtomicBoolean cancelado) throws IOException {
+        Path pasta = destino.getParent();
+        Files.createDirectories(pasta);
+        Path temporario = Files.createTempFile(pasta, destino.getFileName().toString(), ".parcial");
+        boolean concluido = false;
+        long total;
+
+        try {
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer escritor = abrirEscritor(canal, compactar);
+                 Stream<T> registros = definicao.origem().get()) {
+
+                Iterator<T> cursor = registros.iterator();
+                total = formato == Formato.CSV
+                        ? escreverCsv(cursor, definicao.colunas(), escritor, progresso, cancelado)
+                        : escreverJson(cursor, definicao.colunas(), escritor, progresso, cancelado);
+            }
+
+            mover(temporario, destino);
+            concluido = true;
+        } finally {
+            if (!concluido) {
+                Files.deleteIfExists(temporario);
+            }
+        }
+
+        Metricas.incrementar("exportacao.arquivos");
+        Metricas.adicionar("exportacao.registros", total);
+        progresso.accept(total);
+        return total;
+    }
+
+    // canal -> buffer -> (gzip) -> UTF-8; fechar o escritor fecha a cadeia toda
+    private static Writer abrirEscritor(FileChannel canal, boolean compactar) throws IOException {
+        OutputStream saida = new BufferedOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER);
+        if (compactar) {
+            saida = new GZIPOutputStream(saida, TAMANHO_BUFFER);
+        }
+        return new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+    private static void mover(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static <T> long escreverCsv(Iterator<T> cursor, List<Coluna<T>> colunas, Writer escritor,
+                                        LongConsumer progresso, AtomicBoolean cancelado) throws IOException {
+        // BOM para o Excel reconhecer o UTF-8 (acentos)
+        escritor.write('\uFEFF');
+        for (int i = 0; i < colunas.size(); i++) {
+            if (i > 0) escritor.write(SEPARADOR_CSV);
+            escritor.write(colunas.get(i).nome());
+        }
+        escritor.write("\r\n");
+
+        long total = 0;
+        while (cursor.hasNext()) {
+            T registro = cursor.next();
+            for (int i = 0; i < colunas.size(); i++) {
+                if (i > 0) escritor.write(SEPARADOR_CSV);
+                escreverCampoCsv(escritor, colunas.get(i).valor().apply(registro));
+            }
+            escritor.write("\r\n");
+            total = contar(total, progresso, cancelado);
+        }
+        return total;
+    }
+
+    // Também usado pelo relatório de erros da importação
+    static void escreverCampoCsv(Writer escritor, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        String texto;
+        if (valor instanceof List<?> itens) {
+            // Serviços do agendamento em um único campo
+            StringBuilder nomes = new StringBuilder();
+            for (Object item : itens) {
+                if (nomes.length() > 0) nomes.append(" + ");
+                nomes.append(item instanceof Servico servico ? servico.getNome() : String.valueOf(item));
+            }
+            texto = nomes.toString();
+        } else {
+            texto = valor.toString();
+        }
+
+        boolean precisaAspas = false;
+        for (int i = 0; i < texto.length() && !precisaAspas; i++) {
+            char c = texto.charAt(i);
+            precisaAspas = c == SEPARADOR_CSV || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            escritor.write(texto);
+            return;
+        }
+        escritor.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') escritor.write('"');
+            escritor.write(c);
+        }
+        escritor.write('"');
+    }
+
+    private static <T> long escreverJson(Iterator<T> cursor, List<Coluna<T>> colunas, Writer escritor,
+                                         LongConsumer progresso, AtomicBoolean cancelado) throws IOException {
+        // Não fecha o JsonWriter aqui: quem fecha o arquivo é escrever()
+        JsonWriter json = new JsonWriter(escritor);
+        json.setSerializeNulls(true);
+        json.beginArray();
+
+        long total = 0;
+        while (cursor.hasNext()) {
+            T registro = cursor.next();
+            json.beginObject();
+            for (Coluna<T> coluna : colunas) {
+                json.name(coluna.nome());
+                escreverValorJson(json, coluna.valor().apply(registro));
+            }
+            json.endObject();
+            total = contar(total, progresso, cancelado);
+        }
+
+        json.endArray();
+        json.flush();
+        return total;
+    }
+
+    private static void escreverValorJson(JsonWriter json, Object valor) throws IOException {
+        if (valor == null) {
+            json.nullValue();
+        } else if (valor instanceof Number numero) {
+            json.value(numero);
+        } else if (valor instanceof Boolean logico) {
+            json.value(logico);
+        } else if (valor instanceof Servico servico) {
+            json.beginObject();
+            json.name("id").value(servico.getId());
+            json.name("nome").value(servico.getNome());
+            json.name("preco").value(servico.getPreco());
+            json.name("duracao_min").value(servico.getDuracaoMinutos());
+            json.endObject();
+        } else if (valor instanceof List<?> itens) {
+            json.beginArray();
+            for (Object item : itens) {
+                escreverValorJson(json, item);
+            }
+            json.endArray();
+        } else {
+            // Datas e horas no formato ISO, enums pelo nome
+            json.value(valor.toString());
+        }
+    }
+
+    private static long contar(long total, LongConsumer progresso, AtomicBoolean cancelado) {
+        total++;
+        if (total % INTERVALO_PROGRESSO == 0) {
+            if (cancelado.get()) {
+                throw new CancellationException("Exportação cancelada");
+            }
+            progresso.accept(total);
+        }
+        return total;
+    }
+
+    // Nome sugerido para o arquivo: entidade_AAAA-MM-DD.csv(.gz)
+    public static String nomeSugerido(Entidade entidade, Formato formato, boolean compactar) {
+        return entidade.name().toLowerCase() + "_" + LocalDate.now() + "." + formato.getExtensao()
+                + (compactar ? ".gz" : "");
+    }
+}
@@ -0,0 +1,360 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.AgendamentoDAO;
+import com.barbearia.model.dao.UnidadeDeTrabalho;
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.entity.Agendamento.StatusAgendamento;
+import com.barbearia.util.LogUtils;
+import com.barbearia.util.Metricas;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Gravação adiada das mudanças de status (confirmar, finalizar, cancelar).
+ * Com o modo ativo, cada mudança vai para uma fila em memória e para um diário em disco
+ * (sincronizado antes de retornar, então sobrevive a uma queda); mudanças seguidas no mesmo
+ * agendamento viram uma só. A fila é gravada no banco numa única transação a cada
+ * INTERVALO_MS ou quando chega a TAMANHO_LOTE agendamentos, e o diário é reaplicado
+ * na próxima inicialização se o programa parar antes disso.
+ *
+ * Cada linha do diário é numerada, e a mesma transação que grava um lote registra no banco
+ * o número da última linha que ele cobre. Assim uma queda entre o commit e a limpeza do diário
+ * não faz a observação acrescentada ser gravada duas vezes: essas linhas são puladas ao reaplicar.
+ */
+public final class FilaStatusAgendamento {
+
+    private static final long INTERVALO_MS = Long.getLong("barbearia.status.intervalo_ms", 2000);
+    private static final int TAMANHO_LOTE = Integer.getInteger("barbearia.status.lote", 50);
+    static final Path DIARIO = Path.of("database", "status_pendentes.log");
+
+    private static final FilaStatusAgendamento INSTANCIA = new FilaStatusAgendamento();
+
+    /**
+     * Mudança de status pendente de um agendamento. somenteAtivo: não vale para agendamentos
+     * cancelados ou ausentes; substituirObservacao: a observação troca o texto em vez de ser acrescentada.
+     */
+    record Transicao(StatusAgendamento status, String observacao,
+                     boolean substituirObservacao, boolean somenteAtivo) {
+
+        static Transicao confirmacao() {
+            return new Transicao(StatusAgendamento.CONFIRMADO, null, false, true);
+        }
+
+        static Transicao finalizacao(String observacao) {
+            return new Transicao(StatusAgendamento.REALIZADO, observacao, false, true);
+        }
+
+        static Transicao cancelamento(String observacao) {
+            return new Transicao(StatusAgendamento.CANCELADO, observacao, true, false);
+        }
+
+        // Efeito de aplicar esta transição e depois a nova
+        Transicao seguidaDe(Transicao nova) {
+            if (!somenteAtivo && inativo(status) && nova.somenteAtivo) {
+                // Depois de cancelar, confirmar ou finalizar não tem efeito
+                return this;
+            }
+            if (nova.substituirObservacao) {
+                return nova;
+            }
+            String juntas = observacao == null ? nova.observacao
+                    : nova.observacao == null ? observacao
+                    : observacao + "\n" + nova.observacao;
+            return new Transicao(nova.status, juntas, substituirObservacao, somenteAtivo && nova.somenteAtivo);
+        }
+    }
+
+    private final AgendamentoDAO agendamentoDAO = new AgendamentoDAO();
+    private final IndiceDisponibilidade indiceDisponibilidade = IndiceDisponibilidade.getInstancia();
+    private final Map<Integer, Transicao> pendentes = new LinkedHashMap<>();
+    private final Object travaDescarga = new Object();
+    private final List<IntConsumer> ouvintes = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService agendador;
+    private volatile boolean ativa = Boolean.getBoolean("barbearia.status.adiado");
+    // Número da última linha aceita no diário; -1 até ser lido do banco
+    private long posicao = -1;
+
+    // Só os testes criam outras instâncias, para simular o reinício do programa
+    FilaStatusAgendamento() {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fila-status");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::descarregarSemFalhar, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+        recuperarDiario();
+    }
+
+    public static FilaStatusAgendamento getInstancia() {
+        return INSTANCIA;
+    }
+
+    public boolean isAtiva() {
+        return ativa;
+    }
+
+    // Ao desligar, o que estiver pendente é gravado na hora
+    public void setAtiva(boolean ativa) {
+        this.ativa = ativa;
+        if (!ativa) {
+            descarregar();
+        }
+    }
+
+    public synchronized int getPendentes() {
+        return pendentes.size();
+    }
+
+    // Recebe o número de agendamentos pendentes sempre que ele muda (em qualquer thread)
+    public void adicionarOuvinte(IntConsumer ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    public void removerOuvinte(IntConsumer ouvinte) {
+        ouvintes.remove(ouvinte);
+    }
+
+    // Grava agora tudo que está na fila; devolve quantos agendamentos foram gravados
+    public int descarregar() {
+        synchronized (travaDescarga) {
+            Map<Integer, Transicao> lote;
+            long posicaoLote;
+            synchronized (this) {
+                if (pendentes.isEmpty()) {
+                    return 0;
+                }
+                lote = new LinkedHashMap<>(pendentes);
+                pendentes.clear();
+                // Todas as linhas aceitas até aqui estão neste lote ou em um anterior
+                posicaoLote = posicao;
+            }
+
+            List<Integer> liberados = new ArrayList<>();
+            try {
+                UnidadeDeTrabalho.executarAcao(() -> {
+                    liberados.clear();
+                    lote.forEach((id, transicao) -> {
+                        if (aplicar(id, transicao) && inativo(transicao.status())) {
+                            liberados.add(id);
+                        }
+                    });
+                    agendamentoDAO.gravarPosicaoDiarioStatus(posicaoLote);
+                });
+            } catch (RuntimeException e) {
+                // Volta para a fila antes das mudanças que chegaram durante a tentativa
+                synchronized (this) {
+                    Map<Integer, Transicao> novas = new LinkedHashMap<>(pendentes);
+                    pendentes.clear();
+                    pendentes.putAll(lote);
+                    novas.forEach((id, nova) -> pendentes.merge(id, nova, Transicao::seguidaDe));
+                }
+                throw e;
+            }
+
+            liberados.forEach(indiceDisponibilidade::remover);
+            Metricas.incrementar("agendamento.status.lotes");
+            Metricas.adicionar("agendamento.status.gravados", lote.size());
+
+            int restantes;
+            synchronized (this) {
+                reescreverDiario();
+                restantes = pendentes.size();
+            }
+            avisarOuvintes(restantes);
+            return lote.size();
+        }
+    }
+
+    // Grava o que estiver pendente ao encerrar o programa
+    public void encerrar() {
+        agendador.shutdownNow();
+        descarregarSemFalhar();
+    }
+
+    void enfileirar(Integer id, Transicao transicao) {
+        int total;
+        synchronized (this) {
+            // Primeiro o diário: se a gravação em disco falhar, a mudança não é aceita
+            long numero = proximaPosicao();
+            acrescentarAoDiario(numero, id, transicao);
+            posicao = numero;
+            pendentes.merge(id, transicao, Transicao::seguidaDe);
+            total = pendentes.size();
+        }
+        Metricas.incrementar("agendamento.status.enfileirados");
+        avisarOuvintes(total);
+
+        if (total >= TAMANHO_LOTE) {
+            agendador.execute(this::descarregarSemFalhar);
+        }
+    }
+
+    // Mostra nos agendamentos lidos do banco o status que ainda está na fila
+    synchronized void aplicarPendentes(List<Agendamento> agendamentos) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        for (Agendamento agendamento : agendamentos) {
+            aplicarPendente(agendamento);
+        }
+    }
+
+    synchronized void aplicarPendente(Agendamento agendamento) {
+        if (agendamento == null) {
+            return;
+        }
+        Transicao transicao = pendentes.get(agendamento.getId());
+        if (transicao != null && (!transicao.somenteAtivo() || !inativo(agendamento.getStatus()))) {
+            agendamento.setStatus(transicao.status());
+        }
+    }
+
+    private boolean aplicar(Integer id, Transicao transicao) {
+        if (transicao.substituirObservacao()) {
+            return agendamentoDAO.atualizarStatus(id, transicao.status(), transicao.observacao());
+        }
+        if (transicao.observacao() != null) {
+            return agendamentoDAO.atualizarStatusAcrescentandoObservacao(id, transicao.status(), transicao.observacao());
+        }
+        if (transicao.somenteAtivo()) {
+            return agendamentoDAO.atualizarStatusAtivo(id, transicao.status());
+        }
+        return agendamentoDAO.atualizarStatus(id, transicao.status());
+    }
+
+    private void descarregarSemFalhar() {
+        try {
+            descarregar();
+        } catch (RuntimeException e) {
+            // Continua na fila e no diário; nova tentativa no próximo ciclo
+            LogUtils.gravarErro("Erro ao gravar mudanças de status pendentes", e);
+        }
+    }
+
+    private void avisarOuvintes(int total) {
+        for (IntConsumer ouvinte : ouvintes) {
+            ouvinte.accept(total);
+        }
+    }
+
+    private static boolean inativo(StatusAgendamento status) {
+        return status == StatusAgendamento.CANCELADO || status == StatusAgendamento.AUSENTE;
+    }
+
+    // Continua a numeração de onde o banco parou, mesmo que o diário tenha sido apagado
+    private long proximaPosicao() {
+        if (posicao < 0) {
+            posicao = agendamentoDAO.lerPosicaoDiarioStatus();
+        }
+        return posicao + 1;
+    }
+
+    private void acrescentarAoDiario(long numero, Integer id, Transicao transicao) {
+        try {
+            Files.createDirectories(DIARIO.getParent());
+            try (FileChannel canal = FileChannel.open(DIARIO, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                canal.write(ByteBuffer.wrap(formatarLinha(numero, id, transicao).getBytes(StandardCharsets.UTF_8)));
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar diário de status: " + e.getMessage(), e);
+        }
+    }
+
+    // Deixa no diário só o que ainda está pendente (troca atômica do arquivo). As pendentes chegaram
+    // depois do lote gravado, então recebem o número atual, maior que o registrado no banco.
+    private void reescreverDiario() {
+        try {
+            if (pendentes.isEmpty()) {
+                Files.deleteIfExists(DIARIO);
+                return;
+            }
+            StringBuilder conteudo = new StringBuilder();
+            pendentes.forEach((id, transicao) -> conteudo.append(formatarLinha(posicao, id, transicao)));
+
+            Path temporario = DIARIO.resolveSibling(DIARIO.getFileName() + ".tmp");
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                canal.write(ByteBuffer.wrap(conteudo.toString().getBytes(StandardCharsets.UTF_8)));
+                canal.force(false);
+            }
+            Files.move(temporario, DIARIO, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // O diário antigo continua valendo; as linhas já gravadas são puladas pelo número
+            LogUtils.gravarErro("Erro ao compactar diário de status", e);
+        }
+    }
+
+    private void recuperarDiario() {
+        if (!Files.exists(DIARIO)) {
+            return;
+        }
+        try {
+            String conteudo = Files.readString(DIARIO, StandardCharsets.UTF_8);
+            // Sem o '\n' final a última linha foi cortada por uma queda: a mudança não chegou a ser aceita
+            int fim = conteudo.lastIndexOf('\n') + 1;
+            synchronized (this) {
+                long aplicada = agendamentoDAO.lerPosicaoDiarioStatus();
+                posicao = aplicada;
+                for (String linha : conteudo.substring(0, fim).split("\n")) {
+                    if (!linha.isBlank()) {
+                        lerLinha(linha, aplicada);
+                    }
+                }
+                if (pendentes.isEmpty()) {
+                    // Tudo já estava no banco: a queda foi depois do commit
+                    reescreverDiario();
+                }
+            }
+            Metricas.adicionar("agendamento.status.recuperados", getPendentes());
+            agendador.execute(this::descarregarSemFalhar);
+        } catch (IOException | RuntimeException e) {
+            LogUtils.gravarErro("Erro ao ler diário de status", e);
+        }
+    }
+
+    // Diário: uma linha por mudança aceita, "número;id;STATUS;flags;observação em Base64".
+    // Só entra na fila o que o banco ainda não tem (número maior que a posição aplicada)
+    private void lerLinha(String linha, long aplicada) {
+        String[] partes = linha.split(";", -1);
+        if (partes.length != 5) {
+            LogUtils.gravarErro("Linha inválida no diário de status", new IllegalStateException(linha));
+            return;
+        }
+        long numero = Long.parseLong(partes[0]);
+        posicao = Math.max(posicao, numero);
+        if (numero <= aplicada) {
+            return;
+        }
+        String observacao = partes[4].isEmpty() ? null
+                : new String(Base64.getDecoder().decode(partes[4]), StandardCharsets.UTF_8);
+        Transicao transicao = new Transicao(StatusAgendamento.valueOf(partes[2]), observacao,
+                partes[3].contains("S"), partes[3].contains("A"));
+        pendentes.merge(Integer.valueOf(partes[1]), transicao, Transicao::seguidaDe);
+    }
+
+    private static String formatarLinha(long numero, Integer id, Transicao transicao) {
+        String flags = (transicao.substituirObservacao() ? "S" : "") + (transicao.somenteAtivo() ? "A" : "");
+        String observacao = transicao.observacao() == null ? ""
+                : Base64.getEncoder().encodeToString(transicao.observacao().getBytes(StandardCharsets.UTF_8));
+        return numero + ";" + id + ";" + transicao.status().name() + ";" + flags + ";" + observacao + "\n";
+    }
+}
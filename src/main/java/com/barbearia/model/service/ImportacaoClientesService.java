@@ -0,0 +1,507 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.util.Metricas;
+import com.barbearia.util.Validacao;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importa clientes de planilhas (CSV com ';' ou ',') ou de outros sistemas (array JSON),
+ * compactados com gzip ou não. O arquivo é lido aos blocos: cada bloco é validado em paralelo,
+ * telefones repetidos (no próprio arquivo ou já cadastrados) ficam de fora e o restante entra
+ * em lotes JDBC, numa transação por bloco. O que foi recusado vai para um relatório CSV
+ * ao lado do arquivo importado.
+ */
+public class ImportacaoClientesService {
+
+    /**
+     * Resumo da importação. 'relatorio' é o CSV com os registros recusados
+     * (null quando nenhum foi recusado).
+     */
+    public record Resultado(long lidos, long importados, long duplicados, long invalidos,
+                            long duracaoMs, Path relatorio) {
+
+        public long recusados() {
+            return duplicados + invalidos;
+        }
+    }
+
+    // Registros validados juntos e confirmados numa mesma transação
+    private static final int TAMANHO_BLOCO = 5000;
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Tamanho das colunas da tabela cliente
+    private static final int TAMANHO_MAX_NOME = 100;
+    private static final int TAMANHO_MAX_EMAIL = 100;
+
+    private enum Campo { NOME, TELEFONE, EMAIL, DATA_CADASTRO }
+
+    // Nomes de coluna aceitos, já sem acentos, espaços e pontuação
+    private static final Map<String, Campo> NOMES_CAMPOS = Map.ofEntries(
+            Map.entry("nome", Campo.NOME),
+            Map.entry("nomecompleto", Campo.NOME),
+            Map.entry("cliente", Campo.NOME),
+            Map.entry("telefone", Campo.TELEFONE),
+            Map.entry("celular", Campo.TELEFONE),
+            Map.entry("fone", Campo.TELEFONE),
+            Map.entry("whatsapp", Campo.TELEFONE),
+            Map.entry("email", Campo.EMAIL),
+            Map.entry("datacadastro", Campo.DATA_CADASTRO),
+            Map.entry("datadecadastro", Campo.DATA_CADASTRO),
+            Map.entry("cadastro", Campo.DATA_CADASTRO));
+
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]");
+
+    // Um registro do arquivo; 'valores' segue a ordem de Campo (null = item JSON que não é objeto)
+    private record Registro(long posicao, String[] valores) {
+    }
+
+    private record Validado(Registro registro, Cliente cliente, String digitos, String erro) {
+    }
+
+    private interface LeitorRegistros {
+        // null quando o arquivo acabou
+        Registro proximo() throws IOException;
+    }
+
+    private final ClienteDAO clienteDAO;
+    private final ClienteService clienteService;
+    private final IndiceBuscaClientes indiceBusca;
+
+    public ImportacaoClientesService() {
+        this.clienteDAO = new ClienteDAO();
+        this.clienteService = new ClienteService();
+        this.indiceBusca = IndiceBuscaClientes.getInstancia();
+    }
+
+    /**
+     * Importa 'arquivo' em segundo plano. 'progresso' recebe a quantidade de registros já lidos,
+     * a partir da thread de trabalho. Cancelar o futuro interrompe a leitura no próximo bloco;
+     * os blocos já confirmados continuam no banco.
+     */
+    public CompletableFuture<Resultado> importar(Path arquivo, LongConsumer progresso) {
+        if (arquivo == null || !Files.isRegularFile(arquivo)) {
+            throw new IllegalArgumentException("Arquivo de importação não encontrado");
+        }
+
+        AtomicBoolean cancelado = new AtomicBoolean();
+        CompletableFuture<Resultado> futuro = ExecucaoAssincrona.executar(
+                () -> new Execucao(arquivo.toAbsolutePath(), progresso, cancelado).executar());
+        futuro.whenComplete((resultado, erro) -> {
+            if (futuro.isCancelled()) {
+                cancelado.set(true);
+            }
+        });
+        return futuro;
+    }
+
+    // Estado de uma importação: contadores, telefones já vistos e o relatório de erros
+    private final class Execucao {
+        private final Path arquivo;
+        private final Path relatorio;
+        private final LongConsumer progresso;
+        private final AtomicBoolean cancelado;
+
+        // Telefone (só dígitos) -> posição em que apareceu primeiro
+        private final Map<String, Long> telefonesVistos = new HashMap<>();
+
+        private Writer erros;
+        private long lidos;
+        private long importados;
+        private long duplicados;
+        private long invalidos;
+
+        Execucao(Path arquivo, LongConsumer progresso, AtomicBoolean cancelado) {
+            this.arquivo = arquivo;
+            this.relatorio = caminhoRelatorio(arquivo);
+            this.progresso = progresso;
+            this.cancelado = cancelado;
+        }
+
+        Resultado executar() throws IOException {
+            long inicio = System.nanoTime();
+
+            try (BufferedReader entrada = abrirLeitor(arquivo)) {
+                LeitorRegistros leitor = criarLeitor(entrada);
+                List<Registro> bloco = new ArrayList<>(TAMANHO_BLOCO);
+                Registro registro;
+                while ((registro = leitor.proximo()) != null) {
+                    bloco.add(registro);
+                    if (bloco.size() == TAMANHO_BLOCO) {
+                        processarBloco(bloco);
+                        bloco.clear();
+                    }
+                }
+                processarBloco(bloco);
+            } finally {
+                if (erros != null) {
+                    erros.close();
+                }
+            }
+
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            Metricas.incrementar("importacao.arquivos");
+            Metricas.adicionar("importacao.clientes", importados);
+            progresso.accept(lidos);
+            return new Resultado(lidos, importados, duplicados, invalidos, duracaoMs,
+                    erros != null ? relatorio : null);
+        }
+
+        private void processarBloco(List<Registro> bloco) throws IOException {
+            if (cancelado.get()) {
+                throw new CancellationException("Importação cancelada");
+            }
+            if (bloco.isEmpty()) {
+                return;
+            }
+
+            // Validar é só CPU: o bloco inteiro em paralelo, mantendo a ordem do arquivo
+            List<Validado> validados = bloco.parallelStream().map(ImportacaoClientesService.this::validar).toList();
+
+            Map<String, Validado> candidatos = new LinkedHashMap<>();
+            for (Validado validado : validados) {
+                lidos++;
+                if (validado.erro() != null) {
+                    invalidos++;
+                    recusar(validado.registro(), validado.erro());
+                    continue;
+                }
+                Long primeira = telefonesVistos.putIfAbsent(validado.digitos(), validado.registro().posicao());
+                if (primeira != null) {
+                    duplicados++;
+                    recusar(validado.registro(), "Telefone repetido no arquivo (posição " + primeira + ")");
+                    continue;
+                }
+                candidatos.put(validado.digitos(), validado);
+            }
+
+            // Uma consulta por bloco em vez de uma por cliente
+            Set<String> cadastrados = clienteDAO.buscarTelefonesExistentes(candidatos.keySet());
+            List<Cliente> novos = new ArrayList<>(candidatos.size());
+            for (Validado validado : candidatos.values()) {
+                if (cadastrados.contains(validado.digitos())) {
+                    duplicados++;
+                    recusar(validado.registro(), "Telefone já cadastrado");
+                } else {
+                    novos.add(validado.cliente());
+                }
+            }
+
+            // Uma transação por bloco: um erro desfaz só o bloco atual
+            clienteDAO.salvarTodos(novos);
+            importados += novos.size();
+            for (Cliente cliente : novos) {
+                indiceBusca.registrar(cliente);
+            }
+
+            progresso.accept(lidos);
+        }
+
+        // Relatório criado só quando aparece o primeiro recusado
+        private void recusar(Registro registro, String motivo) throws IOException {
+            if (erros == null) {
+                erros = Files.newBufferedWriter(relatorio, StandardCharsets.UTF_8);
+                erros.write('\uFEFF');
+                erros.write(String.join(String.valueOf(ExportacaoService.SEPARADOR_CSV),
+                        "posicao", "motivo", "nome", "telefone", "email", "data_cadastro"));
+                erros.write("\r\n");
+            }
+            erros.write(Long.toString(registro.posicao()));
+            erros.write(ExportacaoService.SEPARADOR_CSV);
+            ExportacaoService.escreverCampoCsv(erros, motivo);
+            String[] valores = registro.valores() != null ? registro.valores() : new String[Campo.values().length];
+            for (String valor : valores) {
+                erros.write(ExportacaoService.SEPARADOR_CSV);
+                ExportacaoService.escreverCampoCsv(erros, valor);
+            }
+            erros.write("\r\n");
+        }
+    }
+
+    // As mesmas regras do cadastro pela tela (Validacao) e do ClienteService
+    private Validado validar(Registro registro) {
+        if (registro.valores() == null) {
+            return new Validado(registro, null, null, "Registro não é um objeto JSON");
+        }
+        String[] valores = registro.valores();
+        Cliente cliente = new Cliente(limpar(valores[Campo.NOME.ordinal()]),
+                limpar(valores[Campo.TELEFONE.ordinal()]), limpar(valores[Campo.EMAIL.ordinal()]));
+
+        try {
+            clienteService.validarCliente(cliente);
+        } catch (IllegalArgumentException e) {
+            return new Validado(registro, null, null, e.getMessage());
+        }
+
+        String erro = null;
+        if (cliente.getNome().length() > TAMANHO_MAX_NOME) {
+            erro = "Nome muito longo (máximo " + TAMANHO_MAX_NOME + " caracteres)";
+        } else if (!Validacao.isTelefoneValido(cliente.getTelefone())) {
+            erro = "Telefone inválido (10 ou 11 dígitos com DDD)";
+        } else if (cliente.getEmail() != null && (!Validacao.isEmailValido(cliente.getEmail())
+                || cliente.getEmail().length() > TAMANHO_MAX_EMAIL)) {
+            erro = "Email inválido";
+        } else {
+            String data = limpar(valores[Campo.DATA_CADASTRO.ordinal()]);
+            if (data != null) {
+                LocalDate dataCadastro = lerData(data);
+                if (dataCadastro == null) {
+                    erro = "Data de cadastro inválida";
+                } else {
+                    cliente.setDataCadastro(dataCadastro);
+                }
+            }
+        }
+        if (erro != null) {
+            return new Validado(registro, null, null, erro);
+        }
+        return new Validado(registro, cliente, Validacao.apenasDigitos(cliente.getTelefone()), null);
+    }
+
+    private static String limpar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String texto = valor.trim();
+        return texto.isEmpty() ? null : texto;
+    }
+
+    // ISO (como sai da exportação) ou dd/MM/aaaa (como sai das planilhas)
+    private static LocalDate lerData(String texto) {
+        try {
+            return LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            return Validacao.parseData(texto);
+        }
+    }
+
+    // clientes.csv.gz -> clientes_erros.csv, na mesma pasta
+    private static Path caminhoRelatorio(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        if (nome.toLowerCase().endsWith(".gz")) {
+            nome = nome.substring(0, nome.length() - 3);
+        }
+        int ponto = nome.lastIndexOf('.');
+        if (ponto > 0) {
+            nome = nome.substring(0, ponto);
+        }
+        return arquivo.resolveSibling(nome + "_erros.csv");
+    }
+
+    // buffer -> (gzip, se o arquivo começar com a assinatura) -> UTF-8, sem o BOM
+    private static BufferedReader abrirLeitor(Path arquivo) throws IOException {
+        InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER);
+        BufferedReader leitor;
+        try {
+            entrada.mark(2);
+            boolean gzip = entrada.read() == 0x1f && entrada.read() == 0x8b;
+            entrada.reset();
+            if (gzip) {
+                entrada = new GZIPInputStream(entrada, TAMANHO_BUFFER);
+            }
+            leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+            leitor.mark(1);
+            if (leitor.read() != '\uFEFF') {
+                leitor.reset();
+            }
+        } catch (IOException e) {
+            entrada.close();
+            throw e;
+        }
+        return leitor;
+    }
+
+    // JSON se o conteúdo começa com '[', senão CSV
+    private static LeitorRegistros criarLeitor(BufferedReader entrada) throws IOException {
+        entrada.mark(TAMANHO_BUFFER);
+        int c;
+        do {
+            c = entrada.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        entrada.reset();
+
+        if (c == -1) {
+            throw new IllegalArgumentException("Arquivo de importação vazio");
+        }
+        return c == '[' ? new LeitorJson(entrada) : new LeitorCsv(entrada);
+    }
+
+    private static Campo campo(String nomeColuna) {
+        return NOMES_CAMPOS.get(NAO_ALFANUMERICO.matcher(Validacao.normalizarParaBusca(nomeColuna)).replaceAll(""));
+    }
+
+    // CSV com cabeçalho; a posição do registro é a linha do arquivo
+    private static final class LeitorCsv implements LeitorRegistros {
+        private final BufferedReader entrada;
+        private final char separador;
+        // Campo.ordinal() -> coluna do arquivo (-1 = ausente)
+        private final int[] colunas = new int[Campo.values().length];
+        private long linha;
+
+        LeitorCsv(BufferedReader entrada) throws IOException {
+            this.entrada = entrada;
+            String cabecalho = entrada.readLine();
+            linha = 1;
+            // Planilhas em português usam ';'; sistemas de fora, ','
+            separador = contar(cabecalho, ';') >= contar(cabecalho, ',') ? ';' : ',';
+
+            Arrays.fill(colunas, -1);
+            List<String> nomes = dividir(cabecalho);
+            for (int i = 0; i < nomes.size(); i++) {
+                Campo campo = campo(nomes.get(i));
+                if (campo != null && colunas[campo.ordinal()] < 0) {
+                    colunas[campo.ordinal()] = i;
+                }
+            }
+            if (colunas[Campo.NOME.ordinal()] < 0 || colunas[Campo.TELEFONE.ordinal()] < 0) {
+                throw new IllegalArgumentException("O arquivo precisa de um cabeçalho com as colunas nome e telefone");
+            }
+        }
+
+        @Override
+        public Registro proximo() throws IOException {
+            String texto;
+            do {
+                texto = entrada.readLine();
+                if (texto == null) {
+                    return null;
+                }
+                linha++;
+            } while (texto.isBlank());
+
+            long posicao = linha;
+            List<String> campos = dividir(texto);
+            String[] valores = new String[colunas.length];
+            for (int i = 0; i < colunas.length; i++) {
+                if (colunas[i] >= 0 && colunas[i] < campos.size()) {
+                    valores[i] = campos.get(colunas[i]);
+                }
+            }
+            return new Registro(posicao, valores);
+        }
+
+        // Separa os campos; entre aspas vale o separador, "" e quebra de linha (lendo as linhas seguintes)
+        private List<String> dividir(String texto) throws IOException {
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            int i = 0;
+
+            while (true) {
+                if (i == texto.length()) {
+                    if (!entreAspas) {
+                        break;
+                    }
+                    String continuacao = entrada.readLine();
+                    if (continuacao == null) {
+                        break;
+                    }
+                    linha++;
+                    campo.append('\n');
+                    texto = continuacao;
+                    i = 0;
+                    continue;
+                }
+
+                char c = texto.charAt(i++);
+                if (entreAspas) {
+                    if (c != '"') {
+                        campo.append(c);
+                    } else if (i < texto.length() && texto.charAt(i) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == separador) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(c);
+                }
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+
+        private static int contar(String texto, char caractere) {
+            int total = 0;
+            for (int i = 0; i < texto.length(); i++) {
+                if (texto.charAt(i) == caractere) total++;
+            }
+            return total;
+        }
+    }
+
+    // Array de objetos JSON; a posição do registro é o índice no array (a partir de 1)
+    private static final class LeitorJson implements LeitorRegistros {
+        private final JsonReader json;
+        private long posicao;
+
+        LeitorJson(BufferedReader entrada) throws IOException {
+            this.json = new JsonReader(entrada);
+            json.beginArray();
+        }
+
+        @Override
+        public Registro proximo() throws IOException {
+            if (!json.hasNext()) {
+                json.endArray();
+                return null;
+            }
+            posicao++;
+
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                json.skipValue();
+                return new Registro(posicao, null);
+            }
+
+            String[] valores = new String[Campo.values().length];
+            json.beginObject();
+            while (json.hasNext()) {
+                Campo campo = campo(json.nextName());
+                JsonToken tipo = json.peek();
+                if (campo == null || valores[campo.ordinal()] != null) {
+                    json.skipValue();
+                } else if (tipo == JsonToken.STRING || tipo == JsonToken.NUMBER) {
+                    // Telefone pode vir como número
+                    valores[campo.ordinal()] = json.nextString();
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            return new Registro(posicao, valores);
+        }
+    }
+}
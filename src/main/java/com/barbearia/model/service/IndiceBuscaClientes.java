@@ -0,0 +1,408 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.util.Metricas;
+import com.barbearia.util.Validacao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória para a busca de clientes: trigramas do nome e do email normalizados
+ * (minúsculo, sem acento) e dos dígitos do telefone, cada trigrama apontando para os ids
+ * dos clientes que o contêm. Carregado do banco na primeira busca e depois mantido pelo
+ * ClienteService a cada cadastro, alteração e exclusão.
+ * A busca devolve primeiro quem contém o termo (começo do nome antes de meio de palavra)
+ * e depois os parecidos, ordenados pela fração de trigramas em comum.
+ */
+class IndiceBuscaClientes {
+
+    private static final int TAMANHO_GRAMA = 3;
+    // Fração mínima dos trigramas do termo para entrar como parecido
+    private static final double SEMELHANCA_MINIMA = 0.6;
+    // Termos curtos geram trigramas demais em comum: só correspondência exata
+    private static final int TAMANHO_MINIMO_PARECIDOS = 5;
+    // A tela mostra os mais relevantes; termo genérico ("ana") não precisa trazer milhares
+    static final int LIMITE_RESULTADOS = 200;
+
+    private static final IndiceBuscaClientes INSTANCIA = new IndiceBuscaClientes(new ClienteDAO());
+
+    private final ClienteDAO clienteDAO;
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<Integer, Entrada> entradas = new HashMap<>();
+    private final Map<Long, ListaIds> postagens = new HashMap<>();
+    private boolean carregado;
+
+    // Cópia dos dados do cliente: a busca devolve instâncias novas, que a tela pode alterar à vontade
+    private record Entrada(int id, String nome, String telefone, String email, LocalDate dataCadastro,
+                           String nomeBusca, String emailBusca, String telefoneDigitos, long[] gramas) {
+
+        Cliente paraCliente() {
+            Cliente cliente = new Cliente(nome, telefone, email);
+            cliente.setId(id);
+            cliente.setDataCadastro(dataCadastro);
+            return cliente;
+        }
+
+        boolean contem(String termo, boolean numerico) {
+            return numerico ? telefoneDigitos.contains(termo) : nomeBusca.contains(termo) || emailBusca.contains(termo);
+        }
+    }
+
+    // Ordem: relevância, semelhança (maior primeiro), nome e id
+    private record Resultado(Entrada entrada, int relevancia, double semelhanca) implements Comparable<Resultado> {
+        @Override
+        public int compareTo(Resultado outro) {
+            if (relevancia != outro.relevancia) {
+                return Integer.compare(relevancia, outro.relevancia);
+            }
+            if (semelhanca != outro.semelhanca) {
+                return Double.compare(outro.semelhanca, semelhanca);
+            }
+            int porNome = entrada.nomeBusca().compareTo(outro.entrada.nomeBusca());
+            return porNome != 0 ? porNome : Integer.compare(entrada.id(), outro.entrada.id());
+        }
+    }
+
+    IndiceBuscaClientes(ClienteDAO clienteDAO) {
+        this.clienteDAO = clienteDAO;
+    }
+
+    // Compartilhado por todas as instâncias de ClienteService
+    static IndiceBuscaClientes getInstancia() {
+        return INSTANCIA;
+    }
+
+    // Coloca o cliente com os dados atuais (cadastro ou alteração)
+    void registrar(Cliente cliente) {
+        if (cliente.getId() == null) {
+            return;
+        }
+        trava.writeLock().lock();
+        try {
+            // Ainda não carregado: a carga vai ler o cliente do banco
+            if (carregado) {
+                retirar(cliente.getId());
+                incluir(criarEntrada(cliente));
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    void remover(Integer clienteId) {
+        if (clienteId == null) {
+            return;
+        }
+        trava.writeLock().lock();
+        try {
+            retirar(clienteId);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Descarta tudo; a próxima busca recarrega do banco
+    void limpar() {
+        trava.writeLock().lock();
+        try {
+            entradas.clear();
+            postagens.clear();
+            carregado = false;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clientes cujo nome, email ou telefone contém o termo, seguidos dos parecidos.
+     * Termo só com dígitos e pontuação de telefone procura nos dígitos do telefone.
+     * Devolve no máximo LIMITE_RESULTADOS clientes.
+     */
+    List<Cliente> buscar(String termo) {
+        boolean numerico = termo != null && termo.matches("[\\d\\s()+.-]*\\d[\\d\\s()+.-]*");
+        String normalizado = numerico ? Validacao.apenasDigitos(termo) : Validacao.normalizarParaBusca(termo);
+        if (normalizado.isEmpty()) {
+            return List.of();
+        }
+
+        garantirCarregado();
+        Metricas.incrementar("clientes.busca.indice");
+
+        trava.readLock().lock();
+        try {
+            List<Resultado> resultados = normalizado.length() < TAMANHO_GRAMA
+                    ? varrer(normalizado, numerico)
+                    : consultarGramas(normalizado, numerico);
+
+            return melhores(resultados).stream()
+                    .map(r -> r.entrada().paraCliente())
+                    .toList();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de todos os clientes cujo nome contém o trecho (sem acento nem maiúsculas), sem limite
+     * nem parecidos. Usado para filtrar agendamentos por cliente pelo índice de cliente_id.
+     */
+    List<Integer> idsPorNome(String trecho) {
+        String normalizado = Validacao.normalizarParaBusca(trecho);
+        if (normalizado.isEmpty()) {
+            return List.of();
+        }
+
+        garantirCarregado();
+        trava.readLock().lock();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            if (normalizado.length() < TAMANHO_GRAMA) {
+                for (Entrada entrada : entradas.values()) {
+                    if (entrada.nomeBusca().contains(normalizado)) {
+                        ids.add(entrada.id());
+                    }
+                }
+                return ids;
+            }
+
+            long[] gramasTermo = Arrays.stream(gramas(normalizado, false)).distinct().toArray();
+            for (int id : comTodos(listasDe(gramasTermo))) {
+                if (entradas.get(id).nomeBusca().contains(normalizado)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Os LIMITE_RESULTADOS primeiros, sem ordenar todos os candidatos
+    private static List<Resultado> melhores(List<Resultado> resultados) {
+        if (resultados.size() > LIMITE_RESULTADOS) {
+            // Heap com o pior no topo: quem não supera o pior atual nem entra
+            PriorityQueue<Resultado> escolhidos = new PriorityQueue<>(LIMITE_RESULTADOS + 1, Comparator.reverseOrder());
+            for (Resultado resultado : resultados) {
+                if (escolhidos.size() < LIMITE_RESULTADOS) {
+                    escolhidos.add(resultado);
+                } else if (resultado.compareTo(escolhidos.peek()) < 0) {
+                    escolhidos.poll();
+                    escolhidos.add(resultado);
+                }
+            }
+            resultados = new ArrayList<>(escolhidos);
+        }
+        Collections.sort(resultados);
+        return resultados;
+    }
+
+    // Termo menor que um trigrama: confere todos os clientes (ainda em memória)
+    private List<Resultado> varrer(String termo, boolean numerico) {
+        List<Resultado> resultados = new ArrayList<>();
+        for (Entrada entrada : entradas.values()) {
+            if (entrada.contem(termo, numerico)) {
+                resultados.add(new Resultado(entrada, relevancia(entrada, termo, numerico), 1.0));
+            }
+        }
+        return resultados;
+    }
+
+    private List<Resultado> consultarGramas(String termo, boolean numerico) {
+        long[] gramasTermo = Arrays.stream(gramas(termo, false)).distinct().toArray();
+        ListaIds[] listas = listasDe(gramasTermo);
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (int id : comTodos(listas)) {
+            Entrada entrada = entradas.get(id);
+            if (entrada.contem(termo, numerico)) {
+                resultados.add(new Resultado(entrada, relevancia(entrada, termo, numerico), 1.0));
+            }
+        }
+
+        // Parecidos só completam a lista quando os exatos não chegam ao limite
+        boolean aceitaParecidos = !numerico && termo.length() >= TAMANHO_MINIMO_PARECIDOS;
+        if (!aceitaParecidos || resultados.size() >= LIMITE_RESULTADOS) {
+            return resultados;
+        }
+
+        Set<Integer> exatos = new HashSet<>();
+        resultados.forEach(r -> exatos.add(r.entrada().id()));
+
+        // Quantos trigramas do termo cada cliente tem
+        Map<Integer, Integer> acertos = new HashMap<>();
+        for (ListaIds lista : listas) {
+            for (int i = 0; i < lista.tamanho; i++) {
+                acertos.merge(lista.ids[i], 1, Integer::sum);
+            }
+        }
+
+        int minimo = (int) Math.ceil(gramasTermo.length * SEMELHANCA_MINIMA);
+        for (Map.Entry<Integer, Integer> acerto : acertos.entrySet()) {
+            if (acerto.getValue() >= minimo && !exatos.contains(acerto.getKey())) {
+                resultados.add(new Resultado(entradas.get(acerto.getKey()), 3,
+                        (double) acerto.getValue() / gramasTermo.length));
+            }
+        }
+        return resultados;
+    }
+
+    private ListaIds[] listasDe(long[] gramas) {
+        ListaIds[] listas = new ListaIds[gramas.length];
+        for (int i = 0; i < gramas.length; i++) {
+            listas[i] = postagens.getOrDefault(gramas[i], ListaIds.VAZIA);
+        }
+        return listas;
+    }
+
+    // Ids presentes em todas as listas: interseção a partir da mais curta
+    private static List<Integer> comTodos(ListaIds[] listas) {
+        ListaIds[] porTamanho = listas.clone();
+        Arrays.sort(porTamanho, Comparator.comparingInt(l -> l.tamanho));
+        List<Integer> ids = new ArrayList<>();
+        candidatos:
+        for (int i = 0; i < porTamanho[0].tamanho; i++) {
+            int id = porTamanho[0].ids[i];
+            for (int j = 1; j < porTamanho.length; j++) {
+                if (!porTamanho[j].contem(id)) {
+                    continue candidatos;
+                }
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    // 0 = começo do nome (ou do telefone), 1 = começo de uma palavra, 2 = em qualquer posição
+    private static int relevancia(Entrada entrada, String termo, boolean numerico) {
+        String campo = numerico ? entrada.telefoneDigitos() : entrada.nomeBusca();
+        if (campo.startsWith(termo)) {
+            return 0;
+        }
+        return campo.contains(" " + termo) ? 1 : 2;
+    }
+
+    private void garantirCarregado() {
+        trava.readLock().lock();
+        try {
+            if (carregado) {
+                return;
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+
+        // Escritas esperam a carga terminar; as que já tinham sido gravadas estão na leitura do banco
+        trava.writeLock().lock();
+        try {
+            if (!carregado) {
+                for (Cliente cliente : clienteDAO.listarTodos()) {
+                    incluir(criarEntrada(cliente));
+                }
+                carregado = true;
+                Metricas.incrementar("clientes.busca.cargas");
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private static Entrada criarEntrada(Cliente cliente) {
+        String nomeBusca = Validacao.normalizarParaBusca(cliente.getNome());
+        String emailBusca = Validacao.normalizarParaBusca(cliente.getEmail());
+        String telefoneDigitos = Validacao.apenasDigitos(cliente.getTelefone());
+
+        // Cada campo separado, com espaço nas pontas para marcar início e fim de palavra
+        Set<Long> gramas = new HashSet<>();
+        for (String campo : new String[]{nomeBusca, emailBusca, telefoneDigitos}) {
+            for (long grama : gramas(campo, true)) {
+                gramas.add(grama);
+            }
+        }
+
+        return new Entrada(cliente.getId(), cliente.getNome(), cliente.getTelefone(), cliente.getEmail(),
+                cliente.getDataCadastro(), nomeBusca, emailBusca, telefoneDigitos,
+                gramas.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private void incluir(Entrada entrada) {
+        entradas.put(entrada.id(), entrada);
+        for (long grama : entrada.gramas()) {
+            postagens.computeIfAbsent(grama, g -> new ListaIds()).adicionar(entrada.id());
+        }
+    }
+
+    private void retirar(int id) {
+        Entrada antiga = entradas.remove(id);
+        if (antiga == null) {
+            return;
+        }
+        for (long grama : antiga.gramas()) {
+            ListaIds ids = postagens.get(grama);
+            if (ids != null && ids.remover(id) && ids.tamanho == 0) {
+                postagens.remove(grama);
+            }
+        }
+    }
+
+    // Três caracteres de 16 bits num long
+    private static long[] gramas(String texto, boolean delimitar) {
+        String base = delimitar && !texto.isEmpty() ? " " + texto + " " : texto;
+        if (base.length() < TAMANHO_GRAMA) {
+            return new long[0];
+        }
+        long[] gramas = new long[base.length() - TAMANHO_GRAMA + 1];
+        for (int i = 0; i < gramas.length; i++) {
+            gramas[i] = ((long) base.charAt(i) << 32) | ((long) base.charAt(i + 1) << 16) | base.charAt(i + 2);
+        }
+        return gramas;
+    }
+
+    // Ids ordenados sem boxing; alterações são raras perto das buscas
+    private static final class ListaIds {
+        static final ListaIds VAZIA = new ListaIds();
+
+        private int[] ids = new int[4];
+        private int tamanho;
+
+        boolean contem(int id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id) >= 0;
+        }
+
+        void adicionar(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        boolean remover(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.AgendamentoDAO;
+import com.barbearia.model.entity.Agendamento;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória da agenda de cada profissional: para cada (profissional, dia)
+ * guarda um bitmap de intervalos de 5 minutos ocupados por agendamentos ativos.
+ * O dia é carregado do banco na primeira consulta e depois mantido pelo AgendamentoService.
+ */
+class IndiceDisponibilidade {
+
+    static final int MINUTOS_POR_SLOT = 5;
+    private static final int SLOTS_POR_DIA = 24 * 60 / MINUTOS_POR_SLOT;
+    private static final int PALAVRAS = (SLOTS_POR_DIA + 63) / 64;
+
+    private static final IndiceDisponibilidade INSTANCIA = new IndiceDisponibilidade(new AgendamentoDAO());
+
+    private final AgendamentoDAO agendamentoDAO;
+    private final Map<Chave, Dia> dias = new ConcurrentHashMap<>();
+    // Dia em que cada agendamento indexado está, para liberar ao remarcar ou cancelar
+    private final Map<Integer, Chave> diaPorAgendamento = new ConcurrentHashMap<>();
+
+    private record Chave(int profissionalId, LocalDate data) { }
+
+    IndiceDisponibilidade(AgendamentoDAO agendamentoDAO) {
+        this.agendamentoDAO = agendamentoDAO;
+    }
+
+    // Compartilhado por todas as instâncias de AgendamentoService
+    static IndiceDisponibilidade getInstancia() {
+        return INSTANCIA;
+    }
+
+    // Coloca o agendamento na posição atual (ou tira do índice se não ocupa mais a agenda)
+    void registrar(Agendamento agendamento) {
+        remover(agendamento.getId());
+        if (!ocupaAgenda(agendamento)) {
+            return;
+        }
+
+        Chave chave = new Chave(agendamento.getProfissional().getId(), agendamento.getData());
+        int inicio = minutosDoDia(agendamento.getHora());
+        int fim = Math.min(24 * 60, inicio + agendamento.calcularDuracaoTotal());
+
+        // Dia ainda não carregado: será lido do banco (já com este agendamento) quando consultado
+        dias.computeIfPresent(chave, (k, dia) -> {
+            dia.adicionar(agendamento.getId(), inicio, fim);
+            diaPorAgendamento.put(agendamento.getId(), k);
+            return dia;
+        });
+    }
+
+    void remover(Integer agendamentoId) {
+        if (agendamentoId == null) {
+            return;
+        }
+        Chave chave = diaPorAgendamento.remove(agendamentoId);
+        if (chave != null) {
+            dias.computeIfPresent(chave, (k, dia) -> {
+                dia.remover(agendamentoId);
+                return dia;
+            });
+        }
+    }
+
+    // Descarta tudo; o próximo acesso recarrega do banco
+    void limpar() {
+        dias.clear();
+        diaPorAgendamento.clear();
+    }
+
+    boolean isLivre(int profissionalId, LocalDate data, LocalTime hora, int duracaoMinutos, Integer ignorarId) {
+        int slotInicio = minutosDoDia(hora) / MINUTOS_POR_SLOT;
+        int slotFim = slotFim(minutosDoDia(hora), duracaoMinutos);
+        long[] ocupados = ocupados(profissionalId, data, ignorarId);
+        return proximoBit(ocupados, slotInicio, true) >= slotFim;
+    }
+
+    // Horários de início entre 'primeiro' e 'ultimo' (a cada 'passo' minutos) com 'duracao' minutos livres
+    List<LocalTime> horariosLivres(int profissionalId, LocalDate data, LocalTime primeiro, LocalTime ultimo,
+                                   int passoMinutos, int duracaoMinutos, Integer ignorarId) {
+        long[] ocupados = ocupados(profissionalId, data, ignorarId);
+        List<LocalTime> livres = new ArrayList<>();
+
+        for (int minuto = minutosDoDia(primeiro); minuto <= minutosDoDia(ultimo); minuto += passoMinutos) {
+            if (proximoBit(ocupados, minuto / MINUTOS_POR_SLOT, true) >= slotFim(minuto, duracaoMinutos)) {
+                livres.add(LocalTime.of(minuto / 60, minuto % 60));
+            }
+        }
+        return livres;
+    }
+
+    // Primeiro início a partir de 'aPartirDe' com 'duracao' minutos livres seguidos (null se não houver no dia)
+    LocalTime proximoHorarioLivre(int profissionalId, LocalDate data, LocalTime aPartirDe, int duracaoMinutos) {
+        long[] ocupados = ocupados(profissionalId, data, null);
+        int necessarios = Math.max(1, (duracaoMinutos + MINUTOS_POR_SLOT - 1) / MINUTOS_POR_SLOT);
+        int slot = (minutosDoDia(aPartirDe) + MINUTOS_POR_SLOT - 1) / MINUTOS_POR_SLOT;
+
+        while (slot < SLOTS_POR_DIA) {
+            int livre = proximoBit(ocupados, slot, false);
+            if (livre >= SLOTS_POR_DIA) {
+                return null;
+            }
+            int ocupado = proximoBit(ocupados, livre, true);
+            if (ocupado - livre >= necessarios) {
+                int minuto = livre * MINUTOS_POR_SLOT;
+                return LocalTime.of(minuto / 60, minuto % 60);
+            }
+            slot = ocupado;
+        }
+        return null;
+    }
+
+    // Cópia do bitmap do dia (sem o agendamento ignorado, usado ao editar)
+    private long[] ocupados(int profissionalId, LocalDate data, Integer ignorarId) {
+        Dia dia = dias.computeIfAbsent(new Chave(profissionalId, data), this::carregar);
+        synchronized (dia) {
+            return dia.copiar(ignorarId);
+        }
+    }
+
+    private Dia carregar(Chave chave) {
+        Dia dia = new Dia();
+        for (int[] intervalo : agendamentoDAO.buscarIntervalosOcupados(chave.profissionalId(), chave.data())) {
+            dia.adicionar(intervalo[0], intervalo[1], intervalo[2]);
+            diaPorAgendamento.put(intervalo[0], chave);
+        }
+        return dia;
+    }
+
+    private static boolean ocupaAgenda(Agendamento agendamento) {
+        return agendamento.getId() != null
+                && agendamento.getProfissional() != null && agendamento.getProfissional().getId() != null
+                && agendamento.getData() != null && agendamento.getHora() != null
+                && agendamento.getStatus() != Agendamento.StatusAgendamento.CANCELADO
+                && agendamento.getStatus() != Agendamento.StatusAgendamento.AUSENTE;
+    }
+
+    private static int minutosDoDia(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    // Slot exclusivo onde termina um atendimento iniciado em 'inicio' minutos
+    private static int slotFim(int inicio, int duracaoMinutos) {
+        int fim = Math.min(24 * 60, inicio + duracaoMinutos);
+        return Math.max(inicio / MINUTOS_POR_SLOT + 1, (fim + MINUTOS_POR_SLOT - 1) / MINUTOS_POR_SLOT);
+    }
+
+    // Índice do primeiro bit com o valor pedido a partir de 'de' (SLOTS_POR_DIA se não houver)
+    private static int proximoBit(long[] bits, int de, boolean ocupado) {
+        if (de >= SLOTS_POR_DIA) {
+            return SLOTS_POR_DIA;
+        }
+        int palavra = de >>> 6;
+        long atual = (ocupado ? bits[palavra] : ~bits[palavra]) & (-1L << (de & 63));
+        while (true) {
+            if (atual != 0) {
+                return Math.min(SLOTS_POR_DIA, (palavra << 6) + Long.numberOfTrailingZeros(atual));
+            }
+            if (++palavra == PALAVRAS) {
+                return SLOTS_POR_DIA;
+            }
+            atual = ocupado ? bits[palavra] : ~bits[palavra];
+        }
+    }
+
+    // Agenda de um profissional em um dia
+    private static class Dia {
+        private final long[] ocupados = new long[PALAVRAS];
+        // id -> {inicio, fim} em minutos do dia
+        private final Map<Integer, int[]> intervalos = new HashMap<>();
+
+        synchronized void adicionar(int agendamentoId, int inicio, int fim) {
+            int[] anterior = intervalos.put(agendamentoId, new int[]{inicio, fim});
+            if (anterior != null) {
+                reconstruir();
+            } else {
+                marcar(ocupados, inicio, fim);
+            }
+        }
+
+        synchronized void remover(int agendamentoId) {
+            if (intervalos.remove(agendamentoId) != null) {
+                // Intervalos podem se sobrepor (dados antigos): recalcula em vez de apagar bits
+                reconstruir();
+            }
+        }
+
+        long[] copiar(Integer ignorarId) {
+            if (ignorarId == null || !intervalos.containsKey(ignorarId)) {
+                return ocupados.clone();
+            }
+            long[] copia = new long[PALAVRAS];
+            intervalos.forEach((id, intervalo) -> {
+                if (!id.equals(ignorarId)) {
+                    marcar(copia, intervalo[0], intervalo[1]);
+                }
+            });
+            return copia;
+        }
+
+        private void reconstruir() {
+            Arrays.fill(ocupados, 0L);
+            for (int[] intervalo : intervalos.values()) {
+                marcar(ocupados, intervalo[0], intervalo[1]);
+            }
+        }
+
+        // Liga os bits dos slots [inicio, fim) palavra por palavra
+        private static void marcar(long[] bits, int inicioMinutos, int fimMinutos) {
+            int de = inicioMinutos / MINUTOS_POR_SLOT;
+            int ate = slotFim(inicioMinutos, fimMinutos - inicioMinutos);
+            for (int palavra = de >>> 6; palavra <= (ate - 1) >>> 6; palavra++) {
+                long mascara = -1L;
+                if (palavra == de >>> 6) {
+                    mascara &= -1L << (de & 63);
+                }
+                if (palavra == (ate - 1) >>> 6) {
+                    mascara &= -1L >>> (63 - ((ate - 1) & 63));
+                }
+                bits[palavra] |= mascara;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.barbearia.model.service;
 
 import com.barbearia.model.dao.ProfissionalDAO;
 import com.barbearia.model.entity.Profissional;
+import com.barbearia.util.Pagina;
 import java.util.List;
 
 public class ProfissionalService {
@@ -32,19 +33,11 @@ public class ProfissionalService {
     }
 
     public void desativarProfissional(Integer id) {
-        Profissional profissional = buscarPorId(id);
-        if (profissional != null) {
-            profissional.setAtivo(false);
-            profissionalDAO.atualizar(profissional);
-        }
+        profissionalDAO.atualizarAtivo(id, false);
     }
 
     public void ativarProfissional(Integer id) {
-        Profissional profissional = buscarPorId(id);
-        if (profissional != null) {
-            profissional.setAtivo(true);
-            profissionalDAO.atualizar(profissional);
-        }
+        profissionalDAO.atualizarAtivo(id, true);
     }
 
     private void validarProfissional(Profissional profissional) {
@@ -85,9 +78,14 @@ public class ProfissionalService {
         return profissionalDAO.listarTodos();
     }
 
+    // Próxima página depois do cursor (null = primeira página)
+    public Pagina<Profissional> listarPagina(Profissional cursor, int tamanho) {
+        return profissionalDAO.listarPagina(cursor, tamanho);
+    }
+
     // Métodos de negócio específicos
     public int contarProfissionaisAtivos() {
-        return profissionalDAO.buscarAtivos().size();
+        return profissionalDAO.contarAtivos();
     }
 
     public List<Profissional> buscarTopProfissionais(int limite) {
@@ -99,8 +97,7 @@ public class ProfissionalService {
     public double calcularOcupacaoMedia() {
         // Lógica para calcular ocupação média dos profissionais
         // Implementação simplificada
-        List<Profissional> ativos = profissionalDAO.buscarAtivos();
-        if (ativos.isEmpty()) return 0.0;
+        if (profissionalDAO.contarAtivos() == 0) return 0.0;
 
         // Simulação: retorna valor entre 60% e 90%
         return 60.0 + (Math.random() * 30);
@@ -0,0 +1,85 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.entity.Profissional;
+import com.barbearia.util.Pagina;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona do ProfissionalService: cada operação roda em uma virtual thread própria
+ * e devolve um CompletableFuture. O acesso ao banco é limitado pela ExecucaoAssincrona.
+ */
+public class ProfissionalServiceAssincrono {
+
+    private final ProfissionalService sincrono;
+
+    public ProfissionalServiceAssincrono() {
+        this(new ProfissionalService());
+    }
+
+    public ProfissionalServiceAssincrono(ProfissionalService sincrono) {
+        this.sincrono = sincrono;
+    }
+
+    // Serviço bloqueante por trás desta fachada
+    public ProfissionalService getSincrono() {
+        return sincrono;
+    }
+
+    public CompletableFuture<Void> cadastrarProfissional(Profissional profissional) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.cadastrarProfissional(profissional));
+    }
+
+    public CompletableFuture<Void> atualizarProfissional(Profissional profissional) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.atualizarProfissional(profissional));
+    }
+
+    public CompletableFuture<Void> excluirProfissional(Integer id) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.excluirProfissional(id));
+    }
+
+    public CompletableFuture<Void> desativarProfissional(Integer id) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.desativarProfissional(id));
+    }
+
+    public CompletableFuture<Void> ativarProfissional(Integer id) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.ativarProfissional(id));
+    }
+
+    public CompletableFuture<Profissional> buscarPorId(Integer id) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorId(id));
+    }
+
+    public CompletableFuture<List<Profissional>> buscarPorNome(String nome) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorNome(nome));
+    }
+
+    public CompletableFuture<List<Profissional>> buscarPorEspecialidade(String especialidade) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorEspecialidade(especialidade));
+    }
+
+    public CompletableFuture<List<Profissional>> buscarAtivos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarAtivos());
+    }
+
+    public CompletableFuture<List<Profissional>> listarTodos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarTodos());
+    }
+
+    public CompletableFuture<Pagina<Profissional>> listarPagina(Profissional cursor, int tamanho) {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarPagina(cursor, tamanho));
+    }
+
+    public CompletableFuture<Integer> contarProfissionaisAtivos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.contarProfissionaisAtivos());
+    }
+
+    public CompletableFuture<List<Profissional>> buscarTopProfissionais(int limite) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarTopProfissionais(limite));
+    }
+
+    public CompletableFuture<Double> calcularOcupacaoMedia() {
+        return ExecucaoAssincrona.executar(() -> sincrono.calcularOcupacaoMedia());
+    }
+}
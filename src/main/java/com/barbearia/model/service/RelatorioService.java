@@ -0,0 +1,141 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.ResumoDAO;
+import com.barbearia.util.Metricas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Gera as seções da tela de relatórios. Cada seção roda em paralelo no executor dos
+ * services assíncronos; cancelar o futuro devolvido descarta as seções que ainda não começaram.
+ * Resultados ficam em cache por (seção, período) enquanto a versão dos dados de resumo
+ * não mudar; o prazo de validade cobre o que não passa pelos resumos (nome de profissional etc.).
+ */
+public class RelatorioService {
+
+    private static final int CAPACIDADE_CACHE = 64;
+    private static final long VALIDADE_CACHE_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final List<DefinicaoRelatorio> definicoes = new CopyOnWriteArrayList<>(RelatoriosPadrao.todos());
+
+    private record ResultadoCache(long versao, long criadoEm, TabelaRelatorio tabela) {
+    }
+
+    // LRU em ordem de acesso, protegido pelo próprio mapa
+    private static final Map<String, ResultadoCache> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ResultadoCache> maisAntigo) {
+            return size() > CAPACIDADE_CACHE;
+        }
+    };
+
+    // Acrescenta uma seção à tela de relatórios (o id deve ser único)
+    public static void registrar(DefinicaoRelatorio definicao) {
+        if (definicao == null || definicao.getId() == null) {
+            throw new IllegalArgumentException("Definição de relatório inválida");
+        }
+        synchronized (definicoes) {
+            if (definicoes.stream().anyMatch(d -> d.getId().equals(definicao.getId()))) {
+                throw new IllegalArgumentException("Já existe um relatório com o id " + definicao.getId());
+            }
+            definicoes.add(definicao);
+        }
+    }
+
+    public List<DefinicaoRelatorio> listarDefinicoes() {
+        return List.copyOf(definicoes);
+    }
+
+    /**
+     * Gera as seções informadas para o período, na mesma ordem da lista.
+     * 'progresso' recebe a fração concluída (0 a 1) a partir das threads de trabalho.
+     */
+    public CompletableFuture<List<TabelaRelatorio>> gerar(List<DefinicaoRelatorio> secoes, LocalDate inicio,
+                                                          LocalDate fim, DoubleConsumer progresso) {
+        if (inicio == null || fim == null) {
+            throw new IllegalArgumentException("Informe o período do relatório");
+        }
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à data inicial");
+        }
+        if (secoes == null || secoes.isEmpty()) {
+            throw new IllegalArgumentException("Selecione ao menos uma seção do relatório");
+        }
+
+        AtomicBoolean cancelado = new AtomicBoolean();
+        AtomicInteger concluidas = new AtomicInteger();
+        List<CompletableFuture<TabelaRelatorio>> futuros = new ArrayList<>(secoes.size());
+
+        for (DefinicaoRelatorio definicao : secoes) {
+            CompletableFuture<TabelaRelatorio> futuro = ExecucaoAssincrona.executar(() -> {
+                if (cancelado.get()) {
+                    throw new CancellationException();
+                }
+                return gerarSecao(definicao, inicio, fim);
+            });
+            futuro.thenRun(() -> progresso.accept((double) concluidas.incrementAndGet() / secoes.size()));
+            futuros.add(futuro);
+        }
+
+        CompletableFuture<List<TabelaRelatorio>> resultado = CompletableFuture
+                .allOf(futuros.toArray(CompletableFuture[]::new))
+                .thenApply(v -> futuros.stream().map(CompletableFuture::join).toList());
+
+        // Cancelamento (ou falha de uma seção) interrompe as que ainda estão na fila
+        resultado.whenComplete((tabelas, erro) -> {
+            if (erro != null) {
+                cancelado.set(true);
+                futuros.forEach(f -> f.cancel(true));
+            }
+        });
+        futuros.forEach(f -> f.whenComplete((tabela, erro) -> {
+            if (erro != null) {
+                resultado.completeExceptionally(erro);
+            }
+        }));
+        return resultado;
+    }
+
+    private TabelaRelatorio gerarSecao(DefinicaoRelatorio definicao, LocalDate inicio, LocalDate fim) {
+        String chave = definicao.getId() + "|" + inicio + "|" + fim;
+        long versao = ResumoDAO.getVersaoDados();
+
+        ResultadoCache guardado;
+        synchronized (cache) {
+            guardado = cache.get(chave);
+        }
+        if (guardado != null && guardado.versao() == versao
+                && System.currentTimeMillis() - guardado.criadoEm() < VALIDADE_CACHE_MS) {
+            Metricas.incrementar("relatorios.cache.acertos");
+            return guardado.tabela();
+        }
+
+        Metricas.incrementar("relatorios.cache.falhas");
+        TabelaRelatorio tabela = definicao.gerar(inicio, fim);
+
+        // Só guarda se nenhuma escrita aconteceu durante a consulta
+        if (ResumoDAO.getVersaoDados() == versao) {
+            synchronized (cache) {
+                cache.put(chave, new ResultadoCache(versao, System.currentTimeMillis(), tabela));
+            }
+        }
+        return tabela;
+    }
+
+    public static void limparCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.RelatorioDAO;
+import com.barbearia.util.DateUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Relatórios que acompanham o sistema. Todos leem as tabelas de resumo (resumo_diario e
+ * resumo_pagamento), então o custo depende do número de dias do período e não de agendamentos.
+ * As quantidades de resumo_diario são de serviços agendados (um agendamento com dois serviços conta 2).
+ */
+final class RelatoriosPadrao {
+
+    enum Formato { TEXTO, DATA, INTEIRO, MINUTOS, MOEDA, PERCENTUAL }
+
+    private RelatoriosPadrao() {
+    }
+
+    static List<DefinicaoRelatorio> todos() {
+        return List.of(
+                new DefinicaoSql("faturamento_periodo", "Faturamento por dia",
+                        List.of("Dia", "Serviços", "Minutos", "Valor"),
+                        List.of(Formato.DATA, Formato.INTEIRO, Formato.MINUTOS, Formato.MOEDA),
+                        """
+                        SELECT data, SUM(quantidade), SUM(minutos), SUM(valor)
+                        FROM resumo_diario
+                        WHERE status = 'REALIZADO' AND data BETWEEN ? AND ?
+                        GROUP BY data
+                        ORDER BY data
+                        """, RelatoriosPadrao::periodo),
+
+                new DefinicaoSql("faturamento_profissional", "Faturamento por profissional",
+                        List.of("Profissional", "Serviços", "Minutos", "Valor"),
+                        List.of(Formato.TEXTO, Formato.INTEIRO, Formato.MINUTOS, Formato.MOEDA),
+                        """
+                        SELECT p.nome, SUM(r.quantidade), SUM(r.minutos), SUM(r.valor)
+                        FROM resumo_diario r
+                        JOIN profissional p ON p.id = r.profissional_id
+                        WHERE r.status = 'REALIZADO' AND r.data BETWEEN ? AND ?
+                        GROUP BY p.id, p.nome
+                        ORDER BY 4 DESC
+                        """, RelatoriosPadrao::periodo),
+
+                new DefinicaoSql("faturamento_servico", "Faturamento por serviço",
+                        List.of("Serviço", "Quantidade", "Minutos", "Valor"),
+                        List.of(Formato.TEXTO, Formato.INTEIRO, Formato.MINUTOS, Formato.MOEDA),
+                        """
+                        SELECT s.nome, SUM(r.quantidade), SUM(r.minutos), SUM(r.valor)
+                        FROM resumo_diario r
+                        JOIN servico s ON s.id = r.servico_id
+                        WHERE r.status = 'REALIZADO' AND r.data BETWEEN ? AND ?
+                        GROUP BY s.id, s.nome
+                        ORDER BY 4 DESC
+                        """, RelatoriosPadrao::periodo),
+
+                new DefinicaoSql("pagamentos_forma", "Pagamentos por forma de pagamento",
+                        List.of("Forma", "Status", "Pagamentos", "Valor"),
+                        List.of(Formato.TEXTO, Formato.TEXTO, Formato.INTEIRO, Formato.MOEDA),
+                        """
+                        SELECT forma_pagamento, status, SUM(quantidade), SUM(valor)
+                        FROM resumo_pagamento
+                        WHERE data BETWEEN ? AND ?
+                        GROUP BY forma_pagamento, status
+                        ORDER BY forma_pagamento, status
+                        """, RelatoriosPadrao::periodo),
+
+                // Minutos ocupados (agendados, confirmados e realizados) sobre o expediente do período
+                new DefinicaoSql("ocupacao", "Ocupação dos profissionais ativos",
+                        List.of("Profissional", "Minutos ocupados", "Minutos disponíveis", "Ocupação"),
+                        List.of(Formato.TEXTO, Formato.MINUTOS, Formato.MINUTOS, Formato.PERCENTUAL),
+                        """
+                        SELECT p.nome, COALESCE(SUM(r.minutos), 0) AS ocupados, CAST(? AS INT),
+                               COALESCE(SUM(r.minutos), 0) * 100.0 / ?
+                        FROM profissional p
+                        LEFT JOIN resumo_diario r ON r.profissional_id = p.id
+                              AND r.data BETWEEN ? AND ? AND r.status NOT IN ('CANCELADO', 'AUSENTE')
+                        WHERE p.ativo = true
+                        GROUP BY p.id, p.nome
+                        ORDER BY ocupados DESC
+                        """, (inicio, fim) -> {
+                            long disponiveis = (ChronoUnit.DAYS.between(inicio, fim) + 1)
+                                    * AgendamentoService.minutosExpedientePorDia();
+                            return new Object[]{disponiveis, disponiveis, inicio, fim};
+                        }),
+
+                new DefinicaoSql("cancelamentos", "Cancelamentos e ausências por profissional",
+                        List.of("Profissional", "Serviços", "Cancelados", "Ausentes", "Taxa de cancelamento"),
+                        List.of(Formato.TEXTO, Formato.INTEIRO, Formato.INTEIRO, Formato.INTEIRO, Formato.PERCENTUAL),
+                        """
+                        SELECT p.nome, SUM(r.quantidade) AS total,
+                               SUM(CASE WHEN r.status = 'CANCELADO' THEN r.quantidade ELSE 0 END) AS cancelados,
+                               SUM(CASE WHEN r.status = 'AUSENTE' THEN r.quantidade ELSE 0 END),
+                               SUM(CASE WHEN r.status = 'CANCELADO' THEN r.quantidade ELSE 0 END) * 100.0
+                                   / NULLIF(SUM(r.quantidade), 0) AS taxa
+                        FROM resumo_diario r
+                        JOIN profissional p ON p.id = r.profissional_id
+                        WHERE r.data BETWEEN ? AND ?
+                        GROUP BY p.id, p.nome
+                        ORDER BY taxa DESC
+                        """, RelatoriosPadrao::periodo)
+        );
+    }
+
+    private static Object[] periodo(LocalDate inicio, LocalDate fim) {
+        return new Object[]{inicio, fim};
+    }
+
+    // Seção definida por uma consulta; colunas numéricas (exceto percentuais) ganham linha de total
+    static final class DefinicaoSql implements DefinicaoRelatorio {
+        private final String id;
+        private final String titulo;
+        private final List<String> colunas;
+        private final List<Formato> formatos;
+        private final String sql;
+        private final BiFunction<LocalDate, LocalDate, Object[]> parametros;
+        private final RelatorioDAO relatorioDAO = new RelatorioDAO();
+
+        DefinicaoSql(String id, String titulo, List<String> colunas, List<Formato> formatos, String sql,
+                     BiFunction<LocalDate, LocalDate, Object[]> parametros) {
+            this.id = id;
+            this.titulo = titulo;
+            this.colunas = colunas;
+            this.formatos = formatos;
+            this.sql = sql;
+            this.parametros = parametros;
+        }
+
+        @Override
+        public String getId() { return id; }
+
+        @Override
+        public String getTitulo() { return titulo; }
+
+        @Override
+        public TabelaRelatorio gerar(LocalDate inicio, LocalDate fim) {
+            List<Object[]> resultado = relatorioDAO.consultar(sql, parametros.apply(inicio, fim));
+
+            double[] somas = new double[colunas.size()];
+            List<List<String>> linhas = new ArrayList<>(resultado.size());
+            for (Object[] valores : resultado) {
+                List<String> linha = new ArrayList<>(colunas.size());
+                for (int c = 0; c < colunas.size(); c++) {
+                    linha.add(formatar(formatos.get(c), valores[c]));
+                    if (valores[c] instanceof Number numero) {
+                        somas[c] += numero.doubleValue();
+                    }
+                }
+                linhas.add(linha);
+            }
+
+            return new TabelaRelatorio(titulo, colunas, linhas, resultado.isEmpty() ? null : montarTotal(somas));
+        }
+
+        private List<String> montarTotal(double[] somas) {
+            List<String> total = new ArrayList<>(colunas.size());
+            for (int c = 0; c < colunas.size(); c++) {
+                Formato formato = formatos.get(c);
+                if (c == 0) {
+                    total.add("Total");
+                } else if (formato == Formato.INTEIRO || formato == Formato.MINUTOS || formato == Formato.MOEDA) {
+                    total.add(formatar(formato, somas[c]));
+                } else {
+                    total.add("");
+                }
+            }
+            return total;
+        }
+    }
+
+    static String formatar(Formato formato, Object valor) {
+        if (valor == null) {
+            return formato == Formato.TEXTO ? "" : "-";
+        }
+        return switch (formato) {
+            case TEXTO -> valor.toString();
+            case DATA -> DateUtils.formatarData(valor instanceof Date data ? data.toLocalDate() : (LocalDate) valor);
+            case INTEIRO -> String.valueOf(((Number) valor).longValue());
+            case MINUTOS -> formatarMinutos(((Number) valor).longValue());
+            case MOEDA -> String.format("R$ %.2f", numero(valor));
+            case PERCENTUAL -> String.format("%.1f%%", numero(valor));
+        };
+    }
+
+    private static double numero(Object valor) {
+        return valor instanceof BigDecimal decimal ? decimal.doubleValue() : ((Number) valor).doubleValue();
+    }
+
+    private static String formatarMinutos(long minutos) {
+        return minutos < 60 ? minutos + " min" : String.format("%dh%02d", minutos / 60, minutos % 60);
+    }
+}
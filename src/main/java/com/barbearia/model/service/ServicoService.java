@@ -1,14 +1,19 @@
 package com.barbearia.model.service;
 
+import com.barbearia.model.dao.CatalogoServicos;
 import com.barbearia.model.dao.ServicoDAO;
 import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Pagina;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ServicoService {
     private ServicoDAO servicoDAO;
+    private CatalogoServicos catalogo;
 
     public ServicoService() {
         this.servicoDAO = new ServicoDAO();
+        this.catalogo = CatalogoServicos.getInstancia();
     }
 
     public void cadastrarServico(Servico servico) throws IllegalArgumentException {
@@ -77,49 +82,38 @@ public class ServicoService {
     }
 
     public List<Servico> listarTodos() {
-        return servicoDAO.listarTodos();
+        return new ArrayList<>(catalogo.listarTodos());
     }
 
-    // Métodos de negócio específicos
-    public double calcularValorMedioServicos() {
-        List<Servico> servicos = servicoDAO.listarTodos();
-        if (servicos.isEmpty()) return 0.0;
+    // Próxima página depois do cursor (null = primeira página)
+    public Pagina<Servico> listarPagina(Servico cursor, int tamanho) {
+        return servicoDAO.listarPagina(cursor, tamanho);
+    }
 
-        double soma = servicos.stream()
-                .mapToDouble(Servico::getPreco)
-                .sum();
+    // Métodos de negócio específicos (estatísticas pré-calculadas pelo catálogo em memória)
+    public CatalogoServicos.Estatisticas obterEstatisticas() {
+        return catalogo.getEstatisticas();
+    }
 
-        return soma / servicos.size();
+    public double calcularValorMedioServicos() {
+        return catalogo.getEstatisticas().getValorMedio();
     }
 
     public Servico buscarServicoMaisCaro() {
-        List<Servico> servicos = servicoDAO.listarTodos();
-        if (servicos.isEmpty()) return null;
-
-        return servicos.stream()
-                .max((s1, s2) -> Double.compare(s1.getPreco(), s2.getPreco()))
-                .orElse(null);
+        return catalogo.getEstatisticas().getMaisCaro();
     }
 
     public Servico buscarServicoMaisBarato() {
-        List<Servico> servicos = servicoDAO.listarTodos();
-        if (servicos.isEmpty()) return null;
-
-        return servicos.stream()
-                .min((s1, s2) -> Double.compare(s1.getPreco(), s2.getPreco()))
-                .orElse(null);
+        return catalogo.getEstatisticas().getMaisBarato();
     }
 
     public double calcularFaturamentoEstimado() {
-        // Simulação: faturamento estimado baseado nos serviços
-        List<Servico> servicos = servicoDAO.listarTodos();
-        double faturamento = 0.0;
-
-        for (Servico servico : servicos) {
-            // Cada serviço é estimado em 10 vendas por mês
-            faturamento += servico.getPreco() * 10;
-        }
+        return calcularFaturamentoEstimado(catalogo.getEstatisticas());
+    }
 
-        return faturamento;
+    // A partir de estatísticas já obtidas (sem tocar no catálogo)
+    public static double calcularFaturamentoEstimado(CatalogoServicos.Estatisticas estatisticas) {
+        // Simulação: cada serviço é estimado em 10 vendas por mês
+        return estatisticas.getSomaPrecos() * 10;
     }
-}
\ No newline at end of file
+}
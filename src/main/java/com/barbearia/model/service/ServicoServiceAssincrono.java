@@ -0,0 +1,86 @@
+package com.barbearia.model.service;
+
+import com.barbearia.model.dao.CatalogoServicos;
+import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Pagina;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona do ServicoService: cada operação roda em uma virtual thread própria
+ * e devolve um CompletableFuture. O acesso ao banco é limitado pela ExecucaoAssincrona.
+ */
+public class ServicoServiceAssincrono {
+
+    private final ServicoService sincrono;
+
+    public ServicoServiceAssincrono() {
+        this(new ServicoService());
+    }
+
+    public ServicoServiceAssincrono(ServicoService sincrono) {
+        this.sincrono = sincrono;
+    }
+
+    // Serviço bloqueante por trás desta fachada
+    public ServicoService getSincrono() {
+        return sincrono;
+    }
+
+    public CompletableFuture<Void> cadastrarServico(Servico servico) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.cadastrarServico(servico));
+    }
+
+    public CompletableFuture<Void> atualizarServico(Servico servico) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.atualizarServico(servico));
+    }
+
+    public CompletableFuture<Void> excluirServico(Integer id) {
+        return ExecucaoAssincrona.executarAcao(() -> sincrono.excluirServico(id));
+    }
+
+    public CompletableFuture<Servico> buscarPorId(Integer id) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorId(id));
+    }
+
+    public CompletableFuture<List<Servico>> buscarPorNome(String nome) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorNome(nome));
+    }
+
+    public CompletableFuture<List<Servico>> buscarPorPrecoMaximo(Double precoMaximo) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarPorPrecoMaximo(precoMaximo));
+    }
+
+    public CompletableFuture<List<Servico>> buscarMaisPopulares(int limite) {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarMaisPopulares(limite));
+    }
+
+    public CompletableFuture<List<Servico>> listarTodos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarTodos());
+    }
+
+    public CompletableFuture<Pagina<Servico>> listarPagina(Servico cursor, int tamanho) {
+        return ExecucaoAssincrona.executar(() -> sincrono.listarPagina(cursor, tamanho));
+    }
+
+    public CompletableFuture<CatalogoServicos.Estatisticas> obterEstatisticas() {
+        return ExecucaoAssincrona.executar(() -> sincrono.obterEstatisticas());
+    }
+
+    public CompletableFuture<Double> calcularValorMedioServicos() {
+        return ExecucaoAssincrona.executar(() -> sincrono.calcularValorMedioServicos());
+    }
+
+    public CompletableFuture<Servico> buscarServicoMaisCaro() {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarServicoMaisCaro());
+    }
+
+    public CompletableFuture<Servico> buscarServicoMaisBarato() {
+        return ExecucaoAssincrona.executar(() -> sincrono.buscarServicoMaisBarato());
+    }
+
+    public CompletableFuture<Double> calcularFaturamentoEstimado() {
+        return ExecucaoAssincrona.executar(() -> sincrono.calcularFaturamentoEstimado());
+    }
+}
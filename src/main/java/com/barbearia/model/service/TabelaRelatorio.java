@@ -0,0 +1,33 @@
+package com.barbearia.model.service;
+
+import java.util.List;
+
+/**
+ * Resultado de uma seção de relatório, já formatado para exibição.
+ * Imutável: o mesmo objeto é devolvido pelo cache para execuções repetidas.
+ */
+public final class TabelaRelatorio {
+
+    private final String titulo;
+    private final List<String> colunas;
+    private final List<List<String>> linhas;
+    private final List<String> total;
+
+    public TabelaRelatorio(String titulo, List<String> colunas, List<List<String>> linhas, List<String> total) {
+        this.titulo = titulo;
+        this.colunas = List.copyOf(colunas);
+        this.linhas = linhas.stream().map(List::copyOf).toList();
+        this.total = total == null ? null : List.copyOf(total);
+    }
+
+    public String getTitulo() { return titulo; }
+
+    public List<String> getColunas() { return colunas; }
+
+    public List<List<String>> getLinhas() { return linhas; }
+
+    // Linha de totais (null quando a seção não tem)
+    public List<String> getTotal() { return total; }
+
+    public boolean isVazia() { return linhas.isEmpty(); }
+}
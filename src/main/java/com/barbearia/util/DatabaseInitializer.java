@@ -1,25 +1,190 @@
 package com.barbearia.util;
 
+import com.barbearia.model.dao.AgendamentoDAO;
+import com.barbearia.model.dao.BackupDAO;
+import com.barbearia.model.dao.ClienteDAO;
 import com.barbearia.model.dao.ConexaoBD;
+import com.barbearia.model.dao.FiltroAgendamento;
+import com.barbearia.model.dao.GatilhoAlteracoes;
+import com.barbearia.model.dao.PagamentoDAO;
+import com.barbearia.model.dao.ResumoDAO;
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.service.BackupService;
 import com.barbearia.util.LogUtils; // Importante
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
 
 public class DatabaseInitializer {
 
+    // Índices secundários alinhados aos filtros e ORDER BY dos DAOs
+    private static final String[] INDICES = {
+            // AgendamentoDAO: buscarPorData / buscarPorPeriodo / streamPorPeriodo
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_data_hora ON agendamento (data, hora)",
+            // AgendamentoDAO: listarPagina / buscar / listarTodos (ordem data DESC, hora, id)
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_data_desc ON agendamento (data DESC, hora, id)",
+            // AgendamentoDAO: verificação de conflitos e intervalos ocupados do profissional no dia
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_profissional_data_hora ON agendamento (profissional_id, data, hora)",
+            // AgendamentoDAO: buscarPorStatus / contarPorStatus
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_status_data ON agendamento (status, data)",
+            // Índices das chaves estrangeiras (CHAVES_ESTRANGEIRAS). O H2 só usa numa FK um índice com
+            // exatamente as colunas dela; criados antes, com nome, evitam um índice anônimo igual ao lado.
+            // Também atendem buscarPorCliente, buscarPorProfissional, buscar por clienteIds e
+            // ServicoDAO.buscarMaisPopulares
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_cliente ON agendamento (cliente_id)",
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_profissional ON agendamento (profissional_id)",
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_servico_agendamento ON agendamento_servico (agendamento_id)",
+            "CREATE INDEX IF NOT EXISTS idx_agendamento_servico_servico ON agendamento_servico (servico_id)",
+            // PagamentoDAO: buscarPorPeriodo / listarTodos
+            "CREATE INDEX IF NOT EXISTS idx_pagamento_data ON pagamento (data_pagamento)",
+            // PagamentoDAO: buscarPorStatus / buscarPagamentosPendentes
+            "CREATE INDEX IF NOT EXISTS idx_pagamento_status_data ON pagamento (status, data_pagamento)",
+            // PagamentoDAO: buscarPorFormaPagamento
+            "CREATE INDEX IF NOT EXISTS idx_pagamento_forma_data ON pagamento (forma_pagamento, data_pagamento)",
+            // ClienteDAO: listarTodos / ORDER BY nome e buscarPorPeriodoCadastro
+            "CREATE INDEX IF NOT EXISTS idx_cliente_nome ON cliente (nome)",
+            "CREATE INDEX IF NOT EXISTS idx_cliente_data_cadastro ON cliente (data_cadastro)",
+            // ClienteDAO: buscarTelefonesExistentes (importação) e buscarPorFinalTelefone (quem está ligando)
+            "CREATE INDEX IF NOT EXISTS idx_cliente_telefone_digitos ON cliente (telefone_digitos)",
+            "CREATE INDEX IF NOT EXISTS idx_cliente_telefone_final ON cliente (telefone_final)",
+            // ProfissionalDAO: buscarAtivos / listarTodos
+            "CREATE INDEX IF NOT EXISTS idx_profissional_ativo_nome ON profissional (ativo, nome)",
+            "CREATE INDEX IF NOT EXISTS idx_profissional_nome ON profissional (nome)",
+            // ServicoDAO: listarTodos e buscarPorPrecoMaximo
+            "CREATE INDEX IF NOT EXISTS idx_servico_nome ON servico (nome)",
+            "CREATE INDEX IF NOT EXISTS idx_servico_preco ON servico (preco)",
+            // BackupService: envio e poda do log de alterações por lote
+            "CREATE INDEX IF NOT EXISTS idx_log_alteracao_lote ON log_alteracao (lote)"
+    };
+
+    // {tabela, coluna, tabela referenciada, nome}: criadas depois de INDICES para usarem os índices nomeados
+    private static final String[][] CHAVES_ESTRANGEIRAS = {
+            {"agendamento", "cliente_id", "cliente", "fk_agendamento_cliente"},
+            {"agendamento", "profissional_id", "profissional", "fk_agendamento_profissional"},
+            {"agendamento_servico", "agendamento_id", "agendamento", "fk_agendamento_servico_agendamento"},
+            {"agendamento_servico", "servico_id", "servico", "fk_agendamento_servico_servico"}
+    };
+
+    // Com poucas linhas todos os planos custam quase o mesmo e o H2 fica com o primeiro índice que
+    // servir; a conferência dos planos só diz algo a partir deste volume
+    private static final int MINIMO_AGENDAMENTOS_PLANOS = 1000;
+
+    // Consulta de um DAO e os índices aceitos no plano dela
+    private record PlanoEsperado(String consulta, String sql, String... indices) {
+    }
+
+    // Consultas principais, com o SQL dos próprios DAOs
+    private static List<PlanoEsperado> planosEsperados() {
+        LocalDate dia = LocalDate.of(2000, 1, 1);
+        Agendamento cursor = new Agendamento(dia, LocalTime.NOON, null, null);
+        cursor.setId(1);
+
+        FiltroAgendamento periodo = new FiltroAgendamento();
+        periodo.setDataInicio(dia);
+        periodo.setDataFim(dia.plusMonths(1));
+        FiltroAgendamento periodoEStatus = new FiltroAgendamento();
+        periodoEStatus.setDataInicio(dia);
+        periodoEStatus.setDataFim(dia.plusMonths(1));
+        periodoEStatus.setStatus(Agendamento.StatusAgendamento.AGENDADO);
+        FiltroAgendamento clientes = new FiltroAgendamento();
+        clientes.setClienteIds(List.of(1, 2));
+
+        return List.of(
+                new PlanoEsperado("agendamento.buscarPorData", AgendamentoDAO.SQL_POR_DATA, "IDX_AGENDAMENTO_DATA_HORA"),
+                // Partindo de agendamento pelo período ou de cada profissional pelo índice composto:
+                // os dois leem só as linhas do período
+                new PlanoEsperado("agendamento.buscarPorPeriodo", AgendamentoDAO.SQL_POR_PERIODO,
+                        "IDX_AGENDAMENTO_DATA_HORA", "IDX_AGENDAMENTO_PROFISSIONAL_DATA_HORA"),
+                new PlanoEsperado("agendamento.buscarConflito", AgendamentoDAO.SQL_CONFLITO, "IDX_AGENDAMENTO_PROFISSIONAL_DATA_HORA"),
+                new PlanoEsperado("agendamento.buscarIntervalosOcupados", AgendamentoDAO.SQL_INTERVALOS_OCUPADOS,
+                        "IDX_AGENDAMENTO_PROFISSIONAL_DATA_HORA"),
+                // Só com o id, o índice da FK e o composto empatam e o H2 fica com o menor (a ordenação
+                // por data e hora é feita sobre as linhas do profissional, que são lidas todas de qualquer jeito)
+                new PlanoEsperado("agendamento.buscarPorProfissional", AgendamentoDAO.SQL_POR_PROFISSIONAL,
+                        "IDX_AGENDAMENTO_PROFISSIONAL", "IDX_AGENDAMENTO_PROFISSIONAL_DATA_HORA"),
+                new PlanoEsperado("agendamento.buscarPorCliente", AgendamentoDAO.SQL_POR_CLIENTE, "IDX_AGENDAMENTO_CLIENTE"),
+                new PlanoEsperado("agendamento.buscarPorStatus", AgendamentoDAO.SQL_POR_STATUS, "IDX_AGENDAMENTO_STATUS_DATA"),
+                new PlanoEsperado("agendamento.contarPorStatus", AgendamentoDAO.SQL_CONTAR_POR_STATUS, "IDX_AGENDAMENTO_STATUS_DATA"),
+                new PlanoEsperado("agendamento.contarPorStatus (todos)", AgendamentoDAO.SQL_CONTAGEM_POR_STATUS, "IDX_AGENDAMENTO_STATUS_DATA"),
+                new PlanoEsperado("agendamento.listarPagina", montarBusca(new FiltroAgendamento(), null), "IDX_AGENDAMENTO_DATA_DESC"),
+                new PlanoEsperado("agendamento.listarPagina (cursor)", montarBusca(new FiltroAgendamento(), cursor), "IDX_AGENDAMENTO_DATA_DESC"),
+                new PlanoEsperado("agendamento.buscar (período)", montarBusca(periodo, cursor), "IDX_AGENDAMENTO_DATA_DESC"),
+                new PlanoEsperado("agendamento.buscar (período e status)", montarBusca(periodoEStatus, null), "IDX_AGENDAMENTO_STATUS_DATA"),
+                new PlanoEsperado("agendamento.buscar (clientes)", montarBusca(clientes, null), "IDX_AGENDAMENTO_CLIENTE"),
+                new PlanoEsperado("pagamento.buscarPagamentosPendentes", PagamentoDAO.SQL_PENDENTES, "IDX_PAGAMENTO_STATUS_DATA"),
+                new PlanoEsperado("pagamento.buscarPorStatus", PagamentoDAO.SQL_POR_STATUS, "IDX_PAGAMENTO_STATUS_DATA"),
+                new PlanoEsperado("pagamento.buscarPorFormaPagamento", PagamentoDAO.SQL_POR_FORMA, "IDX_PAGAMENTO_FORMA_DATA"),
+                new PlanoEsperado("pagamento.buscarPorPeriodo", PagamentoDAO.SQL_POR_PERIODO, "IDX_PAGAMENTO_DATA"),
+                new PlanoEsperado("cliente.listarTodos", ClienteDAO.SQL_LISTAR, "IDX_CLIENTE_NOME"),
+                new PlanoEsperado("cliente.buscarTelefonesExistentes", ClienteDAO.SQL_TELEFONES_EXISTENTES, "IDX_CLIENTE_TELEFONE_DIGITOS"),
+                new PlanoEsperado("cliente.buscarPorFinalTelefone", ClienteDAO.SQL_POR_FINAL_TELEFONE, "IDX_CLIENTE_TELEFONE_FINAL")
+        );
+    }
+
+    private static String montarBusca(FiltroAgendamento filtro, Agendamento cursor) {
+        return AgendamentoDAO.montarBusca(filtro, cursor, new ArrayList<>());
+    }
+
     public static void init() {
         criarTabelas();
+        migrarEsquema();
+        criarIndices();
+        criarChavesEstrangeiras();
+        criarGatilhos();
+        verificarPlanos();
+        prepararResumos();
         popularDadosIniciais();
     }
 
+    // Reconstrói os resumos a partir dos agendamentos e pagamentos (também: -Dbarbearia.resumo.reconstruir=true)
+    public static void reconstruirResumos() {
+        new ResumoDAO().reconstruir();
+    }
+
+    // Banco de uma versão anterior (com agendamentos e sem resumo): preenche os resumos uma vez
+    private static void prepararResumos() {
+        String sql = "SELECT NOT EXISTS (SELECT 1 FROM resumo_diario) AND EXISTS (SELECT 1 FROM agendamento_servico)";
+
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            boolean vazio = rs.next() && rs.getBoolean(1);
+            if (vazio || Boolean.getBoolean("barbearia.resumo.reconstruir")) {
+                reconstruirResumos();
+                System.out.println("✅ Resumos diários reconstruídos");
+            }
+        } catch (Exception e) {
+            LogUtils.gravarErro("Erro ao preparar resumos", e);
+            throw new RuntimeException("Erro na inicialização do banco", e);
+        }
+    }
+
     private static void criarTabelas() {
         String[] scripts = {
-                "CREATE TABLE IF NOT EXISTS cliente (id INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, telefone VARCHAR(20), email VARCHAR(100), data_cadastro DATE DEFAULT CURRENT_DATE)",
+                "CREATE TABLE IF NOT EXISTS cliente (id INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, telefone VARCHAR(20), email VARCHAR(100), data_cadastro DATE DEFAULT CURRENT_DATE, telefone_digitos VARCHAR(20), telefone_final VARCHAR(8))",
                 "CREATE TABLE IF NOT EXISTS profissional (id INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(100) NOT NULL, especialidade VARCHAR(50), telefone VARCHAR(20), ativo BOOLEAN DEFAULT true)",
                 "CREATE TABLE IF NOT EXISTS servico (id INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(50) NOT NULL, descricao VARCHAR(200), preco DECIMAL(10,2) NOT NULL, duracao_min INT DEFAULT 30)",
-                "CREATE TABLE IF NOT EXISTS agendamento (id INT AUTO_INCREMENT PRIMARY KEY, cliente_id INT, profissional_id INT, data DATE NOT NULL, hora TIME NOT NULL, status VARCHAR(20) DEFAULT 'AGENDADO', observacoes TEXT, FOREIGN KEY (cliente_id) REFERENCES cliente(id), FOREIGN KEY (profissional_id) REFERENCES profissional(id))",
-                "CREATE TABLE IF NOT EXISTS agendamento_servico (agendamento_id INT, servico_id INT, PRIMARY KEY (agendamento_id, servico_id), FOREIGN KEY (agendamento_id) REFERENCES agendamento(id), FOREIGN KEY (servico_id) REFERENCES servico(id))",
-                "CREATE TABLE IF NOT EXISTS pagamento (id INT AUTO_INCREMENT PRIMARY KEY, agendamento_id INT UNIQUE, valor DECIMAL(10,2) NOT NULL, forma_pagamento VARCHAR(20), status VARCHAR(20) DEFAULT 'PENDENTE', data_pagamento TIMESTAMP, FOREIGN KEY (agendamento_id) REFERENCES agendamento(id))"
+                // Chaves estrangeiras de agendamento e agendamento_servico: CHAVES_ESTRANGEIRAS
+                "CREATE TABLE IF NOT EXISTS agendamento (id INT AUTO_INCREMENT PRIMARY KEY, cliente_id INT, profissional_id INT, data DATE NOT NULL, hora TIME NOT NULL, status VARCHAR(20) DEFAULT 'AGENDADO', observacoes TEXT, data_hora_fim TIMESTAMP)",
+                "CREATE TABLE IF NOT EXISTS agendamento_servico (agendamento_id INT, servico_id INT, PRIMARY KEY (agendamento_id, servico_id))",
+                "CREATE TABLE IF NOT EXISTS pagamento (id INT AUTO_INCREMENT PRIMARY KEY, agendamento_id INT UNIQUE, valor DECIMAL(10,2) NOT NULL, forma_pagamento VARCHAR(20), status VARCHAR(20) DEFAULT 'PENDENTE', data_pagamento TIMESTAMP, FOREIGN KEY (agendamento_id) REFERENCES agendamento(id))",
+                // Resumos mantidos pelos DAOs (ResumoDAO)
+                "CREATE TABLE IF NOT EXISTS resumo_diario (data DATE NOT NULL, profissional_id INT NOT NULL, servico_id INT NOT NULL, status VARCHAR(20) NOT NULL, quantidade INT NOT NULL, valor DECIMAL(12,2) NOT NULL, minutos INT NOT NULL, PRIMARY KEY (data, profissional_id, servico_id, status))",
+                "CREATE TABLE IF NOT EXISTS resumo_pagamento (data DATE NOT NULL, forma_pagamento VARCHAR(20) NOT NULL, status VARCHAR(20) NOT NULL, quantidade INT NOT NULL, valor DECIMAL(12,2) NOT NULL, PRIMARY KEY (data, forma_pagamento, status))",
+                // Última linha do diário de status já gravada no banco (FilaStatusAgendamento)
+                "CREATE TABLE IF NOT EXISTS diario_aplicado (nome VARCHAR(40) PRIMARY KEY, posicao BIGINT NOT NULL)",
+                // Alterações capturadas pelos gatilhos até irem para o backup incremental (BackupService)
+                "CREATE TABLE IF NOT EXISTS log_alteracao (seq BIGINT AUTO_INCREMENT PRIMARY KEY, momento TIMESTAMP NOT NULL, tabela VARCHAR(40) NOT NULL, operacao CHAR(1) NOT NULL, dados CLOB NOT NULL, lote INT, transacao BIGINT NOT NULL)",
+                // Número da transação de cada alteração (GatilhoAlteracoes)
+                "CREATE SEQUENCE IF NOT EXISTS seq_transacao_backup"
         };
 
         try (Connection conn = ConexaoBD.getConexao();
@@ -33,6 +198,160 @@ public class DatabaseInitializer {
         }
     }
 
+    // Ajustes em bancos criados por versões anteriores
+    private static void migrarEsquema() {
+        String[] scripts = {
+                "ALTER TABLE agendamento ADD COLUMN IF NOT EXISTS data_hora_fim TIMESTAMP",
+                // Fim = início + soma das durações dos serviços vinculados
+                "UPDATE agendamento a SET data_hora_fim = DATEADD(MINUTE, COALESCE((SELECT SUM(s.duracao_min) FROM agendamento_servico ag JOIN servico s ON s.id = ag.servico_id WHERE ag.agendamento_id = a.id), 0), a.data + a.hora) WHERE data_hora_fim IS NULL",
+                // Telefone só com dígitos e seus 8 últimos (mantidos pelo ClienteDAO a cada gravação)
+                "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS telefone_digitos VARCHAR(20)",
+                "ALTER TABLE cliente ADD COLUMN IF NOT EXISTS telefone_final VARCHAR(8)",
+                "UPDATE cliente SET telefone_digitos = REGEXP_REPLACE(COALESCE(telefone, ''), '[^0-9]', '') WHERE telefone_digitos IS NULL",
+                "UPDATE cliente SET telefone_final = RIGHT(telefone_digitos, 8) WHERE telefone_final IS NULL"
+        };
+
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+            for (String script : scripts) {
+                stmt.execute(script);
+            }
+        } catch (Exception e) {
+            LogUtils.gravarErro("Erro ao migrar esquema", e);
+            throw new RuntimeException("Erro na inicialização do banco", e);
+        }
+    }
+
+    private static void criarIndices() {
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+            for (String indice : INDICES) {
+                stmt.execute(indice);
+            }
+        } catch (Exception e) {
+            LogUtils.gravarErro("Erro ao criar índices", e);
+            throw new RuntimeException("Erro na inicialização do banco", e);
+        }
+    }
+
+    // Chaves estrangeiras com nome, usando os índices de INDICES. Em bancos de versões anteriores as
+    // mesmas chaves existem sem nome (declaradas no CREATE TABLE), cada uma com um índice anônimo
+    // só da coluna que ficava à frente dos compostos no planejador: são trocadas pelas novas.
+    private static void criarChavesEstrangeiras() {
+        String sqlAnteriores = """
+            SELECT tc.constraint_name
+            FROM information_schema.table_constraints tc
+            JOIN information_schema.key_column_usage k
+              ON k.constraint_schema = tc.constraint_schema AND k.constraint_name = tc.constraint_name
+            WHERE tc.constraint_type = 'FOREIGN KEY' AND tc.table_schema = 'PUBLIC'
+              AND tc.table_name = ? AND k.column_name = ? AND tc.constraint_name <> ?
+            """;
+
+        try (Connection conn = ConexaoBD.getConexao();
+             PreparedStatement consulta = conn.prepareStatement(sqlAnteriores);
+             Statement stmt = conn.createStatement()) {
+
+            for (String[] chave : CHAVES_ESTRANGEIRAS) {
+                String tabela = chave[0];
+                String coluna = chave[1];
+                String nome = chave[3];
+
+                List<String> anteriores = new ArrayList<>();
+                consulta.setString(1, tabela.toUpperCase());
+                consulta.setString(2, coluna.toUpperCase());
+                consulta.setString(3, nome.toUpperCase());
+                try (ResultSet rs = consulta.executeQuery()) {
+                    while (rs.next()) {
+                        anteriores.add(rs.getString(1));
+                    }
+                }
+                for (String anterior : anteriores) {
+                    stmt.execute("ALTER TABLE " + tabela + " DROP CONSTRAINT \"" + anterior + "\"");
+                }
+                stmt.execute("ALTER TABLE " + tabela + " ADD CONSTRAINT IF NOT EXISTS " + nome
+                        + " FOREIGN KEY (" + coluna + ") REFERENCES " + chave[2] + "(id)");
+            }
+        } catch (Exception e) {
+            LogUtils.gravarErro("Erro ao criar chaves estrangeiras", e);
+            throw new RuntimeException("Erro na inicialização do banco", e);
+        }
+    }
+
+    // Gatilhos que alimentam o log_alteracao (backup incremental)
+    private static void criarGatilhos() {
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+            for (String tabela : BackupDAO.TABELAS_COM_HISTORICO) {
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS " + BackupDAO.nomeGatilho(tabela)
+                        + " AFTER INSERT, UPDATE, DELETE ON " + tabela
+                        + " FOR EACH ROW CALL '" + GatilhoAlteracoes.class.getName() + "'");
+            }
+        } catch (Exception e) {
+            LogUtils.gravarErro("Erro ao criar gatilhos de histórico", e);
+            throw new RuntimeException("Erro na inicialização do banco", e);
+        }
+    }
+
+    // Snapshot completo imediato (além dos agendados pelo BackupService)
+    public static void backupDatabase() {
+        new BackupService().criarSnapshot();
+    }
+
+    // Confere com EXPLAIN se as consultas principais estão usando os índices esperados
+    private static void verificarPlanos() {
+        List<String> divergencias;
+
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM agendamento")) {
+            rs.next();
+            if (rs.getLong(1) < MINIMO_AGENDAMENTOS_PLANOS) {
+                return;
+            }
+            divergencias = conferirPlanos(conn);
+        } catch (Exception e) {
+            // A verificação é apenas diagnóstica; não impede a inicialização
+            LogUtils.gravarErro("Erro ao verificar planos de consulta", e);
+            return;
+        }
+
+        if (divergencias.isEmpty()) {
+            System.out.println("✅ Planos de consulta usando os índices esperados");
+        }
+        for (String divergencia : divergencias) {
+            System.err.println("⚠️ " + divergencia);
+        }
+    }
+
+    // Plano de cada consulta com os parâmetros nulos (o H2 escolhe o índice sem olhar os valores)
+    static List<String> conferirPlanos(Connection conn) throws SQLException {
+        List<String> divergencias = new ArrayList<>();
+
+        for (PlanoEsperado esperado : planosEsperados()) {
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + esperado.sql())) {
+                int parametros = stmt.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    stmt.setObject(i, null);
+                }
+
+                String plano;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    plano = rs.next() ? rs.getString(1).toUpperCase() : "";
+                }
+
+                boolean usaEsperado = false;
+                for (String indice : esperado.indices()) {
+                    usaEsperado |= Pattern.compile("\\." + indice + "\\b").matcher(plano).find();
+                }
+                if (!usaEsperado) {
+                    divergencias.add("Consulta " + esperado.consulta() + " sem o índice " + String.join(" ou ", esperado.indices())
+                            + "\n   Plano: " + plano.replaceAll("\\s+", " "));
+                }
+            }
+        }
+        return divergencias;
+    }
+
     private static void popularDadosIniciais() {
         // Implementação simplificada para garantir funcionamento
         try (Connection conn = ConexaoBD.getConexao();
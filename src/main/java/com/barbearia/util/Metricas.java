@@ -0,0 +1,39 @@
+package com.barbearia.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores simples de desempenho (consultas executadas, acertos de cache etc.).
+ * Seguro para uso concorrente; os nomes seguem o padrão "area.metrica".
+ */
+public class Metricas {
+
+    private static final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+
+    public static void incrementar(String nome) {
+        adicionar(nome, 1);
+    }
+
+    public static void adicionar(String nome, long valor) {
+        contadores.computeIfAbsent(nome, n -> new LongAdder()).add(valor);
+    }
+
+    public static long obter(String nome) {
+        LongAdder contador = contadores.get(nome);
+        return contador != null ? contador.sum() : 0;
+    }
+
+    // Cópia ordenada por nome, útil para logs e relatórios
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> copia = new TreeMap<>();
+        contadores.forEach((nome, contador) -> copia.put(nome, contador.sum()));
+        return copia;
+    }
+
+    public static void zerar() {
+        contadores.values().forEach(LongAdder::reset);
+    }
+}
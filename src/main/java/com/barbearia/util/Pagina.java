@@ -0,0 +1,36 @@
+package com.barbearia.util;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados de paginação por chave (keyset).
+ * O último item da página serve de cursor para buscar a próxima.
+ */
+public class Pagina<T> {
+    private final List<T> itens;
+    private final boolean temMais;
+
+    public Pagina(List<T> itens, boolean temMais) {
+        this.itens = itens;
+        this.temMais = temMais;
+    }
+
+    // Monta a página a partir de uma consulta feita com LIMIT tamanho + 1
+    public static <T> Pagina<T> deConsulta(List<T> resultado, int tamanho) {
+        if (resultado.size() > tamanho) {
+            return new Pagina<>(resultado.subList(0, tamanho), true);
+        }
+        return new Pagina<>(resultado, false);
+    }
+
+    public List<T> getItens() { return itens; }
+
+    public boolean isTemMais() { return temMais; }
+
+    public boolean isVazia() { return itens.isEmpty(); }
+
+    // Cursor para a próxima página (null se a página estiver vazia)
+    public T getUltimo() {
+        return itens.isEmpty() ? null : itens.get(itens.size() - 1);
+    }
+}
@@ -3,6 +3,8 @@ package com.barbearia.util;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.text.Normalizer;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 public class Validacao {
@@ -23,6 +25,12 @@ public class Validacao {
     private static final Pattern APENAS_NUMEROS_PATTERN =
             Pattern.compile("^[0-9]+$");
 
+    private static final Pattern MARCAS_ACENTO_PATTERN =
+            Pattern.compile("\\p{M}+");
+
+    private static final Pattern ESPACOS_PATTERN =
+            Pattern.compile("\\s+");
+
     // Validação de email
     public static boolean isEmailValido(String email) {
         if (email == null || email.trim().isEmpty()) {
@@ -38,7 +46,7 @@ public class Validacao {
         }
 
         // Remove espaços, parênteses, traços
-        String telefoneLimpo = telefone.replaceAll("[^0-9]", "");
+        String telefoneLimpo = apenasDigitos(telefone);
 
         // Verifica se tem entre 10 e 11 dígitos
         return telefoneLimpo.length() >= 10 && telefoneLimpo.length() <= 11;
@@ -156,11 +164,25 @@ public class Validacao {
         return quantidade != null && quantidade > 0;
     }
 
+    // Só os dígitos do texto (telefone formatado, CPF...); chamado em toda gravação de cliente
+    public static String apenasDigitos(String texto) {
+        if (texto == null) return "";
+
+        StringBuilder digitos = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
     // Formatar telefone
     public static String formatarTelefone(String telefone) {
         if (telefone == null) return "";
 
-        String telefoneLimpo = telefone.replaceAll("[^0-9]", "");
+        String telefoneLimpo = apenasDigitos(telefone);
 
         if (telefoneLimpo.length() == 11) {
             return String.format("(%s) %s-%s",
@@ -177,6 +199,15 @@ public class Validacao {
         }
     }
 
+    // Texto para comparação em buscas: minúsculo, sem acentos e com espaços simples
+    public static String normalizarParaBusca(String texto) {
+        if (texto == null) return "";
+
+        String semAcentos = MARCAS_ACENTO_PATTERN.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("");
+        return ESPACOS_PATTERN.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
     // Formatar CPF
     public static String formatarCPF(String cpf) {
         if (cpf == null) return "";
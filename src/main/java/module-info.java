@@ -2,6 +2,8 @@ module com.barbearia {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires com.google.gson;
+    requires com.h2database;
 
     opens com.barbearia to javafx.fxml;
     opens com.barbearia.controller to javafx.fxml;
@@ -9,4 +11,6 @@ module com.barbearia {
 
     exports com.barbearia;
     exports com.barbearia.controller;
+    // O H2 instancia o GatilhoAlteracoes pelo nome da classe
+    exports com.barbearia.model.dao to com.h2database;
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.barbearia;
+
+import com.barbearia.model.dao.ConexaoBD;
+import com.barbearia.util.DatabaseInitializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Banco dos testes. O surefire roda cada classe numa JVM própria com o diretório de trabalho
+ * em target/teste, então cada classe começa apagando o banco e os backups da anterior.
+ */
+public final class BancoTeste {
+
+    private BancoTeste() {
+    }
+
+    // Chamar no @BeforeAll, antes de qualquer acesso ao banco
+    public static void iniciar() {
+        apagar(Path.of(ConexaoBD.DIRETORIO_BANCO));
+        apagar(Path.of(System.getProperty("barbearia.backup.dir", "backups")));
+        DatabaseInitializer.init();
+    }
+
+    public static long contar(String sql) {
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void apagar(Path pasta) {
+        if (!Files.exists(pasta)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(pasta)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(arquivo);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
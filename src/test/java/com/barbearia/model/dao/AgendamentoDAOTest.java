@@ -0,0 +1,159 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.model.entity.Profissional;
+import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Pagina;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendamentoDAOTest {
+
+    private static Cliente cliente;
+    private static Profissional profissional;
+    private static Servico servico;
+    private static Cliente outroCliente;
+    private static LocalDate primeiroDiaPaginas;
+
+    private final AgendamentoDAO agendamentoDAO = new AgendamentoDAO();
+
+    @BeforeAll
+    static void iniciarBanco() {
+        BancoTeste.iniciar();
+        cliente = new Cliente("Cliente DAO", "(11) 93333-0001", null);
+        new ClienteDAO().salvar(cliente);
+        profissional = new Profissional("Profissional DAO", "Corte", "(11) 93333-0002", null);
+        new ProfissionalDAO().salvar(profissional);
+        servico = new Servico("Corte DAO", "Corte", 40.0, 30);
+        new ServicoDAO().salvar(servico);
+
+        // Agendamentos para a paginação: empates de data e de data+hora (dois profissionais no mesmo horário)
+        outroCliente = new Cliente("Outro cliente DAO", "(11) 93333-0003", null);
+        new ClienteDAO().salvar(outroCliente);
+        Profissional outroProfissional = new Profissional("Outro profissional DAO", "Barba", "(11) 93333-0004", null);
+        new ProfissionalDAO().salvar(outroProfissional);
+
+        AgendamentoDAO dao = new AgendamentoDAO();
+        primeiroDiaPaginas = LocalDate.now().minusDays(10);
+        for (int dia = 0; dia < 4; dia++) {
+            for (int hora = 9; hora < 12; hora++) {
+                for (Profissional p : List.of(profissional, outroProfissional)) {
+                    Cliente c = (dia + hora) % 2 == 0 ? cliente : outroCliente;
+                    Agendamento agendamento = new Agendamento(primeiroDiaPaginas.plusDays(dia), LocalTime.of(hora, 0), c, p);
+                    agendamento.addServico(servico);
+                    dao.salvar(agendamento);
+                }
+            }
+        }
+    }
+
+    private Agendamento novoAgendamento(LocalDate data, LocalTime hora) {
+        Agendamento agendamento = new Agendamento(data, hora, cliente, profissional);
+        agendamento.addServico(servico);
+        return agendamento;
+    }
+
+    @Test
+    void atualizacaoDesfeitaContinuaPendente() {
+        Agendamento agendamento = novoAgendamento(LocalDate.now().plusDays(30), LocalTime.of(9, 0));
+        agendamentoDAO.salvar(agendamento);
+        Agendamento lido = agendamentoDAO.buscarPorId(agendamento.getId());
+
+        lido.setObservacoes("alterado numa transação desfeita");
+        assertThrows(IllegalStateException.class, () -> UnidadeDeTrabalho.executarAcao(() -> {
+            agendamentoDAO.atualizar(lido);
+            throw new IllegalStateException("falha depois da gravação");
+        }));
+
+        assertNull(agendamentoDAO.buscarPorId(lido.getId()).getObservacoes());
+        assertFalse(lido.getCamposAlterados().isEmpty());
+
+        // A nova tentativa ainda manda a coluna alterada
+        agendamentoDAO.atualizar(lido);
+        assertEquals("alterado numa transação desfeita", agendamentoDAO.buscarPorId(lido.getId()).getObservacoes());
+        assertTrue(lido.getCamposAlterados().isEmpty());
+    }
+
+    @Test
+    void insercaoDesfeitaNaoFicaRastreada() {
+        Agendamento agendamento = novoAgendamento(LocalDate.now().plusDays(31), LocalTime.of(9, 0));
+
+        assertThrows(IllegalStateException.class, () -> UnidadeDeTrabalho.executarAcao(() -> {
+            agendamentoDAO.salvar(agendamento);
+            throw new IllegalStateException("falha depois da gravação");
+        }));
+
+        assertFalse(agendamento.isRastreado());
+    }
+
+    @Test
+    void listarPaginaPercorreTodosNaOrdemSemRepetir() throws SQLException {
+        List<Integer> esperado = ids("SELECT id FROM agendamento ORDER BY data DESC, hora, id");
+
+        for (int tamanho : new int[]{1, 2, 5, 6, esperado.size(), esperado.size() + 1}) {
+            assertEquals(esperado, percorrer(agendamentoDAO::listarPagina, tamanho), "tamanho " + tamanho);
+        }
+    }
+
+    @Test
+    void buscarPaginadoRespeitaFiltroECursor() throws SQLException {
+        FiltroAgendamento filtro = new FiltroAgendamento();
+        filtro.setClienteIds(List.of(outroCliente.getId()));
+        filtro.setDataInicio(primeiroDiaPaginas.plusDays(1));
+        filtro.setDataFim(primeiroDiaPaginas.plusDays(2));
+
+        List<Integer> esperado = ids("SELECT id FROM agendamento WHERE cliente_id = " + outroCliente.getId()
+                + " AND data BETWEEN DATE '" + primeiroDiaPaginas.plusDays(1) + "' AND DATE '" + primeiroDiaPaginas.plusDays(2)
+                + "' ORDER BY data DESC, hora, id");
+        assertFalse(esperado.isEmpty());
+
+        for (int tamanho : new int[]{1, 2, 3, esperado.size()}) {
+            assertEquals(esperado, percorrer((cursor, t) -> agendamentoDAO.buscar(filtro, cursor, t), tamanho), "tamanho " + tamanho);
+        }
+
+        filtro.setClienteIds(List.of());
+        assertTrue(agendamentoDAO.buscar(filtro, null, 10).isVazia());
+    }
+
+    // Segue os cursores até a última página; só ela pode dizer que não há mais
+    private static List<Integer> percorrer(BiFunction<Agendamento, Integer, Pagina<Agendamento>> pagina, int tamanho) {
+        List<Integer> ids = new ArrayList<>();
+        Agendamento cursor = null;
+        while (true) {
+            Pagina<Agendamento> atual = pagina.apply(cursor, tamanho);
+            assertTrue(atual.getItens().size() <= tamanho);
+            atual.getItens().forEach(a -> ids.add(a.getId()));
+            if (!atual.isTemMais()) {
+                return ids;
+            }
+            assertEquals(tamanho, atual.getItens().size());
+            cursor = atual.getUltimo();
+        }
+    }
+
+    private static List<Integer> ids(String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
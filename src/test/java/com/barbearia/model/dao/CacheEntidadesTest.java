@@ -0,0 +1,63 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.util.Metricas;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheEntidadesTest {
+
+    private final ClienteDAO clienteDAO = new ClienteDAO();
+
+    @BeforeAll
+    static void iniciarBanco() {
+        BancoTeste.iniciar();
+    }
+
+    @Test
+    void alteracaoSemSalvarNaoChegaAoCache() {
+        Cliente cliente = new Cliente("Original", "(11) 93333-0001", null);
+        clienteDAO.salvar(cliente);
+
+        // Como a tela de edição faz: altera a instância recebida e desiste
+        Cliente naTela = clienteDAO.buscarPorId(cliente.getId());
+        naTela.setNome("Editado e cancelado");
+
+        long acertos = Metricas.obter("cache.cliente.acertos");
+        Cliente relido = clienteDAO.buscarPorId(cliente.getId());
+        assertEquals(acertos + 1, Metricas.obter("cache.cliente.acertos"));
+        assertEquals("Original", relido.getNome());
+        assertNotSame(naTela, relido);
+    }
+
+    @Test
+    void leituraDentroDeTransacaoNaoEntraNoCache() {
+        Cliente cliente = new Cliente("Dentro da transação", "(11) 93333-0002", null);
+        clienteDAO.salvar(cliente);
+        CacheEntidades.CLIENTES.limpar();
+
+        UnidadeDeTrabalho.executarAcao(() -> clienteDAO.buscarPorId(cliente.getId()));
+
+        assertNull(CacheEntidades.CLIENTES.obter(cliente.getId()));
+    }
+
+    @Test
+    void leituraAnteriorAUmaInvalidacaoNaoVoltaParaOCache() {
+        Cliente cliente = new Cliente("Antes da edição", "(11) 93333-0003", null);
+        clienteDAO.salvar(cliente);
+        CacheEntidades.CLIENTES.limpar();
+
+        // Outra thread leu a linha antiga; a edição confirma e invalida antes de ela guardar
+        long geracao = CacheEntidades.CLIENTES.geracao();
+        Cliente antigo = new Cliente(cliente);
+        cliente.setNome("Depois da edição");
+        clienteDAO.atualizar(cliente);
+        CacheEntidades.CLIENTES.guardar(cliente.getId(), antigo, geracao);
+
+        assertNull(CacheEntidades.CLIENTES.obter(cliente.getId()));
+        assertEquals("Depois da edição", clienteDAO.buscarPorId(cliente.getId()).getNome());
+    }
+}
@@ -0,0 +1,89 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Metricas;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoServicosTest {
+
+    private final CatalogoServicos catalogo = CatalogoServicos.getInstancia();
+
+    @BeforeAll
+    static void iniciarBanco() {
+        BancoTeste.iniciar();
+        new ServicoDAO().salvar(new Servico("Corte catálogo", "Corte", 40.0, 30));
+    }
+
+    @Test
+    void entregaCopias() {
+        corte().setPreco(1.0);
+        catalogo.getEstatisticas().getMaisCaro().setPreco(2.0);
+
+        assertEquals(40.0, corte().getPreco());
+        assertEquals(40.0, catalogo.getEstatisticas().getMaisCaro().getPreco());
+    }
+
+    @Test
+    void faltaLeSoOServicoNovoSemRecarregarOCatalogo() throws SQLException {
+        catalogo.listarTodos();
+        long cargas = Metricas.obter("servicos.catalogo.cargas");
+
+        // Criado por fora do ServicoDAO: o catálogo não foi invalidado
+        try (Connection conn = ConexaoBD.getConexao()) {
+            int id = inserirPorFora(conn, "Barba por fora");
+            Map<Integer, Servico> servicos = catalogo.buscarPorIds(conn, List.of(id));
+            assertEquals("Barba por fora", servicos.get(id).getNome());
+        }
+
+        assertEquals(cargas, Metricas.obter("servicos.catalogo.cargas"));
+        assertTrue(catalogo.listarTodos().stream().anyMatch(s -> s.getNome().equals("Barba por fora")));
+    }
+
+    @Test
+    void leituraDentroDeTransacaoDesfeitaNaoFicaNoCatalogo() {
+        catalogo.invalidar();
+
+        assertThrows(IllegalStateException.class, () -> UnidadeDeTrabalho.executarAcao(() -> {
+            try (Connection conn = ConexaoBD.getConexao()) {
+                int id = inserirPorFora(conn, "Nunca confirmado");
+                // A própria transação enxerga o serviço, com o catálogo frio ou já carregado
+                assertTrue(catalogo.listarTodos().stream().anyMatch(s -> s.getNome().equals("Nunca confirmado")));
+                assertNotNull(catalogo.buscarPorIds(conn, List.of(id)).get(id));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            throw new IllegalStateException("desfaz a transação");
+        }));
+
+        assertTrue(catalogo.listarTodos().stream().noneMatch(s -> s.getNome().equals("Nunca confirmado")));
+    }
+
+    private Servico corte() {
+        return catalogo.listarTodos().stream().filter(s -> s.getNome().equals("Corte catálogo")).findFirst().orElseThrow();
+    }
+
+    private static int inserirPorFora(Connection conn, String nome) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO servico (nome, descricao, preco, duracao_min) VALUES (?, 'Teste', 30.0, 20)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, nome);
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
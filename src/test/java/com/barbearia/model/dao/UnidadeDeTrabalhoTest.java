@@ -0,0 +1,94 @@
+package com.barbearia.model.dao;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.entity.Cliente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnidadeDeTrabalhoTest {
+
+    private final ClienteDAO clienteDAO = new ClienteDAO();
+    private final List<String> executadas = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void iniciarBanco() {
+        BancoTeste.iniciar();
+    }
+
+    @AfterEach
+    void desligarCommitEmGrupo() {
+        UnidadeDeTrabalho.setCommitEmGrupo(false);
+    }
+
+    @Test
+    void acoesRodamDepoisDoCommitComAEscritaVisivel() {
+        Cliente cliente = new Cliente("Depois do commit", "(11) 91111-0001", null);
+
+        UnidadeDeTrabalho.executarAcao(() -> {
+            clienteDAO.salvar(cliente);
+            UnidadeDeTrabalho.aoConcluir(() -> {
+                // Já fora da transação: a consulta usa outra conexão do pool
+                assertFalse(UnidadeDeTrabalho.isAtiva());
+                assertNotNull(clienteDAO.buscarPorId(cliente.getId()));
+                executadas.add("commit");
+            });
+            assertTrue(executadas.isEmpty());
+        });
+
+        assertEquals(List.of("commit"), executadas);
+    }
+
+    @Test
+    void rollbackDescartaAsAcoes() {
+        Cliente cliente = new Cliente("Desfeito", "(11) 91111-0002", null);
+
+        assertThrows(IllegalStateException.class, () -> UnidadeDeTrabalho.executarAcao(() -> {
+            clienteDAO.salvar(cliente);
+            UnidadeDeTrabalho.aoConcluir(() -> executadas.add("rollback"));
+            throw new IllegalStateException("falha depois da escrita");
+        }));
+
+        assertTrue(executadas.isEmpty());
+        assertNull(clienteDAO.buscarPorId(cliente.getId()));
+    }
+
+    @Test
+    void unidadeAninhadaEsperaOCommitDaExterna() {
+        assertThrows(IllegalStateException.class, () -> UnidadeDeTrabalho.executarAcao(() -> {
+            UnidadeDeTrabalho.executarAcao(() -> UnidadeDeTrabalho.aoConcluir(() -> executadas.add("interna")));
+            assertTrue(executadas.isEmpty());
+            throw new IllegalStateException("externa desistiu");
+        }));
+
+        assertTrue(executadas.isEmpty());
+    }
+
+    @Test
+    void commitEmGrupoDescartaAsAcoesDoPedidoQueVoltouAoSavepoint() throws Exception {
+        UnidadeDeTrabalho.setCommitEmGrupo(true);
+        Cliente confirmado = new Cliente("Grupo confirmado", "(11) 91111-0003", null);
+        Cliente desfeito = new Cliente("Grupo desfeito", "(11) 91111-0004", null);
+
+        Thread falha = Thread.ofVirtual().start(() -> assertThrows(IllegalStateException.class,
+                () -> UnidadeDeTrabalho.executarAcao(() -> {
+                    clienteDAO.salvar(desfeito);
+                    UnidadeDeTrabalho.aoConcluir(() -> executadas.add("desfeito"));
+                    throw new IllegalStateException("pedido desfeito");
+                })));
+        UnidadeDeTrabalho.executarAcao(() -> {
+            clienteDAO.salvar(confirmado);
+            UnidadeDeTrabalho.aoConcluir(() -> executadas.add("confirmado"));
+        });
+        falha.join();
+
+        assertEquals(List.of("confirmado"), executadas);
+        assertNotNull(clienteDAO.buscarPorId(confirmado.getId()));
+        assertNull(clienteDAO.buscarPorId(desfeito.getId()));
+    }
+}
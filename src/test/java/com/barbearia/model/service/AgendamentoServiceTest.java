@@ -0,0 +1,168 @@
+package com.barbearia.model.service;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.dao.FiltroAgendamento;
+import com.barbearia.model.dao.ProfissionalDAO;
+import com.barbearia.model.dao.ServicoDAO;
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.model.entity.Profissional;
+import com.barbearia.model.entity.Servico;
+import com.barbearia.util.Pagina;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendamentoServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int RODADAS = 20;
+
+    private static Cliente cliente;
+    private static Profissional profissional;
+    private static Servico servico;
+
+    private final AgendamentoService service = new AgendamentoService();
+
+    @BeforeAll
+    static void iniciarBanco() {
+        BancoTeste.iniciar();
+        cliente = new Cliente("Cliente agenda", "(11) 92222-0001", null);
+        new ClienteDAO().salvar(cliente);
+        profissional = new Profissional("Profissional agenda", "Corte", "(11) 92222-0002", null);
+        new ProfissionalDAO().salvar(profissional);
+        servico = new Servico("Corte agenda", "Corte", 40.0, 60);
+        new ServicoDAO().salvar(servico);
+    }
+
+    @Test
+    void agendamentosConcorrentesNoMesmoHorarioGravamApenasUm() throws Exception {
+        LocalDate primeiroDia = LocalDate.now().plusYears(1);
+
+        for (int rodada = 0; rodada < RODADAS; rodada++) {
+            LocalDate dia = primeiroDia.plusDays(rodada);
+            CountDownLatch largada = new CountDownLatch(1);
+            AtomicInteger gravados = new AtomicInteger();
+            AtomicInteger conflitos = new AtomicInteger();
+            List<Throwable> inesperados = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++) {
+                // Horários diferentes, mas todos se sobrepõem (serviço de 60 min)
+                LocalTime hora = LocalTime.of(10, 0).plusMinutes(5L * i);
+                threads.add(Thread.ofPlatform().start(() -> {
+                    Agendamento agendamento = new Agendamento(dia, hora, cliente, profissional);
+                    agendamento.addServico(servico);
+                    try {
+                        largada.await();
+                        service.agendar(agendamento);
+                        gravados.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        conflitos.incrementAndGet();
+                    } catch (Throwable e) {
+                        synchronized (inesperados) {
+                            inesperados.add(e);
+                        }
+                    }
+                }));
+            }
+            largada.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(List.of(), inesperados, "rodada " + rodada);
+            assertEquals(1, gravados.get(), "rodada " + rodada);
+            assertEquals(THREADS - 1, conflitos.get(), "rodada " + rodada);
+            assertEquals(1, BancoTeste.contar("SELECT COUNT(*) FROM agendamento WHERE data = DATE '" + dia + "'"),
+                    "rodada " + rodada);
+        }
+    }
+
+    @Test
+    void agendarParaProfissionalInexistenteFalha() {
+        Profissional inexistente = new Profissional("Fantasma", "Corte", "(11) 92222-0003", null);
+        inexistente.setId(-1);
+        Agendamento agendamento = new Agendamento(LocalDate.now().plusYears(2), LocalTime.of(9, 0), cliente, inexistente);
+        agendamento.addServico(servico);
+
+        assertThrows(IllegalArgumentException.class, () -> service.agendar(agendamento));
+        assertNull(agendamento.getId());
+    }
+
+    @Test
+    void buscaPorNomeComumDemaisFiltraNoBanco() {
+        List<Cliente> comuns = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            comuns.add(new Cliente("Sobrenome Comum " + i, String.format("(11) 97777-%04d", i), null));
+        }
+        new ClienteDAO().salvarTodos(comuns);
+
+        LocalDate dia = LocalDate.now().plusYears(2);
+        Agendamento doSete = new Agendamento(dia, LocalTime.of(9, 0), comuns.get(7), profissional);
+        doSete.addServico(servico);
+        service.agendar(doSete);
+        Agendamento doTrezentos = new Agendamento(dia, LocalTime.of(11, 0), comuns.get(300), profissional);
+        doTrezentos.addServico(servico);
+        service.agendar(doTrezentos);
+
+        // 600 clientes: mais que o limite de ids, a consulta filtra pelo nome no banco
+        FiltroAgendamento todos = new FiltroAgendamento();
+        todos.setNomeCliente("comum");
+        Pagina<Agendamento> pagina = service.buscar(todos, null, 10);
+        assertEquals(List.of(doSete.getId(), doTrezentos.getId()),
+                pagina.getItens().stream().map(Agendamento::getId).toList());
+
+        // Poucos clientes: ids pelo índice de busca
+        FiltroAgendamento poucos = new FiltroAgendamento();
+        poucos.setNomeCliente("comum 7");
+        assertEquals(List.of(doSete.getId()),
+                service.buscar(poucos, null, 10).getItens().stream().map(Agendamento::getId).toList());
+    }
+
+    @Test
+    void agendarTodosGravaOLoteOuNada() {
+        LocalDate dia = LocalDate.now().plusYears(3);
+        IndiceDisponibilidade indice = IndiceDisponibilidade.getInstancia();
+        assertTrue(indice.isLivre(profissional.getId(), dia, LocalTime.of(14, 0), 60, null));
+
+        List<Agendamento> lote = new ArrayList<>();
+        for (int hora = 8; hora < 16; hora += 2) {
+            Agendamento agendamento = new Agendamento(dia, LocalTime.of(hora, 0), cliente, profissional);
+            agendamento.addServico(servico);
+            lote.add(agendamento);
+        }
+        service.agendarTodos(lote);
+
+        assertTrue(lote.stream().allMatch(a -> a.getId() != null));
+        assertEquals(4, BancoTeste.contar("SELECT COUNT(*) FROM agendamento_servico s JOIN agendamento a "
+                + "ON a.id = s.agendamento_id WHERE a.data = DATE '" + dia + "'"));
+        // O dia já estava no índice: as novas linhas entram depois do commit
+        assertFalse(indice.isLivre(profissional.getId(), dia, LocalTime.of(14, 0), 60, null));
+
+        // Um conflito com o que já está gravado desfaz o lote inteiro
+        Agendamento livre = new Agendamento(dia, LocalTime.of(17, 0), cliente, profissional);
+        livre.addServico(servico);
+        Agendamento ocupado = new Agendamento(dia, LocalTime.of(8, 30), cliente, profissional);
+        ocupado.addServico(servico);
+        assertThrows(IllegalArgumentException.class, () -> service.agendarTodos(List.of(livre, ocupado)));
+        assertNull(livre.getId());
+
+        // Dois do mesmo lote no mesmo horário também
+        Agendamento primeiro = new Agendamento(dia, LocalTime.of(18, 0), cliente, profissional);
+        primeiro.addServico(servico);
+        Agendamento segundo = new Agendamento(dia, LocalTime.of(18, 30), cliente, profissional);
+        segundo.addServico(servico);
+        assertThrows(IllegalArgumentException.class, () -> service.agendarTodos(List.of(primeiro, segundo)));
+        assertEquals(4, BancoTeste.contar("SELECT COUNT(*) FROM agendamento WHERE data = DATE '" + dia + "'"));
+    }
+}
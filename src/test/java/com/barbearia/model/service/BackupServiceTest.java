@@ -0,0 +1,140 @@
+package com.barbearia.model.service;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.dao.ConexaoBD;
+import com.barbearia.model.dao.UnidadeDeTrabalho;
+import com.barbearia.model.entity.Cliente;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snapshot, incrementos e restauração até um momento. O banco é fechado no @BeforeAll
+ * (a restauração exige o sistema parado) e conferido depois por uma conexão avulsa.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BackupServiceTest {
+
+    private static final Path BACKUPS = Path.of(System.getProperty("barbearia.backup.dir", "backups"));
+    private static final Path BANCO = Path.of(ConexaoBD.DIRETORIO_BANCO);
+
+    private static LocalDateTime alvo;
+    private static List<String> clientesNoFim;
+
+    @BeforeAll
+    static void prepararCadeia() throws Exception {
+        BancoTeste.iniciar();
+        ClienteDAO clienteDAO = new ClienteDAO();
+        BackupService backup = new BackupService();
+
+        clienteDAO.salvar(new Cliente("Antes do snapshot", "(11) 94444-0001", null));
+        backup.criarSnapshot();
+
+        clienteDAO.salvar(new Cliente("Antes do alvo", "(11) 94444-0002", null));
+        backup.enviarAlteracoes();
+
+        // Transação que começa antes do alvo e termina depois: não pode entrar pela metade
+        UnidadeDeTrabalho.executarAcao(() -> {
+            clienteDAO.salvar(new Cliente("Transação dividida 1", "(11) 94444-0003", null));
+            esperar();
+            alvo = LocalDateTime.now();
+            esperar();
+            clienteDAO.salvar(new Cliente("Transação dividida 2", "(11) 94444-0004", null));
+        });
+        clienteDAO.salvar(new Cliente("Depois do alvo", "(11) 94444-0005", null));
+
+        assertEquals(1, BancoTeste.contar("SELECT COUNT(DISTINCT transacao) FROM log_alteracao WHERE lote IS NULL AND dados LIKE '%Transação dividida%'"));
+        assertEquals(2, BancoTeste.contar("SELECT COUNT(DISTINCT transacao) FROM log_alteracao WHERE lote IS NULL"));
+        backup.enviarAlteracoes();
+
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+            clientesNoFim = nomes(stmt);
+            stmt.execute("SHUTDOWN");
+        }
+        ConexaoBD.fecharConexao();
+    }
+
+    @Test
+    @Order(1)
+    void restauracaoQueFalhaNaoTocaNoBancoAtual() throws IOException, SQLException {
+        Path defeituoso = BACKUPS.resolve("incremento_99999999.json.gz");
+        Files.writeString(defeituoso, "não é gzip");
+        try {
+            assertThrows(IllegalStateException.class, () -> new BackupService().restaurar(null));
+        } finally {
+            Files.delete(defeituoso);
+        }
+
+        assertEquals(List.of(ConexaoBD.NOME_BANCO + ".mv.db"), arquivosDoBanco());
+        try (Connection conn = ConexaoBD.conectarPasta(BANCO);
+             Statement stmt = conn.createStatement()) {
+            assertEquals(clientesNoFim, nomes(stmt));
+        }
+    }
+
+    @Test
+    @Order(2)
+    void restaurarAteUmMomentoAplicaSoTransacoesInteiras() throws IOException, SQLException {
+        BackupService.Restauracao restauracao = new BackupService().restaurar(alvo);
+
+        assertEquals(1, restauracao.alteracoesReaplicadas());
+        try (Connection conn = ConexaoBD.conectarPasta(BANCO);
+             Statement stmt = conn.createStatement()) {
+            assertEquals(List.of("Antes do alvo", "Antes do snapshot"), nomes(stmt));
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM log_alteracao")) {
+                rs.next();
+                assertEquals(0, rs.getLong(1));
+            }
+        }
+
+        // O banco substituído fica ao lado e a pasta de montagem some
+        List<String> arquivos = arquivosDoBanco();
+        assertEquals(2, arquivos.size(), arquivos.toString());
+        assertTrue(arquivos.get(1).startsWith(ConexaoBD.NOME_BANCO + ".mv.db.antes_restauracao_"));
+    }
+
+    private static List<String> nomes(Statement stmt) throws SQLException {
+        List<String> nomes = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT nome FROM cliente ORDER BY nome")) {
+            while (rs.next()) {
+                nomes.add(rs.getString(1));
+            }
+        }
+        return nomes;
+    }
+
+    private static List<String> arquivosDoBanco() throws IOException {
+        try (Stream<Path> arquivos = Files.list(BANCO)) {
+            return arquivos.map(p -> p.getFileName().toString())
+                    .filter(nome -> !nome.endsWith(".trace.db"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void esperar() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
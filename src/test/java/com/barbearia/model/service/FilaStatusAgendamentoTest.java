@@ -0,0 +1,72 @@
+package com.barbearia.model.service;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.dao.AgendamentoDAO;
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.dao.ProfissionalDAO;
+import com.barbearia.model.dao.ServicoDAO;
+import com.barbearia.model.entity.Agendamento;
+import com.barbearia.model.entity.Cliente;
+import com.barbearia.model.entity.Profissional;
+import com.barbearia.model.entity.Servico;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilaStatusAgendamentoTest {
+
+    private static final AgendamentoDAO agendamentoDAO = new AgendamentoDAO();
+    private static Agendamento primeiro;
+    private static Agendamento segundo;
+
+    @BeforeAll
+    static void iniciarBanco() {
+        // Sem descarga automática durante o teste: cada descarga é chamada explicitamente
+        System.setProperty("barbearia.status.intervalo_ms", String.valueOf(60 * 60 * 1000));
+        BancoTeste.iniciar();
+
+        Cliente cliente = new Cliente("Cliente fila", "(11) 92222-0001", null);
+        new ClienteDAO().salvar(cliente);
+        Profissional profissional = new Profissional("Profissional fila", "Corte", "(11) 92222-0002", null);
+        new ProfissionalDAO().salvar(profissional);
+        Servico servico = new Servico("Corte fila", "Corte", 40.0, 30);
+        new ServicoDAO().salvar(servico);
+
+        primeiro = new Agendamento(LocalDate.now().plusDays(5), LocalTime.of(9, 0), cliente, profissional);
+        primeiro.addServico(servico);
+        agendamentoDAO.salvar(primeiro);
+        segundo = new Agendamento(LocalDate.now().plusDays(5), LocalTime.of(10, 0), cliente, profissional);
+        segundo.addServico(servico);
+        agendamentoDAO.salvar(segundo);
+    }
+
+    @Test
+    void quedaDepoisDoCommitNaoRepeteAObservacao() throws Exception {
+        FilaStatusAgendamento fila = FilaStatusAgendamento.getInstancia();
+
+        fila.enfileirar(primeiro.getId(), FilaStatusAgendamento.Transicao.finalizacao("Finalizado: primeiro"));
+        String diarioAntesDoCommit = Files.readString(FilaStatusAgendamento.DIARIO);
+        assertEquals(1, fila.descarregar());
+        assertFalse(Files.exists(FilaStatusAgendamento.DIARIO));
+
+        // Mudança aceita depois do lote, ainda só no diário
+        fila.enfileirar(segundo.getId(), FilaStatusAgendamento.Transicao.finalizacao("Finalizado: segundo"));
+
+        // Queda entre o commit e a limpeza do diário: o arquivo ainda tem a linha já gravada
+        Files.writeString(FilaStatusAgendamento.DIARIO,
+                diarioAntesDoCommit + Files.readString(FilaStatusAgendamento.DIARIO));
+
+        // A recuperação já agenda uma descarga; esta espera por ela ou faz o trabalho
+        new FilaStatusAgendamento().descarregar();
+
+        assertEquals("Finalizado: primeiro", agendamentoDAO.buscarPorId(primeiro.getId()).getObservacoes());
+        assertEquals("Finalizado: segundo", agendamentoDAO.buscarPorId(segundo.getId()).getObservacoes());
+        assertEquals(Agendamento.StatusAgendamento.REALIZADO, agendamentoDAO.buscarPorId(segundo.getId()).getStatus());
+        assertFalse(Files.exists(FilaStatusAgendamento.DIARIO));
+    }
+}
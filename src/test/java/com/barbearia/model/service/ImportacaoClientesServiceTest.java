@@ -0,0 +1,108 @@
+package com.barbearia.model.service;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.dao.ClienteDAO;
+import com.barbearia.model.entity.Cliente;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportacaoClientesServiceTest {
+
+    private final ImportacaoClientesService importacao = new ImportacaoClientesService();
+
+    @TempDir
+    Path pasta;
+
+    @BeforeAll
+    static void iniciarBanco() {
+        BancoTeste.iniciar();
+        new ClienteDAO().salvar(new Cliente("Já cadastrado", "(11) 95555-0001", null));
+    }
+
+    @Test
+    void csvRecusaRepetidosECadastradosEListaNoRelatorio() throws Exception {
+        Path arquivo = pasta.resolve("clientes.csv");
+        Files.writeString(arquivo, String.join("\n",
+                "Nome;Celular;E-mail",
+                "Ana;(11) 95555-0002;ana@exemplo.com",
+                "Bruno;11955550002;",
+                "Carla;(11) 95555-0001;",
+                "Davi;123;",
+                "\"Silva; Eva\";(11) 95555-0003;",
+                ""));
+
+        ImportacaoClientesService.Resultado resultado = importacao.importar(arquivo, lidos -> { }).get();
+
+        assertEquals(5, resultado.lidos());
+        assertEquals(2, resultado.importados());
+        assertEquals(2, resultado.duplicados());
+        assertEquals(1, resultado.invalidos());
+        assertEquals(1, BancoTeste.contar("SELECT COUNT(*) FROM cliente WHERE telefone_digitos = '11955550002'"));
+        assertEquals(1, BancoTeste.contar("SELECT COUNT(*) FROM cliente WHERE nome = 'Silva; Eva'"));
+
+        assertEquals(pasta.resolve("clientes_erros.csv"), resultado.relatorio());
+        List<String> linhas = lerRelatorio(resultado.relatorio());
+        assertEquals("posicao;motivo;nome;telefone;email;data_cadastro", linhas.get(0));
+        assertEquals(4, linhas.size(), linhas.toString());
+        assertTrue(linhas.get(1).startsWith("3;Telefone repetido no arquivo (posição 2);Bruno;"), linhas.get(1));
+        // Os já cadastrados são conferidos no banco depois do bloco inteiro: vêm por último
+        assertTrue(linhas.get(2).startsWith("5;") && linhas.get(2).contains(";Davi;123;"), linhas.get(2));
+        assertTrue(linhas.get(3).startsWith("4;Telefone já cadastrado;Carla;"), linhas.get(3));
+    }
+
+    @Test
+    void repetidoEmOutroBlocoTambemERecusado() throws Exception {
+        // Um bloco inteiro (5000) e mais um registro que repete o primeiro telefone
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            json.append("{\"nome\":\"Lote ").append(i).append("\",\"telefone\":").append(21960000000L + i).append("},");
+        }
+        json.append("{\"nome\":\"Repetido\",\"telefone\":\"(21) 96000-0000\"}, 42]");
+        Path arquivo = pasta.resolve("lote.json.gz");
+        try (OutputStream saida = new GZIPOutputStream(Files.newOutputStream(arquivo))) {
+            saida.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        ImportacaoClientesService.Resultado resultado = importacao.importar(arquivo, lidos -> { }).get();
+
+        assertEquals(5002, resultado.lidos());
+        assertEquals(5000, resultado.importados());
+        assertEquals(1, resultado.duplicados());
+        assertEquals(1, resultado.invalidos());
+        assertEquals(0, BancoTeste.contar("SELECT COUNT(*) FROM cliente WHERE nome = 'Repetido'"));
+
+        List<String> linhas = lerRelatorio(pasta.resolve("lote_erros.csv"));
+        assertEquals(3, linhas.size(), linhas.toString());
+        assertTrue(linhas.get(1).startsWith("5001;Telefone repetido no arquivo (posição 1);Repetido;"), linhas.get(1));
+        assertTrue(linhas.get(2).startsWith("5002;Registro não é um objeto JSON;"), linhas.get(2));
+    }
+
+    @Test
+    void semRecusadosNaoGeraRelatorio() throws Exception {
+        Path arquivo = pasta.resolve("limpo.csv");
+        Files.writeString(arquivo, "nome,telefone\nFábio,(31) 97777-0001\n");
+
+        ImportacaoClientesService.Resultado resultado = importacao.importar(arquivo, lidos -> { }).get();
+
+        assertEquals(1, resultado.importados());
+        assertNull(resultado.relatorio());
+        assertFalse(Files.exists(pasta.resolve("limpo_erros.csv")));
+    }
+
+    private static List<String> lerRelatorio(Path relatorio) throws IOException {
+        String conteudo = Files.readString(relatorio, StandardCharsets.UTF_8);
+        assertTrue(conteudo.startsWith("\uFEFF"));
+        return conteudo.substring(1).lines().toList();
+    }
+}
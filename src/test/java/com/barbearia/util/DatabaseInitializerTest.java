@@ -0,0 +1,97 @@
+package com.barbearia.util;
+
+import com.barbearia.BancoTeste;
+import com.barbearia.model.dao.ConexaoBD;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseInitializerTest {
+
+    @BeforeAll
+    static void iniciarBanco() throws SQLException {
+        BancoTeste.iniciar();
+
+        // Volume em que o custo estimado pelo H2 passa a decidir o índice
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO cliente (nome, telefone, telefone_digitos, telefone_final) "
+                    + "SELECT 'Cliente ' || X, '1199' || X, '1199' || X, RIGHT('0000000' || X, 8) FROM SYSTEM_RANGE(1, 2000)");
+            stmt.execute("INSERT INTO profissional (nome) SELECT 'Profissional ' || X FROM SYSTEM_RANGE(1, 8)");
+            stmt.execute("INSERT INTO agendamento (cliente_id, profissional_id, data, hora, status, data_hora_fim) "
+                    + "SELECT MOD(X, 2000) + 1, MOD(X, 8) + 1, DATEADD(DAY, X / 40, DATE '2024-01-01'), "
+                    + "DATEADD(HOUR, MOD(X / 8, 5), TIME '08:00:00'), "
+                    + "CASE MOD(X, 10) WHEN 0 THEN 'CANCELADO' WHEN 1 THEN 'AGENDADO' ELSE 'CONCLUIDO' END, "
+                    + "DATEADD(HOUR, MOD(X / 8, 5) + 1, CAST(DATEADD(DAY, X / 40, DATE '2024-01-01') AS TIMESTAMP)) "
+                    + "FROM SYSTEM_RANGE(1, 40000)");
+            stmt.execute("INSERT INTO pagamento (agendamento_id, valor, forma_pagamento, status, data_pagamento) "
+                    + "SELECT X, 40, CASE MOD(X, 3) WHEN 0 THEN 'PIX' WHEN 1 THEN 'DINHEIRO' ELSE 'CARTAO' END, "
+                    + "CASE MOD(X, 5) WHEN 0 THEN 'PENDENTE' ELSE 'PAGO' END, DATEADD(MINUTE, X * 15, TIMESTAMP '2024-01-01 08:00:00') "
+                    + "FROM SYSTEM_RANGE(1, 20000)");
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void consultasDosDaosUsamOsIndicesEsperados() throws SQLException {
+        try (Connection conn = ConexaoBD.getConexao()) {
+            List<String> divergencias = DatabaseInitializer.conferirPlanos(conn);
+            assertEquals(List.of(), divergencias);
+        }
+    }
+
+    @Test
+    void chavesEstrangeirasUsamOsIndicesNomeados() throws SQLException {
+        Map<String, String> esperado = Map.of(
+                "FK_AGENDAMENTO_CLIENTE", "IDX_AGENDAMENTO_CLIENTE",
+                "FK_AGENDAMENTO_PROFISSIONAL", "IDX_AGENDAMENTO_PROFISSIONAL",
+                "FK_AGENDAMENTO_SERVICO_AGENDAMENTO", "IDX_AGENDAMENTO_SERVICO_AGENDAMENTO",
+                "FK_AGENDAMENTO_SERVICO_SERVICO", "IDX_AGENDAMENTO_SERVICO_SERVICO");
+
+        assertEquals(esperado, chavesEstrangeiras());
+        assertEquals(0, BancoTeste.contar("SELECT COUNT(*) FROM information_schema.indexes "
+                + "WHERE table_name IN ('AGENDAMENTO', 'AGENDAMENTO_SERVICO') AND index_name LIKE 'CONSTRAINT_INDEX%'"));
+    }
+
+    @Test
+    void bancoAnteriorTrocaAsChavesSemNome() throws SQLException {
+        // Como um banco criado antes: chave sem nome com índice anônimo só da coluna
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE agendamento DROP CONSTRAINT fk_agendamento_profissional");
+            stmt.execute("DROP INDEX idx_agendamento_profissional");
+            stmt.execute("ALTER TABLE agendamento ADD FOREIGN KEY (profissional_id) REFERENCES profissional(id)");
+        }
+        assertFalse(chavesEstrangeiras().containsKey("FK_AGENDAMENTO_PROFISSIONAL"));
+
+        DatabaseInitializer.init();
+
+        assertEquals("IDX_AGENDAMENTO_PROFISSIONAL", chavesEstrangeiras().get("FK_AGENDAMENTO_PROFISSIONAL"));
+        assertEquals(1, BancoTeste.contar("SELECT COUNT(*) FROM information_schema.table_constraints "
+                + "WHERE table_name = 'AGENDAMENTO' AND constraint_type = 'FOREIGN KEY' "
+                + "AND constraint_name IN (SELECT constraint_name FROM information_schema.key_column_usage "
+                + "WHERE table_name = 'AGENDAMENTO' AND column_name = 'PROFISSIONAL_ID')"));
+    }
+
+    private static Map<String, String> chavesEstrangeiras() throws SQLException {
+        Map<String, String> chaves = new HashMap<>();
+        try (Connection conn = ConexaoBD.getConexao();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT constraint_name, index_name FROM information_schema.table_constraints "
+                     + "WHERE constraint_type = 'FOREIGN KEY' AND table_name IN ('AGENDAMENTO', 'AGENDAMENTO_SERVICO')")) {
+            while (rs.next()) {
+                chaves.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return chaves;
+    }
+}